@@ -0,0 +1,93 @@
+package com.example.demo;
+
+import com.example.demo.dto.pojo.UserEventPojoDto;
+import com.example.demo.dto.record.UserEventRecordDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 해시 컬렉션 처리량 벤치마크 (hashCode 캐시 / 해시 불일치 시 equals 조기 종료)
+ *
+ * 중복 제거/그룹핑 루프와 같은 조건: 메타데이터 8개, 서로 다른 이벤트 EVENTS 개로
+ * HashSet add + HashMap merge + HashSet contains 를 한 라운드로 잽니다. (이벤트당 3 ops)
+ *
+ * 🔍 비교 대상 (kind):
+ * - POJO:        가변 POJO, 매번 해시 계산
+ * - FROZEN_POJO: freeze() 한 POJO, 해시 캐시
+ * - RECORD:      Record, 메타데이터 해시 캐시
+ *
+ * 실행: ./gradlew jmhJar && java -jar build/libs/jmh-benchmark-0.0.1-SNAPSHOT.jar HashCollectionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HashCollectionBenchmark {
+
+    private static final int EVENTS = 10_000;
+
+    @Param({"POJO", "FROZEN_POJO", "RECORD"})
+    public String kind;
+
+    private Object[] events;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime timestamp = LocalDateTime.of(2024, 1, 1, 12, 0, 0);
+        events = new Object[EVENTS];
+        for (int i = 0; i < EVENTS; i++) {
+            events[i] = switch (kind) {
+                case "POJO" -> new UserEventPojoDto("user" + i, "EVENT", timestamp, metadata(i));
+                case "FROZEN_POJO" -> new UserEventPojoDto("user" + i, "EVENT", timestamp, metadata(i)).freeze();
+                case "RECORD" -> new UserEventRecordDto("user" + i, "EVENT", timestamp, metadata(i));
+                default -> throw new IllegalArgumentException("Unknown kind: " + kind);
+            };
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS * 3)
+    public long addMergeContains() {
+        Set<Object> seen = new HashSet<>(events.length * 2);
+        Map<Object, Integer> counts = new HashMap<>(events.length * 2);
+        long hits = 0;
+        for (Object event : events) {
+            seen.add(event);
+            counts.merge(event, 1, Integer::sum);
+        }
+        for (Object event : events) {
+            if (seen.contains(event)) {
+                hits++;
+            }
+        }
+        return hits + counts.size();
+    }
+
+    private static Map<String, Object> metadata(int i) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (int k = 0; k < 8; k++) {
+            values.put("key" + k, "value-" + i + "-" + k);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,294 @@
+package com.example.demo.aggregation;
+
+import com.example.demo.dto.EventTimestamps;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * eventType 기준 윈도우 집계 (대시보드용 분/시간 단위 건수)
+ *
+ * 컨슈머가 처리한 이벤트를 WindowResolution 별 RingBufferWindowCounter 에 누적합니다.
+ * 키는 eventType 과, 설정된 메타데이터 키(demo.aggregation.metadata-keys)별 "eventType{key=value}" 입니다.
+ *
+ * ✅ 워터마크 (이벤트 timestamp 기준, 토픽-파티션별):
+ * - 파티션마다 지금까지 본 최대 이벤트 시각을 따로 기록
+ * - watermark = 활성 파티션들의 최대 이벤트 시각 중 최솟값 - allowedLateness
+ *   → 밀려 있는 파티션(lag, 재처리 중)의 이벤트가 앞서가는 파티션 때문에 늦은 이벤트로 버려지지 않음
+ * - idle-partition-ms 동안 이벤트가 없는 파티션은 최솟값 계산에서 빠짐 (멈춘 파티션이 워터마크를 붙잡지 않음)
+ * - watermark 보다 오래된 이벤트는 집계하지 않고 demo.aggregation.late.events 로만 집계
+ * - 윈도우 끝이 watermark 이전이면 closed=true (더 이상 값이 바뀌지 않는 확정 윈도우)
+ * - 리밸런스로 내놓은 파티션은 release 로 제외 (RebalanceCoordinator)
+ *
+ * 타임스탬프는 SessionStateStore 와 같이 UTC 기준 epoch millis 로 다룹니다.
+ * 컨슈머는 DTO 의 epoch 마이크로초를 그대로 넘기므로 LocalDateTime 변환이 없습니다.
+ */
+@Component
+public class EventAggregationService {
+
+    private static final int MAX_KEYS_PER_WINDOW = 1_000;
+    // 파티션 정보 없이 record 한 이벤트의 키
+    private static final String UNPARTITIONED = "-";
+
+    private final List<String> metadataKeys;
+    private final long allowedLatenessMillis;
+    private final long idlePartitionNanos;
+    private final Map<WindowResolution, RingBufferWindowCounter> counters = new EnumMap<>(WindowResolution.class);
+    // 토픽 → 파티션 번호별 시계 (배열은 synchronized 안에서만 복사해 교체) - 이벤트마다 키 문자열을 만들지 않음
+    private final Map<String, PartitionClock[]> partitionClocks = new ConcurrentHashMap<>();
+    // 워터마크 계산이 순회하는 모든 시계 - 시계 추가/release 때만 교체
+    private volatile PartitionClock[] allClocks = new PartitionClock[0];
+    private final AtomicLong maxEventTime = new AtomicLong(Long.MIN_VALUE);
+    private final Counter lateEvents;
+
+    public EventAggregationService(MeterRegistry meterRegistry,
+                                   @Value("${demo.aggregation.metadata-keys:}") List<String> metadataKeys,
+                                   @Value("${demo.aggregation.allowed-lateness-ms:60000}") long allowedLatenessMillis,
+                                   @Value("${demo.aggregation.idle-partition-ms:60000}") long idlePartitionMillis) {
+        this.metadataKeys = List.copyOf(metadataKeys);
+        this.allowedLatenessMillis = allowedLatenessMillis;
+        this.idlePartitionNanos = TimeUnit.MILLISECONDS.toNanos(idlePartitionMillis);
+        for (WindowResolution resolution : WindowResolution.values()) {
+            counters.put(resolution, new RingBufferWindowCounter(
+                    resolution.windowMillis(), resolution.retainedWindows(), MAX_KEYS_PER_WINDOW));
+        }
+        this.lateEvents = Counter.builder("demo.aggregation.late.events").register(meterRegistry);
+        Gauge.builder("demo.aggregation.watermark.lag.ms", this, EventAggregationService::watermarkLagMillis)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 이벤트 1건 집계
+     *
+     * @return 워터마크보다 늦게 도착해 버려졌으면 false
+     */
+    public boolean record(String eventType, Map<String, Object> metadata, LocalDateTime timestamp) {
+        return record(eventType, metadata, EventTimestamps.fromLocalDateTime(timestamp));
+    }
+
+    /**
+     * 이벤트 1건 집계 (파티션 구분 없음 - 모든 이벤트를 파티션 하나로 취급)
+     */
+    public boolean record(String eventType, Map<String, Object> metadata, long timestampMicros) {
+        return record(UNPARTITIONED, 0, eventType, metadata, timestampMicros);
+    }
+
+    /**
+     * 토픽-파티션에서 소비한 이벤트 1건 집계 (timestamp: epoch 마이크로초, 없으면 EventTimestamps.NONE → 현재 시각)
+     *
+     * @return 워터마크보다 늦게 도착해 버려졌으면 false
+     */
+    public boolean record(String topic, int partition, String eventType, Map<String, Object> metadata,
+                          long timestampMicros) {
+        long eventTime = timestampMicros != EventTimestamps.NONE
+                ? EventTimestamps.toMillis(timestampMicros) : nowMillis();
+        clock(topic, partition).advance(eventTime);
+        maxEventTime.accumulateAndGet(eventTime, Math::max);
+        long watermarkBase = watermarkBase();
+        if (eventTime < watermarkBase - allowedLatenessMillis) {
+            lateEvents.increment();
+            return false;
+        }
+
+        List<String> keys = keysOf(eventType, metadata);
+        boolean recorded = true;
+        for (RingBufferWindowCounter counter : counters.values()) {
+            recorded &= counter.add(eventTime, keys);
+        }
+        return recorded;
+    }
+
+    /**
+     * 최근 텀블링 윈도우 목록 (최신순)
+     */
+    public List<WindowSnapshot> tumbling(WindowResolution resolution, int limit) {
+        RingBufferWindowCounter counter = counters.get(resolution);
+        long current = Math.floorDiv(referenceTime(), counter.windowMillis());
+        int windows = Math.min(limit, counter.retainedWindows());
+
+        List<WindowSnapshot> snapshots = new ArrayList<>(windows);
+        for (long window = current; window > current - windows; window--) {
+            snapshots.add(snapshot(counter, window, window, counter.counts(window), counter.total(window)));
+        }
+        return snapshots;
+    }
+
+    /**
+     * 최근 size 개 윈도우를 합친 슬라이딩 윈도우 (예: MINUTE, 15 → 최근 15분)
+     */
+    public WindowSnapshot sliding(WindowResolution resolution, int size) {
+        RingBufferWindowCounter counter = counters.get(resolution);
+        long current = Math.floorDiv(referenceTime(), counter.windowMillis());
+        long first = current - Math.min(size, counter.retainedWindows()) + 1;
+
+        Map<String, Long> counts = new TreeMap<>();
+        long total = 0;
+        for (long window = first; window <= current; window++) {
+            counter.counts(window).forEach((key, count) -> counts.merge(key, count, Long::sum));
+            total += counter.total(window);
+        }
+        return snapshot(counter, first, current, counts, total);
+    }
+
+    /**
+     * 리밸런스로 내놓은 토픽-파티션을 워터마크 계산에서 제외
+     */
+    public synchronized void release(String topic, int partition) {
+        PartitionClock[] clocks = partitionClocks.get(topic);
+        if (clocks != null && partition < clocks.length && clocks[partition] != null) {
+            PartitionClock[] remaining = clocks.clone();
+            remaining[partition] = null;
+            partitionClocks.put(topic, remaining);
+            refreshAllClocks();
+        }
+    }
+
+    /**
+     * 현재 워터마크 (이벤트를 받은 적이 없으면 null)
+     */
+    public LocalDateTime watermark() {
+        long base = watermarkBase();
+        return base == Long.MIN_VALUE ? null : toDateTime(base - allowedLatenessMillis);
+    }
+
+    public long lateEvents() {
+        return (long) lateEvents.count();
+    }
+
+    private WindowSnapshot snapshot(RingBufferWindowCounter counter, long firstWindow, long lastWindow,
+                                    Map<String, Long> counts, long total) {
+        long start = firstWindow * counter.windowMillis();
+        long end = (lastWindow + 1) * counter.windowMillis();
+        long base = watermarkBase();
+        boolean closed = base != Long.MIN_VALUE && end <= base - allowedLatenessMillis;
+        return new WindowSnapshot(toDateTime(start), toDateTime(end), closed, total, counts);
+    }
+
+    private List<String> keysOf(String eventType, Map<String, Object> metadata) {
+        String type = eventType != null ? eventType : "UNKNOWN";
+        if (metadataKeys.isEmpty() || metadata == null || metadata.isEmpty()) {
+            return List.of(type);
+        }
+        List<String> keys = new ArrayList<>(metadataKeys.size() + 1);
+        keys.add(type);
+        for (String metadataKey : metadataKeys) {
+            Object value = metadata.get(metadataKey);
+            if (value != null) {
+                keys.add(type + "{" + metadataKey + "=" + value + "}");
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * 조회 기준 시각 - 이벤트 시간 기준 최신 시각 (이벤트가 없으면 현재 시각)
+     */
+    private long referenceTime() {
+        long max = maxEventTime.get();
+        return max != Long.MIN_VALUE ? max : nowMillis();
+    }
+
+    /**
+     * 워터마크 기준 시각 - 활성 파티션의 최대 이벤트 시각 중 최솟값 (이벤트가 없으면 Long.MIN_VALUE)
+     *
+     * 모든 파티션이 idle 이면 가장 앞선 파티션 기준 (더 받을 이벤트가 없으므로 윈도우를 확정)
+     */
+    private long watermarkBase() {
+        long now = System.nanoTime();
+        long activeMin = Long.MAX_VALUE;
+        long idleMax = Long.MIN_VALUE;
+        for (PartitionClock clock : allClocks) {
+            long max = clock.maxEventTime.get();
+            if (now - clock.lastEventNanos > idlePartitionNanos) {
+                idleMax = Math.max(idleMax, max);
+            } else {
+                activeMin = Math.min(activeMin, max);
+            }
+        }
+        return activeMin != Long.MAX_VALUE ? activeMin : idleMax;
+    }
+
+    /**
+     * 토픽-파티션 시계 (이미 있으면 배열 인덱싱만 - 할당 없음)
+     */
+    private PartitionClock clock(String topic, int partition) {
+        PartitionClock[] clocks = partitionClocks.get(topic);
+        if (clocks != null && partition < clocks.length) {
+            PartitionClock clock = clocks[partition];
+            if (clock != null) {
+                return clock;
+            }
+        }
+        return createClock(topic, partition);
+    }
+
+    private synchronized PartitionClock createClock(String topic, int partition) {
+        PartitionClock[] clocks = partitionClocks.get(topic);
+        if (clocks != null && partition < clocks.length && clocks[partition] != null) {
+            return clocks[partition];
+        }
+        PartitionClock[] grown = clocks == null
+                ? new PartitionClock[partition + 1]
+                : Arrays.copyOf(clocks, Math.max(clocks.length, partition + 1));
+        PartitionClock clock = new PartitionClock();
+        grown[partition] = clock;
+        partitionClocks.put(topic, grown);
+        refreshAllClocks();
+        return clock;
+    }
+
+    private void refreshAllClocks() {
+        List<PartitionClock> all = new ArrayList<>();
+        for (PartitionClock[] clocks : partitionClocks.values()) {
+            for (PartitionClock clock : clocks) {
+                if (clock != null) {
+                    all.add(clock);
+                }
+            }
+        }
+        allClocks = all.toArray(new PartitionClock[0]);
+    }
+
+    private double watermarkLagMillis() {
+        long base = watermarkBase();
+        return base == Long.MIN_VALUE ? 0 : nowMillis() - (base - allowedLatenessMillis);
+    }
+
+    /**
+     * 현재 시각 - 이벤트 timestamp 와 같은 UTC 기준 (EventTimestamps.now)
+     */
+    private static long nowMillis() {
+        return EventTimestamps.toMillis(EventTimestamps.now());
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return EventTimestamps.toLocalDateTime(EventTimestamps.fromMillis(epochMillis));
+    }
+
+    /**
+     * 토픽-파티션 하나의 이벤트 시각 진행 (쓰기는 그 파티션의 컨슈머 스레드, 읽기는 모든 스레드)
+     */
+    private static final class PartitionClock {
+
+        private final AtomicLong maxEventTime = new AtomicLong(Long.MIN_VALUE);
+        private volatile long lastEventNanos = System.nanoTime();
+
+        void advance(long eventTime) {
+            maxEventTime.accumulateAndGet(eventTime, Math::max);
+            lastEventNanos = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.demo.aggregation;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 링 버퍼 기반 텀블링 윈도우 카운터
+ *
+ * 윈도우 번호(epochMillis / windowMillis) % 슬롯 수 위치의 버킷에 키별 LongAdder 로 누적합니다.
+ * - 증가: ConcurrentHashMap 조회 + LongAdder.increment → 리스너 스레드 간 락 경합 없음
+ * - 새 윈도우 시작: 슬롯의 오래된 버킷을 CAS 로 새 버킷으로 교체 (보관 기간이 지난 윈도우만 교체됨)
+ * - 슬라이딩 윈도우: 최근 N개 버킷 합산
+ *
+ * ⚠️ 버킷당 키 개수는 maxKeysPerWindow 로 제한하고, 넘치면 OVERFLOW_KEY 로 합산합니다.
+ * (eventType 이 외부 입력이라 카디널리티가 무제한으로 늘어나는 것을 방지)
+ */
+public class RingBufferWindowCounter {
+
+    public static final String OVERFLOW_KEY = "_overflow";
+
+    private final long windowMillis;
+    private final int maxKeysPerWindow;
+    private final AtomicReferenceArray<Bucket> buckets;
+
+    public RingBufferWindowCounter(long windowMillis, int retainedWindows, int maxKeysPerWindow) {
+        this.windowMillis = windowMillis;
+        this.maxKeysPerWindow = maxKeysPerWindow;
+        this.buckets = new AtomicReferenceArray<>(retainedWindows);
+    }
+
+    /**
+     * 이벤트 시각이 속한 윈도우에 키별 1건씩 누적
+     *
+     * @return 윈도우가 이미 링 버퍼에서 밀려나 반영하지 못했으면 false
+     */
+    public boolean add(long epochMillis, Iterable<String> keys) {
+        Bucket bucket = bucketFor(Math.floorDiv(epochMillis, windowMillis));
+        if (bucket == null) {
+            return false;
+        }
+        bucket.total.increment();
+        for (String key : keys) {
+            bucket.counter(key, maxKeysPerWindow).increment();
+        }
+        return true;
+    }
+
+    /**
+     * 윈도우 번호의 키별 건수 (보관 중이 아니면 빈 결과)
+     */
+    public Map<String, Long> counts(long window) {
+        Map<String, Long> result = new TreeMap<>();
+        Bucket bucket = buckets.get(slot(window));
+        if (bucket != null && bucket.window == window) {
+            bucket.counts.forEach((key, count) -> result.put(key, count.sum()));
+        }
+        return result;
+    }
+
+    public long total(long window) {
+        Bucket bucket = buckets.get(slot(window));
+        return bucket != null && bucket.window == window ? bucket.total.sum() : 0;
+    }
+
+    public long windowMillis() {
+        return windowMillis;
+    }
+
+    public int retainedWindows() {
+        return buckets.length();
+    }
+
+    private Bucket bucketFor(long window) {
+        int slot = slot(window);
+        while (true) {
+            Bucket current = buckets.get(slot);
+            if (current != null && current.window == window) {
+                return current;
+            }
+            if (current != null && current.window > window) {
+                // 같은 슬롯을 이미 더 최근 윈도우가 사용 중 → 보관 기간을 지난 이벤트
+                return null;
+            }
+            Bucket fresh = new Bucket(window);
+            if (buckets.compareAndSet(slot, current, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    private int slot(long window) {
+        return (int) Math.floorMod(window, (long) buckets.length());
+    }
+
+    private static final class Bucket {
+
+        private final long window;
+        private final LongAdder total = new LongAdder();
+        private final Map<String, LongAdder> counts = new ConcurrentHashMap<>();
+
+        private Bucket(long window) {
+            this.window = window;
+        }
+
+        private LongAdder counter(String key, int maxKeys) {
+            LongAdder counter = counts.get(key);
+            if (counter != null) {
+                return counter;
+            }
+            String target = counts.size() < maxKeys ? key : OVERFLOW_KEY;
+            return counts.computeIfAbsent(target, k -> new LongAdder());
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.demo.aggregation;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * 집계 윈도우 크기와 보관 개수
+ */
+public enum WindowResolution {
+
+    // 1분 윈도우 3시간치
+    MINUTE(Duration.ofMinutes(1), 180),
+    // 1시간 윈도우 2일치
+    HOUR(Duration.ofHours(1), 48);
+
+    private final long windowMillis;
+    private final int retainedWindows;
+
+    WindowResolution(Duration window, int retainedWindows) {
+        this.windowMillis = window.toMillis();
+        this.retainedWindows = retainedWindows;
+    }
+
+    public long windowMillis() {
+        return windowMillis;
+    }
+
+    public int retainedWindows() {
+        return retainedWindows;
+    }
+
+    /**
+     * REST 경로 값(minute, hour) 변환
+     */
+    public static WindowResolution from(String value) {
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown window resolution: " + value + " (minute, hour)");
+        }
+    }
+}
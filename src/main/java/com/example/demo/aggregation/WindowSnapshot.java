@@ -0,0 +1,18 @@
+package com.example.demo.aggregation;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * 윈도우 집계 조회 결과
+ *
+ * @param closed 워터마크가 윈도우 끝을 지나 더 이상 값이 바뀌지 않으면 true
+ * @param counts 키별 건수 - "LOGIN", "LOGIN{source=web}" 형식 (eventType, eventType + 선택된 메타데이터)
+ */
+public record WindowSnapshot(
+        LocalDateTime start,
+        LocalDateTime end,
+        boolean closed,
+        long total,
+        Map<String, Long> counts
+) {}
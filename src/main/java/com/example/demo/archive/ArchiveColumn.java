@@ -0,0 +1,16 @@
+package com.example.demo.archive;
+
+/**
+ * 아카이브 파일의 컬럼 (파일 안 저장 순서)
+ */
+public enum ArchiveColumn {
+
+    // 사전(dictionary) 인코딩 문자열
+    USER_ID,
+    // 사전 인코딩 문자열 (카디널리티가 매우 낮음)
+    EVENT_TYPE,
+    // epoch 마이크로초, 이전 행과의 차이를 zigzag varint 로 저장
+    TIMESTAMP,
+    // 행마다 metadata Map 을 JSON 으로 저장 (null 허용)
+    METADATA
+}
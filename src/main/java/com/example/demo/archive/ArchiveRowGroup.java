@@ -0,0 +1,41 @@
+package com.example.demo.archive;
+
+import com.example.demo.dto.record.UserEventRecordDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 디코딩된 row group - 컬럼별 배열
+ *
+ * 스캔 시 요청하지 않은 컬럼은 압축 해제하지 않으므로 null 입니다.
+ *
+ * @param minTimestamp row group 안 최소 epoch 마이크로초
+ * @param maxTimestamp row group 안 최대 epoch 마이크로초
+ * @param timestamps   행별 epoch 마이크로초
+ */
+public record ArchiveRowGroup(
+        int rows,
+        long minTimestamp,
+        long maxTimestamp,
+        String[] userIds,
+        String[] eventTypes,
+        long[] timestamps,
+        List<Map<String, Object>> metadata
+) {
+
+    /**
+     * 행 단위 DTO 로 변환 (모든 컬럼을 읽은 경우에만 사용 가능)
+     */
+    public List<UserEventRecordDto> toEvents() {
+        if (userIds == null || eventTypes == null || timestamps == null || metadata == null) {
+            throw new IllegalStateException("All columns must be scanned to rebuild events");
+        }
+        List<UserEventRecordDto> events = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            events.add(new UserEventRecordDto(userIds[i], eventTypes[i], timestamps[i], metadata.get(i)));
+        }
+        return events;
+    }
+}
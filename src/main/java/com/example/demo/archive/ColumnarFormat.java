@@ -0,0 +1,56 @@
+package com.example.demo.archive;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * 컬럼형 아카이브 파일 포맷 상수와 varint 인코딩
+ *
+ * 파일:      [FILE_MAGIC:int][VERSION:int] [row group]*
+ * row group: [ROW_GROUP_MAGIC:int][rows:int][minTimestamp:long][maxTimestamp:long]
+ *            ([rawLength:int][compressedLength:int]) × 컬럼 수
+ *            [컬럼별 압축 데이터]
+ *
+ * 🕒 timestamp 단위: VERSION 2 부터 epoch 마이크로초 (MILLIS_VERSION 1 파일은 epoch millis, 읽을 때 변환)
+ */
+final class ColumnarFormat {
+
+    static final int FILE_MAGIC = 0x45564346;      // "EVCF"
+    static final int VERSION = 2;
+    static final int MILLIS_VERSION = 1;
+    static final int FILE_HEADER_BYTES = 8;
+    static final int ROW_GROUP_MAGIC = 0x45564347; // "EVCG"
+    static final int ROW_GROUP_HEADER_BYTES = 24 + 8 * ArchiveColumn.values().length;
+
+    private ColumnarFormat() {
+    }
+
+    static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    static long readVarint(ByteBuffer in) {
+        long value = 0;
+        int shift = 0;
+        while (true) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+            shift += 7;
+        }
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
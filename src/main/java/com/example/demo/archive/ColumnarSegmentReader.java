@@ -0,0 +1,215 @@
+package com.example.demo.archive;
+
+import com.example.demo.dto.EventTimestamps;
+import com.example.demo.dto.record.UserEventRecordDto;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * 컬럼형 아카이브 파일 스캐너
+ *
+ * 파일을 메모리 매핑한 뒤 row group 헤더만 따라가며 필요한 부분만 읽습니다.
+ * - 시간 범위: row group 의 min/max timestamp 가 범위 밖이면 본문을 읽지 않고 건너뜀
+ * - 컬럼 선택: 요청한 컬럼만 압축 해제 (예: eventType 별 집계는 metadata JSON 을 전혀 파싱하지 않음)
+ *
+ * 쓰다 만 마지막 row group(프로세스 종료 등)은 무시하고 그 앞까지만 반환합니다.
+ */
+public class ColumnarSegmentReader {
+
+    private static final TypeReference<Map<String, Object>> METADATA_TYPE = new TypeReference<>() {
+    };
+
+    private final ObjectReader metadataReader;
+
+    public ColumnarSegmentReader(ObjectMapper objectMapper) {
+        this.metadataReader = objectMapper.readerFor(METADATA_TYPE);
+    }
+
+    /**
+     * 파일 전체를 행 단위 DTO 로 읽기
+     */
+    public List<UserEventRecordDto> readAll(Path file) {
+        List<UserEventRecordDto> events = new ArrayList<>();
+        scan(file, EnumSet.allOf(ArchiveColumn.class), Long.MIN_VALUE, Long.MAX_VALUE,
+                rowGroup -> events.addAll(rowGroup.toEvents()));
+        return events;
+    }
+
+    /**
+     * 시간 범위와 겹치는 row group 을 요청한 컬럼만 디코딩해 전달
+     *
+     * @param fromMillis 포함 (epoch millis)
+     * @param toMillis   포함 (epoch millis)
+     * @return 시간 범위로 건너뛴 row group 수
+     */
+    public int scan(Path file, Set<ArchiveColumn> columns, long fromMillis, long toMillis,
+                    Consumer<ArchiveRowGroup> consumer) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < ColumnarFormat.FILE_HEADER_BYTES
+                    || buffer.getInt() != ColumnarFormat.FILE_MAGIC) {
+                throw new IllegalArgumentException("Not an event archive file: " + file);
+            }
+            int version = buffer.getInt();
+            if (version != ColumnarFormat.VERSION && version != ColumnarFormat.MILLIS_VERSION) {
+                throw new IllegalArgumentException("Unsupported archive version " + version + ": " + file);
+            }
+            boolean millis = version == ColumnarFormat.MILLIS_VERSION;
+
+            Inflater inflater = new Inflater();
+            try {
+                return scanRowGroups(buffer, millis, columns, fromMillis, toMillis, consumer, inflater);
+            } finally {
+                inflater.end();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to scan archive " + file, e);
+        }
+    }
+
+    private int scanRowGroups(ByteBuffer buffer, boolean millis, Set<ArchiveColumn> columns,
+                              long fromMillis, long toMillis, Consumer<ArchiveRowGroup> consumer,
+                              Inflater inflater) {
+        ArchiveColumn[] allColumns = ArchiveColumn.values();
+        int[] rawLengths = new int[allColumns.length];
+        int[] compressedLengths = new int[allColumns.length];
+        int skipped = 0;
+
+        while (buffer.remaining() >= ColumnarFormat.ROW_GROUP_HEADER_BYTES) {
+            int start = buffer.position();
+            if (buffer.getInt() != ColumnarFormat.ROW_GROUP_MAGIC) {
+                break;
+            }
+            int rows = buffer.getInt();
+            long minTimestamp = toMicros(buffer.getLong(), millis);
+            long maxTimestamp = toMicros(buffer.getLong(), millis);
+            long bodyBytes = 0;
+            for (int i = 0; i < allColumns.length; i++) {
+                rawLengths[i] = buffer.getInt();
+                compressedLengths[i] = buffer.getInt();
+                bodyBytes += compressedLengths[i];
+            }
+            if (bodyBytes > buffer.remaining()) {
+                // 쓰다 만 row group
+                buffer.position(start);
+                break;
+            }
+
+            int bodyStart = buffer.position();
+            buffer.position((int) (bodyStart + bodyBytes));
+            if (EventTimestamps.toMillis(maxTimestamp) < fromMillis
+                    || EventTimestamps.toMillis(minTimestamp) > toMillis) {
+                skipped++;
+                continue;
+            }
+
+            String[] userIds = null;
+            String[] eventTypes = null;
+            long[] timestamps = null;
+            List<Map<String, Object>> metadata = null;
+            int columnStart = bodyStart;
+            for (int i = 0; i < allColumns.length; i++) {
+                ArchiveColumn column = allColumns[i];
+                if (columns.contains(column)) {
+                    ByteBuffer raw = inflate(buffer, columnStart, compressedLengths[i], rawLengths[i], inflater);
+                    switch (column) {
+                        case USER_ID -> userIds = decodeDictionary(raw, rows);
+                        case EVENT_TYPE -> eventTypes = decodeDictionary(raw, rows);
+                        case TIMESTAMP -> timestamps = decodeTimestamps(raw, rows, millis);
+                        case METADATA -> metadata = decodeMetadata(raw, rows);
+                    }
+                }
+                columnStart += compressedLengths[i];
+            }
+            consumer.accept(new ArchiveRowGroup(rows, minTimestamp, maxTimestamp,
+                    userIds, eventTypes, timestamps, metadata));
+        }
+        return skipped;
+    }
+
+    private static ByteBuffer inflate(ByteBuffer buffer, int offset, int compressedLength, int rawLength,
+                                      Inflater inflater) {
+        inflater.reset();
+        inflater.setInput(buffer.slice(offset, compressedLength));
+        byte[] raw = new byte[rawLength];
+        try {
+            int inflated = 0;
+            while (inflated < rawLength && !inflater.finished()) {
+                inflated += inflater.inflate(raw, inflated, rawLength - inflated);
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt archive column", e);
+        }
+        return ByteBuffer.wrap(raw);
+    }
+
+    private static String[] decodeDictionary(ByteBuffer raw, int rows) {
+        String[] dictionary = new String[(int) ColumnarFormat.readVarint(raw)];
+        for (int i = 0; i < dictionary.length; i++) {
+            int length = (int) ColumnarFormat.readVarint(raw);
+            dictionary[i] = new String(raw.array(), raw.position(), length, StandardCharsets.UTF_8);
+            raw.position(raw.position() + length);
+        }
+        String[] values = new String[rows];
+        for (int i = 0; i < rows; i++) {
+            values[i] = dictionary[(int) ColumnarFormat.readVarint(raw)];
+        }
+        return values;
+    }
+
+    private static long[] decodeTimestamps(ByteBuffer raw, int rows, boolean millis) {
+        long[] values = new long[rows];
+        long previous = 0;
+        for (int i = 0; i < rows; i++) {
+            previous += ColumnarFormat.unzigzag(ColumnarFormat.readVarint(raw));
+            values[i] = toMicros(previous, millis);
+        }
+        return values;
+    }
+
+    /**
+     * VERSION 1 파일의 epoch millis 를 마이크로초로 (빈 row group 의 MIN/MAX 경계값은 그대로)
+     */
+    private static long toMicros(long timestamp, boolean millis) {
+        if (!millis || timestamp == Long.MIN_VALUE || timestamp == Long.MAX_VALUE) {
+            return timestamp;
+        }
+        return EventTimestamps.fromMillis(timestamp);
+    }
+
+    private List<Map<String, Object>> decodeMetadata(ByteBuffer raw, int rows) {
+        List<Map<String, Object>> values = new ArrayList<>(rows);
+        try {
+            for (int i = 0; i < rows; i++) {
+                int length = (int) ColumnarFormat.readVarint(raw) - 1;
+                if (length < 0) {
+                    values.add(null);
+                    continue;
+                }
+                values.add(metadataReader.readValue(raw.array(), raw.position(), length));
+                raw.position(raw.position() + length);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt archive metadata column", e);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.demo.archive;
+
+import com.example.demo.dto.record.UserEventRecordDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * 컬럼형 아카이브 파일 1개(세그먼트) 기록기
+ *
+ * writeRowGroup 한 번에 이벤트 목록을 컬럼별로 나눠 인코딩·압축한 row group 하나를 파일 끝에 추가합니다.
+ * - userId / eventType: 사전 인코딩 → 반복되는 문자열을 한 번만 저장
+ * - timestamp: epoch 마이크로초 그대로, 정렬된 이벤트는 차이가 작으므로 delta + varint 로 2~4 bytes
+ * - 각 컬럼은 따로 Deflate 압축 → 같은 종류의 값끼리 모여 있어 행 단위 JSON 보다 압축이 잘 됨
+ *
+ * ⚠️ 스레드 안전하지 않음 - EventArchiveWriter 가 동기화합니다.
+ */
+public class ColumnarSegmentWriter implements Closeable {
+
+    private final Path path;
+    private final FileChannel channel;
+    private final ObjectWriter metadataWriter;
+    private final Deflater deflater;
+    private long sizeBytes;
+    private long rows;
+
+    public ColumnarSegmentWriter(Path path, ObjectWriter metadataWriter, int compressionLevel) {
+        this.path = path;
+        this.metadataWriter = metadataWriter;
+        this.deflater = new Deflater(compressionLevel);
+        try {
+            Files.createDirectories(path.getParent());
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            ByteBuffer header = ByteBuffer.allocate(ColumnarFormat.FILE_HEADER_BYTES)
+                    .putInt(ColumnarFormat.FILE_MAGIC)
+                    .putInt(ColumnarFormat.VERSION)
+                    .flip();
+            writeFully(header);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create archive segment " + path, e);
+        }
+    }
+
+    /**
+     * row group 1개 추가
+     */
+    public void writeRowGroup(List<UserEventRecordDto> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        ByteArrayOutputStream userIds = new ByteArrayOutputStream(events.size() * 2);
+        ByteArrayOutputStream eventTypes = new ByteArrayOutputStream(events.size());
+        ByteArrayOutputStream timestamps = new ByteArrayOutputStream(events.size() * 2);
+        ByteArrayOutputStream metadata = new ByteArrayOutputStream(events.size() * 32);
+        Dictionary userIdDictionary = new Dictionary();
+        Dictionary eventTypeDictionary = new Dictionary();
+
+        long minTimestamp = Long.MAX_VALUE;
+        long maxTimestamp = Long.MIN_VALUE;
+        long previous = 0;
+        for (UserEventRecordDto event : events) {
+            ColumnarFormat.writeVarint(userIds, userIdDictionary.indexOf(event.userId()));
+            ColumnarFormat.writeVarint(eventTypes, eventTypeDictionary.indexOf(event.eventType()));
+
+            long timestamp = event.timestampMicros();
+            ColumnarFormat.writeVarint(timestamps, ColumnarFormat.zigzag(timestamp - previous));
+            previous = timestamp;
+            minTimestamp = Math.min(minTimestamp, timestamp);
+            maxTimestamp = Math.max(maxTimestamp, timestamp);
+
+            writeMetadata(metadata, event.metadata());
+        }
+
+        byte[][] rawColumns = {
+                userIdDictionary.encode(userIds),
+                eventTypeDictionary.encode(eventTypes),
+                timestamps.toByteArray(),
+                metadata.toByteArray()
+        };
+        byte[][] compressedColumns = new byte[rawColumns.length][];
+        int bodyBytes = 0;
+        for (int i = 0; i < rawColumns.length; i++) {
+            compressedColumns[i] = compress(rawColumns[i]);
+            bodyBytes += compressedColumns[i].length;
+        }
+
+        ByteBuffer rowGroup = ByteBuffer.allocate(ColumnarFormat.ROW_GROUP_HEADER_BYTES + bodyBytes)
+                .putInt(ColumnarFormat.ROW_GROUP_MAGIC)
+                .putInt(events.size())
+                .putLong(minTimestamp)
+                .putLong(maxTimestamp);
+        for (int i = 0; i < rawColumns.length; i++) {
+            rowGroup.putInt(rawColumns[i].length).putInt(compressedColumns[i].length);
+        }
+        for (byte[] column : compressedColumns) {
+            rowGroup.put(column);
+        }
+        try {
+            writeFully(rowGroup.flip());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write row group to " + path, e);
+        }
+        rows += events.size();
+    }
+
+    /**
+     * 기록한 row group 을 디스크에 강제 기록 (Kafka 오프셋 커밋 전에 호출)
+     */
+    public void sync() {
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to sync archive segment " + path, e);
+        }
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    public long sizeBytes() {
+        return sizeBytes;
+    }
+
+    public long rows() {
+        return rows;
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.force(true);
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to close archive segment " + path, e);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private void writeMetadata(ByteArrayOutputStream out, Map<String, Object> metadata) {
+        if (metadata == null) {
+            ColumnarFormat.writeVarint(out, 0);
+            return;
+        }
+        try {
+            byte[] json = metadataWriter.writeValueAsBytes(metadata);
+            ColumnarFormat.writeVarint(out, json.length + 1L);
+            out.writeBytes(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to encode metadata column", e);
+        }
+    }
+
+    private byte[] compress(byte[] raw) {
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+        byte[] buffer = new byte[8192];
+        while (!deflater.finished()) {
+            int length = deflater.deflate(buffer);
+            out.write(buffer, 0, length);
+        }
+        return out.toByteArray();
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            sizeBytes += channel.write(buffer);
+        }
+    }
+
+    /**
+     * row group 단위 문자열 사전: [개수][길이 + UTF-8]* 다음에 행별 인덱스
+     */
+    private static final class Dictionary {
+
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final ByteArrayOutputStream entries = new ByteArrayOutputStream();
+
+        private int indexOf(String value) {
+            Integer index = indexes.get(value);
+            if (index == null) {
+                index = indexes.size();
+                indexes.put(value, index);
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                ColumnarFormat.writeVarint(entries, bytes.length);
+                entries.writeBytes(bytes);
+            }
+            return index;
+        }
+
+        private byte[] encode(ByteArrayOutputStream rowIndexes) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(entries.size() + rowIndexes.size() + 5);
+            ColumnarFormat.writeVarint(out, indexes.size());
+            out.writeBytes(entries.toByteArray());
+            out.writeBytes(rowIndexes.toByteArray());
+            return out.toByteArray();
+        }
+    }
+}
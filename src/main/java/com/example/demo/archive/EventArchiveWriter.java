@@ -0,0 +1,120 @@
+package com.example.demo.archive;
+
+import com.example.demo.dto.EventTimestamps;
+import com.example.demo.dto.record.UserEventRecordDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.Closeable;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 토픽 / 이벤트 시각(시간 단위)으로 나눈 컬럼형 아카이브 기록기
+ *
+ * 디렉터리 구조 (Hive 스타일 파티션 → 분석 도구에서 날짜/시간 조건으로 파일을 바로 거름):
+ *   {base}/{topic}/dt=2024-01-01/hour=13/part-{생성시각}-{순번}.evc
+ *
+ * ✅ 세그먼트 롤링:
+ * - 파일 크기가 maxSegmentBytes 를 넘으면 닫고 다음 append 때 새 파일 생성
+ * - 동시에 열어 두는 파일은 maxOpenSegments 개까지 (늦게 도착한 과거 시간대 이벤트용), 넘으면 가장 오래 안 쓴 파일을 닫음
+ * - 재시작 시 기존 파일에 이어 쓰지 않고 새 파일을 만듦
+ *
+ * ✅ 내구성: append 가 반환되기 전에 기록한 파일을 sync 하므로, 호출자는 반환 후 오프셋을 커밋하면 됩니다.
+ */
+public class EventArchiveWriter implements Closeable {
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter HOUR = DateTimeFormatter.ofPattern("HH");
+    private static final long MICROS_PER_HOUR = 3_600_000_000L;
+
+    private final Path baseDirectory;
+    private final ObjectWriter metadataWriter;
+    private final long maxSegmentBytes;
+    private final int compressionLevel;
+    private final Map<String, ColumnarSegmentWriter> openSegments;
+    private long segmentSequence;
+
+    public EventArchiveWriter(Path baseDirectory, ObjectMapper objectMapper, long maxSegmentBytes,
+                              int compressionLevel, int maxOpenSegments) {
+        this.baseDirectory = baseDirectory;
+        this.metadataWriter = objectMapper.writer();
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.compressionLevel = compressionLevel;
+        this.openSegments = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ColumnarSegmentWriter> eldest) {
+                if (size() > maxOpenSegments) {
+                    eldest.getValue().close();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * 이벤트 목록을 시간 파티션별 row group 으로 기록하고 sync
+     *
+     * @return 기록한 바이트 수
+     */
+    public synchronized long append(String topic, List<UserEventRecordDto> events) {
+        // 시간 파티션 키: epoch 시(hour) 번호 - 이벤트마다 LocalDateTime 을 만들지 않음
+        Map<Long, List<UserEventRecordDto>> byHour = new LinkedHashMap<>();
+        for (UserEventRecordDto event : events) {
+            byHour.computeIfAbsent(Math.floorDiv(event.timestampMicros(), MICROS_PER_HOUR), hour -> new ArrayList<>())
+                    .add(event);
+        }
+
+        long written = 0;
+        for (Map.Entry<Long, List<UserEventRecordDto>> partition : byHour.entrySet()) {
+            Path directory = partitionDirectory(topic,
+                    EventTimestamps.toLocalDateTime(partition.getKey() * MICROS_PER_HOUR));
+            String key = directory.toString();
+            ColumnarSegmentWriter segment = openSegments.get(key);
+            if (segment == null) {
+                segment = new ColumnarSegmentWriter(directory.resolve(nextSegmentName()), metadataWriter,
+                        compressionLevel);
+                openSegments.put(key, segment);
+            }
+
+            long before = segment.sizeBytes();
+            segment.writeRowGroup(partition.getValue());
+            segment.sync();
+            written += segment.sizeBytes() - before;
+
+            if (segment.sizeBytes() >= maxSegmentBytes) {
+                openSegments.remove(key);
+                segment.close();
+            }
+        }
+        return written;
+    }
+
+    public synchronized int openSegments() {
+        return openSegments.size();
+    }
+
+    @Override
+    public synchronized void close() {
+        for (ColumnarSegmentWriter segment : openSegments.values()) {
+            segment.close();
+        }
+        openSegments.clear();
+    }
+
+    private Path partitionDirectory(String topic, LocalDateTime hour) {
+        return baseDirectory.resolve(topic)
+                .resolve("dt=" + DATE.format(hour))
+                .resolve("hour=" + HOUR.format(hour));
+    }
+
+    private String nextSegmentName() {
+        return String.format("part-%d-%04d.evc", System.currentTimeMillis(), segmentSequence++);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.demo.backfill;
+
+import java.util.Locale;
+
+/**
+ * 백필 입력 파일 포맷
+ */
+public enum BackfillFormat {
+
+    // 한 줄에 이벤트 JSON 하나 (스키마 봉투 없음)
+    NDJSON,
+    // [length:int][payload] 프레임 반복 - payload 는 토픽에 실리는 스키마 봉투 JSON 과 동일
+    BINARY;
+
+    /**
+     * REST 파라미터 값(ndjson, binary) 변환
+     */
+    public static BackfillFormat from(String value) {
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown backfill format: " + value + " (ndjson, binary)");
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.demo.backfill;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 파일 1개를 읽어 토픽으로 발행하는 백필 작업
+ *
+ * 파이프라인:
+ *   EventFileChunker 로 레코드 경계 청크 분할
+ *   → ForkJoinPool 에서 청크를 병렬로 메모리 매핑·파싱 (최대 maxChunksAhead 개 선행)
+ *   → 작업 스레드 1개가 청크를 파일 순서대로 꺼내 비동기 발행
+ *
+ * ✅ 사용자별 순서 보장:
+ * 파싱만 병렬이고 발행은 파일 순서 그대로 한 스레드에서 합니다.
+ * 같은 userId 는 같은 파티션으로 가고 멱등 프로듀서가 파티션 내 순서를 지키므로, 파일에 적힌 순서대로 적재됩니다.
+ *
+ * ✅ 메모리 제한:
+ * 메모리에 올라가는 이벤트는 선행 파싱된 청크 수 × 청크 크기로 제한되고,
+ * 전송 대기 이벤트는 프로듀서 buffer.memory 가 가득 차면 send() 가 막히면서 자연스럽게 제한됩니다.
+ */
+public class BackfillJob<T> implements Runnable {
+
+    private static final Logger logger = LoggerFactory.getLogger(BackfillJob.class);
+
+    private static final long PROGRESS_LOG_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final long COMPLETION_POLL_MILLIS = 10;
+
+    private final String id;
+    private final Path file;
+    private final BackfillFormat format;
+    private final String target;
+    private final EventChunkParser<T> parser;
+    private final Function<T, CompletableFuture<?>> publisher;
+    private final ForkJoinPool parsePool;
+    private final int chunkBytes;
+    private final int maxChunksAhead;
+
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final AtomicLong bytesParsed = new AtomicLong();
+    private final AtomicLong eventsParsed = new AtomicLong();
+    private final AtomicLong eventsSkipped = new AtomicLong();
+    private final AtomicLong eventsPublished = new AtomicLong();
+    private final AtomicLong eventsFailed = new AtomicLong();
+    private volatile BackfillProgress.State state = BackfillProgress.State.RUNNING;
+    private volatile String error;
+    private volatile long startNanos;
+    private volatile long endNanos;
+
+    public BackfillJob(String id, Path file, BackfillFormat format, String target, EventChunkParser<T> parser,
+                       Function<T, CompletableFuture<?>> publisher, ForkJoinPool parsePool,
+                       int chunkBytes, int maxChunksAhead) {
+        this.id = id;
+        this.file = file;
+        this.format = format;
+        this.target = target;
+        this.parser = parser;
+        this.publisher = publisher;
+        this.parsePool = parsePool;
+        this.chunkBytes = chunkBytes;
+        this.maxChunksAhead = maxChunksAhead;
+    }
+
+    @Override
+    public void run() {
+        startNanos = System.nanoTime();
+        logger.info("📥 Backfill {} started: {} ({}, target={})", id, file, format, target);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            totalBytes.set(channel.size());
+            List<FileChunk> chunks = EventFileChunker.split(channel, format, chunkBytes);
+
+            Deque<ForkJoinTask<EventChunkParser.ParsedChunk<T>>> ahead = new ArrayDeque<>(maxChunksAhead);
+            int nextChunk = 0;
+            long lastLog = startNanos;
+            while (nextChunk < chunks.size() || !ahead.isEmpty()) {
+                while (nextChunk < chunks.size() && ahead.size() < maxChunksAhead) {
+                    FileChunk chunk = chunks.get(nextChunk++);
+                    ahead.addLast(parsePool.submit(() -> parser.parse(channel, chunk)));
+                }
+                publish(ahead.pollFirst().join());
+
+                if (System.nanoTime() - lastLog >= PROGRESS_LOG_INTERVAL_NANOS) {
+                    lastLog = System.nanoTime();
+                    logProgress();
+                }
+            }
+
+            awaitSends();
+            state = BackfillProgress.State.COMPLETED;
+        } catch (Exception e) {
+            error = e.toString();
+            state = BackfillProgress.State.FAILED;
+            logger.error("❌ Backfill {} failed: {}", id, file, e);
+        } finally {
+            endNanos = System.nanoTime();
+            logProgress();
+        }
+    }
+
+    public BackfillProgress progress() {
+        long elapsedNanos = (endNanos != 0 ? endNanos : System.nanoTime()) - startNanos;
+        long elapsedMillis = startNanos == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        long published = eventsPublished.get();
+        return new BackfillProgress(id, file.toString(), format, target, state,
+                totalBytes.get(), bytesParsed.get(), eventsParsed.get(), eventsSkipped.get(),
+                published, eventsFailed.get(), elapsedMillis,
+                elapsedMillis > 0 ? published * 1000 / elapsedMillis : 0, error);
+    }
+
+    private void publish(EventChunkParser.ParsedChunk<T> parsed) {
+        if (parsed.skipped() > 0) {
+            eventsSkipped.addAndGet(parsed.skipped());
+            if (error == null) {
+                error = parsed.firstError();
+            }
+            logger.warn("⚠️ Backfill {} skipped {} unparsable records in chunk {} (first: {})",
+                    id, parsed.skipped(), parsed.chunk().index(), parsed.firstError());
+        }
+
+        for (T event : parsed.events()) {
+            eventsParsed.incrementAndGet();
+            try {
+                publisher.apply(event).whenComplete((result, throwable) -> {
+                    if (throwable == null) {
+                        eventsPublished.incrementAndGet();
+                    } else {
+                        eventsFailed.incrementAndGet();
+                    }
+                });
+            } catch (RuntimeException e) {
+                eventsFailed.incrementAndGet();
+            }
+        }
+        bytesParsed.addAndGet(parsed.chunk().length());
+    }
+
+    private void awaitSends() throws InterruptedException {
+        // 마지막 배치가 linger.ms / 재시도를 거쳐 완료될 때까지 대기
+        while (eventsPublished.get() + eventsFailed.get() < eventsParsed.get()) {
+            Thread.sleep(COMPLETION_POLL_MILLIS);
+        }
+    }
+
+    private void logProgress() {
+        BackfillProgress progress = progress();
+        logger.info("📈 Backfill {} [{}]: {}/{} bytes, {} published, {} failed, {} skipped, {} events/s",
+                id, progress.state(), progress.bytesParsed(), progress.totalBytes(), progress.eventsPublished(),
+                progress.eventsFailed(), progress.eventsSkipped(), progress.eventsPerSecond());
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.demo.backfill;
+
+/**
+ * 백필 작업 진행 상황 스냅샷
+ *
+ * @param bytesParsed     파싱을 마치고 발행을 시작한 청크 크기 합
+ * @param eventsSkipped   파싱하지 못해 건너뛴 레코드 수
+ * @param eventsPublished 브로커 전송에 성공한 이벤트 수 (Record 는 스풀에 기록된 이벤트 포함)
+ * @param eventsPerSecond 시작 이후 평균 발행 처리량
+ * @param error           실패 원인 또는 첫 번째 파싱 오류 (없으면 null)
+ */
+public record BackfillProgress(
+        String jobId,
+        String file,
+        BackfillFormat format,
+        String target,
+        State state,
+        long totalBytes,
+        long bytesParsed,
+        long eventsParsed,
+        long eventsSkipped,
+        long eventsPublished,
+        long eventsFailed,
+        long elapsedMillis,
+        long eventsPerSecond,
+        String error
+) {
+
+    public enum State {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.demo.backfill;
+
+import com.example.demo.dto.pojo.UserEventPojoDto;
+import com.example.demo.dto.record.UserEventRecordDto;
+import com.example.demo.producer.PojoEventProducer;
+import com.example.demo.producer.RecordEventProducer;
+import com.example.demo.schema.LocalSchemaRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 과거 이벤트 파일을 토픽으로 대량 적재하는 백필 서비스
+ *
+ * POST /api/events/record 로 한 건씩 보내는 대신, NDJSON/바이너리 파일을 청크 단위로 병렬 파싱해
+ * RecordEventProducer / PojoEventProducer 로 발행합니다. (이벤트별 로그 없이 BULK 레인으로 보내는 sendBulk 사용)
+ *
+ * 🔧 설정:
+ * - demo.backfill.directory:   입력 파일을 찾는 디렉터리 (밖의 경로는 거부)
+ * - demo.backfill.parallelism: 파싱 스레드 수 (0 이면 CPU 코어 수)
+ * - demo.backfill.chunk-bytes: 청크 목표 크기
+ *
+ * 📊 진행 상황: GET /api/events/backfill/{jobId} 또는 5초마다 로그
+ */
+@Component
+public class BackfillService implements DisposableBean {
+
+    private final RecordEventProducer recordEventProducer;
+    private final PojoEventProducer pojoEventProducer;
+    private final EventChunkParser<UserEventRecordDto> recordNdjsonParser;
+    private final EventChunkParser<UserEventRecordDto> recordBinaryParser;
+    private final EventChunkParser<UserEventPojoDto> pojoNdjsonParser;
+    private final EventChunkParser<UserEventPojoDto> pojoBinaryParser;
+    private final Path baseDirectory;
+    private final int chunkBytes;
+    private final ForkJoinPool parsePool;
+    private final ExecutorService jobExecutor;
+    private final AtomicInteger jobSequence = new AtomicInteger();
+    private final Map<String, BackfillJob<?>> jobs = new ConcurrentHashMap<>();
+
+    public BackfillService(RecordEventProducer recordEventProducer,
+                           PojoEventProducer pojoEventProducer,
+                           LocalSchemaRegistry schemaRegistry,
+                           ObjectMapper objectMapper,
+                           @Value("${demo.backfill.directory:./backfill}") String baseDirectory,
+                           @Value("${demo.backfill.parallelism:0}") int parallelism,
+                           @Value("${demo.backfill.chunk-bytes:16777216}") int chunkBytes) {
+        this.recordEventProducer = recordEventProducer;
+        this.pojoEventProducer = pojoEventProducer;
+        this.recordNdjsonParser = new EventChunkParser<>(BackfillFormat.NDJSON, schemaRegistry, objectMapper,
+                UserEventRecordDto.class);
+        this.recordBinaryParser = new EventChunkParser<>(BackfillFormat.BINARY, schemaRegistry, objectMapper,
+                UserEventRecordDto.class);
+        this.pojoNdjsonParser = new EventChunkParser<>(BackfillFormat.NDJSON, schemaRegistry, objectMapper,
+                UserEventPojoDto.class);
+        this.pojoBinaryParser = new EventChunkParser<>(BackfillFormat.BINARY, schemaRegistry, objectMapper,
+                UserEventPojoDto.class);
+        this.baseDirectory = Path.of(baseDirectory).toAbsolutePath().normalize();
+        this.chunkBytes = chunkBytes;
+        this.parsePool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.jobExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "backfill-job");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 백필 작업 시작 (비동기)
+     *
+     * @param file   demo.backfill.directory 기준 상대 경로
+     * @param target record 또는 pojo
+     * @throws IllegalArgumentException 파일이 없거나 디렉터리 밖이거나 target 이 잘못된 경우
+     */
+    public BackfillProgress start(String file, BackfillFormat format, String target) {
+        Path path = baseDirectory.resolve(file).normalize();
+        if (!path.startsWith(baseDirectory)) {
+            throw new IllegalArgumentException("Backfill file must be inside " + baseDirectory);
+        }
+        if (!Files.isRegularFile(path)) {
+            throw new IllegalArgumentException("Backfill file not found: " + path);
+        }
+
+        String jobId = String.format("backfill-%04d", jobSequence.incrementAndGet());
+        int maxChunksAhead = parsePool.getParallelism() * 2;
+        BackfillJob<?> job = switch (target.toLowerCase(Locale.ROOT)) {
+            case "record" -> new BackfillJob<>(jobId, path, format, "record",
+                    format == BackfillFormat.NDJSON ? recordNdjsonParser : recordBinaryParser,
+                    recordEventProducer::sendBulk, parsePool, chunkBytes, maxChunksAhead);
+            case "pojo" -> new BackfillJob<>(jobId, path, format, "pojo",
+                    format == BackfillFormat.NDJSON ? pojoNdjsonParser : pojoBinaryParser,
+                    pojoEventProducer::sendBulk, parsePool, chunkBytes, maxChunksAhead);
+            default -> throw new IllegalArgumentException("Unknown backfill target: " + target + " (record, pojo)");
+        };
+
+        jobs.put(jobId, job);
+        jobExecutor.execute(job);
+        return job.progress();
+    }
+
+    public Optional<BackfillProgress> progress(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(BackfillJob::progress);
+    }
+
+    public List<BackfillProgress> jobs() {
+        return jobs.values().stream()
+                .map(BackfillJob::progress)
+                .sorted(Comparator.comparing(BackfillProgress::jobId))
+                .toList();
+    }
+
+    @Override
+    public void destroy() {
+        jobExecutor.shutdownNow();
+        parsePool.shutdownNow();
+    }
+}
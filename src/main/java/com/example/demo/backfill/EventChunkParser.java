@@ -0,0 +1,112 @@
+package com.example.demo.backfill;
+
+import com.example.demo.schema.LocalSchemaRegistry;
+import com.example.demo.schema.VersionedJsonDeserializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 청크 하나를 메모리 매핑해 이벤트 목록으로 파싱
+ *
+ * 청크끼리는 공유 상태가 없으므로 여러 스레드에서 동시에 호출할 수 있습니다. (ObjectReader/Deserializer 는 스레드 안전)
+ * 파싱할 수 없는 레코드는 건너뛰고 개수와 첫 오류만 기록합니다. → 잘못된 한 줄 때문에 전체 백필이 멈추지 않음
+ */
+public class EventChunkParser<T> {
+
+    private final BackfillFormat format;
+    private final ObjectReader lineReader;
+    private final VersionedJsonDeserializer<T> frameDeserializer;
+
+    public EventChunkParser(BackfillFormat format, LocalSchemaRegistry registry, ObjectMapper objectMapper,
+                            Class<T> eventType) {
+        this.format = format;
+        this.lineReader = objectMapper.readerFor(eventType);
+        this.frameDeserializer = new VersionedJsonDeserializer<>(registry, objectMapper, eventType);
+    }
+
+    public ParsedChunk<T> parse(FileChannel channel, FileChunk chunk) throws IOException {
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, chunk.offset(), chunk.length());
+        // Jackson 은 ByteBuffer 를 직접 읽지 못하므로 청크 단위로 한 번만 복사하고 레코드는 구간으로 파싱
+        byte[] bytes = new byte[(int) chunk.length()];
+        mapped.get(bytes);
+
+        return switch (format) {
+            case NDJSON -> parseLines(chunk, bytes);
+            case BINARY -> parseFrames(chunk, bytes);
+        };
+    }
+
+    private ParsedChunk<T> parseLines(FileChunk chunk, byte[] bytes) {
+        List<T> events = new ArrayList<>(bytes.length / 128 + 1);
+        int skipped = 0;
+        String firstError = null;
+        int lineStart = 0;
+        while (lineStart < bytes.length) {
+            int lineEnd = lineStart;
+            while (lineEnd < bytes.length && bytes[lineEnd] != '\n') {
+                lineEnd++;
+            }
+            int start = lineStart;
+            int end = lineEnd;
+            while (start < end && isWhitespace(bytes[start])) {
+                start++;
+            }
+            while (end > start && isWhitespace(bytes[end - 1])) {
+                end--;
+            }
+            if (start < end) {
+                try {
+                    events.add(lineReader.readValue(bytes, start, end - start));
+                } catch (IOException | RuntimeException e) {
+                    skipped++;
+                    if (firstError == null) {
+                        firstError = "offset " + (chunk.offset() + lineStart) + ": " + e.getMessage();
+                    }
+                }
+            }
+            lineStart = lineEnd + 1;
+        }
+        return new ParsedChunk<>(chunk, events, skipped, firstError);
+    }
+
+    private ParsedChunk<T> parseFrames(FileChunk chunk, byte[] bytes) {
+        List<T> events = new ArrayList<>(bytes.length / 128 + 1);
+        ByteBuffer frames = ByteBuffer.wrap(bytes);
+        int skipped = 0;
+        String firstError = null;
+        while (frames.remaining() >= 4) {
+            int frameStart = frames.position();
+            byte[] payload = new byte[frames.getInt()];
+            frames.get(payload);
+            try {
+                events.add(frameDeserializer.deserialize(null, payload));
+            } catch (RuntimeException e) {
+                skipped++;
+                if (firstError == null) {
+                    firstError = "offset " + (chunk.offset() + frameStart) + ": " + e.getMessage();
+                }
+            }
+        }
+        return new ParsedChunk<>(chunk, events, skipped, firstError);
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+    }
+
+    /**
+     * 파싱 결과
+     *
+     * @param skipped    파싱하지 못해 건너뛴 레코드 수
+     * @param firstError 첫 번째 파싱 오류 (없으면 null)
+     */
+    public record ParsedChunk<T>(FileChunk chunk, List<T> events, int skipped, String firstError) {
+    }
+}
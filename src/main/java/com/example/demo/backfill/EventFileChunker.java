@@ -0,0 +1,109 @@
+package com.example.demo.backfill;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 이벤트 파일을 레코드 경계에 맞춘 청크로 분할
+ *
+ * 청크마다 독립적으로 파싱할 수 있도록 경계를 레코드 사이에 둡니다.
+ * - NDJSON: 목표 크기 지점 이후 첫 줄바꿈('\n') 다음
+ * - BINARY: 프레임 헤더의 길이만 따라가며 목표 크기를 넘는 첫 프레임 경계 (페이로드는 읽지 않음)
+ *
+ * ⚠️ 한 레코드(줄/프레임)가 청크 최대 크기(2GB)를 넘으면 분할할 수 없습니다.
+ */
+public final class EventFileChunker {
+
+    private static final int SCAN_BUFFER_BYTES = 8192;
+    private static final long MAP_WINDOW_BYTES = 1L << 30;
+
+    private EventFileChunker() {
+    }
+
+    public static List<FileChunk> split(FileChannel channel, BackfillFormat format, int targetChunkBytes)
+            throws IOException {
+        if (targetChunkBytes < 1) {
+            throw new IllegalArgumentException("targetChunkBytes must be positive");
+        }
+        return switch (format) {
+            case NDJSON -> splitLines(channel, targetChunkBytes);
+            case BINARY -> splitFrames(channel, targetChunkBytes);
+        };
+    }
+
+    private static List<FileChunk> splitLines(FileChannel channel, int targetChunkBytes) throws IOException {
+        long size = channel.size();
+        List<FileChunk> chunks = new ArrayList<>();
+        ByteBuffer scan = ByteBuffer.allocate(SCAN_BUFFER_BYTES);
+        long start = 0;
+        while (start < size) {
+            long end = Math.min(start + targetChunkBytes, size);
+            // 목표 지점이 줄 중간이면 다음 줄바꿈까지 늘림
+            while (end < size && !endsWithNewline(channel, end)) {
+                scan.clear();
+                int read = channel.read(scan, end);
+                int newline = -1;
+                for (int i = 0; i < read; i++) {
+                    if (scan.get(i) == '\n') {
+                        newline = i;
+                        break;
+                    }
+                }
+                end = newline >= 0 ? end + newline + 1 : end + read;
+            }
+            chunks.add(chunk(chunks.size(), start, end));
+            start = end;
+        }
+        return chunks;
+    }
+
+    private static boolean endsWithNewline(FileChannel channel, long end) throws IOException {
+        ByteBuffer previous = ByteBuffer.allocate(1);
+        channel.read(previous, end - 1);
+        return previous.get(0) == '\n';
+    }
+
+    private static List<FileChunk> splitFrames(FileChannel channel, int targetChunkBytes) throws IOException {
+        long size = channel.size();
+        List<FileChunk> chunks = new ArrayList<>();
+        long start = 0;
+        long position = 0;
+        long windowStart = 0;
+        MappedByteBuffer window = null;
+
+        while (position < size) {
+            if (position + 4 > size) {
+                throw new IOException("Truncated frame header at offset " + position);
+            }
+            if (window == null || position + 4 > windowStart + window.capacity()) {
+                windowStart = position;
+                window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart,
+                        Math.min(MAP_WINDOW_BYTES, size - windowStart));
+            }
+            int length = window.getInt((int) (position - windowStart));
+            if (length < 0 || position + 4 + length > size) {
+                throw new IOException("Invalid frame length " + length + " at offset " + position);
+            }
+            position += 4 + length;
+            if (position - start >= targetChunkBytes) {
+                chunks.add(chunk(chunks.size(), start, position));
+                start = position;
+            }
+        }
+        if (start < size) {
+            chunks.add(chunk(chunks.size(), start, size));
+        }
+        return chunks;
+    }
+
+    private static FileChunk chunk(int index, long start, long end) throws IOException {
+        if (end - start > Integer.MAX_VALUE) {
+            throw new IOException("Record at offset " + start + " is too large to fit in one chunk");
+        }
+        return new FileChunk(index, start, end - start);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.demo.backfill;
+
+/**
+ * 파일을 레코드 경계에 맞춰 나눈 구간
+ *
+ * @param index  파일 안에서의 순서 (발행 순서)
+ * @param offset 시작 위치 (bytes)
+ * @param length 길이 (bytes)
+ */
+public record FileChunk(int index, long offset, long length) {
+}
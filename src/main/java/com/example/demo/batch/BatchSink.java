@@ -0,0 +1,47 @@
+package com.example.demo.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * MicroBatcher 가 모은 배치를 내보내는 대상
+ *
+ * 배치 전체를 한 번에 내보내고, 입력과 같은 순서로 이벤트별 결과 future 를 반환합니다.
+ */
+@FunctionalInterface
+public interface BatchSink<E, R> {
+
+    List<CompletableFuture<R>> send(List<E> batch);
+
+    /**
+     * 단건 전송 함수(예: producer::sendQuietly)로 배치 전체를 전송 시작한 뒤 flush 를 한 번 호출하는 sink
+     *
+     * 전송 함수는 레코드를 프로듀서 버퍼에 넣기만 하고, flush 가 버퍼를 바로 브로커로 보냅니다.
+     * → 배치의 레코드가 linger.ms 를 기다리지 않고 같은 요청들로 묶여 나가며, 배치당 flush 는 한 번뿐입니다.
+     *
+     * 전송 시작 중 던져진 예외는 해당 이벤트의 실패로만 처리하고 나머지 이벤트는 계속 전송합니다.
+     * flush 중 예외는 무시합니다. (각 이벤트의 결과는 반환된 future 가 알려 줌)
+     */
+    static <E, R> BatchSink<E, R> sendThenFlush(Function<E, CompletableFuture<R>> sender, Runnable flush) {
+        return batch -> {
+            List<CompletableFuture<R>> results = new ArrayList<>(batch.size());
+            for (E event : batch) {
+                CompletableFuture<R> result;
+                try {
+                    result = sender.apply(event);
+                } catch (RuntimeException e) {
+                    result = CompletableFuture.failedFuture(e);
+                }
+                results.add(result);
+            }
+            try {
+                flush.run();
+            } catch (RuntimeException ignored) {
+                // 전송 실패는 future 로 전달됨
+            }
+            return results;
+        };
+    }
+}
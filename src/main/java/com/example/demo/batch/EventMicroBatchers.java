@@ -0,0 +1,83 @@
+package com.example.demo.batch;
+
+import com.example.demo.dto.pojo.UserEventPojoDto;
+import com.example.demo.dto.record.UserEventRecordDto;
+import com.example.demo.producer.PojoEventProducer;
+import com.example.demo.producer.RecordEventProducer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 단건 이벤트 API(/api/events/record, /api/events/pojo) 용 프로듀서 마이크로 배처
+ *
+ * 요청마다 KafkaTemplate.send + 콜백 + 로그를 수행하던 것을 토픽별 MicroBatcher 로 모아
+ * 드레이너 스레드가 배치 단위로 내보내게 합니다. (스풀 처리 등 프로듀서 동작은 그대로)
+ * - 배치의 이벤트를 모두 sendQuietly 로 프로듀서 버퍼에 넣은 뒤 flush 한 번 (BatchSink.sendThenFlush)
+ *
+ * 🔧 demo.batch.await-ack: HTTP 응답 시점
+ * - false (기본): 배처 큐에 들어가면 바로 200 - 기존 API 처럼 전송 결과를 기다리지 않음 (큐 가득 참 / 종료는 즉시 실패)
+ * - true: 배치 전송이 끝난 뒤(ack 또는 record 는 스풀 기록) 응답 - 전송 실패가 응답에 반영되지만 배치 지연만큼 늦어짐
+ *
+ * ⚠️ demo.batch.enabled=false 면 기존처럼 요청 스레드에서 sendEvent 를 직접 호출합니다.
+ */
+@Component
+public class EventMicroBatchers implements DisposableBean {
+
+    private final RecordEventProducer recordEventProducer;
+    private final PojoEventProducer pojoEventProducer;
+    private final MicroBatcher<UserEventRecordDto, SendResult<String, UserEventRecordDto>> recordBatcher;
+    private final MicroBatcher<UserEventPojoDto, SendResult<String, UserEventPojoDto>> pojoBatcher;
+    private final boolean awaitAck;
+
+    public EventMicroBatchers(RecordEventProducer recordEventProducer,
+                              PojoEventProducer pojoEventProducer,
+                              MeterRegistry meterRegistry,
+                              @Value("${demo.batch.enabled:true}") boolean enabled,
+                              @Value("${demo.batch.max-batch-size:256}") int maxBatchSize,
+                              @Value("${demo.batch.linger-micros:500}") long lingerMicros,
+                              @Value("${demo.batch.max-pending:65536}") int maxPending,
+                              @Value("${demo.batch.await-ack:false}") boolean awaitAck) {
+        this.recordEventProducer = recordEventProducer;
+        this.pojoEventProducer = pojoEventProducer;
+        this.awaitAck = awaitAck;
+        if (enabled) {
+            this.recordBatcher = new MicroBatcher<>("record-events",
+                    BatchSink.sendThenFlush(recordEventProducer::sendQuietly, recordEventProducer::flush),
+                    maxBatchSize, lingerMicros, maxPending, meterRegistry);
+            this.pojoBatcher = new MicroBatcher<>("pojo-events",
+                    BatchSink.sendThenFlush(pojoEventProducer::sendQuietly, pojoEventProducer::flush),
+                    maxBatchSize, lingerMicros, maxPending, meterRegistry);
+        } else {
+            this.recordBatcher = null;
+            this.pojoBatcher = null;
+        }
+    }
+
+    public CompletableFuture<SendResult<String, UserEventRecordDto>> submit(UserEventRecordDto event) {
+        return recordBatcher != null ? recordBatcher.submit(event) : recordEventProducer.sendEvent(event);
+    }
+
+    public CompletableFuture<SendResult<String, UserEventPojoDto>> submit(UserEventPojoDto event) {
+        return pojoBatcher != null ? pojoBatcher.submit(event) : pojoEventProducer.sendEvent(event);
+    }
+
+    /**
+     * HTTP 응답이 전송 완료를 기다리는지 (demo.batch.await-ack)
+     */
+    public boolean awaitAck() {
+        return awaitAck;
+    }
+
+    @Override
+    public void destroy() {
+        if (recordBatcher != null) {
+            recordBatcher.close();
+            pojoBatcher.close();
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.example.demo.batch;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 요청 병합 마이크로 배처
+ *
+ * 여러 스레드(HTTP 요청 스레드)가 submit 한 이벤트를 MPSC 무잠금 큐에 넣고,
+ * 전용 드레이너 스레드 하나가 크기(maxBatchSize) 또는 시간(linger) 기준으로 모아 BatchSink 로 내보냅니다.
+ *
+ * ✅ 효과:
+ * - 요청 스레드는 큐에 넣고 바로 반환 (프로듀서 버퍼 잠금 / 메타데이터 조회 경합 없음)
+ * - 전송 로그와 완료 콜백이 배치당 한 번 (배치 전체 완료 후 각 호출자의 future 를 결과로 완료)
+ * - 부하가 낮으면 linger 동안만 기다리고, 부하가 높으면 기다리지 않고 maxBatchSize 단위로 바로 내보냄
+ *
+ * ⚠️ 호출자의 future 는 같은 배치의 모든 전송이 끝난 뒤 완료됩니다. (가장 느린 전송에 맞춰짐)
+ * 대기 이벤트가 maxPending 을 넘으면 submit 은 RejectedExecutionException 으로 즉시 실패합니다.
+ *
+ * 📊 메트릭 (batcher 태그): demo.batch.size, demo.batch.pending, demo.batch.rejected
+ */
+public class MicroBatcher<E, R> implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MicroBatcher.class);
+
+    // 드레이너 상태 - 생산자는 IDLE 이거나 (LINGER 중 배치가 찼을 때)만 unpark
+    private static final int RUNNING = 0;
+    private static final int IDLE = 1;
+    private static final int LINGER = 2;
+
+    private final String name;
+    private final BatchSink<E, R> sink;
+    private final int maxBatchSize;
+    private final long lingerNanos;
+    private final int maxPending;
+
+    private final MpscLinkedQueue<Pending<E, R>> queue = new MpscLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicInteger state = new AtomicInteger(RUNNING);
+    private volatile int wakeAtPending = Integer.MAX_VALUE;
+    private volatile boolean closed;
+
+    private final DistributionSummary batchSizes;
+    private final Counter rejected;
+    private final Thread drainer;
+
+    public MicroBatcher(String name, BatchSink<E, R> sink, int maxBatchSize, long lingerMicros, int maxPending,
+                        MeterRegistry meterRegistry) {
+        if (maxBatchSize < 1 || lingerMicros < 0 || maxPending < maxBatchSize) {
+            throw new IllegalArgumentException("Invalid micro-batcher settings: maxBatchSize=" + maxBatchSize
+                    + ", lingerMicros=" + lingerMicros + ", maxPending=" + maxPending);
+        }
+        this.name = name;
+        this.sink = sink;
+        this.maxBatchSize = maxBatchSize;
+        this.lingerNanos = TimeUnit.MICROSECONDS.toNanos(lingerMicros);
+        this.maxPending = maxPending;
+
+        this.batchSizes = DistributionSummary.builder("demo.batch.size").tag("batcher", name).register(meterRegistry);
+        this.rejected = Counter.builder("demo.batch.rejected").tag("batcher", name).register(meterRegistry);
+        Gauge.builder("demo.batch.pending", pending, AtomicInteger::get).tag("batcher", name).register(meterRegistry);
+
+        this.drainer = new Thread(this::drainLoop, "micro-batcher-" + name);
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    /**
+     * 이벤트를 다음 배치에 추가
+     *
+     * @return 이 이벤트의 전송 결과로 완료되는 future (큐가 가득 찼거나 종료된 경우 실패로 완료)
+     */
+    public CompletableFuture<R> submit(E event) {
+        if (closed) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Micro-batcher " + name + " is closed"));
+        }
+        int queued = pending.incrementAndGet();
+        if (queued > maxPending) {
+            pending.decrementAndGet();
+            rejected.increment();
+            return CompletableFuture.failedFuture(
+                    new RejectedExecutionException("Micro-batcher " + name + " queue is full (" + maxPending + ")"));
+        }
+
+        CompletableFuture<R> result = new CompletableFuture<>();
+        queue.offer(new Pending<>(event, result));
+
+        int drainerState = state.get();
+        if (drainerState == IDLE) {
+            if (state.compareAndSet(IDLE, RUNNING)) {
+                LockSupport.unpark(drainer);
+            }
+        } else if (drainerState == LINGER && queued >= wakeAtPending) {
+            LockSupport.unpark(drainer);
+        }
+        return result;
+    }
+
+    public int pending() {
+        return pending.get();
+    }
+
+    /**
+     * 새 submit 을 거부하고, 이미 큐에 있는 이벤트를 모두 내보낸 뒤 드레이너를 종료
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(drainer);
+        try {
+            drainer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!drainer.isAlive()) {
+            // 종료 확인 직전에 submit 된 이벤트 (드레이너가 이미 끝나 전송되지 않음)
+            Pending<E, R> leftover;
+            while ((leftover = poll()) != null) {
+                leftover.result.completeExceptionally(new IllegalStateException("Micro-batcher " + name + " is closed"));
+            }
+        }
+    }
+
+    private void drainLoop() {
+        List<Pending<E, R>> batch = new ArrayList<>(maxBatchSize);
+        while (true) {
+            Pending<E, R> first = take();
+            if (first == null) {
+                return;
+            }
+            batch.add(first);
+            fill(batch);
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * 첫 이벤트가 들어올 때까지 대기 (종료 후 큐가 비면 null)
+     */
+    private Pending<E, R> take() {
+        while (true) {
+            Pending<E, R> next = poll();
+            if (next != null) {
+                return next;
+            }
+            if (closed) {
+                return null;
+            }
+            state.set(IDLE);
+            // IDLE 로 바꾼 뒤 다시 확인 - 그 사이 넣은 생산자는 IDLE 을 보고 깨우거나, 여기서 보임
+            if (queue.isEmpty() && !closed) {
+                LockSupport.park(this);
+            }
+            state.set(RUNNING);
+        }
+    }
+
+    /**
+     * 배치가 maxBatchSize 가 되거나 첫 이벤트 이후 linger 가 지날 때까지 채움
+     */
+    private void fill(List<Pending<E, R>> batch) {
+        long deadline = System.nanoTime() + lingerNanos;
+        while (batch.size() < maxBatchSize) {
+            Pending<E, R> next = poll();
+            if (next != null) {
+                batch.add(next);
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || closed) {
+                return;
+            }
+            wakeAtPending = maxBatchSize - batch.size();
+            state.set(LINGER);
+            if (queue.isEmpty() && pending.get() < wakeAtPending && !closed) {
+                LockSupport.parkNanos(this, remaining);
+            }
+            state.set(RUNNING);
+            wakeAtPending = Integer.MAX_VALUE;
+        }
+    }
+
+    private Pending<E, R> poll() {
+        Pending<E, R> next = queue.poll();
+        if (next != null) {
+            pending.decrementAndGet();
+        }
+        return next;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void flush(List<Pending<E, R>> batch) {
+        int size = batch.size();
+        batchSizes.record(size);
+        Pending<E, R>[] callers = batch.toArray(new Pending[0]);
+
+        List<E> events = new ArrayList<>(size);
+        for (Pending<E, R> caller : callers) {
+            events.add(caller.event);
+        }
+
+        List<CompletableFuture<R>> results;
+        try {
+            results = sink.send(events);
+        } catch (RuntimeException e) {
+            logger.error("❌ Failed to flush {} batch of {} events", name, size, e);
+            for (Pending<E, R> caller : callers) {
+                caller.result.completeExceptionally(e);
+            }
+            return;
+        }
+        logger.debug("🚀 Flushed {} batch of {} events", name, size);
+
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0]))
+                .whenComplete((ignored, throwable) -> complete(callers, results));
+    }
+
+    private void complete(Pending<E, R>[] callers, List<CompletableFuture<R>> results) {
+        int failed = 0;
+        Throwable firstFailure = null;
+        for (int i = 0; i < callers.length; i++) {
+            try {
+                callers[i].result.complete(results.get(i).join());
+            } catch (CompletionException | CancellationException e) {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                callers[i].result.completeExceptionally(cause);
+                if (failed++ == 0) {
+                    firstFailure = cause;
+                }
+            }
+        }
+        if (failed > 0) {
+            logger.warn("⚠️ {} of {} events in {} batch failed: {}", failed, callers.length, name,
+                    firstFailure.toString());
+        }
+    }
+
+    private record Pending<E, R>(E event, CompletableFuture<R> result) {
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.demo.batch;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 다중 생산자 / 단일 소비자(MPSC) 무잠금 연결 큐 (Dmitry Vyukov 방식)
+ *
+ * 생산자는 tail 을 getAndSet 한 번으로 교체하고 이전 노드에 next 를 연결합니다. (CAS 재시도 루프 없음)
+ * 소비자는 head 를 혼자 소유하므로 poll 에 원자 연산이 필요 없습니다.
+ *
+ * ⚠️ getAndSet 과 next 연결 사이에는 잠깐 poll 이 null 을 반환할 수 있습니다.
+ * 생산자는 연결을 마친 뒤 소비자 상태를 확인하므로, 소비자가 잠들기 전 isEmpty 로 다시 확인하면 깨우기를 놓치지 않습니다.
+ * poll / isEmpty 는 소비자 스레드에서만 호출해야 합니다.
+ */
+final class MpscLinkedQueue<E> {
+
+    private final AtomicReference<Node<E>> tail;
+    private Node<E> head;
+
+    MpscLinkedQueue() {
+        Node<E> stub = new Node<>(null);
+        this.head = stub;
+        this.tail = new AtomicReference<>(stub);
+    }
+
+    void offer(E value) {
+        Node<E> node = new Node<>(value);
+        Node<E> previous = tail.getAndSet(node);
+        previous.next = node;
+    }
+
+    E poll() {
+        Node<E> next = head.next;
+        if (next == null) {
+            return null;
+        }
+        E value = next.value;
+        next.value = null;
+        head = next;
+        return value;
+    }
+
+    boolean isEmpty() {
+        return head.next == null;
+    }
+
+    private static final class Node<E> {
+        E value;
+        volatile Node<E> next;
+
+        Node(E value) {
+            this.value = value;
+        }
+    }
+}
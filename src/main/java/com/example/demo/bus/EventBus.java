@@ -0,0 +1,268 @@
+package com.example.demo.bus;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Disruptor 방식 프로세스 내 fan-out 버스
+ *
+ * 리스너 스레드(생산자)가 미리 할당된 링 슬롯을 채워 발행하면, 등록된 핸들러들이 각자 전용 스레드에서 병렬로 처리합니다.
+ * 직렬 호출(핸들러 지연의 합)과 달리 이벤트당 지연은 의존 경로 중 가장 긴 경로의 합입니다.
+ *
+ * ✅ 의존 그래프:
+ * - handler(name, h, after...) - after 에 지정한 핸들러가 지나간 sequence 만 처리 (없으면 발행 즉시)
+ *   after 는 먼저 등록된 핸들러만 가리킬 수 있으므로 그래프에 순환이 생기지 않음
+ * - completion - 모든 핸들러가 지나간 sequence 를 순서대로 받는 마지막 단계 (오프셋 커밋, 슬롯 정리)
+ *   링은 completion 이 지나간 슬롯만 재사용하므로, 완료되지 않은 이벤트의 슬롯을 덮어쓰지 않음
+ *
+ * ⚠️ 핸들러가 던진 예외는 retries 번 재시도 후 FailureHandler 로 넘기고 다음 이벤트로 진행합니다.
+ * 링이 가득 차면 publish 가 completion 이 따라올 때까지 대기합니다. (리스너에 백프레셔 전달)
+ *
+ * 📊 메트릭 (bus 태그): demo.bus.backlog (발행됐지만 완료되지 않은 이벤트 수),
+ *     demo.bus.handler.lag (handler 태그, 발행 위치와의 차이), demo.bus.handler.failures
+ */
+public final class EventBus<E> implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventBus.class);
+
+    private final String name;
+    private final RingBuffer<E> ring;
+    private final WaitStrategy waitStrategy;
+    private final List<HandlerProcessor<E>> processors;
+    private final HandlerProcessor<E> completion;
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean halted;
+
+    private EventBus(Builder<E> builder) {
+        this.name = builder.name;
+        this.waitStrategy = builder.waitStrategy;
+        this.ring = new RingBuffer<>(builder.ringSize, builder.factory, waitStrategy);
+
+        Map<String, HandlerProcessor<E>> byName = new LinkedHashMap<>();
+        Set<String> upstream = new HashSet<>();
+        for (HandlerSpec<E> spec : builder.handlers) {
+            Sequence[] dependencies = new Sequence[spec.after.length];
+            for (int i = 0; i < spec.after.length; i++) {
+                dependencies[i] = byName.get(spec.after[i]).sequence();
+                upstream.add(spec.after[i]);
+            }
+            byName.put(spec.name, processor(builder, spec.name, spec.handler, dependencies));
+        }
+        this.processors = List.copyOf(byName.values());
+
+        // completion 은 다른 핸들러가 의존하지 않는 마지막 핸들러들(leaf)만 기다리면 모든 핸들러를 기다린 것과 같음
+        List<Sequence> leaves = new ArrayList<>();
+        byName.forEach((handlerName, processor) -> {
+            if (!upstream.contains(handlerName)) {
+                leaves.add(processor.sequence());
+            }
+        });
+        this.completion = processor(builder, "completion", builder.completion, leaves.toArray(new Sequence[0]));
+        ring.setGatingSequences(completion.sequence());
+
+        Gauge.builder("demo.bus.backlog", this, bus -> bus.ring.cursor().get() - bus.completion.sequence().get())
+                .tag("bus", name).register(builder.meterRegistry);
+        for (HandlerProcessor<E> processor : processors) {
+            Gauge.builder("demo.bus.handler.lag", processor, p -> ring.cursor().get() - p.sequence().get())
+                    .tag("bus", name).tag("handler", processor.name()).register(builder.meterRegistry);
+        }
+
+        List<HandlerProcessor<E>> all = new ArrayList<>(processors);
+        all.add(completion);
+        for (HandlerProcessor<E> processor : all) {
+            Thread thread = new Thread(processor, "bus-" + name + "-" + processor.name());
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+        logger.info("🔧 Event bus {} started: ring {}, handlers {}, wait strategy {}", name, ring.size(),
+                byName.keySet(), waitStrategy.getClass().getSimpleName());
+    }
+
+    private HandlerProcessor<E> processor(Builder<E> builder, String handlerName, EventHandler<E> handler,
+                                          Sequence[] dependencies) {
+        Counter failures = Counter.builder("demo.bus.handler.failures")
+                .tag("bus", builder.name).tag("handler", handlerName).register(builder.meterRegistry);
+        return new HandlerProcessor<>(builder.name, handlerName, handler, ring, dependencies, waitStrategy,
+                () -> halted, builder.retries, builder.retryBackoffMs, builder.failureHandler, failures);
+    }
+
+    public static <E> Builder<E> builder(String name, Supplier<E> factory, MeterRegistry meterRegistry) {
+        return new Builder<>(name, factory, meterRegistry);
+    }
+
+    /**
+     * 슬롯 하나를 claim 해 채우고 발행 (링이 가득 차면 대기)
+     *
+     * translator 는 재사용 슬롯의 모든 필드를 덮어써야 하며 예외를 던지지 않아야 합니다.
+     *
+     * @return 발행한 sequence
+     */
+    public long publish(Consumer<E> translator) {
+        if (halted) {
+            throw new IllegalStateException("Event bus " + name + " is closed");
+        }
+        long sequence = ring.next();
+        try {
+            translator.accept(ring.get(sequence));
+        } finally {
+            ring.publish(sequence);
+        }
+        return sequence;
+    }
+
+    public long publishedSequence() {
+        return ring.cursor().get();
+    }
+
+    public long completedSequence() {
+        return completion.sequence().get();
+    }
+
+    /**
+     * sequence 까지 completion 단계가 지나갈 때까지 대기
+     *
+     * @return 제한 시간 안에 완료되면 true
+     */
+    public boolean awaitCompleted(long sequence, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (completion.sequence().get() < sequence) {
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+        return true;
+    }
+
+    /**
+     * 지금까지 발행된 모든 이벤트가 완료될 때까지 대기 (리밸런스로 파티션을 내놓기 전 등)
+     */
+    public boolean drain(Duration timeout) {
+        return awaitCompleted(ring.cursor().get(), timeout);
+    }
+
+    @Override
+    public void close() {
+        if (halted) {
+            return;
+        }
+        if (!drain(Duration.ofSeconds(10))) {
+            logger.warn("⚠️ Event bus {} closed with {} incomplete events", name,
+                    ring.cursor().get() - completion.sequence().get());
+        }
+        halted = true;
+        waitStrategy.signalAll();
+        for (Thread thread : threads) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * 재시도를 소진한 핸들러 예외 처리
+     */
+    @FunctionalInterface
+    public interface FailureHandler<E> {
+        void onFailure(String bus, String handler, E event, long sequence, Exception exception);
+    }
+
+    private record HandlerSpec<E>(String name, EventHandler<E> handler, String[] after) {
+    }
+
+    public static final class Builder<E> {
+
+        private final String name;
+        private final Supplier<E> factory;
+        private final MeterRegistry meterRegistry;
+        private final List<HandlerSpec<E>> handlers = new ArrayList<>();
+        private final Set<String> names = new HashSet<>();
+        private int ringSize = 1024;
+        private WaitStrategy waitStrategy = new WaitStrategy.Sleeping();
+        private int retries;
+        private long retryBackoffMs;
+        private FailureHandler<E> failureHandler = (bus, handler, event, sequence, exception) ->
+                logger.error("❌ Event bus {} handler {} failed at sequence {}: {}", bus, handler, sequence, event,
+                        exception);
+        private EventHandler<E> completion = (event, sequence) -> {
+        };
+
+        private Builder(String name, Supplier<E> factory, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.factory = factory;
+            this.meterRegistry = meterRegistry;
+        }
+
+        public Builder<E> ringSize(int ringSize) {
+            this.ringSize = ringSize;
+            return this;
+        }
+
+        public Builder<E> waitStrategy(WaitStrategy waitStrategy) {
+            this.waitStrategy = waitStrategy;
+            return this;
+        }
+
+        public Builder<E> retries(int retries, long backoffMs) {
+            this.retries = retries;
+            this.retryBackoffMs = backoffMs;
+            return this;
+        }
+
+        public Builder<E> onFailure(FailureHandler<E> failureHandler) {
+            this.failureHandler = failureHandler;
+            return this;
+        }
+
+        /**
+         * @param after 먼저 등록된 핸들러 이름 - 이 핸들러들이 처리한 이벤트만 받음
+         */
+        public Builder<E> handler(String handlerName, EventHandler<E> handler, String... after) {
+            if ("completion".equals(handlerName) || !names.add(handlerName)) {
+                throw new IllegalArgumentException("Duplicate or reserved handler name: " + handlerName);
+            }
+            for (String dependency : after) {
+                if (!names.contains(dependency) || dependency.equals(handlerName)) {
+                    throw new IllegalArgumentException(
+                            "Handler " + handlerName + " depends on unknown or later handler: " + dependency);
+                }
+            }
+            handlers.add(new HandlerSpec<>(handlerName, handler, after.clone()));
+            return this;
+        }
+
+        /**
+         * 모든 핸들러가 처리한 이벤트를 sequence 순서대로 받는 마지막 단계
+         */
+        public Builder<E> completion(EventHandler<E> completion) {
+            this.completion = completion;
+            return this;
+        }
+
+        public EventBus<E> build() {
+            if (handlers.isEmpty()) {
+                throw new IllegalStateException("Event bus " + name + " has no handlers");
+            }
+            return new EventBus<>(this);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.demo.bus;
+
+/**
+ * EventBus 핸들러 - 핸들러마다 전용 스레드 하나에서 sequence 순서대로 호출됩니다.
+ *
+ * 슬롯(event)은 재사용되므로 필요한 값은 반환 전에 복사해야 합니다.
+ * 같은 슬롯을 동시에 읽는 다른 핸들러가 있으므로 슬롯 필드를 수정하면 안 됩니다. (완료 단계 제외)
+ */
+@FunctionalInterface
+public interface EventHandler<E> {
+
+    void onEvent(E event, long sequence) throws Exception;
+}
@@ -0,0 +1,118 @@
+package com.example.demo.bus;
+
+import io.micrometer.core.instrument.Counter;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * 핸들러 하나를 전용 스레드에서 실행하는 처리기
+ *
+ * 의존 단계(없으면 링의 발행 구간)가 지나간 sequence 까지 한꺼번에 처리하고 자신의 sequence 를 올립니다.
+ * 실패한 이벤트는 retries 번 재시도 후 FailureHandler 에 넘기고 다음 이벤트로 진행합니다.
+ */
+final class HandlerProcessor<E> implements Runnable {
+
+    // 한 번에 처리하는 최대 구간 - 하위 단계가 큰 구간 전체를 기다리지 않도록 중간에 진행 위치를 공개
+    private static final int MAX_BATCH = 256;
+
+    private final String busName;
+    private final String name;
+    private final EventHandler<E> handler;
+    private final RingBuffer<E> ring;
+    private final Sequence[] dependencies;
+    private final WaitStrategy waitStrategy;
+    private final BooleanSupplier halted;
+    private final int retries;
+    private final long retryBackoffMs;
+    private final EventBus.FailureHandler<E> failureHandler;
+    private final Counter failures;
+    private final Sequence sequence = new Sequence();
+    private long nextSequence;
+
+    HandlerProcessor(String busName, String name, EventHandler<E> handler, RingBuffer<E> ring,
+                     Sequence[] dependencies, WaitStrategy waitStrategy, BooleanSupplier halted,
+                     int retries, long retryBackoffMs, EventBus.FailureHandler<E> failureHandler, Counter failures) {
+        this.busName = busName;
+        this.name = name;
+        this.handler = handler;
+        this.ring = ring;
+        this.dependencies = dependencies;
+        this.waitStrategy = waitStrategy;
+        this.halted = halted;
+        this.retries = retries;
+        this.retryBackoffMs = retryBackoffMs;
+        this.failureHandler = failureHandler;
+        this.failures = failures;
+    }
+
+    String name() {
+        return name;
+    }
+
+    Sequence sequence() {
+        return sequence;
+    }
+
+    @Override
+    public void run() {
+        nextSequence = sequence.get() + 1;
+        while (true) {
+            long available;
+            try {
+                available = waitStrategy.waitFor(nextSequence, this::available, halted);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (available < nextSequence) {
+                if (halted.getAsBoolean()) {
+                    return;
+                }
+                continue;
+            }
+
+            long last = Math.min(available, nextSequence + MAX_BATCH - 1);
+            for (long current = nextSequence; current <= last; current++) {
+                handle(ring.get(current), current);
+            }
+            sequence.setRelease(last);
+            waitStrategy.signalAll();
+            nextSequence = last + 1;
+        }
+    }
+
+    private long available() {
+        if (dependencies.length == 0) {
+            return ring.highestPublished(nextSequence);
+        }
+        return Sequence.minimum(dependencies, Long.MAX_VALUE);
+    }
+
+    private void handle(E event, long current) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                handler.onEvent(event, current);
+                return;
+            } catch (Exception e) {
+                if (attempt >= retries || !backoff()) {
+                    failures.increment();
+                    failureHandler.onFailure(busName, name, event, current, e);
+                    return;
+                }
+            }
+        }
+    }
+
+    private boolean backoff() {
+        if (retryBackoffMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(retryBackoffMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
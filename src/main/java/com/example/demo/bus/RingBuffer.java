@@ -0,0 +1,116 @@
+package com.example.demo.bus;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * 미리 할당한 슬롯을 재사용하는 다중 생산자 링 버퍼
+ *
+ * - 슬롯 객체는 생성 시 한 번만 만들고, 생산자는 claim 한 슬롯의 필드만 채움 (이벤트당 할당 없음)
+ * - claim: cursor CAS 로 sequence 를 얻음, 가장 느린 gating sequence 가 한 바퀴 뒤에 있으면 대기 (백프레셔)
+ * - publish: 슬롯별 "몇 번째 바퀴인지" 표시를 기록 → 생산자들이 순서와 무관하게 publish 해도
+ *   소비자는 highestPublished 로 연속으로 발행된 구간까지만 처리
+ */
+final class RingBuffer<E> {
+
+    private static final VarHandle AVAILABLE = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final Object[] entries;
+    private final int mask;
+    private final int indexShift;
+    private final int[] available;
+    private final Sequence cursor = new Sequence();
+    private final WaitStrategy waitStrategy;
+    private Sequence[] gatingSequences = new Sequence[0];
+    private final Sequence gatingCache = new Sequence();
+
+    RingBuffer(int size, Supplier<E> factory, WaitStrategy waitStrategy) {
+        if (size < 1 || Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("Ring buffer size must be a power of 2: " + size);
+        }
+        this.entries = new Object[size];
+        for (int i = 0; i < size; i++) {
+            entries[i] = factory.get();
+        }
+        this.mask = size - 1;
+        this.indexShift = Integer.numberOfTrailingZeros(size);
+        this.available = new int[size];
+        for (int i = 0; i < size; i++) {
+            AVAILABLE.setRelease(available, i, -1);
+        }
+        this.waitStrategy = waitStrategy;
+    }
+
+    /**
+     * 이 sequence 들이 모두 지나간 슬롯만 재사용 (보통 마지막 완료 단계)
+     */
+    void setGatingSequences(Sequence... sequences) {
+        this.gatingSequences = sequences;
+    }
+
+    int size() {
+        return entries.length;
+    }
+
+    Sequence cursor() {
+        return cursor;
+    }
+
+    /**
+     * 다음 슬롯 claim - 링이 가득 차 있으면 완료 단계가 따라올 때까지 대기
+     */
+    long next() {
+        while (true) {
+            long current = cursor.get();
+            long next = current + 1;
+            long wrapPoint = next - entries.length;
+            long cachedGating = gatingCache.get();
+
+            if (wrapPoint > cachedGating) {
+                long gating = Sequence.minimum(gatingSequences, current);
+                if (wrapPoint > gating) {
+                    LockSupport.parkNanos(1);
+                    continue;
+                }
+                gatingCache.setRelease(gating);
+            } else if (cursor.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    E get(long sequence) {
+        return (E) entries[(int) sequence & mask];
+    }
+
+    void publish(long sequence) {
+        AVAILABLE.setRelease(available, (int) sequence & mask, (int) (sequence >>> indexShift));
+        waitStrategy.signalAll();
+    }
+
+    boolean isPublished(long sequence) {
+        return (int) AVAILABLE.getAcquire(available, (int) sequence & mask) == (int) (sequence >>> indexShift);
+    }
+
+    /**
+     * lowerBound 부터 availableSequence 까지 중 연속으로 발행된 마지막 sequence
+     */
+    long highestPublished(long lowerBound, long availableSequence) {
+        for (long sequence = lowerBound; sequence <= availableSequence; sequence++) {
+            if (!isPublished(sequence)) {
+                return sequence - 1;
+            }
+        }
+        return availableSequence;
+    }
+
+    /**
+     * 처리 가능한 최대 sequence (의존 핸들러가 없는 첫 단계용)
+     */
+    long highestPublished(long lowerBound) {
+        return highestPublished(lowerBound, cursor.get());
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.demo.bus;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * 링 버퍼 위치 카운터 (cursor, 핸들러 진행 위치)
+ *
+ * 서로 다른 스레드가 자주 쓰는 Sequence 들이 같은 캐시 라인에 놓이면 false sharing 이 생기므로
+ * 값 앞뒤를 long 7개씩 채워 캐시 라인 하나를 단독으로 쓰게 합니다.
+ */
+class SequencePadding {
+    protected long p1, p2, p3, p4, p5, p6, p7;
+}
+
+class SequenceValue extends SequencePadding {
+    protected volatile long value;
+}
+
+final class Sequence extends SequenceValue {
+
+    static final long INITIAL = -1L;
+
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(SequenceValue.class, "value", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    protected long p9, p10, p11, p12, p13, p14, p15;
+
+    Sequence() {
+        this.value = INITIAL;
+    }
+
+    long get() {
+        return value;
+    }
+
+    /**
+     * 순서만 보장하는 쓰기 (이전 쓰기가 먼저 보이도록 release) - 단일 쓰기 스레드용
+     */
+    void setRelease(long newValue) {
+        VALUE.setRelease(this, newValue);
+    }
+
+    boolean compareAndSet(long expected, long newValue) {
+        return VALUE.compareAndSet(this, expected, newValue);
+    }
+
+    static long minimum(Sequence[] sequences, long minimum) {
+        for (Sequence sequence : sequences) {
+            minimum = Math.min(minimum, sequence.get());
+        }
+        return minimum;
+    }
+}
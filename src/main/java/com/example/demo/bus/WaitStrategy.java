@@ -0,0 +1,141 @@
+package com.example.demo.bus;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * 핸들러 스레드가 다음 이벤트를 기다리는 방식
+ *
+ * 🔧 demo.bus.wait-strategy:
+ * - busy-spin: 계속 확인 (지연 최소, 핸들러마다 코어 하나를 점유)
+ * - yielding:  잠깐 spin 후 Thread.yield (지연 낮음, 다른 스레드에 CPU 양보)
+ * - sleeping:  spin → yield → parkNanos (유휴 시 CPU 사용 적음, 깨어나는 데 수십 µs) - 기본값
+ * - blocking:  lock/condition 으로 대기, 발행 시 깨움 (CPU 사용 최소, 지연 가장 큼)
+ */
+public interface WaitStrategy {
+
+    /**
+     * sequence 이상이 처리 가능해질 때까지 대기
+     *
+     * @param available 현재 처리 가능한 최대 sequence
+     * @param halted    true 면 대기를 멈추고 그 시점의 값을 반환
+     * @return 처리 가능한 최대 sequence (halted 로 멈춘 경우 sequence 보다 작을 수 있음)
+     */
+    long waitFor(long sequence, LongSupplier available, BooleanSupplier halted) throws InterruptedException;
+
+    /**
+     * 새 이벤트 발행 / 핸들러 진행 후 호출 (blocking 전략만 대기 스레드를 깨움)
+     */
+    default void signalAll() {
+    }
+
+    static WaitStrategy from(String name) {
+        return switch (name.toLowerCase(Locale.ROOT)) {
+            case "busy-spin" -> new BusySpin();
+            case "yielding" -> new Yielding();
+            case "sleeping" -> new Sleeping();
+            case "blocking" -> new Blocking();
+            default -> throw new IllegalArgumentException(
+                    "Unknown wait strategy: " + name + " (busy-spin, yielding, sleeping, blocking)");
+        };
+    }
+
+    final class BusySpin implements WaitStrategy {
+        @Override
+        public long waitFor(long sequence, LongSupplier available, BooleanSupplier halted) {
+            long current;
+            while ((current = available.getAsLong()) < sequence && !halted.getAsBoolean()) {
+                Thread.onSpinWait();
+            }
+            return current;
+        }
+    }
+
+    final class Yielding implements WaitStrategy {
+        private static final int SPIN_TRIES = 100;
+
+        @Override
+        public long waitFor(long sequence, LongSupplier available, BooleanSupplier halted) {
+            long current;
+            int counter = SPIN_TRIES;
+            while ((current = available.getAsLong()) < sequence && !halted.getAsBoolean()) {
+                if (counter > 0) {
+                    counter--;
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+            }
+            return current;
+        }
+    }
+
+    final class Sleeping implements WaitStrategy {
+        private static final int SPIN_TRIES = 100;
+        private static final int YIELD_TRIES = 100;
+        private static final long SLEEP_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+        @Override
+        public long waitFor(long sequence, LongSupplier available, BooleanSupplier halted) {
+            long current;
+            int counter = SPIN_TRIES + YIELD_TRIES;
+            while ((current = available.getAsLong()) < sequence && !halted.getAsBoolean()) {
+                if (counter > YIELD_TRIES) {
+                    counter--;
+                    Thread.onSpinWait();
+                } else if (counter > 0) {
+                    counter--;
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(SLEEP_NANOS);
+                }
+            }
+            return current;
+        }
+    }
+
+    final class Blocking implements WaitStrategy {
+        // 깨우는 쪽이 신호를 놓쳐도 멈춤 확인이 늦어지지 않도록 대기 상한을 둠
+        private static final long MAX_AWAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition advanced = lock.newCondition();
+        private volatile int waiters;
+
+        @Override
+        public long waitFor(long sequence, LongSupplier available, BooleanSupplier halted) throws InterruptedException {
+            long current = available.getAsLong();
+            if (current >= sequence) {
+                return current;
+            }
+            lock.lock();
+            waiters++;
+            try {
+                while ((current = available.getAsLong()) < sequence && !halted.getAsBoolean()) {
+                    advanced.awaitNanos(MAX_AWAIT_NANOS);
+                }
+            } finally {
+                waiters--;
+                lock.unlock();
+            }
+            return current;
+        }
+
+        @Override
+        public void signalAll() {
+            if (waiters > 0) {
+                lock.lock();
+                try {
+                    advanced.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+}
@@ -1,15 +1,36 @@
 package com.example.demo.config;
 
+import com.example.demo.routing.EventLane;
+import com.example.demo.routing.EventLaneRouter;
+import com.example.demo.routing.LaneSettings;
 import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaAdmin;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Kafka 토픽 설정
  * 
  * 애플리케이션 시작 시 필요한 토픽들을 자동으로 생성합니다.
+ *
+ * 📦 압축 설정:
+ * 토픽 compression.type 은 프로듀서 설정(spring.kafka.producer.compression-type)과 같은 값을 사용합니다.
+ * 두 값이 다르면 브로커가 배치를 풀었다가 다시 압축하므로 브로커 CPU가 낭비됩니다.
+ * 코덱 선정 근거는 CompressionCodecBenchmarkTest 참고.
+ *
+ * 🗜️ user-latest-state:
+ * 사용자별 최신 세션 상태를 담는 log-compacted 토픽입니다. (UserStateProducer 가 기록, UserStateBootstrap 이 시작 시 복원)
+ * 컴팩션 후에는 사용자당 최신 레코드 1건만 남으므로 재시작 시 이벤트 토픽 전체 대신 이 토픽만 읽으면 됩니다.
+ *
+ * 🔀 레인 토픽:
+ * demo.routing.enabled=true 이면 record-events / pojo-events 마다 CRITICAL / BULK 레인 토픽
+ * ({base}.critical, {base}.bulk)을 함께 생성합니다. (STANDARD 레인은 기존 토픽 사용, EventLaneRouter 참고)
  */
 @Configuration
 public class KafkaConfig {
@@ -23,11 +44,18 @@ public class KafkaConfig {
     @Value("${demo.kafka.topics.comparison-events}")
     private String comparisonEventsTopic;
 
+    @Value("${demo.kafka.topics.user-latest-state}")
+    private String userLatestStateTopic;
+
+    @Value("${demo.kafka.compression.type:producer}")
+    private String compressionType;
+
     @Bean
     public NewTopic recordEventsTopic() {
         return TopicBuilder.name(recordEventsTopic)
                 .partitions(3)
                 .replicas(1)
+                .config(TopicConfig.COMPRESSION_TYPE_CONFIG, compressionType)
                 .build();
     }
 
@@ -36,6 +64,7 @@ public class KafkaConfig {
         return TopicBuilder.name(pojoEventsTopic)
                 .partitions(3)
                 .replicas(1)
+                .config(TopicConfig.COMPRESSION_TYPE_CONFIG, compressionType)
                 .build();
     }
 
@@ -44,6 +73,41 @@ public class KafkaConfig {
         return TopicBuilder.name(comparisonEventsTopic)
                 .partitions(3)
                 .replicas(1)
+                .config(TopicConfig.COMPRESSION_TYPE_CONFIG, compressionType)
+                .build();
+    }
+
+    @Bean
+    public NewTopic userLatestStateTopic() {
+        return TopicBuilder.name(userLatestStateTopic)
+                .partitions(3)
+                .replicas(1)
+                .compact()
+                .config(TopicConfig.COMPRESSION_TYPE_CONFIG, compressionType)
+                // 활성 세그먼트는 컴팩션 대상이 아니므로 작게 굴려 오래된 스냅샷이 빨리 정리되도록 함
+                .config(TopicConfig.SEGMENT_MS_CONFIG, "600000")
+                .config(TopicConfig.MIN_CLEANABLE_DIRTY_RATIO_CONFIG, "0.1")
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * 레인 토픽 (레인 수가 설정에 따라 달라지므로 NewTopics 하나로 등록, 비활성화 시 빈 목록)
+     */
+    @Bean
+    public KafkaAdmin.NewTopics laneTopics(EventLaneRouter laneRouter) {
+        List<NewTopic> topics = new ArrayList<>();
+        if (laneRouter.enabled()) {
+            for (String baseTopic : List.of(recordEventsTopic, pojoEventsTopic)) {
+                for (EventLane lane : List.of(EventLane.CRITICAL, EventLane.BULK)) {
+                    LaneSettings settings = laneRouter.settings(lane);
+                    topics.add(TopicBuilder.name(lane.topic(baseTopic))
+                            .partitions(settings.partitions())
+                            .replicas(1)
+                            .config(TopicConfig.COMPRESSION_TYPE_CONFIG, compressionType)
+                            .build());
+                }
+            }
+        }
+        return new KafkaAdmin.NewTopics(topics.toArray(new NewTopic[0]));
+    }
+}
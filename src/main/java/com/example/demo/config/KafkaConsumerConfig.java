@@ -0,0 +1,267 @@
+package com.example.demo.config;
+
+import com.example.demo.consumer.EventFanOut;
+import com.example.demo.dto.pojo.UserEventPojoDto;
+import com.example.demo.dto.record.UserEventRecordDto;
+import com.example.demo.flow.AdaptiveFlowController;
+import com.example.demo.producer.ComparisonEventProducer;
+import com.example.demo.rebalance.RebalanceCoordinator;
+import com.example.demo.routing.EventLane;
+import com.example.demo.routing.EventLaneRouter;
+import com.example.demo.routing.LaneSettings;
+import com.example.demo.schema.LocalSchemaRegistry;
+import com.example.demo.schema.VersionedJsonDeserializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * DTO 타입별 Kafka 컨슈머 설정
+ *
+ * 모든 리스너가 하나의 전역 value-deserializer(default.type = UserEventPojoDto)를 공유하면
+ * Record 리스너는 POJO로 디코딩된 메시지를 다시 변환 받아야 합니다. (메시지마다 변환 1회 추가)
+ *
+ * 이 설정은 DTO 타입마다 ConsumerFactory / ListenerContainerFactory 를 분리합니다.
+ * - recordListenerContainerFactory: record-events → UserEventRecordDto 로 바로 디코딩
+ * - pojoListenerContainerFactory:   pojo-events   → UserEventPojoDto 로 바로 디코딩
+ * - record/pojo Critical/Bulk ListenerContainerFactory: 레인 토픽({base}.critical, {base}.bulk) 전용
+ * - comparisonListenerContainerFactory: 두 토픽 → UserEventRecordDto 배치, exactly-once 모드에서는 poll 마다 트랜잭션 하나
+ * - pojoBatchListenerContainerFactory: pojo-events → byte[] 배치 (POJO 재사용 모드, RecyclingPojoDecoder 로 직접 디코딩)
+ * - archiveBatchListenerContainerFactory: 두 토픽 → UserEventRecordDto 배치 (컬럼형 아카이브)
+ *
+ * 리스너는 @KafkaListener(containerFactory = ...) 로 자신의 팩토리를 지정합니다.
+ *
+ * 🔧 단건 리스너 팩토리(record / pojo)에는 AdaptiveFlowController 가 연결되어
+ * 처리 지연이 커지면 파티션 pause/resume 과 poll 주기 가드로 속도를 조절합니다.
+ *
+ * 🔀 레인 팩토리는 레인 설정(EventLaneRouter)의 스레드 수(concurrency)와 max.poll.records 로 동작합니다.
+ * CRITICAL 레인은 스레드를 더 주고 poll 을 작게 잡아, BULK 레인이 밀려도 자기 파티션을 바로 가져갑니다.
+ * 흐름 제어는 레인마다 따로 연결되어 BULK 레인의 지연이 CRITICAL 레인을 멈추지 않습니다.
+ *
+ * 🔧 demo.bus.enabled=true 이면 단건 리스너 팩토리(record / pojo)는 AckMode.MANUAL 로 동작합니다.
+ * 리스너는 EventFanOut 버스에 발행만 하고, 모든 핸들러가 끝난 뒤 완료 단계가 ack 합니다.
+ *
+ * 🔀 단건 리스너 팩토리(record / pojo, 레인 포함)에는 RebalanceCoordinator 가 연결되어
+ * cooperative 할당과 정적 멤버십(group.instance.id)으로 리밸런스를 줄이고, 파티션을 내놓기 전(오프셋 커밋 전)
+ * 버스 drain / 상태 flush 후 파티션 상태를 정리, 파티션을 받을 때 이전 소유자의 상태를 따라잡습니다.
+ *
+ * ⚠️ 처리 실패 시:
+ * 리스너가 예외를 삼키면 오프셋이 그대로 커밋되어 이벤트가 유실됩니다.
+ * 리스너는 예외를 다시 던지고, DefaultErrorHandler 가 재시도(RETRY_INTERVAL_MS × MAX_RETRIES) 후 로그를 남깁니다.
+ */
+@Configuration
+public class KafkaConsumerConfig {
+
+    private static final long RETRY_INTERVAL_MS = 1_000L;
+    private static final long MAX_RETRIES = 2L;
+
+    private final KafkaProperties kafkaProperties;
+    private final LocalSchemaRegistry schemaRegistry;
+    private final ObjectMapper objectMapper;
+    private final AdaptiveFlowController flowController;
+    private final EventFanOut eventFanOut;
+    private final EventLaneRouter laneRouter;
+    private final RebalanceCoordinator rebalanceCoordinator;
+    private final boolean exactlyOnce;
+    private final int comparisonBatchSize;
+
+    public KafkaConsumerConfig(KafkaProperties kafkaProperties,
+                               LocalSchemaRegistry schemaRegistry,
+                               ObjectMapper objectMapper,
+                               AdaptiveFlowController flowController,
+                               EventFanOut eventFanOut,
+                               EventLaneRouter laneRouter,
+                               RebalanceCoordinator rebalanceCoordinator,
+                               @Value("${demo.kafka.exactly-once.enabled}") boolean exactlyOnce,
+                               @Value("${demo.kafka.exactly-once.batch-size:500}") int comparisonBatchSize) {
+        this.kafkaProperties = kafkaProperties;
+        this.schemaRegistry = schemaRegistry;
+        this.objectMapper = objectMapper;
+        this.flowController = flowController;
+        this.eventFanOut = eventFanOut;
+        this.laneRouter = laneRouter;
+        this.rebalanceCoordinator = rebalanceCoordinator;
+        this.exactlyOnce = exactlyOnce;
+        this.comparisonBatchSize = comparisonBatchSize;
+    }
+
+    @Bean
+    public ConsumerFactory<String, UserEventRecordDto> recordConsumerFactory() {
+        return typedConsumerFactory(UserEventRecordDto.class);
+    }
+
+    @Bean
+    public ConsumerFactory<String, UserEventPojoDto> pojoConsumerFactory() {
+        return typedConsumerFactory(UserEventPojoDto.class);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, UserEventRecordDto> recordListenerContainerFactory(
+            ConsumerFactory<String, UserEventRecordDto> recordConsumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<String, UserEventRecordDto> factory =
+                listenerContainerFactory(recordConsumerFactory);
+        flowController.attach("record-events", factory);
+        attachEventBus(factory);
+        rebalanceCoordinator.attach(EventFanOut.RECORD_EVENTS, factory);
+        return factory;
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, UserEventPojoDto> pojoListenerContainerFactory(
+            ConsumerFactory<String, UserEventPojoDto> pojoConsumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<String, UserEventPojoDto> factory =
+                listenerContainerFactory(pojoConsumerFactory);
+        flowController.attach("pojo-events", factory);
+        attachEventBus(factory);
+        rebalanceCoordinator.attach(EventFanOut.POJO_EVENTS, factory);
+        return factory;
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, UserEventRecordDto> recordCriticalListenerContainerFactory(
+            ConsumerFactory<String, UserEventRecordDto> recordConsumerFactory) {
+        return laneListenerContainerFactory(recordConsumerFactory, "record-events", EventLane.CRITICAL);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, UserEventRecordDto> recordBulkListenerContainerFactory(
+            ConsumerFactory<String, UserEventRecordDto> recordConsumerFactory) {
+        return laneListenerContainerFactory(recordConsumerFactory, "record-events", EventLane.BULK);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, UserEventPojoDto> pojoCriticalListenerContainerFactory(
+            ConsumerFactory<String, UserEventPojoDto> pojoConsumerFactory) {
+        return laneListenerContainerFactory(pojoConsumerFactory, "pojo-events", EventLane.CRITICAL);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, UserEventPojoDto> pojoBulkListenerContainerFactory(
+            ConsumerFactory<String, UserEventPojoDto> pojoConsumerFactory) {
+        return laneListenerContainerFactory(pojoConsumerFactory, "pojo-events", EventLane.BULK);
+    }
+
+    /**
+     * POJO 재사용 모드용 배치 팩토리
+     *
+     * 값을 byte[] 그대로 배치로 넘기고, 리스너가 재사용 인스턴스에 직접 디코딩합니다.
+     * 배치 처리 중 예외가 나면 DefaultErrorHandler 가 배치 전체를 재시도합니다.
+     * (이미 처리한 이벤트는 DeduplicationService 가 건너뜀)
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> pojoBatchListenerContainerFactory() {
+        ConsumerFactory<String, byte[]> consumerFactory = new DefaultKafkaConsumerFactory<>(
+                consumerProperties(), new StringDeserializer(), new ByteArrayDeserializer());
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory = listenerContainerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        return factory;
+    }
+
+    /**
+     * 컬럼형 아카이브용 배치 팩토리
+     *
+     * poll 한 번에 받은 레코드를 row group 하나로 기록하고, 파일 sync 후 리스너가 반환하면 오프셋이 커밋됩니다.
+     * 두 토픽의 스키마는 필드가 같으므로 pojo-events 도 UserEventRecordDto 로 디코딩합니다.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, UserEventRecordDto> archiveBatchListenerContainerFactory(
+            ConsumerFactory<String, UserEventRecordDto> recordConsumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<String, UserEventRecordDto> factory =
+                listenerContainerFactory(recordConsumerFactory);
+        factory.setBatchListener(true);
+        return factory;
+    }
+
+    /**
+     * comparison-events 전달 경로용 배치 팩토리
+     *
+     * poll 한 번(최대 demo.kafka.exactly-once.batch-size 건)을 배치 하나로 리스너에 넘깁니다.
+     * exactly-once 모드에서는 컨테이너가 poll 마다 Kafka 트랜잭션 하나를 시작하고,
+     * 리스너의 배치 전송과 입력 오프셋 커밋을 같은 트랜잭션으로 커밋합니다. (트랜잭션 비용을 배치 전체에 분산)
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, UserEventRecordDto> comparisonListenerContainerFactory(
+            ConsumerFactory<String, UserEventRecordDto> recordConsumerFactory,
+            ComparisonEventProducer comparisonEventProducer) {
+        ConcurrentKafkaListenerContainerFactory<String, UserEventRecordDto> factory =
+                listenerContainerFactory(recordConsumerFactory);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().getKafkaConsumerProperties()
+                .setProperty(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, Integer.toString(comparisonBatchSize));
+        comparisonEventProducer.transactionManager()
+                .ifPresent(transactionManager -> factory.getContainerProperties().setTransactionManager(transactionManager));
+        return factory;
+    }
+
+    /**
+     * 레인 리스너 팩토리 - 레인별 스레드 수 / max.poll.records, 레인별 흐름 제어
+     *
+     * 레인 리스너는 EventFanOut 버스를 쓰지 않고 전용 스레드에서 직렬 처리합니다. (버스는 STANDARD 레인 전용)
+     */
+    private <T> ConcurrentKafkaListenerContainerFactory<String, T> laneListenerContainerFactory(
+            ConsumerFactory<String, T> consumerFactory, String listener, EventLane lane) {
+        ConcurrentKafkaListenerContainerFactory<String, T> factory = listenerContainerFactory(consumerFactory);
+        LaneSettings settings = laneRouter.settings(lane);
+        factory.setConcurrency(settings.concurrency());
+        factory.getContainerProperties().getKafkaConsumerProperties()
+                .setProperty(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, Integer.toString(settings.maxPollRecords()));
+        flowController.attach(lane.topic(listener), factory, settings.maxPollRecords());
+        rebalanceCoordinator.attach(lane.topic(listener), factory);
+        return factory;
+    }
+
+    /**
+     * 버스 완료 단계에서 ack 하도록 MANUAL 모드로 변경 (리밸런스 시 버스 drain 은 RebalanceCoordinator)
+     */
+    private <T> void attachEventBus(ConcurrentKafkaListenerContainerFactory<String, T> factory) {
+        if (eventFanOut.busEnabled()) {
+            factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        }
+    }
+
+    private <T> ConcurrentKafkaListenerContainerFactory<String, T> listenerContainerFactory(
+            ConsumerFactory<String, T> consumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<String, T> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(new FixedBackOff(RETRY_INTERVAL_MS, MAX_RETRIES)));
+        return factory;
+    }
+
+    /**
+     * application.yml 의 spring.kafka.consumer.* 설정을 그대로 쓰고,
+     * 값 Deserializer만 대상 타입 전용 인스턴스로 지정
+     *
+     * Deserializer는 스키마 ID별 디코더 캐시를 갖고 있으며 thread-safe 하므로
+     * 같은 팩토리의 모든 컨슈머 스레드가 하나의 인스턴스(캐시)를 공유합니다.
+     *
+     * exactly-once 모드에서는 read_committed 로 설정해 중단(abort)된 트랜잭션의 레코드를 건너뜁니다.
+     */
+    private <T> ConsumerFactory<String, T> typedConsumerFactory(Class<T> type) {
+        return new DefaultKafkaConsumerFactory<>(
+                consumerProperties(),
+                new StringDeserializer(),
+                new VersionedJsonDeserializer<>(schemaRegistry, objectMapper, type));
+    }
+
+    private Map<String, Object> consumerProperties() {
+        Map<String, Object> props = new HashMap<>(kafkaProperties.buildConsumerProperties(null));
+        if (exactlyOnce) {
+            props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+        }
+        return props;
+    }
+}
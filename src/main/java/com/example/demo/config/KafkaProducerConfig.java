@@ -0,0 +1,40 @@
+package com.example.demo.config;
+
+import com.example.demo.partition.HotKeyAwarePartitioner;
+import com.example.demo.partition.PartitionSkewMonitor;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+/**
+ * Kafka 프로듀서 설정
+ *
+ * Spring Boot가 만드는 기본 프로듀서 팩토리에 파티셔닝 전략을 주입합니다.
+ * - HotKeyAwarePartitioner: 핫 키(이벤트가 몰리는 userId)를 여러 파티션으로 분산 (LOGIN/LOGOUT 등 순서가 중요한 eventType 제외)
+ * - PartitionSkewMonitor:   파티션 쏠림을 메트릭(demo.partition.*)으로 노출
+ *
+ * 파티셔너는 Kafka가 직접 생성하므로, 모니터 인스턴스와 임계값은 프로듀서 설정 맵으로 전달합니다.
+ */
+@Configuration
+public class KafkaProducerConfig {
+
+    @Bean
+    public DefaultKafkaProducerFactoryCustomizer hotKeyPartitionerCustomizer(
+            PartitionSkewMonitor partitionSkewMonitor,
+            @Value("${demo.kafka.partitioner.hot-key-threshold}") long hotKeyThreshold,
+            @Value("${demo.kafka.partitioner.window-ms}") long windowMs,
+            @Value("${demo.kafka.partitioner.salt-buckets}") int saltBuckets,
+            @Value("${demo.kafka.partitioner.ordered-event-types:LOGIN,LOGOUT}") String orderedEventTypes) {
+        return producerFactory -> producerFactory.updateConfigs(Map.of(
+                ProducerConfig.PARTITIONER_CLASS_CONFIG, HotKeyAwarePartitioner.class,
+                HotKeyAwarePartitioner.HOT_KEY_THRESHOLD_CONFIG, hotKeyThreshold,
+                HotKeyAwarePartitioner.WINDOW_MS_CONFIG, windowMs,
+                HotKeyAwarePartitioner.SALT_BUCKETS_CONFIG, saltBuckets,
+                HotKeyAwarePartitioner.ORDERED_EVENT_TYPES_CONFIG, orderedEventTypes,
+                HotKeyAwarePartitioner.SKEW_MONITOR_CONFIG, partitionSkewMonitor));
+    }
+}
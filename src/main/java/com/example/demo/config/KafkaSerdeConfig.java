@@ -0,0 +1,36 @@
+package com.example.demo.config;
+
+import com.example.demo.schema.LocalSchemaRegistry;
+import com.example.demo.schema.VersionedJsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+
+/**
+ * Kafka 값(value) 직렬화/역직렬화 설정
+ *
+ * 기존에는 application.yml 의 JsonSerializer/JsonDeserializer 를 사용했고,
+ * 컨슈머는 spring.json.value.default.type(UserEventPojoDto) 하나로 모든 메시지를 디코딩했습니다.
+ * → Record 리스너도 일단 POJO로 디코딩된 뒤 변환되었고, 스키마 변경은 FAIL_ON_UNKNOWN_PROPERTIES=false 에 의존했습니다.
+ *
+ * 이 설정은 Spring Boot가 만드는 기본 프로듀서 팩토리에 스키마 봉투 기반 Serializer를 주입합니다.
+ * - 프로듀서: 페이로드 타입의 최신 스키마 ID를 메시지 앞에 기록
+ * - 컨슈머: KafkaConsumerConfig 의 DTO 타입별 팩토리가 스키마 ID로 캐시된 디코더를 찾아 바로 디코딩
+ * - demo.kafka.timestamps.epoch-micros: timestamp 를 문자열 대신 epoch 마이크로초 숫자로 기록
+ */
+@Configuration
+public class KafkaSerdeConfig {
+
+    @Bean
+    @SuppressWarnings("unchecked")
+    public DefaultKafkaProducerFactoryCustomizer versionedValueSerializerCustomizer(
+            LocalSchemaRegistry schemaRegistry, ObjectMapper objectMapper,
+            @Value("${demo.kafka.timestamps.epoch-micros:false}") boolean epochMicrosTimestamps) {
+        return producerFactory -> ((DefaultKafkaProducerFactory<Object, Object>) producerFactory)
+                .setValueSerializerSupplier(() ->
+                        new VersionedJsonSerializer<>(schemaRegistry, objectMapper, epochMicrosTimestamps));
+    }
+}
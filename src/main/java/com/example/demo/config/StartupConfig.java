@@ -0,0 +1,45 @@
+package com.example.demo.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+
+/**
+ * 빠른 시작 모드(fast-startup 프로파일) 설정
+ *
+ * fast-startup 프로파일은 spring.main.lazy-initialization=true 로 컨트롤러, 프로듀서, 백필, 스풀 등
+ * 첫 poll 에 필요 없는 빈의 생성을 첫 사용 시점으로 미룹니다.
+ *
+ * ⚠️ @KafkaListener 빈은 지연 생성하면 안 됩니다.
+ * 리스너 엔드포인트는 빈이 생성될 때 등록되므로, 지연 생성되면 아무도 참조하지 않아 리스너가 영영 시작되지 않습니다.
+ * → 이 필터로 리스너 빈(과 그 의존성인 세션 저장소/집계/중복 제거)은 항상 즉시 생성합니다.
+ * SmartLifecycle 빈(UserStateBootstrap 등)은 지연 설정과 무관하게 컨텍스트 시작 시 생성됩니다.
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter kafkaListenerLazyInitializationExcludeFilter() {
+        return (beanName, beanDefinition, beanType) -> hasKafkaListener(beanType);
+    }
+
+    private static boolean hasKafkaListener(Class<?> beanType) {
+        if (beanType == null) {
+            return false;
+        }
+        if (AnnotatedElementUtils.hasAnnotation(beanType, KafkaListener.class)) {
+            return true;
+        }
+        for (Method method : ReflectionUtils.getUniqueDeclaredMethods(beanType)) {
+            if (AnnotatedElementUtils.hasAnnotation(method, KafkaListener.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.demo.consumer;
+
+import com.example.demo.dto.record.UserEventRecordDto;
+import com.example.demo.producer.ComparisonEventProducer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Record/POJO 이벤트를 comparison-events 로 전달하는 배치 컨슈머
+ *
+ * 두 토픽의 이벤트를 모두 UserEventRecordDto 로 받아 하나의 비교용 토픽으로 모읍니다.
+ * (POJO 스키마 메시지도 Record 전용 Deserializer가 Record로 바로 디코딩)
+ *
+ * poll 한 번에 받은 레코드(최대 demo.kafka.exactly-once.batch-size 건)를 한 번에 전달합니다.
+ * - exactly-once 모드: 컨테이너가 poll 마다 Kafka 트랜잭션 하나를 시작하고, 배치 전체의 전송과 입력 오프셋을
+ *   같은 트랜잭션으로 커밋 → 재시도/장애가 있어도 comparison-events 에는 입력 한 건당 정확히 한 건만 커밋
+ * - at-least-once 모드: 배치를 모두 보낸 뒤 전송 확인을 한 번에 기다리고, 반환하면 컨테이너가 오프셋을 커밋
+ *
+ * 트랜잭션 커밋 비용은 배치당 고정이므로 배치가 클수록 레코드당 비용이 줄어듭니다. (ExactlyOnceBenchmarkTest)
+ */
+@Service
+public class ComparisonEventForwarder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ComparisonEventForwarder.class);
+
+    private final ComparisonEventProducer comparisonEventProducer;
+
+    public ComparisonEventForwarder(ComparisonEventProducer comparisonEventProducer) {
+        this.comparisonEventProducer = comparisonEventProducer;
+    }
+
+    @KafkaListener(
+            // 레인 토픽({base}.critical, {base}.bulk)까지 구독 (demo.routing.enabled=false 면 기존 두 토픽만 존재)
+            topicPattern = "(${demo.kafka.topics.record-events}|${demo.kafka.topics.pojo-events})(\\.(critical|bulk))?",
+            groupId = "comparison-forwarder-group",
+            containerFactory = "comparisonListenerContainerFactory")
+    public void forward(List<ConsumerRecord<String, UserEventRecordDto>> records) {
+        List<UserEventRecordDto> events = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, UserEventRecordDto> record : records) {
+            events.add(record.value());
+        }
+        logger.debug("🔁 Forwarding batch of {} events", events.size());
+        comparisonEventProducer.forward(events);
+    }
+}
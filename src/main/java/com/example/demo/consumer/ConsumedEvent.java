@@ -0,0 +1,87 @@
+package com.example.demo.consumer;
+
+import com.example.demo.jfr.ConsumeEvent;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.util.Map;
+
+/**
+ * 리스너가 받은 이벤트 1건 - EventFanOut 핸들러들의 공통 입력 (EventBus 링 슬롯으로 재사용)
+ *
+ * Record / POJO DTO 를 그대로 넘기지 않고 핸들러가 쓰는 값만 꺼내 담으므로
+ * 두 리스너가 같은 핸들러를 공유합니다.
+ */
+final class ConsumedEvent {
+
+    String label;
+    Class<?> dtoType;
+    String topic;
+    int partition;
+    long offset;
+    int payloadBytes;
+
+    String userId;
+    String eventType;
+    long timestampMicros;
+    Map<String, Object> metadata;
+    boolean login;
+    boolean logout;
+
+    long fingerprint;
+    ConsumeEvent consumeEvent;
+    Acknowledgment acknowledgment;
+    long publishedNanos;
+
+    // 재시도를 소진한 핸들러가 있으면 true (완료 단계에서 중복 제거 기록 생략)
+    // 핸들러 스레드가 쓰는 유일한 필드 - 핸들러의 sequence 공개(release) 전에 쓰므로 완료 단계에서 보임
+    boolean failed;
+
+    ConsumedEvent set(String label, Class<?> dtoType, String topic, int partition, long offset, int payloadBytes,
+                      String userId, String eventType, long timestampMicros, Map<String, Object> metadata,
+                      boolean login, boolean logout) {
+        this.label = label;
+        this.dtoType = dtoType;
+        this.topic = topic;
+        this.partition = partition;
+        this.offset = offset;
+        this.payloadBytes = payloadBytes;
+        this.userId = userId;
+        this.eventType = eventType;
+        this.timestampMicros = timestampMicros;
+        this.metadata = metadata;
+        this.login = login;
+        this.logout = logout;
+        this.failed = false;
+        return this;
+    }
+
+    ConsumedEvent tracking(long fingerprint, ConsumeEvent consumeEvent, Acknowledgment acknowledgment) {
+        this.fingerprint = fingerprint;
+        this.consumeEvent = consumeEvent;
+        this.acknowledgment = acknowledgment;
+        return this;
+    }
+
+    /**
+     * 완료 후 참조 해제 (슬롯이 다음 바퀴까지 DTO 메타데이터 / ack 를 붙잡지 않도록)
+     */
+    void clear() {
+        userId = null;
+        eventType = null;
+        metadata = null;
+        consumeEvent = null;
+        acknowledgment = null;
+    }
+
+    void copyFrom(ConsumedEvent source) {
+        set(source.label, source.dtoType, source.topic, source.partition, source.offset, source.payloadBytes,
+                source.userId, source.eventType, source.timestampMicros, source.metadata, source.login, source.logout);
+        tracking(source.fingerprint, source.consumeEvent, source.acknowledgment);
+    }
+
+    @Override
+    public String toString() {
+        return label + " event{topic=" + topic + ", partition=" + partition + ", offset=" + offset
+                + ", userId=" + userId + ", eventType=" + eventType + "}";
+    }
+}
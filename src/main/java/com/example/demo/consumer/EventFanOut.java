@@ -0,0 +1,214 @@
+package com.example.demo.consumer;
+
+import com.example.demo.aggregation.EventAggregationService;
+import com.example.demo.bus.EventBus;
+import com.example.demo.bus.WaitStrategy;
+import com.example.demo.dedup.DeduplicationService;
+import com.example.demo.dto.EventTimestamps;
+import com.example.demo.producer.UserStateProducer;
+import com.example.demo.session.SessionEventKind;
+import com.example.demo.session.SessionStateStore;
+import com.example.demo.startup.StartupTimeline;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 리스너 이후 이벤트 처리 단계 (RecordEventConsumer / PojoEventConsumer 공통)
+ *
+ * 처리 로직을 서로 독립적인 핸들러로 나눕니다.
+ * - sessions:      세션 상태 반영 (SessionStateStore)
+ * - state-publish: 합쳐진 최신 상태를 compacted 토픽에 기록 (sessions 이후)
+ * - aggregation:   분/시간 윈도우 집계
+ * - activity-log:  LOGIN/LOGOUT, 메타데이터 로그
+ *
+ * 🔧 demo.bus.enabled:
+ * - false (기본): 리스너 스레드에서 위 순서대로 직렬 호출, 예외는 리스너로 전파 (컨테이너 에러 핸들러가 재시도)
+ * - true: 리스너(단건)별 EventBus 로 발행하고 리스너는 바로 반환, 핸들러들이 각자 스레드에서 병렬 처리
+ *   → 오프셋은 모든 핸들러가 지나간 뒤 완료 단계에서 ack (컨테이너는 AckMode.MANUAL)
+ *   → 핸들러 예외는 에러 핸들러와 같은 횟수/간격으로 제자리 재시도 후 로그를 남기고 ack (재시도 소진 후 건너뛰는 동작과 동일)
+ *   → 파티션을 내놓기 전(리밸런스) drain 으로 발행된 이벤트를 모두 완료해 ack 가 커밋에 포함되도록 함
+ *
+ * 핸들러를 늘려도 이벤트당 지연은 가장 긴 의존 경로만큼만 늘어납니다. (EventBusBenchmarkTest 참고)
+ * 링의 한 핸들러 스레드가 모든 파티션을 처리하므로 SessionStateStore 의 "파티션당 쓰기 스레드 하나" 가정도 유지됩니다.
+ *
+ * ⚠️ POJO 재사용 배치 리스너는 재사용 인스턴스의 메타데이터가 콜백 이후 바뀌므로 항상 직렬 경로를 사용합니다.
+ *
+ * 📊 메트릭: EventBus 메트릭 + demo.bus.latency (bus 태그, 발행부터 완료 단계까지)
+ */
+@Component
+public class EventFanOut implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventFanOut.class);
+
+    public static final String RECORD_EVENTS = "record-events";
+    public static final String POJO_EVENTS = "pojo-events";
+
+    private final SessionStateStore sessionStateStore;
+    private final EventAggregationService eventAggregationService;
+    private final DeduplicationService deduplicationService;
+    private final UserStateProducer userStateProducer;
+    private final StartupTimeline startupTimeline;
+    private final Duration drainTimeout;
+    private final Map<String, EventBus<ConsumedEvent>> buses = new LinkedHashMap<>();
+    private final ThreadLocal<ConsumedEvent> scratch = ThreadLocal.withInitial(ConsumedEvent::new);
+
+    public EventFanOut(SessionStateStore sessionStateStore,
+                       EventAggregationService eventAggregationService,
+                       DeduplicationService deduplicationService,
+                       UserStateProducer userStateProducer,
+                       StartupTimeline startupTimeline,
+                       MeterRegistry meterRegistry,
+                       @Value("${demo.bus.enabled:false}") boolean enabled,
+                       @Value("${demo.bus.ring-size:4096}") int ringSize,
+                       @Value("${demo.bus.wait-strategy:sleeping}") String waitStrategy,
+                       @Value("${demo.bus.retries:2}") int retries,
+                       @Value("${demo.bus.retry-backoff-ms:1000}") long retryBackoffMs,
+                       @Value("${demo.bus.drain-timeout-ms:30000}") long drainTimeoutMs) {
+        this.sessionStateStore = sessionStateStore;
+        this.eventAggregationService = eventAggregationService;
+        this.deduplicationService = deduplicationService;
+        this.userStateProducer = userStateProducer;
+        this.startupTimeline = startupTimeline;
+        this.drainTimeout = Duration.ofMillis(drainTimeoutMs);
+
+        if (enabled) {
+            for (String listener : new String[]{RECORD_EVENTS, POJO_EVENTS}) {
+                Timer latency = Timer.builder("demo.bus.latency").tag("bus", listener).register(meterRegistry);
+                buses.put(listener, EventBus.builder(listener, ConsumedEvent::new, meterRegistry)
+                        .ringSize(ringSize)
+                        .waitStrategy(WaitStrategy.from(waitStrategy))
+                        .retries(retries, retryBackoffMs)
+                        .onFailure(this::handlerFailed)
+                        .handler("sessions", this::applySession)
+                        .handler("state-publish", this::publishState, "sessions")
+                        .handler("aggregation", this::aggregate)
+                        .handler("activity-log", this::logActivity)
+                        .completion((event, sequence) -> {
+                            latency.record(System.nanoTime() - event.publishedNanos, TimeUnit.NANOSECONDS);
+                            complete(event);
+                        })
+                        .build());
+            }
+        }
+    }
+
+    /**
+     * 리스너 스레드에서 채울 재사용 이벤트 (process 에 넘기기 전까지만 유효)
+     */
+    ConsumedEvent scratch() {
+        return scratch.get();
+    }
+
+    public boolean busEnabled() {
+        return !buses.isEmpty();
+    }
+
+    /**
+     * 중복이 아닌 이벤트 처리 - 버스가 켜져 있으면 발행 후 바로 반환, 아니면 직렬 처리 후 완료
+     */
+    void process(String listener, ConsumedEvent event) {
+        EventBus<ConsumedEvent> bus = buses.get(listener);
+        if (bus != null) {
+            long publishedNanos = System.nanoTime();
+            bus.publish(slot -> {
+                slot.copyFrom(event);
+                slot.publishedNanos = publishedNanos;
+            });
+            event.clear();
+            return;
+        }
+
+        try {
+            applySession(event, -1);
+            publishState(event, -1);
+            aggregate(event, -1);
+            logActivity(event, -1);
+        } catch (RuntimeException e) {
+            event.clear();
+            throw e;
+        }
+        complete(event);
+    }
+
+    /**
+     * 리밸런스로 파티션을 내놓기 전 발행된 이벤트를 모두 완료 (ack 가 이번 커밋에 포함되도록)
+     */
+    public void drain(String listener) {
+        EventBus<ConsumedEvent> bus = buses.get(listener);
+        if (bus != null && !bus.drain(drainTimeout)) {
+            logger.warn("⚠️ Event bus {} did not drain within {} ms - remaining events will be redelivered",
+                    listener, drainTimeout.toMillis());
+        }
+    }
+
+    private void applySession(ConsumedEvent event, long sequence) {
+        // 세션 상태 반영 (LOGIN/LOGOUT 및 마지막 활동 시각)
+        sessionStateStore.apply(event.topic, event.partition, event.userId,
+                SessionEventKind.of(event.login, event.logout), event.timestampMicros);
+    }
+
+    private void publishState(ConsumedEvent event, long sequence) {
+        // 합쳐진 최신 상태를 compacted 토픽에 기록 (재시작 시 warm start 용)
+        userStateProducer.publish(event.userId);
+    }
+
+    private void aggregate(ConsumedEvent event, long sequence) {
+        // 분/시간 윈도우 집계 (eventType + 선택된 메타데이터)
+        eventAggregationService.record(event.topic, event.partition, event.eventType, event.metadata,
+                event.timestampMicros);
+    }
+
+    private void logActivity(ConsumedEvent event, long sequence) {
+        logger.debug("Processing {} event for user {}", event.eventType, event.userId);
+        if (event.login) {
+            logger.info("🔐 User {} logged in at {}", event.userId, EventTimestamps.toLocalDateTime(event.timestampMicros));
+        } else if (event.logout) {
+            logger.info("🚪 User {} logged out at {}", event.userId, EventTimestamps.toLocalDateTime(event.timestampMicros));
+        }
+        if (event.metadata != null && !event.metadata.isEmpty()) {
+            logger.debug("📊 Event metadata: {}", event.metadata);
+        }
+        // 여기에 실제 비즈니스 로직 구현 - 독립적인 처리는 별도 핸들러로 추가
+        // 예: 데이터베이스 저장, 외부 API 호출, 알림 발송 등
+    }
+
+    /**
+     * 모든 핸들러 처리 후 - 중복 제거 기록, JFR, ack (버스에서는 sequence 순서대로 호출)
+     */
+    private void complete(ConsumedEvent event) {
+        if (!event.failed) {
+            deduplicationService.markProcessed(event.fingerprint);
+            logger.info("✅ Successfully processed {} event for user: {}", event.label, event.userId);
+        }
+        if (event.consumeEvent != null) {
+            event.consumeEvent.finish(event.topic, event.partition, event.offset, event.dtoType,
+                    event.payloadBytes, false);
+        }
+        startupTimeline.messageConsumed();
+        if (event.acknowledgment != null) {
+            event.acknowledgment.acknowledge();
+        }
+        event.clear();
+    }
+
+    private void handlerFailed(String bus, String handler, ConsumedEvent event, long sequence, Exception exception) {
+        event.failed = true;
+        // 재시도를 소진한 이벤트는 DefaultErrorHandler 와 같이 로그를 남기고 건너뜀 (실제 환경에서는 DLQ 로 전송)
+        logger.error("❌ Failed to process {} in handler {} after retries", event, handler, exception);
+    }
+
+    @Override
+    public void destroy() {
+        buses.values().forEach(EventBus::close);
+    }
+}
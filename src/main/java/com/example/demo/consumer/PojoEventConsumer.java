@@ -1,14 +1,27 @@
 package com.example.demo.consumer;
 
+import com.example.demo.dedup.DeduplicationService;
 import com.example.demo.dto.pojo.UserEventPojoDto;
+import com.example.demo.jfr.ConsumeEvent;
+import com.example.demo.routing.EventLane;
+import com.example.demo.routing.EventLaneRouter;
+import com.example.demo.schema.LocalSchemaRegistry;
+import com.example.demo.schema.RecyclingPojoDecoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.adapter.ConsumerRecordMetadata;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * POJO DTO를 사용한 Kafka 컨슈머
  * 
@@ -25,46 +38,123 @@ public class PojoEventConsumer {
 
     private static final Logger logger = LoggerFactory.getLogger(PojoEventConsumer.class);
 
-    @KafkaListener(topics = "${demo.kafka.topics.pojo-events}", groupId = "pojo-consumer-group")
+    private final DeduplicationService deduplicationService;
+    private final EventFanOut eventFanOut;
+    private final EventLaneRouter laneRouter;
+    private final ThreadLocal<RecyclingPojoDecoder> recyclingDecoders;
+
+    public PojoEventConsumer(DeduplicationService deduplicationService,
+                             EventFanOut eventFanOut,
+                             EventLaneRouter laneRouter,
+                             LocalSchemaRegistry schemaRegistry,
+                             ObjectMapper objectMapper) {
+        this.deduplicationService = deduplicationService;
+        this.eventFanOut = eventFanOut;
+        this.laneRouter = laneRouter;
+        // 디코더는 스레드 안전하지 않으므로 리스너 스레드마다 하나씩 사용
+        this.recyclingDecoders = ThreadLocal.withInitial(() -> new RecyclingPojoDecoder(schemaRegistry, objectMapper));
+    }
+
+    /**
+     * STANDARD 레인(기존 토픽)과 CRITICAL / BULK 레인 토픽(demo.routing.enabled=true 일 때만 시작)을 같은 로직으로 처리
+     * 레인 리스너는 POJO 재사용 모드에서도 단건으로 동작합니다. (재사용 배치 리스너는 STANDARD 레인만 담당)
+     *
+     * @param acknowledgment demo.bus.enabled=true 인 STANDARD 레인에서만 전달 (AckMode.MANUAL, 아니면 null) - 버스 완료 단계에서 ack
+     */
+    @KafkaListener(topics = "${demo.kafka.topics.pojo-events}", groupId = "pojo-consumer-group",
+            containerFactory = "pojoListenerContainerFactory",
+            autoStartup = "#{!${demo.kafka.pojo-reuse.enabled:false}}")
+    @KafkaListener(topics = "${demo.kafka.topics.pojo-events}.critical", groupId = "pojo-consumer-group-critical",
+            containerFactory = "pojoCriticalListenerContainerFactory", autoStartup = "${demo.routing.enabled:false}")
+    @KafkaListener(topics = "${demo.kafka.topics.pojo-events}.bulk", groupId = "pojo-consumer-group-bulk",
+            containerFactory = "pojoBulkListenerContainerFactory", autoStartup = "${demo.routing.enabled:false}")
     public void consumePojoEvent(
             @Payload UserEventPojoDto event,
             @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
             @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
-            @Header(KafkaHeaders.OFFSET) long offset) {
+            @Header(KafkaHeaders.OFFSET) long offset,
+            ConsumerRecordMetadata recordMetadata,
+            @Header(name = KafkaHeaders.ACKNOWLEDGMENT, required = false) Acknowledgment acknowledgment) {
         
         logger.info("📨 Received POJO event from topic: {}, partition: {}, offset: {}", topic, partition, offset);
         logger.info("📋 Event details: {}", event);
-        
-        try {
-            // 비즈니스 로직 처리
-            processEvent(event);
-            logger.info("✅ Successfully processed POJO event for user: {}", event.getUserId());
-            
-        } catch (Exception e) {
-            logger.error("❌ Failed to process POJO event: {}", event, e);
-            // 실제 환경에서는 DLQ(Dead Letter Queue)로 전송하거나 재시도 로직 구현
+        laneRouter.recordDelivery(topic, recordMetadata.timestamp());
+
+        // 레인 리스너는 전용 스레드에서 직렬 처리 (버스는 STANDARD 레인 전용)
+        String listener = EventLane.ofTopic(topic) == EventLane.STANDARD ? EventFanOut.POJO_EVENTS : null;
+        handleEvent(listener, event, topic, partition, offset,
+                recordMetadata.serializedValueSize(), acknowledgment);
+    }
+
+    /**
+     * POJO 재사용 모드 배치 리스너 (demo.kafka.pojo-reuse.enabled=true 일 때만 시작)
+     * 
+     * 메시지마다 새 POJO 를 만드는 대신 리스너 스레드별 RecyclingPojoDecoder 의 인스턴스에 디코딩합니다.
+     * 디코딩된 이벤트는 콜백 안에서만 유효하므로, 처리 로직은 값을 복사해 가는 컴포넌트만 사용해야 합니다.
+     * (세션 저장소/윈도우 집계/중복 제거는 모두 primitive 나 문자열 키만 보관)
+     * 같은 이유로 EventFanOut 버스에 넘기지 않고 콜백 안에서 직렬로 처리합니다.
+     */
+    @KafkaListener(topics = "${demo.kafka.topics.pojo-events}", groupId = "pojo-consumer-group",
+            containerFactory = "pojoBatchListenerContainerFactory",
+            autoStartup = "${demo.kafka.pojo-reuse.enabled:false}")
+    public void consumePojoEventBatch(List<ConsumerRecord<String, byte[]>> records) {
+        logger.info("📦 Received POJO batch of {} records", records.size());
+
+        List<ConsumerRecord<String, byte[]>> decodable = new ArrayList<>(records.size());
+        List<byte[]> payloads = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, byte[]> record : records) {
+            if (record.value() != null) {
+                decodable.add(record);
+                payloads.add(record.value());
+            }
         }
+
+        recyclingDecoders.get().decodeBatch(payloads, events -> {
+            for (int i = 0; i < events.size(); i++) {
+                ConsumerRecord<String, byte[]> record = decodable.get(i);
+                laneRouter.recordDelivery(record.topic(), record.timestamp());
+                handleEvent(null, events.get(i), record.topic(), record.partition(), record.offset(),
+                        record.serializedValueSize(), null);
+            }
+        });
     }
 
     /**
-     * 이벤트 처리 비즈니스 로직
+     * 중복 확인 후 이벤트 처리 (단건/배치 리스너 공통)
+     *
+     * @param listener EventFanOut 버스 이름 (null 이면 항상 직렬 처리)
      */
-    private void processEvent(UserEventPojoDto event) {
-        logger.debug("Processing {} event for user {}", event.getEventType(), event.getUserId());
-        
-        // POJO의 편의 메서드 활용
-        if (event.isLoginEvent()) {
-            logger.info("🔐 User {} logged in at {}", event.getUserId(), event.getTimestamp());
-        } else if (event.isLogoutEvent()) {
-            logger.info("🚪 User {} logged out at {}", event.getUserId(), event.getTimestamp());
+    private void handleEvent(String listener, UserEventPojoDto event, String topic, int partition, long offset,
+                             int payloadBytes, Acknowledgment acknowledgment) {
+        // JFR: 중복 확인 + 처리 구간 (역직렬화는 DeserializeEvent 로 따로 기록)
+        ConsumeEvent consumeEvent = ConsumeEvent.start();
+
+        // 재전송 등으로 이미 처리한 이벤트는 건너뜀
+        long fingerprint = deduplicationService.fingerprint(
+                topic, event.getUserId(), event.getEventType(), event.getTimestampMicros(), event.getMetadata());
+        if (deduplicationService.isDuplicate(fingerprint)) {
+            consumeEvent.finish(topic, partition, offset, UserEventPojoDto.class, payloadBytes, true);
+            logger.info("♻️ Skipping duplicate POJO event for user: {}", event.getUserId());
+            if (acknowledgment != null) {
+                acknowledgment.acknowledge();
+            }
+            return;
         }
         
-        // 메타데이터 처리
-        if (event.getMetadata() != null && !event.getMetadata().isEmpty()) {
-            logger.debug("📊 Event metadata: {}", event.getMetadata());
+        try {
+            // 비즈니스 로직 처리 (POJO의 편의 메서드로 필요한 값만 꺼내 전달)
+            ConsumedEvent consumed = eventFanOut.scratch()
+                    .set("POJO", UserEventPojoDto.class, topic, partition, offset, payloadBytes,
+                            event.getUserId(), event.getEventType(), event.getTimestampMicros(), event.getMetadata(),
+                            event.isLoginEvent(), event.isLogoutEvent())
+                    .tracking(fingerprint, consumeEvent, acknowledgment);
+            eventFanOut.process(listener, consumed);
+            
+        } catch (RuntimeException e) {
+            logger.error("❌ Failed to process POJO event: {}", event, e);
+            // 예외를 삼키면 오프셋이 커밋되어 이벤트가 유실되므로 다시 던져 컨테이너 에러 핸들러가 재시도하도록 함
+            // 실제 환경에서는 재시도 소진 후 DLQ(Dead Letter Queue)로 전송
+            throw e;
         }
-        
-        // 여기에 실제 비즈니스 로직 구현
-        // 예: 데이터베이스 저장, 외부 API 호출, 알림 발송 등
     }
-}
\ No newline at end of file
+}
@@ -1,9 +1,15 @@
 package com.example.demo.consumer;
 
+import com.example.demo.dedup.DeduplicationService;
 import com.example.demo.dto.record.UserEventRecordDto;
+import com.example.demo.jfr.ConsumeEvent;
+import com.example.demo.routing.EventLane;
+import com.example.demo.routing.EventLaneRouter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.adapter.ConsumerRecordMetadata;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.Payload;
@@ -26,47 +32,74 @@ public class RecordEventConsumer {
 
     private static final Logger logger = LoggerFactory.getLogger(RecordEventConsumer.class);
 
-    @KafkaListener(topics = "${demo.kafka.topics.record-events}", groupId = "record-consumer-group")
+    private final DeduplicationService deduplicationService;
+    private final EventFanOut eventFanOut;
+    private final EventLaneRouter laneRouter;
+
+    public RecordEventConsumer(DeduplicationService deduplicationService,
+                               EventFanOut eventFanOut,
+                               EventLaneRouter laneRouter) {
+        this.deduplicationService = deduplicationService;
+        this.eventFanOut = eventFanOut;
+        this.laneRouter = laneRouter;
+    }
+
+    /**
+     * STANDARD 레인(기존 토픽)과 CRITICAL / BULK 레인 토픽(demo.routing.enabled=true 일 때만 시작)을 같은 로직으로 처리
+     * 레인마다 별도 컨테이너(컨슈머 그룹, 스레드 수, max.poll.records)를 사용합니다. (토픽 접미사는 EventLane 과 동일)
+     *
+     * @param acknowledgment demo.bus.enabled=true 인 STANDARD 레인에서만 전달 (AckMode.MANUAL, 아니면 null) - 버스 완료 단계에서 ack
+     */
+    @KafkaListener(topics = "${demo.kafka.topics.record-events}", groupId = "record-consumer-group",
+            containerFactory = "recordListenerContainerFactory")
+    @KafkaListener(topics = "${demo.kafka.topics.record-events}.critical", groupId = "record-consumer-group-critical",
+            containerFactory = "recordCriticalListenerContainerFactory", autoStartup = "${demo.routing.enabled:false}")
+    @KafkaListener(topics = "${demo.kafka.topics.record-events}.bulk", groupId = "record-consumer-group-bulk",
+            containerFactory = "recordBulkListenerContainerFactory", autoStartup = "${demo.routing.enabled:false}")
     public void consumeRecordEvent(
             @Payload UserEventRecordDto event,
             @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
             @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
-            @Header(KafkaHeaders.OFFSET) long offset) {
+            @Header(KafkaHeaders.OFFSET) long offset,
+            ConsumerRecordMetadata recordMetadata,
+            @Header(name = KafkaHeaders.ACKNOWLEDGMENT, required = false) Acknowledgment acknowledgment) {
         
         logger.info("📨 Received Record event from topic: {}, partition: {}, offset: {}", topic, partition, offset);
         logger.info("📋 Event details: {}", event);
+        laneRouter.recordDelivery(topic, recordMetadata.timestamp());
+
+        // JFR: 중복 확인 + 처리 구간 (역직렬화는 poll 중 DeserializeEvent 로 따로 기록)
+        ConsumeEvent consumeEvent = ConsumeEvent.start();
+
+        // 재전송 등으로 이미 처리한 이벤트는 건너뜀
+        long fingerprint = deduplicationService.fingerprint(
+                topic, event.userId(), event.eventType(), event.timestampMicros(), event.metadata());
+        if (deduplicationService.isDuplicate(fingerprint)) {
+            consumeEvent.finish(topic, partition, offset, UserEventRecordDto.class,
+                    recordMetadata.serializedValueSize(), true);
+            logger.info("♻️ Skipping duplicate Record event for user: {}", event.userId());
+            if (acknowledgment != null) {
+                acknowledgment.acknowledge();
+            }
+            return;
+        }
         
         try {
-            // 비즈니스 로직 처리
-            processEvent(event);
-            logger.info("✅ Successfully processed Record event for user: {}", event.userId());
+            // 비즈니스 로직 처리 (Record의 편의 메서드로 필요한 값만 꺼내 전달)
+            ConsumedEvent consumed = eventFanOut.scratch()
+                    .set("Record", UserEventRecordDto.class, topic, partition, offset,
+                            recordMetadata.serializedValueSize(), event.userId(), event.eventType(),
+                            event.timestampMicros(), event.metadata(), event.isLoginEvent(), event.isLogoutEvent())
+                    .tracking(fingerprint, consumeEvent, acknowledgment);
+            // 레인 리스너는 전용 스레드에서 직렬 처리 (버스는 STANDARD 레인 전용)
+            eventFanOut.process(EventLane.ofTopic(topic) == EventLane.STANDARD ? EventFanOut.RECORD_EVENTS : null,
+                    consumed);
             
-        } catch (Exception e) {
+        } catch (RuntimeException e) {
             logger.error("❌ Failed to process Record event: {}", event, e);
-            // 실제 환경에서는 DLQ(Dead Letter Queue)로 전송하거나 재시도 로직 구현
+            // 예외를 삼키면 오프셋이 커밋되어 이벤트가 유실되므로 다시 던져 컨테이너 에러 핸들러가 재시도하도록 함
+            // 실제 환경에서는 재시도 소진 후 DLQ(Dead Letter Queue)로 전송
+            throw e;
         }
     }
-
-    /**
-     * 이벤트 처리 비즈니스 로직
-     */
-    private void processEvent(UserEventRecordDto event) {
-        // Record의 불변성 활용
-        logger.debug("Processing {} event for user {}", event.eventType(), event.userId());
-        
-        // Record의 편의 메서드 활용
-        if (event.isLoginEvent()) {
-            logger.info("🔐 User {} logged in at {}", event.userId(), event.timestamp());
-        } else if (event.isLogoutEvent()) {
-            logger.info("🚪 User {} logged out at {}", event.userId(), event.timestamp());
-        }
-        
-        // 메타데이터 처리
-        if (event.metadata() != null && !event.metadata().isEmpty()) {
-            logger.debug("📊 Event metadata: {}", event.metadata());
-        }
-        
-        // 여기에 실제 비즈니스 로직 구현
-        // 예: 데이터베이스 저장, 외부 API 호출, 알림 발송 등
-    }
-}
\ No newline at end of file
+}
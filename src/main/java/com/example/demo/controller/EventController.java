@@ -1,19 +1,40 @@
 package com.example.demo.controller;
 
+import com.example.demo.aggregation.EventAggregationService;
+import com.example.demo.aggregation.WindowResolution;
+import com.example.demo.aggregation.WindowSnapshot;
+import com.example.demo.backfill.BackfillFormat;
+import com.example.demo.backfill.BackfillProgress;
+import com.example.demo.backfill.BackfillService;
+import com.example.demo.batch.EventMicroBatchers;
+import com.example.demo.dto.EventTimestamps;
 import com.example.demo.dto.pojo.UserEventPojoDto;
 import com.example.demo.dto.record.UserEventRecordDto;
 import com.example.demo.producer.PojoEventProducer;
 import com.example.demo.producer.RecordEventProducer;
+import com.example.demo.ratelimit.IngressRateLimiter;
+import com.example.demo.session.SessionStateStore;
+import com.example.demo.session.UserSession;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 이벤트 전송을 위한 REST API 컨트롤러
  * 
  * 이 컨트롤러를 통해 Record와 POJO 기반 이벤트를 쉽게 테스트할 수 있습니다.
+ *
+ * 단건 전송(/record, /pojo)은 EventMicroBatchers 를 거쳐 배치로 전송됩니다.
+ * 기본은 배처 큐에 들어가면 바로 응답하고, demo.batch.await-ack=true 면 전송이 끝난 뒤 비동기로 응답합니다.
+ * 그 전에 IngressRateLimiter 가 userId 별 한도를 넘은 요청을 429 로 거부합니다.
  */
 @RestController
 @RequestMapping("/api/events")
@@ -21,10 +42,23 @@ public class EventController {
 
     private final RecordEventProducer recordEventProducer;
     private final PojoEventProducer pojoEventProducer;
+    private final SessionStateStore sessionStateStore;
+    private final EventAggregationService eventAggregationService;
+    private final BackfillService backfillService;
+    private final EventMicroBatchers eventMicroBatchers;
+    private final IngressRateLimiter ingressRateLimiter;
 
-    public EventController(RecordEventProducer recordEventProducer, PojoEventProducer pojoEventProducer) {
+    public EventController(RecordEventProducer recordEventProducer, PojoEventProducer pojoEventProducer,
+                           SessionStateStore sessionStateStore, EventAggregationService eventAggregationService,
+                           BackfillService backfillService, EventMicroBatchers eventMicroBatchers,
+                           IngressRateLimiter ingressRateLimiter) {
         this.recordEventProducer = recordEventProducer;
         this.pojoEventProducer = pojoEventProducer;
+        this.sessionStateStore = sessionStateStore;
+        this.eventAggregationService = eventAggregationService;
+        this.backfillService = backfillService;
+        this.eventMicroBatchers = eventMicroBatchers;
+        this.ingressRateLimiter = ingressRateLimiter;
     }
 
     /**
@@ -38,21 +72,25 @@ public class EventController {
      * }
      */
     @PostMapping("/record")
-    public ResponseEntity<String> sendRecordEvent(@RequestBody RecordEventRequest request) {
+    public CompletableFuture<ResponseEntity<String>> sendRecordEvent(@RequestBody RecordEventRequest request) {
         try {
+            long waitNanos = ingressRateLimiter.tryAcquire(request.userId(), request.eventType());
+            if (waitNanos > 0) {
+                return CompletableFuture.completedFuture(rateLimited("Record", request.userId(), waitNanos));
+            }
+
+            // 발생 시각은 UTC epoch 마이크로초 (LocalDateTime.now() 는 서버 시간대 기준이라 UTC 해석과 어긋남)
             UserEventRecordDto event = new UserEventRecordDto(
                     request.userId(),
                     request.eventType(),
-                    LocalDateTime.now(),
+                    EventTimestamps.now(),
                     request.metadata()
             );
-            
-            recordEventProducer.sendEvent(event);
-            return ResponseEntity.ok("✅ Record event sent successfully");
-            
+
+            return respond(eventMicroBatchers.submit(event), "Record");
+
         } catch (Exception e) {
-            return ResponseEntity.badRequest()
-                    .body("❌ Failed to send Record event: " + e.getMessage());
+            return CompletableFuture.completedFuture(failed("Record", e));
         }
     }
 
@@ -67,24 +105,57 @@ public class EventController {
      * }
      */
     @PostMapping("/pojo")
-    public ResponseEntity<String> sendPojoEvent(@RequestBody PojoEventRequest request) {
+    public CompletableFuture<ResponseEntity<String>> sendPojoEvent(@RequestBody PojoEventRequest request) {
         try {
-            UserEventPojoDto event = new UserEventPojoDto(
+            long waitNanos = ingressRateLimiter.tryAcquire(request.getUserId(), request.getEventType());
+            if (waitNanos > 0) {
+                return CompletableFuture.completedFuture(rateLimited("POJO", request.getUserId(), waitNanos));
+            }
+
+            UserEventPojoDto event = UserEventPojoDto.createNow(
                     request.getUserId(),
                     request.getEventType(),
-                    LocalDateTime.now(),
                     request.getMetadata()
             );
-            
-            pojoEventProducer.sendEvent(event);
-            return ResponseEntity.ok("✅ POJO event sent successfully");
-            
+
+            return respond(eventMicroBatchers.submit(event), "POJO");
+
         } catch (Exception e) {
-            return ResponseEntity.badRequest()
-                    .body("❌ Failed to send POJO event: " + e.getMessage());
+            return CompletableFuture.completedFuture(failed("POJO", e));
         }
     }
 
+    /**
+     * 마이크로 배처 제출 결과로 응답 (응답 형식은 기존과 동일)
+     *
+     * await-ack 가 꺼져 있으면 이미 실패한 제출(큐 가득 참 등)만 실패로 응답하고 나머지는 바로 200,
+     * 켜져 있으면 요청 스레드는 반환하고 배치 전송이 끝나면 응답합니다.
+     */
+    private CompletableFuture<ResponseEntity<String>> respond(CompletableFuture<?> send, String kind) {
+        if (!eventMicroBatchers.awaitAck() && !send.isDone()) {
+            return CompletableFuture.completedFuture(ResponseEntity.ok("✅ " + kind + " event sent successfully"));
+        }
+        return send.handle((result, throwable) -> throwable == null
+                ? ResponseEntity.ok("✅ " + kind + " event sent successfully")
+                : failed(kind, throwable instanceof CompletionException && throwable.getCause() != null
+                        ? throwable.getCause() : throwable));
+    }
+
+    private static ResponseEntity<String> failed(String kind, Throwable e) {
+        return ResponseEntity.badRequest()
+                .body("❌ Failed to send " + kind + " event: " + e.getMessage());
+    }
+
+    /**
+     * userId 별 요청 제한 초과 - 429 + Retry-After (초, 올림)
+     */
+    private static ResponseEntity<String> rateLimited(String kind, String userId, long waitNanos) {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                .body("❌ Rate limit exceeded for " + kind + " events of user " + userId);
+    }
+
     /**
      * 샘플 이벤트 생성 (테스트용)
      */
@@ -115,6 +186,104 @@ public class EventController {
         }
     }
 
+    /**
+     * 사용자 세션 상태 조회 (컨슈머가 반영한 메모리 상태, DB 조회 없음)
+     * 
+     * GET /api/events/sessions/{userId}
+     */
+    @GetMapping("/sessions/{userId}")
+    public ResponseEntity<UserSession> getSession(@PathVariable String userId) {
+        return sessionStateStore.find(userId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * 세션 저장소 현황
+     * 
+     * GET /api/events/sessions
+     */
+    @GetMapping("/sessions")
+    public ResponseEntity<Map<String, Long>> sessionStats() {
+        return ResponseEntity.ok(Map.of(
+                "trackedUsers", sessionStateStore.trackedUsers(),
+                "offHeapBytes", sessionStateStore.offHeapBytes()
+        ));
+    }
+
+    /**
+     * 최근 텀블링 윈도우 집계 조회 (최신순)
+     * 
+     * GET /api/events/aggregations/minute?limit=10
+     * GET /api/events/aggregations/hour?limit=24
+     */
+    @GetMapping("/aggregations/{resolution}")
+    public ResponseEntity<List<WindowSnapshot>> getTumblingWindows(
+            @PathVariable String resolution,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(eventAggregationService.tumbling(WindowResolution.from(resolution), limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * 슬라이딩 윈도우 집계 조회 (최근 size 개 윈도우 합계)
+     * 
+     * GET /api/events/aggregations/minute/sliding?size=15  → 최근 15분
+     */
+    @GetMapping("/aggregations/{resolution}/sliding")
+    public ResponseEntity<WindowSnapshot> getSlidingWindow(
+            @PathVariable String resolution,
+            @RequestParam(defaultValue = "5") int size) {
+        try {
+            return ResponseEntity.ok(eventAggregationService.sliding(WindowResolution.from(resolution), size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * 파일 백필 시작 (비동기, 202 Accepted)
+     * 
+     * POST /api/events/backfill?file=events-2024-01.ndjson&format=ndjson&target=record
+     * POST /api/events/backfill?file=archive/events.bin&format=binary&target=pojo
+     */
+    @PostMapping("/backfill")
+    public ResponseEntity<BackfillProgress> startBackfill(
+            @RequestParam String file,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "record") String target) {
+        try {
+            return ResponseEntity.accepted().body(backfillService.start(file, BackfillFormat.from(format), target));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * 백필 진행 상황 조회
+     * 
+     * GET /api/events/backfill/{jobId}
+     */
+    @GetMapping("/backfill/{jobId}")
+    public ResponseEntity<BackfillProgress> getBackfill(@PathVariable String jobId) {
+        return backfillService.progress(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * 전체 백필 작업 목록
+     * 
+     * GET /api/events/backfill
+     */
+    @GetMapping("/backfill")
+    public ResponseEntity<List<BackfillProgress>> listBackfills() {
+        return ResponseEntity.ok(backfillService.jobs());
+    }
+
     /**
      * API 상태 확인
      */
@@ -0,0 +1,25 @@
+package com.example.demo.dedup;
+
+/**
+ * 이벤트 fingerprint 기반 중복 필터
+ *
+ * 처리 전 mightContain 으로 확인하고, 처리에 성공한 뒤에만 put 으로 기록합니다.
+ * (처리 실패 후 재시도되는 메시지가 중복으로 버려지지 않도록)
+ */
+public interface DeduplicationFilter {
+
+    /**
+     * 이미 처리한 fingerprint 인지 확인 (O(1), 객체 할당 없음)
+     */
+    boolean mightContain(long fingerprint);
+
+    /**
+     * 처리 완료한 fingerprint 기록
+     */
+    void put(long fingerprint);
+
+    /**
+     * 필터가 사용하는 메모리 (bytes)
+     */
+    long memoryBytes();
+}
@@ -0,0 +1,103 @@
+package com.example.demo.dedup;
+
+import com.example.demo.dto.EventTimestamps;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 컨슈머 측 중복 이벤트 필터
+ *
+ * 멱등 프로듀서를 쓰지 않는 경로나 재전송된 이벤트가 두 번 처리되지 않도록
+ * (userId, eventType, timestamp, metadata) fingerprint 로 이미 처리한 이벤트를 걸러냅니다.
+ *
+ * 🔧 demo.dedup.mode:
+ * - cache: TimeBoundedFingerprintCache - 정확한 판별, fingerprint 당 16 bytes (기본값)
+ * - bloom: RotatingBloomFilter - 근사 판별(fpp), 항목당 약 10비트 → 매우 높은 유입량용
+ * - off:   중복 제거 안 함
+ *
+ * 📊 메트릭: demo.dedup.hits (중복으로 건너뜀), demo.dedup.misses (처음 본 이벤트), demo.dedup.memory.bytes
+ */
+@Component
+public class DeduplicationService {
+
+    private final DeduplicationFilter filter;
+    private final Counter hits;
+    private final Counter misses;
+
+    public DeduplicationService(MeterRegistry meterRegistry,
+                                @Value("${demo.dedup.mode:cache}") String mode,
+                                @Value("${demo.dedup.max-entries:1000000}") int maxEntries,
+                                @Value("${demo.dedup.ttl-ms:600000}") long ttlMillis,
+                                @Value("${demo.dedup.bloom-fpp:0.01}") double bloomFpp) {
+        this.filter = switch (mode.toLowerCase(Locale.ROOT)) {
+            case "cache" -> new TimeBoundedFingerprintCache(maxEntries, ttlMillis, System::currentTimeMillis);
+            case "bloom" -> new RotatingBloomFilter(maxEntries / 2, bloomFpp, ttlMillis, System::currentTimeMillis);
+            case "off" -> null;
+            default -> throw new IllegalArgumentException("Unknown demo.dedup.mode: " + mode + " (cache, bloom, off)");
+        };
+        this.hits = Counter.builder("demo.dedup.hits").register(meterRegistry);
+        this.misses = Counter.builder("demo.dedup.misses").register(meterRegistry);
+        Gauge.builder("demo.dedup.memory.bytes", this, DeduplicationService::memoryBytes)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 토픽 안에서 이벤트를 식별하는 fingerprint
+     */
+    public long fingerprint(String topic, String userId, String eventType, LocalDateTime timestamp,
+                            Map<String, Object> metadata) {
+        return fingerprint(topic, userId, eventType, EventTimestamps.fromLocalDateTime(timestamp), metadata);
+    }
+
+    /**
+     * fingerprint (timestamp: epoch 마이크로초) - 기존과 같은 값이 나오도록 millis 단위로 반영
+     */
+    public long fingerprint(String topic, String userId, String eventType, long timestampMicros,
+                            Map<String, Object> metadata) {
+        long timestampMillis = timestampMicros != EventTimestamps.NONE ? EventTimestamps.toMillis(timestampMicros) : 0;
+        return EventFingerprint.of(topic, userId, eventType, timestampMillis, metadata);
+    }
+
+    /**
+     * 이미 처리한 이벤트인지 확인하고 hit/miss 집계
+     */
+    public boolean isDuplicate(long fingerprint) {
+        if (filter == null) {
+            return false;
+        }
+        if (filter.mightContain(fingerprint)) {
+            hits.increment();
+            return true;
+        }
+        misses.increment();
+        return false;
+    }
+
+    /**
+     * 처리에 성공한 이벤트 기록 (실패한 이벤트는 기록하지 않아 재시도가 걸러지지 않음)
+     */
+    public void markProcessed(long fingerprint) {
+        if (filter != null) {
+            filter.put(fingerprint);
+        }
+    }
+
+    public long hits() {
+        return (long) hits.count();
+    }
+
+    public long misses() {
+        return (long) misses.count();
+    }
+
+    public long memoryBytes() {
+        return filter != null ? filter.memoryBytes() : 0;
+    }
+}
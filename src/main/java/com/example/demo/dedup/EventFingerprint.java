@@ -0,0 +1,52 @@
+package com.example.demo.dedup;
+
+import java.util.Map;
+
+/**
+ * 이벤트 중복 판별용 64비트 fingerprint
+ *
+ * (scope, userId, eventType, timestamp, metadata.hashCode()) 를 문자열 결합 없이
+ * 문자 단위로 바로 섞어 계산합니다. → 메시지마다 키 객체를 만들지 않음
+ *
+ * scope(토픽)를 함께 섞어, 같은 이벤트가 서로 다른 파이프라인(record/pojo 토픽)에 들어온 경우는 구분합니다.
+ *
+ * ⚠️ 64비트 값이 같으면 같은 이벤트로 간주합니다. (서로 다른 이벤트 충돌 확률 ≈ n² / 2^65)
+ */
+public final class EventFingerprint {
+
+    private static final long SEED = 0x9e3779b97f4a7c15L;
+    private static final long PRIME = 0x100000001b3L;
+
+    private EventFingerprint() {
+    }
+
+    public static long of(String scope, String userId, String eventType, long timestampMillis,
+                          Map<String, Object> metadata) {
+        long h = SEED;
+        h = mixString(h, scope);
+        h = mixString(h, userId);
+        h = mixString(h, eventType);
+        h = (h ^ timestampMillis) * PRIME;
+        h = (h ^ (metadata != null ? metadata.hashCode() : 0)) * PRIME;
+        return finish(h);
+    }
+
+    private static long mixString(long h, String value) {
+        if (value == null) {
+            return (h ^ 0xff) * PRIME;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * PRIME;
+        }
+        // 필드 구분자 (("ab", "c") 와 ("a", "bc") 구분)
+        return (h ^ value.length()) * PRIME;
+    }
+
+    private static long finish(long h) {
+        h = (h ^ (h >>> 33)) * 0xff51afd7ed558ccdL;
+        h = (h ^ (h >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        // 0 은 빈 슬롯 표시용
+        return h != 0 ? h : 1;
+    }
+}
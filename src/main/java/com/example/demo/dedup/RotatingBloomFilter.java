@@ -0,0 +1,129 @@
+package com.example.demo.dedup;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * 세대 교체형 Bloom filter (초고속 유입용 근사 중복 판별)
+ *
+ * TimeBoundedFingerprintCache 와 같은 current / previous 두 세대 구조지만,
+ * fingerprint 자체 대신 비트만 기록해 항목당 약 10비트(fpp 1% 기준)로 메모리를 줄입니다.
+ * - 비트 설정: AtomicLongArray CAS → 락 없음
+ * - 세대 교체: ttl/2 경과 또는 세대당 expectedInsertions 도달 시
+ *
+ * ⚠️ 근사 판별:
+ * - 오탐(false positive) 확률 ≈ fpp → 처음 보는 이벤트가 중복으로 판정되어 버려질 수 있음
+ * - 같은 이벤트가 동시에 두 스레드에서 처리되면 둘 다 통과할 수 있음
+ * 유실이 허용되지 않으면 TimeBoundedFingerprintCache 를 사용합니다.
+ */
+public class RotatingBloomFilter implements DeduplicationFilter {
+
+    private final int bits;
+    private final int hashFunctions;
+    private final long expectedInsertions;
+    private final long generationMillis;
+    private final LongSupplier clock;
+    private final AtomicReference<Generations> generations;
+
+    public RotatingBloomFilter(long expectedInsertions, double fpp, long ttlMillis, LongSupplier clock) {
+        if (expectedInsertions <= 0 || fpp <= 0 || fpp >= 1 || ttlMillis < 2) {
+            throw new IllegalArgumentException("expectedInsertions > 0, 0 < fpp < 1 and ttlMillis >= 2 required");
+        }
+        // 세대당 expectedInsertions 건 기준 최적 비트 수 / 해시 함수 수
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        this.bits = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, optimalBits));
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bits / expectedInsertions * Math.log(2)));
+        this.expectedInsertions = expectedInsertions;
+        this.generationMillis = ttlMillis / 2;
+        this.clock = clock;
+        this.generations = new AtomicReference<>(new Generations(newBitSet(), newBitSet(), clock.getAsLong()));
+    }
+
+    @Override
+    public boolean mightContain(long fingerprint) {
+        Generations current = currentGenerations();
+        return contains(current.current, fingerprint) || contains(current.previous, fingerprint);
+    }
+
+    @Override
+    public void put(long fingerprint) {
+        Generations current = currentGenerations();
+        int h1 = (int) fingerprint;
+        int h2 = (int) (fingerprint >>> 32);
+        for (int i = 0; i < hashFunctions; i++) {
+            int bit = index(h1, h2, i);
+            int word = bit >>> 6;
+            long mask = 1L << bit;
+            long value;
+            do {
+                value = current.current.get(word);
+                if ((value & mask) != 0) {
+                    break;
+                }
+            } while (!current.current.compareAndSet(word, value, value | mask));
+        }
+        if (current.insertions.incrementAndGet() >= expectedInsertions) {
+            rotate(current, clock.getAsLong());
+        }
+    }
+
+    @Override
+    public long memoryBytes() {
+        return 2L * (bits / 64 + 1) * Long.BYTES;
+    }
+
+    private Generations currentGenerations() {
+        Generations current = generations.get();
+        long now = clock.getAsLong();
+        if (now - current.startedAt >= generationMillis) {
+            return rotate(current, now);
+        }
+        return current;
+    }
+
+    private Generations rotate(Generations expected, long now) {
+        // 두 세대가 모두 만료되었으면 previous 도 새로 시작
+        AtomicLongArray previous = now - expected.startedAt >= generationMillis * 2 ? newBitSet() : expected.current;
+        Generations next = new Generations(newBitSet(), previous, now);
+        return generations.compareAndSet(expected, next) ? next : generations.get();
+    }
+
+    private boolean contains(AtomicLongArray bitSet, long fingerprint) {
+        int h1 = (int) fingerprint;
+        int h2 = (int) (fingerprint >>> 32);
+        for (int i = 0; i < hashFunctions; i++) {
+            int bit = index(h1, h2, i);
+            if ((bitSet.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Kirsch-Mitzenmacher 이중 해싱: h1 + i * h2
+     */
+    private int index(int h1, int h2, int i) {
+        return Math.floorMod(h1 + i * h2, bits);
+    }
+
+    private AtomicLongArray newBitSet() {
+        return new AtomicLongArray(bits / 64 + 1);
+    }
+
+    private static final class Generations {
+
+        private final AtomicLongArray current;
+        private final AtomicLongArray previous;
+        private final long startedAt;
+        private final AtomicLong insertions = new AtomicLong();
+
+        private Generations(AtomicLongArray current, AtomicLongArray previous, long startedAt) {
+            this.current = current;
+            this.previous = previous;
+            this.startedAt = startedAt;
+        }
+    }
+}
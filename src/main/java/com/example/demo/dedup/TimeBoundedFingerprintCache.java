@@ -0,0 +1,143 @@
+package com.example.demo.dedup;
+
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+/**
+ * 시간/크기 제한 fingerprint 캐시 (정확한 중복 판별)
+ *
+ * fingerprint 를 long[] open-addressing 테이블에 primitive 로만 저장합니다.
+ * 테이블은 current / previous 두 세대로 나뉘고, current 가 가득 차거나 ttl/2 가 지나면
+ * previous 를 비우고 세대를 교체합니다.
+ * - 메모리: 최대 maxEntries 개 fingerprint 분량으로 고정 (재할당 없음)
+ * - 보관 기간: 기록 후 최소 min(ttl/2, 세대가 가득 찰 때까지), 최대 ttl
+ *
+ * 리스너 스레드 간 경합을 줄이기 위해 fingerprint 상위 비트로 stripe 를 나누고 stripe 단위로 잠급니다.
+ */
+public class TimeBoundedFingerprintCache implements DeduplicationFilter {
+
+    private static final int STRIPES = 16;
+    private static final double MAX_LOAD_FACTOR = 0.5;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final long generationMillis;
+    private final LongSupplier clock;
+
+    public TimeBoundedFingerprintCache(int maxEntries, long ttlMillis, LongSupplier clock) {
+        if (maxEntries < STRIPES * 2 || ttlMillis < 2) {
+            throw new IllegalArgumentException("maxEntries must be >= " + STRIPES * 2 + " and ttlMillis >= 2");
+        }
+        this.generationMillis = ttlMillis / 2;
+        this.clock = clock;
+        // 세대당 항목 수 = maxEntries / stripe 수 / 2 세대
+        int entriesPerGeneration = maxEntries / STRIPES / 2;
+        int slots = Integer.highestOneBit((int) Math.ceil(entriesPerGeneration / MAX_LOAD_FACTOR) - 1) << 1;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(slots, entriesPerGeneration, clock.getAsLong());
+        }
+    }
+
+    @Override
+    public boolean mightContain(long fingerprint) {
+        Stripe stripe = stripeOf(fingerprint);
+        synchronized (stripe) {
+            stripe.rotateIfExpired(clock.getAsLong(), generationMillis);
+            return stripe.contains(fingerprint);
+        }
+    }
+
+    @Override
+    public void put(long fingerprint) {
+        Stripe stripe = stripeOf(fingerprint);
+        synchronized (stripe) {
+            stripe.rotateIfExpired(clock.getAsLong(), generationMillis);
+            stripe.add(fingerprint, clock.getAsLong());
+        }
+    }
+
+    @Override
+    public long memoryBytes() {
+        long bytes = 0;
+        for (Stripe stripe : stripes) {
+            bytes += (long) (stripe.current.length + stripe.previous.length) * Long.BYTES;
+        }
+        return bytes;
+    }
+
+    private Stripe stripeOf(long fingerprint) {
+        return stripes[(int) (fingerprint >>> 60) & (STRIPES - 1)];
+    }
+
+    private static final class Stripe {
+
+        private final int maxEntries;
+        private long[] current;
+        private long[] previous;
+        private int currentSize;
+        private long generationStartedAt;
+
+        private Stripe(int slots, int maxEntries, long now) {
+            this.maxEntries = maxEntries;
+            this.current = new long[slots];
+            this.previous = new long[slots];
+            this.generationStartedAt = now;
+        }
+
+        private boolean contains(long fingerprint) {
+            return contains(current, fingerprint) || contains(previous, fingerprint);
+        }
+
+        private void add(long fingerprint, long now) {
+            if (contains(current, fingerprint)) {
+                return;
+            }
+            if (currentSize >= maxEntries) {
+                rotate(now);
+            }
+            long[] table = current;
+            int mask = table.length - 1;
+            int index = (int) fingerprint & mask;
+            while (table[index] != 0) {
+                index = (index + 1) & mask;
+            }
+            table[index] = fingerprint;
+            currentSize++;
+        }
+
+        private void rotateIfExpired(long now, long generationMillis) {
+            long elapsed = now - generationStartedAt;
+            if (elapsed >= generationMillis) {
+                rotate(now);
+                // current 도 이미 ttl 을 넘긴 경우 previous 까지 비움
+                if (elapsed >= generationMillis * 2) {
+                    Arrays.fill(previous, 0);
+                }
+            }
+        }
+
+        private void rotate(long now) {
+            // 가장 오래된 세대 배열을 비워 새 current 로 재사용
+            long[] recycled = previous;
+            Arrays.fill(recycled, 0);
+            previous = current;
+            current = recycled;
+            currentSize = 0;
+            generationStartedAt = now;
+        }
+
+        private static boolean contains(long[] table, long fingerprint) {
+            int mask = table.length - 1;
+            int index = (int) fingerprint & mask;
+            while (true) {
+                long value = table[index];
+                if (value == fingerprint) {
+                    return true;
+                }
+                if (value == 0) {
+                    return false;
+                }
+                index = (index + 1) & mask;
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.demo.dto;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.type.LogicalType;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * metadata JSON 객체를 CompactMetadataMap 으로 바로 읽는 역직렬화기
+ *
+ * 기본 역직렬화는 LinkedHashMap 을 만든 뒤 DTO 에서 다시 복사하므로 Map 이 두 번 만들어집니다.
+ * 이 역직렬화기는 파서 토큰을 Builder 에 바로 넣고, 숫자는 박싱 없이 전달합니다.
+ * 값 타입은 기본 Map 역직렬화(UntypedObjectDeserializer)와 같습니다. (int/long/BigInteger, double, 중첩 Map/List)
+ *
+ * 🔧 사용: metadata 필드/컴포넌트에 @JsonDeserialize(using = CompactMetadataDeserializer.class)
+ *
+ * ⚠️ 병합(readerForUpdating + setMergeable) 대상이 수정 가능한 Map 이면 새로 만들지 않고 그 Map 에 채웁니다.
+ *    (RecyclingPojoDecoder 의 재사용 Map 경로)
+ */
+public class CompactMetadataDeserializer extends StdDeserializer<Map<String, Object>> {
+
+    public CompactMetadataDeserializer() {
+        super(Map.class);
+    }
+
+    @Override
+    public Map<String, Object> deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        CompactMetadataMap.Builder builder = CompactMetadataMap.builder(4);
+        for (String key = startObject(p, ctxt); key != null; key = p.nextFieldName()) {
+            switch (p.nextToken()) {
+                case VALUE_STRING -> builder.put(key, p.getText());
+                case VALUE_NUMBER_INT -> {
+                    if (ctxt.isEnabled(DeserializationFeature.USE_BIG_INTEGER_FOR_INTS)) {
+                        builder.put(key, p.getBigIntegerValue());
+                    } else {
+                        switch (p.getNumberType()) {
+                            case INT -> builder.putInt(key, p.getIntValue());
+                            case LONG -> builder.putLong(key, p.getLongValue());
+                            default -> builder.put(key, p.getNumberValue());
+                        }
+                    }
+                }
+                case VALUE_NUMBER_FLOAT -> {
+                    if (ctxt.isEnabled(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)) {
+                        builder.put(key, p.getDecimalValue());
+                    } else {
+                        builder.putDouble(key, p.getDoubleValue());
+                    }
+                }
+                case VALUE_TRUE -> builder.putBoolean(key, true);
+                case VALUE_FALSE -> builder.putBoolean(key, false);
+                case VALUE_NULL -> builder.put(key, null);
+                default -> builder.put(key, ctxt.readValue(p, Object.class));
+            }
+        }
+        return builder.build();
+    }
+
+    @Override
+    public Map<String, Object> deserialize(JsonParser p, DeserializationContext ctxt, Map<String, Object> intoValue)
+            throws IOException {
+        if (intoValue instanceof CompactMetadataMap) {
+            // 불변 Map 은 병합할 수 없으므로 교체
+            return deserialize(p, ctxt);
+        }
+        for (String key = startObject(p, ctxt); key != null; key = p.nextFieldName()) {
+            p.nextToken();
+            intoValue.put(key, ctxt.readValue(p, Object.class));
+        }
+        return intoValue;
+    }
+
+    @Override
+    public Boolean supportsUpdate(DeserializationConfig config) {
+        return Boolean.TRUE;
+    }
+
+    @Override
+    public LogicalType logicalType() {
+        return LogicalType.Map;
+    }
+
+    /**
+     * START_OBJECT 또는 첫 FIELD_NAME 위치에서 첫 키 반환 (빈 객체면 null)
+     */
+    private static String startObject(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            return p.nextFieldName();
+        }
+        if (token == JsonToken.FIELD_NAME) {
+            return p.currentName();
+        }
+        if (token == JsonToken.END_OBJECT) {
+            return null;
+        }
+        throw ctxt.wrongTokenException(p, Map.class, JsonToken.START_OBJECT, "metadata must be a JSON object");
+    }
+}
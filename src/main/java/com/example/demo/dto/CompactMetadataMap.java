@@ -0,0 +1,457 @@
+package com.example.demo.dto;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * 작은 이벤트 메타데이터용 배열 기반 불변 Map
+ *
+ * 이벤트 metadata 는 보통 2~5개 엔트리(ip, userAgent, source ...)인데, LinkedHashMap 은
+ * 버킷 테이블 + 엔트리 객체(엔트리당 40 bytes)를 만들고 조회마다 해시 → 버킷 → 엔트리를 따라갑니다.
+ * 이 Map 은 키/값을 배열 하나에 번갈아 저장하고(k0, v0, k1, v1 ...), 입력 순서를 유지합니다.
+ *
+ * ✅ 특징:
+ * - 조회: LINEAR_SCAN_LIMIT 개 이하는 선형 탐색 (키 대부분이 JSON 파서가 intern 한 문자열이라 == 로 바로 일치)
+ *         그보다 크면 생성 시 만든 open addressing 인덱스(int[])로 조회
+ * - 숫자 값: JDK 캐시 밖의 int/long/double 이 PACK_THRESHOLD 개 이상이면 박싱 없이 long[] 에 저장
+ *         (1개뿐이면 long[] 헤더 때문에 오히려 커지므로 박싱 유지, -128~127 정수와 Boolean 은 공유 인스턴스)
+ *         get() 은 박싱해 반환하고, getString() 은 박싱 없이 문자열로 변환
+ * - hashCode 캐시: String 과 같은 방식의 지연 계산, 상대도 CompactMetadataMap 이면 해시가 다를 때 바로 false
+ * - 일반 Map 과의 equals/hashCode 규약 유지 (LinkedHashMap 과 비교해도 동일), null 키/값 허용
+ *
+ * 역직렬화 시에는 CompactMetadataDeserializer 가 중간 LinkedHashMap 없이 바로 만듭니다.
+ *
+ * ⚠️ 값(value) 자체도 불변이라고 가정합니다. (JSON 에서 읽은 중첩 Map/List 를 수정하면 캐시된 해시와 어긋남)
+ */
+public final class CompactMetadataMap extends AbstractMap<String, Object> {
+
+    static final int LINEAR_SCAN_LIMIT = 8;
+    static final int PACK_THRESHOLD = 2;
+
+    private static final Object[] NO_ENTRIES = new Object[0];
+    private static final CompactMetadataMap EMPTY = new CompactMetadataMap(NO_ENTRIES, null, null);
+
+    // 키/값 번갈아 저장, 압축된 숫자 값 자리에는 Packed 표식
+    private final Object[] table;
+    private final long[] packed;
+    private final int[] index;
+    private int hash;
+    private boolean hashIsZero;
+
+    private CompactMetadataMap(Object[] table, long[] packed, int[] index) {
+        this.table = table;
+        this.packed = packed;
+        this.index = index;
+    }
+
+    /**
+     * 메타데이터를 압축 불변 Map 으로 변환 (null 은 null, 이미 변환된 Map 은 그대로 반환)
+     */
+    public static Map<String, Object> of(Map<String, Object> metadata) {
+        if (metadata == null || metadata instanceof CompactMetadataMap) {
+            return metadata;
+        }
+        if (metadata.isEmpty()) {
+            return EMPTY;
+        }
+        Builder builder = builder(metadata.size());
+        metadata.forEach(builder::put);
+        return builder.build();
+    }
+
+    public static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    /**
+     * getMetadataValue 공통 구현 - 값을 문자열로 (키가 없거나 값이 null 이면 null)
+     */
+    public static String stringValue(Map<String, Object> metadata, String key) {
+        if (metadata == null) {
+            return null;
+        }
+        if (metadata instanceof CompactMetadataMap compact) {
+            return compact.getString(key);
+        }
+        Object value = metadata.get(key);
+        return value != null ? String.valueOf(value) : null;
+    }
+
+    /**
+     * 값을 문자열로 조회 - 압축된 숫자는 박싱 없이 변환
+     */
+    public String getString(Object key) {
+        int position = indexOf(key);
+        if (position < 0) {
+            return null;
+        }
+        Object value = table[position * 2 + 1];
+        if (value instanceof Packed slot) {
+            long bits = packed[slot.slot];
+            return switch (slot.kind) {
+                case Packed.INT -> Integer.toString((int) bits);
+                case Packed.LONG -> Long.toString(bits);
+                default -> Double.toString(Double.longBitsToDouble(bits));
+            };
+        }
+        return value != null ? String.valueOf(value) : null;
+    }
+
+    @Override
+    public Object get(Object key) {
+        int position = indexOf(key);
+        return position < 0 ? null : valueAt(position);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return table.length / 2;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return table.length == 0;
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super String, ? super Object> action) {
+        for (int i = 0, size = size(); i < size; i++) {
+            action.accept((String) table[i * 2], valueAt(i));
+        }
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new Iterator<>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < size();
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        int position = next++;
+                        return new SimpleImmutableEntry<>((String) table[position * 2], valueAt(position));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return CompactMetadataMap.this.size();
+            }
+        };
+    }
+
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0 && !hashIsZero) {
+            h = computeHash();
+            if (h == 0) {
+                hashIsZero = true;
+            } else {
+                hash = h;
+            }
+        }
+        return h;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CompactMetadataMap other)) {
+            return super.equals(o);
+        }
+        if (other.size() != size() || other.hashCode() != hashCode()) {
+            return false;
+        }
+        for (int i = 0, size = size(); i < size; i++) {
+            int position = other.indexOf(table[i * 2]);
+            if (position < 0 || !Objects.equals(valueAt(i), other.valueAt(position))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int computeHash() {
+        // AbstractMap.hashCode 와 같은 값 (엔트리별 key.hashCode ^ value.hashCode 의 합), 압축 값은 박싱 없이 계산
+        int h = 0;
+        for (int i = 0, size = size(); i < size; i++) {
+            Object value = table[i * 2 + 1];
+            int valueHash;
+            if (value instanceof Packed slot) {
+                long bits = packed[slot.slot];
+                valueHash = switch (slot.kind) {
+                    case Packed.INT -> Integer.hashCode((int) bits);
+                    case Packed.LONG -> Long.hashCode(bits);
+                    default -> Double.hashCode(Double.longBitsToDouble(bits));
+                };
+            } else {
+                valueHash = Objects.hashCode(value);
+            }
+            h += Objects.hashCode(table[i * 2]) ^ valueHash;
+        }
+        return h;
+    }
+
+    private Object valueAt(int position) {
+        Object value = table[position * 2 + 1];
+        if (value instanceof Packed slot) {
+            long bits = packed[slot.slot];
+            return switch (slot.kind) {
+                case Packed.INT -> (int) bits;
+                case Packed.LONG -> bits;
+                default -> Double.longBitsToDouble(bits);
+            };
+        }
+        return value;
+    }
+
+    private int indexOf(Object key) {
+        Object[] entries = table;
+        if (index == null) {
+            // JSON 파서가 intern 한 키와 상수 키 조회는 참조 비교만으로 끝나므로 먼저 == 로 한 번 훑음
+            for (int i = 0; i < entries.length; i += 2) {
+                if (entries[i] == key) {
+                    return i / 2;
+                }
+            }
+            if (key != null) {
+                for (int i = 0; i < entries.length; i += 2) {
+                    if (key.equals(entries[i])) {
+                        return i / 2;
+                    }
+                }
+            }
+            return -1;
+        }
+        int mask = index.length - 1;
+        for (int slot = spread(key) & mask; ; slot = (slot + 1) & mask) {
+            int position = index[slot] - 1;
+            if (position < 0) {
+                return -1;
+            }
+            if (Objects.equals(entries[position * 2], key)) {
+                return position;
+            }
+        }
+    }
+
+    private static int spread(Object key) {
+        int h = Objects.hashCode(key);
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * 압축된 숫자 값 자리 표식 - (종류, long[] 위치) 조합마다 공유 인스턴스를 써서 추가 할당 없음
+     */
+    private static final class Packed {
+
+        static final int INT = 0;
+        static final int LONG = 1;
+        static final int DOUBLE = 2;
+        static final int MAX_SLOTS = 16;
+        private static final Packed[][] SHARED = new Packed[3][MAX_SLOTS];
+
+        static {
+            for (int kind = 0; kind < SHARED.length; kind++) {
+                for (int slot = 0; slot < MAX_SLOTS; slot++) {
+                    SHARED[kind][slot] = new Packed(kind, slot);
+                }
+            }
+        }
+
+        private final int kind;
+        private final int slot;
+
+        private Packed(int kind, int slot) {
+            this.kind = kind;
+            this.slot = slot;
+        }
+
+        static Packed of(int kind, int slot) {
+            return SHARED[kind][slot];
+        }
+    }
+
+    /**
+     * 입력 순서대로 엔트리를 모아 CompactMetadataMap 생성 (같은 키는 LinkedHashMap 처럼 마지막 값, 첫 위치 유지)
+     *
+     * 숫자 전용 put 은 박싱 없이 저장하므로, 역직렬화기는 파서 값을 그대로 넘깁니다.
+     * ⚠️ 한 번 build() 한 뒤에는 재사용하지 않습니다.
+     */
+    public static final class Builder {
+
+        private static final byte OBJECT = -1;
+
+        private Object[] entries;
+        private long[] numbers;
+        private byte[] kinds;
+        private int size;
+        private Map<Object, Integer> positions;
+
+        private Builder(int expectedSize) {
+            int capacity = Math.max(1, expectedSize);
+            this.entries = new Object[capacity * 2];
+            this.numbers = new long[capacity];
+            this.kinds = new byte[capacity];
+        }
+
+        public Builder put(String key, Object value) {
+            if (value instanceof Integer number) {
+                return putInt(key, number);
+            }
+            if (value instanceof Long number) {
+                return putLong(key, number);
+            }
+            if (value instanceof Double number) {
+                return putDouble(key, number);
+            }
+            int position = position(key);
+            entries[position * 2 + 1] = value;
+            kinds[position] = OBJECT;
+            return this;
+        }
+
+        public Builder putInt(String key, int value) {
+            return putNumber(key, Packed.INT, value);
+        }
+
+        public Builder putLong(String key, long value) {
+            return putNumber(key, Packed.LONG, value);
+        }
+
+        public Builder putDouble(String key, double value) {
+            return putNumber(key, Packed.DOUBLE, Double.doubleToRawLongBits(value));
+        }
+
+        public Builder putBoolean(String key, boolean value) {
+            return put(key, Boolean.valueOf(value));
+        }
+
+        private Builder putNumber(String key, int kind, long bits) {
+            int position = position(key);
+            entries[position * 2 + 1] = null;
+            numbers[position] = bits;
+            kinds[position] = (byte) kind;
+            return this;
+        }
+
+        public Map<String, Object> build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            Object[] table = Arrays.copyOf(entries, size * 2);
+
+            // 박싱 시 새 객체가 생기는 숫자만 압축 대상
+            int packable = 0;
+            for (int i = 0; i < size; i++) {
+                if (kinds[i] != OBJECT && !boxesToCachedInstance(kinds[i], numbers[i])) {
+                    packable++;
+                }
+            }
+            boolean pack = packable >= PACK_THRESHOLD && packable <= Packed.MAX_SLOTS;
+            long[] packed = pack ? new long[packable] : null;
+            int next = 0;
+            for (int i = 0; i < size; i++) {
+                int kind = kinds[i];
+                if (kind == OBJECT) {
+                    continue;
+                }
+                long bits = numbers[i];
+                if (pack && !boxesToCachedInstance(kind, bits)) {
+                    packed[next] = bits;
+                    table[i * 2 + 1] = Packed.of(kind, next++);
+                } else {
+                    table[i * 2 + 1] = switch (kind) {
+                        case Packed.INT -> (int) bits;
+                        case Packed.LONG -> bits;
+                        default -> Double.longBitsToDouble(bits);
+                    };
+                }
+            }
+            return new CompactMetadataMap(table, packed, size > LINEAR_SCAN_LIMIT ? buildIndex(table, size) : null);
+        }
+
+        private static boolean boxesToCachedInstance(int kind, long bits) {
+            return kind != Packed.DOUBLE && bits >= -128 && bits <= 127;
+        }
+
+        private static int[] buildIndex(Object[] table, int size) {
+            // 적재율 50% 이하
+            int[] index = new int[Integer.highestOneBit(size * 2 - 1) << 1];
+            int mask = index.length - 1;
+            for (int position = 0; position < size; position++) {
+                int slot = spread(table[position * 2]) & mask;
+                while (index[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                index[slot] = position + 1;
+            }
+            return index;
+        }
+
+        private int position(String key) {
+            int existing = find(key);
+            if (existing >= 0) {
+                return existing;
+            }
+            if (size == kinds.length) {
+                int capacity = size * 2;
+                entries = Arrays.copyOf(entries, capacity * 2);
+                numbers = Arrays.copyOf(numbers, capacity);
+                kinds = Arrays.copyOf(kinds, capacity);
+            }
+            entries[size * 2] = key;
+            if (positions != null) {
+                positions.put(key, size);
+            } else if (size == LINEAR_SCAN_LIMIT) {
+                // 큰 입력의 중복 키 검사가 O(n²) 이 되지 않도록 전환
+                positions = new HashMap<>();
+                for (int i = 0; i <= size; i++) {
+                    positions.put(entries[i * 2], i);
+                }
+            }
+            return size++;
+        }
+
+        private int find(String key) {
+            if (positions != null) {
+                Integer position = positions.get(key);
+                return position != null ? position : -1;
+            }
+            for (int i = 0; i < size; i++) {
+                Object candidate = entries[i * 2];
+                if (candidate == key || (key != null && key.equals(candidate))) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
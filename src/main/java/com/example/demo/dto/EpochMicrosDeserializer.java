@@ -0,0 +1,58 @@
+package com.example.demo.dto;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.type.LogicalType;
+
+import java.io.IOException;
+import java.time.format.DateTimeParseException;
+
+/**
+ * timestamp JSON 값을 epoch 마이크로초(long)로 읽는 역직렬화기
+ *
+ * 두 형식을 모두 받으므로 프로듀서가 숫자 형식으로 바꿔도 컨슈머는 그대로 동작합니다.
+ * - 숫자: epoch 마이크로초 그대로
+ * - 문자열: EventTimestamps.parse (기존 "yyyy-MM-dd'T'HH:mm:ss" 는 고정 레이아웃 fast path, 오프셋 포함 ISO 는 UTC 로 환산)
+ *
+ * null / 누락은 NONE 입니다. (Record DTO 는 생성자에서 거부)
+ */
+public class EpochMicrosDeserializer extends StdDeserializer<Long> {
+
+    public EpochMicrosDeserializer() {
+        super(Long.class);
+    }
+
+    @Override
+    public Long deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return p.getLongValue();
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            String text = p.getText();
+            try {
+                return EventTimestamps.parse(text);
+            } catch (DateTimeParseException e) {
+                return (Long) ctxt.handleWeirdStringValue(Long.class, text, "not an ISO-8601 timestamp");
+            }
+        }
+        return (Long) ctxt.handleUnexpectedToken(Long.class, p);
+    }
+
+    @Override
+    public Long getNullValue(DeserializationContext ctxt) {
+        return EventTimestamps.NONE;
+    }
+
+    @Override
+    public Object getAbsentValue(DeserializationContext ctxt) {
+        return EventTimestamps.NONE;
+    }
+
+    @Override
+    public LogicalType logicalType() {
+        return LogicalType.DateTime;
+    }
+}
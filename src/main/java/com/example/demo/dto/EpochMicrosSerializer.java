@@ -0,0 +1,44 @@
+package com.example.demo.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * epoch 마이크로초 timestamp 직렬화기
+ *
+ * - 기본: "yyyy-MM-dd'T'HH:mm:ss" 문자열 (기존 @JsonFormat 출력과 동일, 기존 컨슈머 호환)
+ *         EventTimestamps 고정 레이아웃으로 기록해 LocalDateTime / DateTimeFormatter 를 거치지 않음
+ * - WRITE_DATES_AS_TIMESTAMPS 활성화 시: epoch 마이크로초 숫자 (초 미만 정밀도 유지, 가장 빠름)
+ *
+ * NONE 은 null 로 기록합니다.
+ */
+public class EpochMicrosSerializer extends StdSerializer<Long> {
+
+    public EpochMicrosSerializer() {
+        super(Long.class);
+    }
+
+    @Override
+    public void serialize(Long value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        long micros = value;
+        if (micros == EventTimestamps.NONE) {
+            gen.writeNull();
+            return;
+        }
+        if (provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+            gen.writeNumber(micros);
+            return;
+        }
+        char[] buffer = new char[EventTimestamps.ISO_SECONDS_LENGTH];
+        int length = EventTimestamps.formatIsoSeconds(micros, buffer);
+        if (length < 0) {
+            gen.writeString(EventTimestamps.formatFallback(micros));
+        } else {
+            gen.writeString(buffer, 0, length);
+        }
+    }
+}
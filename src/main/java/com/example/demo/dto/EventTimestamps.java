@@ -0,0 +1,236 @@
+package com.example.demo.dto;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * 이벤트 timestamp 의 기본 표현 - UTC epoch 마이크로초 (long)
+ *
+ * DTO 는 timestamp 를 long 하나로 보관하고, LocalDateTime 은 API 호환을 위해 필요할 때만 만듭니다.
+ * (LocalDateTime 은 LocalDate + LocalTime 까지 객체 3개, 비교/윈도우 계산마다 변환 필요)
+ * 기존 코드가 LocalDateTime 을 UTC 로 해석해 왔으므로(toInstant(ZoneOffset.UTC)) 같은 기준으로 변환합니다.
+ *
+ * 🕒 모든 경로가 실제 UTC 시각 한 축에 기록됩니다.
+ * - now(): Instant.now() (시스템 시간대와 무관)
+ * - parse: 오프셋/Z 가 있으면 그 오프셋으로 환산, 없으면 UTC 로 해석
+ * - LocalDateTime 변환(fromLocalDateTime / toLocalDateTime): UTC 벽시계 시각
+ * → UTC 가 아닌 호스트에서도 createNow 로 만든 이벤트와 "+09:00" 으로 보낸 같은 순간의 이벤트가 같은 값이 되어,
+ *   워터마크 / 중복 제거 / 아카이브 timestamp 가 한 기준으로 비교됩니다.
+ *   (대신 DTO 의 LocalDateTime 조회값은 LocalDateTime.now() 가 아니라 UTC 기준 시각)
+ *
+ * ✅ 고정 레이아웃 fast path:
+ * - formatIsoSeconds: "yyyy-MM-dd'T'HH:mm:ss" (기존 @JsonFormat 패턴과 같은 출력)를 DateTimeFormatter 없이 char[] 에 기록
+ * - parse: 같은 레이아웃(+ 선택적 소수 초)은 직접 파싱, 오프셋/Z 가 붙은 ISO 문자열은 java.time 으로 처리해 UTC 로 환산
+ *
+ * ⚠️ NONE(Long.MIN_VALUE) 은 "timestamp 없음" (LocalDateTime null 에 해당)
+ */
+public final class EventTimestamps {
+
+    public static final long NONE = Long.MIN_VALUE;
+    public static final int ISO_SECONDS_LENGTH = 19;
+
+    private static final long MICROS_PER_SECOND = 1_000_000L;
+    private static final long MICROS_PER_MILLI = 1_000L;
+    private static final int SECONDS_PER_DAY = 86_400;
+    private static final DateTimeFormatter ISO_SECONDS = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    private EventTimestamps() {
+    }
+
+    /**
+     * 현재 시각 - UTC epoch 마이크로초 (Instant.now())
+     */
+    public static long now() {
+        return fromInstant(Instant.now());
+    }
+
+    public static long fromInstant(Instant instant) {
+        return instant.getEpochSecond() * MICROS_PER_SECOND + instant.getNano() / 1_000;
+    }
+
+    public static long fromLocalDateTime(LocalDateTime timestamp) {
+        if (timestamp == null) {
+            return NONE;
+        }
+        return timestamp.toEpochSecond(ZoneOffset.UTC) * MICROS_PER_SECOND + timestamp.getNano() / 1_000;
+    }
+
+    public static LocalDateTime toLocalDateTime(long micros) {
+        if (micros == NONE) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, MICROS_PER_SECOND),
+                (int) Math.floorMod(micros, MICROS_PER_SECOND) * 1_000, ZoneOffset.UTC);
+    }
+
+    public static long fromMillis(long epochMillis) {
+        return epochMillis * MICROS_PER_MILLI;
+    }
+
+    public static long toMillis(long micros) {
+        return Math.floorDiv(micros, MICROS_PER_MILLI);
+    }
+
+    /**
+     * "yyyy-MM-dd'T'HH:mm:ss" 로 기록 (초 미만 버림)
+     *
+     * @return 기록한 길이, 0000~9999 년 밖이면 -1 (호출자가 formatFallback 사용)
+     */
+    public static int formatIsoSeconds(long micros, char[] out) {
+        long epochSecond = Math.floorDiv(micros, MICROS_PER_SECOND);
+        long epochDay = Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+        int secondOfDay = (int) Math.floorMod(epochSecond, SECONDS_PER_DAY);
+
+        // civil_from_days (Howard Hinnant) - 1970-01-01 기준 일수 → 연/월/일
+        long z = epochDay + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long dayOfEra = z - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1_460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        if (year < 0 || year > 9_999) {
+            return -1;
+        }
+
+        digits(out, 0, (int) year, 4);
+        out[4] = '-';
+        digits(out, 5, month, 2);
+        out[7] = '-';
+        digits(out, 8, day, 2);
+        out[10] = 'T';
+        digits(out, 11, secondOfDay / 3_600, 2);
+        out[13] = ':';
+        digits(out, 14, secondOfDay / 60 % 60, 2);
+        out[16] = ':';
+        digits(out, 17, secondOfDay % 60, 2);
+        return ISO_SECONDS_LENGTH;
+    }
+
+    public static String formatFallback(long micros) {
+        return ISO_SECONDS.format(toLocalDateTime(micros));
+    }
+
+    /**
+     * ISO-8601 문자열 → epoch 마이크로초
+     *
+     * 오프셋 없는 값은 UTC 로, 오프셋/Z 가 있으면 그 오프셋을 반영해 환산합니다.
+     *
+     * @throws DateTimeParseException 형식이 맞지 않으면
+     */
+    public static long parse(CharSequence text) {
+        long micros = parseLocalFast(text);
+        if (micros != NONE) {
+            return micros;
+        }
+        try {
+            if (hasOffset(text)) {
+                return fromInstant(OffsetDateTime.parse(text).toInstant());
+            }
+            return fromLocalDateTime(LocalDateTime.parse(text));
+        } catch (DateTimeException e) {
+            throw e instanceof DateTimeParseException parseException ? parseException
+                    : new DateTimeParseException(e.getMessage(), text, 0, e);
+        }
+    }
+
+    /**
+     * "yyyy-MM-ddTHH:mm:ss[.f{1,9}]" 만 직접 파싱, 그 외 형식은 NONE (java.time 경로로 넘김)
+     */
+    private static long parseLocalFast(CharSequence text) {
+        int length = text.length();
+        if (length < ISO_SECONDS_LENGTH
+                || text.charAt(4) != '-' || text.charAt(7) != '-' || text.charAt(10) != 'T'
+                || text.charAt(13) != ':' || text.charAt(16) != ':') {
+            return NONE;
+        }
+        int year = number(text, 0, 4);
+        int month = number(text, 5, 2);
+        int day = number(text, 8, 2);
+        int hour = number(text, 11, 2);
+        int minute = number(text, 14, 2);
+        int second = number(text, 17, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return NONE;
+        }
+
+        int fractionMicros = 0;
+        if (length > ISO_SECONDS_LENGTH) {
+            int fractionDigits = length - ISO_SECONDS_LENGTH - 1;
+            if (text.charAt(ISO_SECONDS_LENGTH) != '.' || fractionDigits < 1 || fractionDigits > 9) {
+                return NONE;
+            }
+            int fraction = number(text, ISO_SECONDS_LENGTH + 1, Math.min(fractionDigits, 6));
+            if (fraction < 0 || (fractionDigits > 6 && number(text, ISO_SECONDS_LENGTH + 7, fractionDigits - 6) < 0)) {
+                return NONE;
+            }
+            fractionMicros = fraction;
+            for (int i = fractionDigits; i < 6; i++) {
+                fractionMicros *= 10;
+            }
+        }
+
+        long epochSecond = daysFromCivil(year, month, day) * SECONDS_PER_DAY
+                + hour * 3_600L + minute * 60L + second;
+        return epochSecond * MICROS_PER_SECOND + fractionMicros;
+    }
+
+    // days_from_civil (Howard Hinnant) - 연/월/일 → 1970-01-01 기준 일수
+    private static long daysFromCivil(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097L + dayOfEra - 719_468;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    private static boolean hasOffset(CharSequence text) {
+        // 날짜 부분 이후의 Z, +, - 는 오프셋
+        for (int i = 10; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == 'Z' || c == 'z' || c == '+' || c == '-') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 10진 숫자 count 자리 파싱 (숫자가 아니면 -1)
+     */
+    private static int number(CharSequence text, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static void digits(char[] out, int offset, int value, int count) {
+        for (int i = offset + count - 1; i >= offset; i--) {
+            out[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
@@ -1,6 +1,15 @@
 package com.example.demo.dto.pojo;
 
-import com.fasterxml.jackson.annotation.JsonFormat;
+import com.example.demo.dto.CompactMetadataDeserializer;
+import com.example.demo.dto.CompactMetadataMap;
+import com.example.demo.dto.EpochMicrosDeserializer;
+import com.example.demo.dto.EpochMicrosSerializer;
+import com.example.demo.dto.EventTimestamps;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 import java.time.LocalDateTime;
 import java.util.Map;
@@ -25,17 +34,38 @@ import java.util.Objects;
  * 1. 기본 생성자 (매개변수 없는 생성자)
  * 2. 각 필드에 대한 setter 메서드
  * 3. 선택적으로 getter 메서드 (직렬화용)
+ * 
+ * 🔒 freeze() 이후 불변 모드:
+ * - setter 호출 시 IllegalStateException
+ * - metadata 를 CompactMetadataMap 으로 교체, hashCode 는 처음 한 번만 계산해 캐시
+ * - equals 는 두 객체 모두 freeze 된 경우 해시가 다르면 필드 비교 없이 false
+ * 중복 제거/그룹핑처럼 hashCode/equals 를 반복 호출하는 경로에서 사용합니다.
+ * 
+ * 🕒 timestamp:
+ * UTC epoch 마이크로초(long)로 보관합니다. (없으면 EventTimestamps.NONE)
+ * getTimestamp()/setTimestamp() 는 기존 API 호환용 LocalDateTime 변환이고, JSON 은 long 필드를 바로 읽고 씁니다.
  */
+// timestamp 는 이름을 바꾼 속성이라 지정하지 않으면 마지막으로 밀려남 (기존 JSON 필드 순서 유지)
+@JsonPropertyOrder({"userId", "eventType", "timestamp", "metadata"})
 public class UserEventPojoDto {
     
     private String userId;
     private String eventType;
     
-    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
-    private LocalDateTime timestamp;
+    // epoch 마이크로초 (UTC) - 필드 이름을 JSON 이름과 맞춰 LocalDateTime 접근자 대신 이 필드가 직렬화됨
+    @JsonProperty("timestamp")
+    @JsonSerialize(using = EpochMicrosSerializer.class)
+    @JsonDeserialize(using = EpochMicrosDeserializer.class)
+    private long timestamp = EventTimestamps.NONE;
     
+    // JSON 에서는 CompactMetadataMap 으로 바로 읽음 (불변 - 수정하려면 setMetadata 로 교체)
+    @JsonDeserialize(using = CompactMetadataDeserializer.class)
     private Map<String, Object> metadata;
     
+    // freeze() 이후에만 사용 (직렬화 대상 아님)
+    private boolean frozen;
+    private int hash;
+    
     /**
      * 기본 생성자 - Jackson 역직렬화를 위해 필수!
      */
@@ -48,7 +78,7 @@ public class UserEventPojoDto {
     public UserEventPojoDto(String userId, String eventType, LocalDateTime timestamp, Map<String, Object> metadata) {
         this.userId = userId;
         this.eventType = eventType;
-        this.timestamp = timestamp;
+        this.timestamp = EventTimestamps.fromLocalDateTime(timestamp);
         this.metadata = metadata;
     }
     
@@ -61,7 +91,16 @@ public class UserEventPojoDto {
         return eventType;
     }
     
+    /**
+     * timestamp 를 LocalDateTime(UTC) 으로 조회 - 호출마다 새로 만듦
+     */
+    @JsonIgnore
     public LocalDateTime getTimestamp() {
+        return EventTimestamps.toLocalDateTime(timestamp);
+    }
+    
+    @JsonIgnore
+    public long getTimestampMicros() {
         return timestamp;
     }
     
@@ -71,33 +110,68 @@ public class UserEventPojoDto {
     
     // Setter 메서드들 - Jackson 역직렬화를 위해 필수!
     public void setUserId(String userId) {
+        checkNotFrozen();
         this.userId = userId;
     }
     
     public void setEventType(String eventType) {
+        checkNotFrozen();
         this.eventType = eventType;
     }
     
+    @JsonIgnore
     public void setTimestamp(LocalDateTime timestamp) {
-        this.timestamp = timestamp;
+        checkNotFrozen();
+        this.timestamp = EventTimestamps.fromLocalDateTime(timestamp);
+    }
+    
+    @JsonIgnore
+    public void setTimestampMicros(long timestampMicros) {
+        checkNotFrozen();
+        this.timestamp = timestampMicros;
     }
     
     public void setMetadata(Map<String, Object> metadata) {
+        checkNotFrozen();
         this.metadata = metadata;
     }
     
     /**
-     * 편의 메서드: 현재 시간으로 이벤트 생성
+     * 불변 모드로 전환 (역직렬화/생성 완료 후 호출, 되돌릴 수 없음)
+     */
+    public UserEventPojoDto freeze() {
+        if (!frozen) {
+            this.metadata = CompactMetadataMap.of(metadata);
+            this.frozen = true;
+        }
+        return this;
+    }
+    
+    @JsonIgnore
+    public boolean isFrozen() {
+        return frozen;
+    }
+    
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new IllegalStateException("UserEventPojoDto is frozen");
+        }
+    }
+    
+    /**
+     * 편의 메서드: 현재 시간(UTC, EventTimestamps.now)으로 이벤트 생성
      */
     public static UserEventPojoDto createNow(String userId, String eventType, Map<String, Object> metadata) {
-        return new UserEventPojoDto(userId, eventType, LocalDateTime.now(), metadata);
+        UserEventPojoDto event = new UserEventPojoDto(userId, eventType, null, metadata);
+        event.timestamp = EventTimestamps.now();
+        return event;
     }
     
     /**
      * 편의 메서드: 메타데이터 없이 이벤트 생성
      */
     public static UserEventPojoDto createSimple(String userId, String eventType) {
-        return new UserEventPojoDto(userId, eventType, LocalDateTime.now(), Map.of());
+        return createNow(userId, eventType, Map.of());
     }
     
     /**
@@ -115,7 +189,7 @@ public class UserEventPojoDto {
      * 메타데이터에서 특정 값 추출
      */
     public String getMetadataValue(String key) {
-        return metadata != null ? String.valueOf(metadata.get(key)) : null;
+        return CompactMetadataMap.stringValue(metadata, key);
     }
     
     /**
@@ -126,18 +200,40 @@ public class UserEventPojoDto {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         UserEventPojoDto that = (UserEventPojoDto) o;
+        // 둘 다 불변이면 캐시된 해시로 먼저 걸러냄
+        if (frozen && that.frozen && hashCode() != that.hashCode()) return false;
         return Objects.equals(userId, that.userId) &&
                Objects.equals(eventType, that.eventType) &&
-               Objects.equals(timestamp, that.timestamp) &&
+               timestamp == that.timestamp &&
                Objects.equals(metadata, that.metadata);
     }
     
     /**
      * hashCode 메서드 - 해시 기반 컬렉션 사용을 위해 필수
+     * 
+     * Objects.hash 와 같은 방식(31 곱셈 누적)으로 varargs 배열 할당 없이 계산하고, 불변 모드에서는 캐시합니다.
      */
     @Override
     public int hashCode() {
-        return Objects.hash(userId, eventType, timestamp, metadata);
+        if (!frozen) {
+            return computeHash();
+        }
+        int h = hash;
+        if (h == 0) {
+            // 계산 결과가 0 이면 매번 다시 계산되지만 값은 동일
+            h = computeHash();
+            hash = h;
+        }
+        return h;
+    }
+    
+    private int computeHash() {
+        int result = 1;
+        result = 31 * result + Objects.hashCode(userId);
+        result = 31 * result + Objects.hashCode(eventType);
+        result = 31 * result + Long.hashCode(timestamp);
+        result = 31 * result + Objects.hashCode(metadata);
+        return result;
     }
     
     /**
@@ -148,7 +244,7 @@ public class UserEventPojoDto {
         return "UserEventPojoDto{" +
                "userId='" + userId + '\'' +
                ", eventType='" + eventType + '\'' +
-               ", timestamp=" + timestamp +
+               ", timestamp=" + getTimestamp() +
                ", metadata=" + metadata +
                '}';
     }
@@ -1,6 +1,14 @@
 package com.example.demo.dto.record;
 
-import com.fasterxml.jackson.annotation.JsonFormat;
+import com.example.demo.dto.CompactMetadataDeserializer;
+import com.example.demo.dto.CompactMetadataMap;
+import com.example.demo.dto.EpochMicrosDeserializer;
+import com.example.demo.dto.EpochMicrosSerializer;
+import com.example.demo.dto.EventTimestamps;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 import java.time.LocalDateTime;
 import java.util.Map;
@@ -24,12 +32,23 @@ import java.util.Map;
  * 1. jackson-module-parameter-names 의존성
  * 2. 컴파일 시 -parameters 옵션
  * 3. ParameterNamesModule 등록
+ * 
+ * 🕒 timestamp:
+ * UTC epoch 마이크로초(long timestampMicros)로 보관하고 JSON 필드 이름은 기존대로 "timestamp" 입니다.
+ * 기존 API 는 그대로 유지합니다: timestamp() 는 LocalDateTime(UTC) 을 돌려주는 파생 메서드, toString 도 timestamp=LocalDateTime 형식
+ * timestamp() 는 호출할 때마다 LocalDateTime 을 만들므로, 비교/윈도우 계산은 timestampMicros() 를 사용합니다.
+ * (JSON 형식은 EpochMicrosSerializer / EpochMicrosDeserializer, 숫자 형식의 스키마 버전은 LocalSchemaRegistry 참고)
  */
+// timestamp 는 이름을 바꾼 속성이라 지정하지 않으면 마지막으로 밀려남 (기존 JSON 필드 순서 유지)
+@JsonPropertyOrder({"userId", "eventType", "timestamp", "metadata"})
 public record UserEventRecordDto(
     String userId,
     String eventType,
-    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
-    LocalDateTime timestamp,
+    @JsonProperty("timestamp")
+    @JsonSerialize(using = EpochMicrosSerializer.class)
+    @JsonDeserialize(using = EpochMicrosDeserializer.class)
+    long timestampMicros,
+    @JsonDeserialize(using = CompactMetadataDeserializer.class)
     Map<String, Object> metadata
 ) {
 
@@ -45,27 +64,55 @@ public record UserEventRecordDto(
         if (eventType == null || eventType.trim().isEmpty()) {
             throw new IllegalArgumentException("eventType cannot be null or empty");
         }
-        if (timestamp == null) {
+        if (timestampMicros == EventTimestamps.NONE) {
             throw new IllegalArgumentException("timestamp cannot be null");
         }
 
         // 정규화 (필요시)
         userId = userId.trim();
         eventType = eventType.trim().toUpperCase();
+
+        // 배열 기반 불변 Map 으로 보관 (해시 캐시 포함, 역직렬화 경로는 이미 변환된 Map 이 그대로 들어옴)
+        metadata = CompactMetadataMap.of(metadata);
+    }
+
+    /**
+     * LocalDateTime(UTC 기준) 으로 생성 - 기존 API 호환
+     */
+    public UserEventRecordDto(String userId, String eventType, LocalDateTime timestamp, Map<String, Object> metadata) {
+        this(userId, eventType, EventTimestamps.fromLocalDateTime(timestamp), metadata);
     }
 
     /**
-     * 편의 메서드: 현재 시간으로 이벤트 생성
+     * timestamp 를 LocalDateTime(UTC) 으로 조회 - 호출마다 새로 만듦
+     */
+    public LocalDateTime timestamp() {
+        return EventTimestamps.toLocalDateTime(timestampMicros);
+    }
+
+    /**
+     * 컴포넌트 이름(timestampMicros) 대신 기존과 같은 timestamp=LocalDateTime 으로 출력
+     */
+    @Override
+    public String toString() {
+        return "UserEventRecordDto[userId=" + userId
+                + ", eventType=" + eventType
+                + ", timestamp=" + timestamp()
+                + ", metadata=" + metadata + "]";
+    }
+
+    /**
+     * 편의 메서드: 현재 시간(UTC, EventTimestamps.now)으로 이벤트 생성
      */
     public static UserEventRecordDto createNow(String userId, String eventType, Map<String, Object> metadata) {
-        return new UserEventRecordDto(userId, eventType, LocalDateTime.now(), metadata);
+        return new UserEventRecordDto(userId, eventType, EventTimestamps.now(), metadata);
     }
 
     /**
      * 편의 메서드: 메타데이터 없이 이벤트 생성
      */
     public static UserEventRecordDto createSimple(String userId, String eventType) {
-        return new UserEventRecordDto(userId, eventType, LocalDateTime.now(), Map.of());
+        return new UserEventRecordDto(userId, eventType, EventTimestamps.now(), Map.of());
     }
 
     /**
@@ -83,10 +130,6 @@ public record UserEventRecordDto(
      * 메타데이터에서 특정 값 추출
      */
     public String getMetadataValue(String key) {
-        if (metadata == null || !metadata.containsKey(key)) {
-            return null;
-        }
-        Object value = metadata.get(key);
-        return value != null ? String.valueOf(value) : null;
+        return CompactMetadataMap.stringValue(metadata, key);
     }
 }
@@ -0,0 +1,327 @@
+package com.example.demo.flow;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.RecordInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 리스너 컨테이너 적응형 흐름 제어 (RecordEventConsumer / PojoEventConsumer)
+ *
+ * processEvent 가 느려져도(예: 하위 DB 지연) 컨슈머가 계속 큰 poll 을 받아 처리하면
+ * max.poll.interval.ms 를 넘겨 그룹에서 빠지고, 리밸런스 후 다시 같은 상황이 반복됩니다.
+ * 이 컨트롤러는 레코드당 처리 지연과 파티션별 대기 레코드 수(lag)를 보고 컨테이너 API 로 속도를 조절합니다.
+ *
+ * ✅ 동작 (판단 규칙은 FlowControlPolicy):
+ * 1. 파티션 pause/resume - 지연이 큰 파티션만 지수 백오프로 쉬게 해 하위 시스템의 부하를 덜고, 나머지 파티션은 계속 처리
+ * 2. poll 주기 가드 - 한 poll 의 처리 시간이 예산을 넘으면 컨테이너를 즉시 pause (pauseImmediate, 남은 레코드는 보관)
+ *    → 다음 poll 로 max.poll.interval 타이머가 초기화된 뒤 평가 주기에 바로 재개
+ * 3. 권장 max.poll.records - 예산 / 지연 으로 계산해 컨테이너 컨슈머 설정에 반영
+ *    (kafka-clients 는 컨슈머 생성 시에만 이 값을 읽으므로 다음 컨슈머 생성부터 적용, 그 전까지는 2번이 같은 상한을 보장)
+ *
+ * ⚠️ 단건(record) 리스너만 대상입니다. 배치 리스너(POJO 재사용 모드, 아카이브)는 RecordInterceptor 가 호출되지 않습니다.
+ * 팩토리 하나에 리스너 하나를 가정합니다. (recordListenerContainerFactory, pojoListenerContainerFactory)
+ *
+ * 📊 메트릭 (listener 태그): demo.flow.latency.ms, demo.flow.queue.depth, demo.flow.max.poll.records,
+ *     demo.flow.paused.partitions, demo.flow.pause.duration (partition 태그, 재개 시 기록), demo.flow.cycle.guard
+ */
+@Component
+public class AdaptiveFlowController implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveFlowController.class);
+
+    private static final long DEFAULT_MAX_POLL_INTERVAL_MS = 300_000L;
+    private static final int DEFAULT_MAX_POLL_RECORDS = 500;
+    private static final String WHOLE_CONTAINER = "all";
+
+    private final MeterRegistry meterRegistry;
+    private final FlowControlPolicy policy;
+    private final boolean enabled;
+    private final long evaluationIntervalMs;
+    private final Map<String, ListenerFlow> listeners = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    public AdaptiveFlowController(KafkaProperties kafkaProperties,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${demo.flow.enabled:true}") boolean enabled,
+                                  @Value("${demo.flow.pause-latency-ms:200}") double pauseLatencyMs,
+                                  @Value("${demo.flow.resume-latency-ms:50}") double resumeLatencyMs,
+                                  @Value("${demo.flow.initial-pause-ms:1000}") long initialPauseMs,
+                                  @Value("${demo.flow.max-pause-ms:30000}") long maxPauseMs,
+                                  @Value("${demo.flow.target-poll-utilization:0.5}") double targetPollUtilization,
+                                  @Value("${demo.flow.min-poll-records:10}") int minPollRecords,
+                                  @Value("${demo.flow.evaluation-interval-ms:250}") long evaluationIntervalMs) {
+        Map<String, Object> consumerProperties = kafkaProperties.buildConsumerProperties(null);
+        this.meterRegistry = meterRegistry;
+        this.policy = new FlowControlPolicy(pauseLatencyMs, resumeLatencyMs, initialPauseMs, maxPauseMs,
+                longProperty(consumerProperties, ConsumerConfig.MAX_POLL_INTERVAL_MS_CONFIG, DEFAULT_MAX_POLL_INTERVAL_MS),
+                targetPollUtilization, minPollRecords,
+                (int) longProperty(consumerProperties, ConsumerConfig.MAX_POLL_RECORDS_CONFIG, DEFAULT_MAX_POLL_RECORDS));
+        this.enabled = enabled;
+        this.evaluationIntervalMs = evaluationIntervalMs;
+
+        if (enabled) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "flow-controller");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::evaluate, evaluationIntervalMs, evaluationIntervalMs,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    /**
+     * 리스너 컨테이너 팩토리에 흐름 제어 연결 (지연 측정 인터셉터, 컨테이너 참조, pauseImmediate)
+     */
+    public <K, V> void attach(String listener, ConcurrentKafkaListenerContainerFactory<K, V> factory) {
+        attach(listener, factory, policy.maxPollRecords());
+    }
+
+    /**
+     * @param maxPollRecords 이 리스너의 max.poll.records 상한 (레인별 poll 예산 - 권장값이 이 값을 넘지 않음)
+     */
+    public <K, V> void attach(String listener, ConcurrentKafkaListenerContainerFactory<K, V> factory,
+                              int maxPollRecords) {
+        if (!enabled) {
+            return;
+        }
+        ListenerFlow flow = listeners.computeIfAbsent(listener, name -> new ListenerFlow(name, maxPollRecords));
+        // pause 요청 시 현재 poll 의 남은 레코드를 처리하지 않고 멈춤 (재개 후 그대로 전달)
+        factory.getContainerProperties().setPauseImmediate(true);
+        factory.setRecordInterceptor(flow.interceptor());
+        factory.setContainerCustomizer(container -> flow.container = container);
+    }
+
+    void evaluate() {
+        long now = System.nanoTime();
+        for (ListenerFlow flow : listeners.values()) {
+            try {
+                flow.evaluate(now);
+            } catch (RuntimeException e) {
+                logger.warn("⚠️ Flow control evaluation failed for {}: {}", flow.name, e.toString());
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private static long longProperty(Map<String, Object> properties, String key, long defaultValue) {
+        Object value = properties.get(key);
+        return value != null ? Long.parseLong(value.toString()) : defaultValue;
+    }
+
+    /**
+     * 리스너(컨테이너) 하나의 흐름 제어 상태
+     */
+    private final class ListenerFlow {
+
+        private final String name;
+        private final Map<TopicPartition, PartitionFlow> partitions = new ConcurrentHashMap<>();
+        // 리스너 스레드별 [poll 주기 시작, 현재 레코드 시작] (concurrency > 1 이면 스레드가 여럿)
+        private final ThreadLocal<long[]> threadState = ThreadLocal.withInitial(() -> new long[2]);
+        private final AtomicInteger pausedPartitions = new AtomicInteger();
+        private final Counter cycleGuards;
+        private volatile ConcurrentMessageListenerContainer<?, ?> container;
+        private volatile long guardPausedAtNanos = -1;
+        private volatile double latencyMs;
+        private volatile long queueDepth;
+        private final int maxPollRecords;
+        private volatile int recommendedMaxPollRecords;
+        private int appliedMaxPollRecords;
+
+        ListenerFlow(String name, int maxPollRecords) {
+            this.name = name;
+            this.maxPollRecords = maxPollRecords;
+            this.recommendedMaxPollRecords = this.maxPollRecords;
+            this.appliedMaxPollRecords = this.maxPollRecords;
+            this.cycleGuards = Counter.builder("demo.flow.cycle.guard").tag("listener", name).register(meterRegistry);
+            Gauge.builder("demo.flow.latency.ms", this, flow -> flow.latencyMs)
+                    .tag("listener", name).register(meterRegistry);
+            Gauge.builder("demo.flow.queue.depth", this, flow -> flow.queueDepth)
+                    .tag("listener", name).register(meterRegistry);
+            Gauge.builder("demo.flow.max.poll.records", this, flow -> flow.recommendedMaxPollRecords)
+                    .tag("listener", name).register(meterRegistry);
+            Gauge.builder("demo.flow.paused.partitions", pausedPartitions, AtomicInteger::get)
+                    .tag("listener", name).register(meterRegistry);
+        }
+
+        <K, V> RecordInterceptor<K, V> interceptor() {
+            return new RecordInterceptor<>() {
+                @Override
+                public void setupThreadState(Consumer<?, ?> consumer) {
+                    threadState.get()[0] = System.nanoTime();
+                }
+
+                @Override
+                public ConsumerRecord<K, V> intercept(ConsumerRecord<K, V> record, Consumer<K, V> consumer) {
+                    long[] state = threadState.get();
+                    state[1] = System.nanoTime();
+                    if (state[0] == 0) {
+                        state[0] = state[1];
+                    }
+                    return record;
+                }
+
+                @Override
+                public void afterRecord(ConsumerRecord<K, V> record, Consumer<K, V> consumer) {
+                    long[] state = threadState.get();
+                    long now = System.nanoTime();
+                    TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+                    // currentLag 는 마지막 fetch 의 high watermark 기준 로컬 계산 (브로커 호출 없음)
+                    OptionalLong lag = consumer.currentLag(partition);
+                    partitions.computeIfAbsent(partition, key -> new PartitionFlow())
+                            .record((now - state[1]) / 1_000_000.0, lag.isPresent() ? lag.getAsLong() : -1);
+
+                    if (now - state[0] > policy.cycleBudgetMs() * 1_000_000L) {
+                        state[0] = now;
+                        guardCycle(now);
+                    }
+                }
+            };
+        }
+
+        /**
+         * poll 주기 예산 초과 - 컨테이너 전체를 pause 해 다음 poll 을 앞당김 (리스너 스레드에서 호출)
+         */
+        private void guardCycle(long now) {
+            ConcurrentMessageListenerContainer<?, ?> current = container;
+            if (current == null || guardPausedAtNanos >= 0) {
+                return;
+            }
+            guardPausedAtNanos = now;
+            current.pause();
+            cycleGuards.increment();
+            logger.warn("⏸️ Poll cycle of {} exceeded {} ms budget, pausing until next poll", name,
+                    policy.cycleBudgetMs());
+        }
+
+        void evaluate(long now) {
+            ConcurrentMessageListenerContainer<?, ?> current = container;
+            if (current == null || !current.isRunning()) {
+                return;
+            }
+
+            // 가드 pause 는 한 번의 poll 이 지나도록 평가 주기 1회 이상 유지 후 재개
+            long guardPausedAt = guardPausedAtNanos;
+            if (guardPausedAt >= 0 && now - guardPausedAt >= evaluationIntervalMs * 1_000_000L) {
+                current.resume();
+                guardPausedAtNanos = -1;
+                pauseTimer(WHOLE_CONTAINER).record(now - guardPausedAt, TimeUnit.NANOSECONDS);
+            }
+
+            forgetRevokedPartitions(current, now);
+
+            double slowest = 0;
+            long depth = 0;
+            for (Map.Entry<TopicPartition, PartitionFlow> entry : partitions.entrySet()) {
+                TopicPartition partition = entry.getKey();
+                PartitionFlow flow = entry.getValue();
+                if (flow.paused()) {
+                    if (flow.pauseExpired(now)) {
+                        current.resumePartition(partition);
+                        recordResume(partition, flow.resume(now));
+                    }
+                    depth += flow.queueDepth();
+                    continue;
+                }
+
+                double partitionLatency = flow.latencyMs();
+                long samples = flow.samples();
+                depth += flow.queueDepth();
+                if (samples >= FlowControlPolicy.MIN_SAMPLES) {
+                    slowest = Math.max(slowest, partitionLatency);
+                }
+                if (policy.shouldPause(partitionLatency, samples, flow.queueDepth())) {
+                    long pauseMs = policy.nextPauseMs(flow.lastPauseMs());
+                    current.pausePartition(partition);
+                    flow.pause(now, pauseMs);
+                    pausedPartitions.incrementAndGet();
+                    logger.warn("⏸️ Pausing {} for {} ms ({}: {} ms/record, {} records waiting)",
+                            partition, pauseMs, name, String.format("%.1f", partitionLatency), flow.queueDepth());
+                } else if (policy.recovered(partitionLatency, samples)) {
+                    flow.recovered();
+                }
+            }
+
+            latencyMs = slowest;
+            queueDepth = depth;
+            recommendedMaxPollRecords = Math.min(maxPollRecords, policy.recommendedMaxPollRecords(slowest));
+            applyMaxPollRecords(current);
+        }
+
+        private void forgetRevokedPartitions(ConcurrentMessageListenerContainer<?, ?> current, long now) {
+            Collection<TopicPartition> assigned = current.getAssignedPartitions();
+            if (assigned == null) {
+                return;
+            }
+            partitions.entrySet().removeIf(entry -> {
+                if (assigned.contains(entry.getKey())) {
+                    return false;
+                }
+                if (entry.getValue().paused()) {
+                    recordResume(entry.getKey(), entry.getValue().resume(now));
+                }
+                return true;
+            });
+        }
+
+        private void recordResume(TopicPartition partition, long pausedNanos) {
+            pausedPartitions.decrementAndGet();
+            pauseTimer(partition.toString()).record(pausedNanos, TimeUnit.NANOSECONDS);
+            logger.info("▶️ Resumed {} after {} ms", partition, TimeUnit.NANOSECONDS.toMillis(pausedNanos));
+        }
+
+        private Timer pauseTimer(String partition) {
+            return Timer.builder("demo.flow.pause.duration")
+                    .tag("listener", name)
+                    .tag("partition", partition)
+                    .register(meterRegistry);
+        }
+
+        /**
+         * 권장값이 적용값과 2배 이상 차이 날 때만 컨슈머 설정 변경 (잦은 변경 방지)
+         */
+        private void applyMaxPollRecords(ConcurrentMessageListenerContainer<?, ?> current) {
+            int recommended = recommendedMaxPollRecords;
+            if (recommended * 2 > appliedMaxPollRecords && recommended < appliedMaxPollRecords * 2) {
+                return;
+            }
+            Properties overrides = current.getContainerProperties().getKafkaConsumerProperties();
+            overrides.setProperty(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, Integer.toString(recommended));
+            logger.info("🔧 {} max.poll.records {} → {} (applies when the consumer is next created)",
+                    name, appliedMaxPollRecords, recommended);
+            appliedMaxPollRecords = recommended;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.demo.flow;
+
+/**
+ * 처리 지연 / 대기 레코드 수로 pause·resume 과 poll 크기를 정하는 규칙 (상태 없음)
+ *
+ * 🔧 규칙:
+ * 1. poll 주기 예산 = max.poll.interval.ms × targetUtilization
+ *    한 poll 의 레코드를 모두 처리하는 시간이 예산을 넘으면 그룹에서 제외(리밸런스)될 위험이 커짐
+ * 2. 권장 max.poll.records = 예산 / 레코드당 처리 지연 (minPollRecords ~ maxPollRecords 로 제한)
+ * 3. 파티션 pause: 레코드당 지연이 pauseLatencyMs 이상이고 대기 레코드가 있을 때
+ *    pause 기간은 initialPauseMs 부터 연속으로 다시 pause 될 때마다 2배 (maxPauseMs 까지)
+ * 4. 재개 후 지연이 resumeLatencyMs 이하로 내려오면 회복으로 보고 pause 기간을 초기화
+ */
+public final class FlowControlPolicy {
+
+    /** 판단에 필요한 최소 표본 수 (재개 직후 한두 건으로 다시 pause 하지 않도록) */
+    static final int MIN_SAMPLES = 5;
+
+    private final double pauseLatencyMs;
+    private final double resumeLatencyMs;
+    private final long initialPauseMs;
+    private final long maxPauseMs;
+    private final long cycleBudgetMs;
+    private final int minPollRecords;
+    private final int maxPollRecords;
+
+    public FlowControlPolicy(double pauseLatencyMs, double resumeLatencyMs, long initialPauseMs, long maxPauseMs,
+                             long maxPollIntervalMs, double targetUtilization, int minPollRecords, int maxPollRecords) {
+        if (resumeLatencyMs > pauseLatencyMs) {
+            throw new IllegalArgumentException("resumeLatencyMs must not exceed pauseLatencyMs");
+        }
+        this.pauseLatencyMs = pauseLatencyMs;
+        this.resumeLatencyMs = resumeLatencyMs;
+        this.initialPauseMs = initialPauseMs;
+        this.maxPauseMs = Math.max(initialPauseMs, maxPauseMs);
+        this.cycleBudgetMs = (long) (maxPollIntervalMs * targetUtilization);
+        this.minPollRecords = Math.max(1, minPollRecords);
+        this.maxPollRecords = Math.max(this.minPollRecords, maxPollRecords);
+    }
+
+    public long cycleBudgetMs() {
+        return cycleBudgetMs;
+    }
+
+    public int maxPollRecords() {
+        return maxPollRecords;
+    }
+
+    /**
+     * 현재 레코드당 지연으로 poll 주기 예산 안에 처리할 수 있는 레코드 수
+     */
+    public int recommendedMaxPollRecords(double latencyMs) {
+        if (latencyMs <= 0) {
+            return maxPollRecords;
+        }
+        long fit = (long) (cycleBudgetMs / latencyMs);
+        return (int) Math.max(minPollRecords, Math.min(maxPollRecords, fit));
+    }
+
+    public boolean shouldPause(double latencyMs, long samples, long queueDepth) {
+        return samples >= MIN_SAMPLES && latencyMs >= pauseLatencyMs && queueDepth > 0;
+    }
+
+    public boolean recovered(double latencyMs, long samples) {
+        return samples >= MIN_SAMPLES && latencyMs <= resumeLatencyMs;
+    }
+
+    /**
+     * @param previousPauseMs 직전 pause 기간 (회복 후 첫 pause 면 0)
+     */
+    public long nextPauseMs(long previousPauseMs) {
+        if (previousPauseMs <= 0) {
+            return initialPauseMs;
+        }
+        return Math.min(maxPauseMs, previousPauseMs * 2);
+    }
+}
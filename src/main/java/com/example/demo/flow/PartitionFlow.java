@@ -0,0 +1,73 @@
+package com.example.demo.flow;
+
+/**
+ * 파티션 하나의 처리 지연 EWMA / 대기 레코드 수 / pause 상태
+ *
+ * 표본은 리스너 스레드가, pause 판단은 컨트롤러 스레드가 갱신하므로 모든 접근을 동기화합니다.
+ * (파티션당 레코드 1건에 한 번 잠금 - 처리 지연(수 ms) 대비 무시할 수준)
+ */
+final class PartitionFlow {
+
+    private static final double ALPHA = 0.2;
+
+    private double latencyMs;
+    private long samples;
+    private long queueDepth;
+    private long pausedAtNanos = -1;
+    private long pauseMs;
+    private long lastPauseMs;
+
+    synchronized void record(double sampleMs, long currentQueueDepth) {
+        latencyMs = samples == 0 ? sampleMs : latencyMs + ALPHA * (sampleMs - latencyMs);
+        samples++;
+        if (currentQueueDepth >= 0) {
+            queueDepth = currentQueueDepth;
+        }
+    }
+
+    synchronized double latencyMs() {
+        return latencyMs;
+    }
+
+    synchronized long samples() {
+        return samples;
+    }
+
+    synchronized long queueDepth() {
+        return queueDepth;
+    }
+
+    synchronized boolean paused() {
+        return pausedAtNanos >= 0;
+    }
+
+    synchronized void pause(long nowNanos, long durationMs) {
+        pausedAtNanos = nowNanos;
+        pauseMs = durationMs;
+        lastPauseMs = durationMs;
+    }
+
+    synchronized boolean pauseExpired(long nowNanos) {
+        return pausedAtNanos >= 0 && nowNanos - pausedAtNanos >= pauseMs * 1_000_000L;
+    }
+
+    /**
+     * 재개 - pause 중 EWMA 는 오래된 값이므로 새 표본부터 다시 판단
+     *
+     * @return pause 되어 있던 시간 (ns)
+     */
+    synchronized long resume(long nowNanos) {
+        long pausedNanos = nowNanos - pausedAtNanos;
+        pausedAtNanos = -1;
+        samples = 0;
+        return pausedNanos;
+    }
+
+    synchronized long lastPauseMs() {
+        return lastPauseMs;
+    }
+
+    synchronized void recovered() {
+        lastPauseMs = 0;
+    }
+}
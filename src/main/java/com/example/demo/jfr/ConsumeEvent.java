@@ -0,0 +1,68 @@
+package com.example.demo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * 컨슈머 리스너의 이벤트 1건 처리 구간 (중복 확인 + processEvent)
+ *
+ * 역직렬화(DeserializeEvent)는 poll 중에 끝나므로 포함되지 않습니다.
+ */
+@Name("com.example.demo.Consume")
+@Label("Event Consume")
+@Category({"Demo", "Kafka Pipeline"})
+@Description("Listener handling of one event: dedup check and processEvent")
+@Enabled(false)
+@Threshold("100 us")
+@StackTrace(false)
+public class ConsumeEvent extends Event {
+
+    @Label("Topic")
+    public String topic;
+
+    @Label("Partition")
+    public int partition;
+
+    @Label("Offset")
+    public long offset;
+
+    @Label("DTO Type")
+    public Class<?> dtoType;
+
+    @Label("Payload Size")
+    @DataAmount
+    public int payloadBytes;
+
+    @Label("Duplicate")
+    @Description("Skipped by DeduplicationService")
+    public boolean duplicate;
+
+    public static ConsumeEvent start() {
+        ConsumeEvent event = new ConsumeEvent();
+        if (event.isEnabled()) {
+            event.begin();
+        }
+        return event;
+    }
+
+    public void finish(String topic, int partition, long offset, Class<?> dtoType, int payloadBytes,
+                       boolean duplicate) {
+        end();
+        if (shouldCommit()) {
+            this.topic = topic;
+            this.partition = partition;
+            this.offset = offset;
+            this.dtoType = dtoType;
+            this.payloadBytes = payloadBytes;
+            this.duplicate = duplicate;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.demo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * VersionedJsonDeserializer 의 바이트 → DTO 변환 구간 (스키마 ID 해석 + Jackson 읽기)
+ */
+@Name("com.example.demo.Deserialize")
+@Label("Event Deserialize")
+@Category({"Demo", "Kafka Pipeline"})
+@Description("Schema lookup + JSON decoding of one event in VersionedJsonDeserializer")
+@Enabled(false)
+@Threshold("20 us")
+@StackTrace(false)
+public class DeserializeEvent extends Event {
+
+    @Label("Topic")
+    public String topic;
+
+    @Label("DTO Type")
+    public Class<?> dtoType;
+
+    @Label("Schema Id")
+    @Description("-1 for legacy messages without a schema envelope")
+    public int schemaId;
+
+    @Label("Payload Size")
+    @DataAmount
+    public int payloadBytes;
+}
@@ -0,0 +1,111 @@
+package com.example.demo.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 애플리케이션 시작과 함께 파이프라인 JFR 기록 시작 (demo.jfr.recording.enabled=true 일 때만)
+ *
+ * JDK 기본 설정(default.jfc) 위에 jfr/demo-pipeline.jfc 를 덮어써, GC/스레드/할당 정보와
+ * Serialize → Send → Deserialize → Consume 커스텀 이벤트를 한 기록에 담습니다.
+ * max-age 만큼만 디스크에 보관하는 연속 기록이며, 종료 시 directory 에 덤프합니다.
+ * (실행 중에는 jcmd <pid> JFR.dump name=demo-pipeline 으로 덤프)
+ *
+ * JVM 옵션이나 jcmd 로 기록할 때는 이 컴포넌트 없이 demo-pipeline.jfc 를 settings 로 지정하면 됩니다.
+ */
+@Component
+@Lazy(false) // 아무도 주입받지 않으므로 fast-startup 프로파일의 지연 초기화에서도 즉시 생성
+public class PipelineRecording implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(PipelineRecording.class);
+
+    static final String SETTINGS_RESOURCE = "/jfr/demo-pipeline.jfc";
+    private static final String RECORDING_NAME = "demo-pipeline";
+
+    private final Recording recording;
+
+    public PipelineRecording(@Value("${demo.jfr.recording.enabled:false}") boolean enabled,
+                             @Value("${demo.jfr.recording.directory:./jfr}") String directory,
+                             @Value("${demo.jfr.recording.max-age-minutes:30}") long maxAgeMinutes) {
+        if (!enabled || !FlightRecorder.isAvailable()) {
+            this.recording = null;
+            return;
+        }
+
+        Recording started = null;
+        try {
+            Path destination = Path.of(directory).resolve(RECORDING_NAME + "-" + ProcessHandle.current().pid() + ".jfr");
+            Files.createDirectories(destination.getParent());
+
+            started = new Recording(settings());
+            started.setName(RECORDING_NAME);
+            started.setToDisk(true);
+            started.setMaxAge(Duration.ofMinutes(maxAgeMinutes));
+            started.setDestination(destination);
+            started.setDumpOnExit(true);
+            started.start();
+            logger.info("🎥 JFR pipeline recording started (max age {} min, dump on exit to {})",
+                    maxAgeMinutes, destination);
+        } catch (IOException | ParseException | RuntimeException e) {
+            logger.warn("⚠️ Failed to start JFR pipeline recording: {}", e.toString());
+            if (started != null) {
+                started.close();
+                started = null;
+            }
+        }
+        this.recording = started;
+    }
+
+    /**
+     * JDK 기본 설정 + 파이프라인 설정 (같은 키는 파이프라인 설정이 우선)
+     */
+    public static Map<String, String> settings() throws IOException, ParseException {
+        Map<String, String> settings = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+        settings.putAll(pipelineConfiguration().getSettings());
+        return settings;
+    }
+
+    public static Configuration pipelineConfiguration() throws IOException, ParseException {
+        try (Reader reader = new InputStreamReader(
+                PipelineRecording.class.getResourceAsStream(SETTINGS_RESOURCE), StandardCharsets.UTF_8)) {
+            return Configuration.create(reader);
+        }
+    }
+
+    public static List<Class<? extends Event>> eventTypes() {
+        return List.of(SerializeEvent.class, SendEvent.class, DeserializeEvent.class, ConsumeEvent.class);
+    }
+
+    @Override
+    public void destroy() {
+        if (recording != null) {
+            // dumpOnExit 는 JVM 종료 훅에서 처리되므로, 컨텍스트만 닫히는 경우를 위해 여기서 중지 (destination 에 기록됨)
+            try {
+                recording.stop();
+            } catch (RuntimeException e) {
+                logger.warn("⚠️ Failed to stop JFR pipeline recording: {}", e.toString());
+            }
+            recording.close();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.demo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import org.apache.kafka.clients.producer.RecordMetadata;
+
+/**
+ * 프로듀서 send() 호출부터 브로커 ack(또는 실패)까지 구간
+ *
+ * 직렬화 시간(SerializeEvent)을 포함하며, 나머지는 RecordAccumulator 대기(linger/batch) + 네트워크 + 브로커 처리입니다.
+ * ack 콜백 스레드(kafka-producer-network-thread)에서 commit 되므로 이벤트의 스레드는 호출 스레드가 아닙니다.
+ */
+@Name("com.example.demo.Send")
+@Label("Event Send")
+@Category({"Demo", "Kafka Pipeline"})
+@Description("KafkaTemplate send until broker acknowledgement")
+@Enabled(false)
+@Threshold("1 ms")
+@StackTrace(false)
+public class SendEvent extends Event {
+
+    @Label("Topic")
+    public String topic;
+
+    @Label("Partition")
+    public int partition = -1;
+
+    @Label("Offset")
+    public long offset = -1;
+
+    @Label("DTO Type")
+    public Class<?> dtoType;
+
+    @Label("Payload Size")
+    @Description("Serialized value size reported by the producer")
+    @DataAmount
+    public int payloadBytes = -1;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+
+    /**
+     * 기록 중이 아니면 시작 시각도 읽지 않음
+     *
+     * ⚠️ 인스턴스는 ack 콜백(send.handle 람다)으로 넘어가 escape 하므로 JIT 이 할당을 없애지 못합니다.
+     * 기록 여부와 관계없이 전송마다 작은 이벤트 객체 하나가 할당되고, 꺼져 있을 때 비용은 그 할당과 isEnabled 확인뿐입니다.
+     */
+    public static SendEvent start() {
+        SendEvent event = new SendEvent();
+        if (event.isEnabled()) {
+            event.begin();
+        }
+        return event;
+    }
+
+    public void finish(String topic, Class<?> dtoType, RecordMetadata metadata) {
+        end();
+        if (shouldCommit()) {
+            this.topic = topic;
+            this.dtoType = dtoType;
+            if (metadata != null) {
+                this.partition = metadata.partition();
+                this.offset = metadata.offset();
+                this.payloadBytes = metadata.serializedValueSize();
+            }
+            this.succeeded = metadata != null;
+            commit();
+        }
+    }
+}
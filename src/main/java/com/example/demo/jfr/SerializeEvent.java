@@ -0,0 +1,37 @@
+package com.example.demo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * VersionedJsonSerializer 의 DTO → 바이트 변환 구간 (스키마 봉투 + Jackson 쓰기)
+ */
+@Name("com.example.demo.Serialize")
+@Label("Event Serialize")
+@Category({"Demo", "Kafka Pipeline"})
+@Description("Schema envelope + JSON encoding of one event in VersionedJsonSerializer")
+@Enabled(false)
+@Threshold("20 us")
+@StackTrace(false)
+public class SerializeEvent extends Event {
+
+    @Label("Topic")
+    public String topic;
+
+    @Label("DTO Type")
+    public Class<?> dtoType;
+
+    @Label("Schema Id")
+    public int schemaId;
+
+    @Label("Payload Size")
+    @DataAmount
+    public int payloadBytes;
+}
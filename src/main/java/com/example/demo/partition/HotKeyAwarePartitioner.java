@@ -0,0 +1,151 @@
+package com.example.demo.partition;
+
+import com.example.demo.dto.pojo.UserEventPojoDto;
+import com.example.demo.dto.record.UserEventRecordDto;
+import org.apache.kafka.clients.producer.Partitioner;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.utils.Utils;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * 핫 키를 감지해 여러 파티션으로 분산하는 파티셔너
+ *
+ * 프로듀서는 event.userId()를 키로 사용하므로, 기본 murmur2 파티셔너에서는
+ * 이벤트가 많은 소수의 사용자가 한 파티션에 몰리고 그 파티션의 컨슈머만 밀리게 됩니다.
+ *
+ * 🔧 동작 방식:
+ * 1. 슬라이딩 윈도우 Count-Min Sketch 로 키별 최근 빈도를 추정
+ * 2. 일반 키: 기본 파티셔너와 동일하게 murmur2(key) % partitions → 키 순서 보장
+ * 3. 핫 키: 키에 salt(0 ~ saltBuckets-1)를 붙여 (기본 파티션 + salt) % partitions 로 분산
+ * 4. 순서가 중요한 eventType(ordered-event-types, 기본 LOGIN/LOGOUT): 핫 키라도 항상 기본 파티션
+ *
+ * ⚠️ 핫 키로 분산된 나머지 eventType 은 파티션 간 순서가 보장되지 않습니다.
+ * LOGIN/LOGOUT 은 한 파티션에 남아 서로의 순서가 유지되고, 세션 상태(SessionStateStore)는
+ * 최댓값/카운터만 기록해 다른 eventType 과의 도착 순서에 영향을 받지 않습니다.
+ * 분산된 eventType 까지 사용자별 순서가 필요하면 PerUserOrderingBuffer 로 다시 정렬합니다.
+ *
+ * Kafka가 직접 인스턴스를 만들기 때문에 설정과 PartitionSkewMonitor 는 프로듀서 설정 맵으로 전달됩니다.
+ */
+public class HotKeyAwarePartitioner implements Partitioner {
+
+    public static final String HOT_KEY_THRESHOLD_CONFIG = "demo.partitioner.hot-key-threshold";
+    public static final String WINDOW_MS_CONFIG = "demo.partitioner.window-ms";
+    public static final String SALT_BUCKETS_CONFIG = "demo.partitioner.salt-buckets";
+    public static final String SKEW_MONITOR_CONFIG = "demo.partitioner.skew-monitor";
+    public static final String ORDERED_EVENT_TYPES_CONFIG = "demo.partitioner.ordered-event-types";
+
+    private static final long DEFAULT_HOT_KEY_THRESHOLD = 1_000;
+    private static final long DEFAULT_WINDOW_MS = 10_000;
+    private static final int DEFAULT_SALT_BUCKETS = 2;
+    private static final String DEFAULT_ORDERED_EVENT_TYPES = "LOGIN,LOGOUT";
+    private static final int SKETCH_DEPTH = 4;
+    private static final int SKETCH_WIDTH = 2048;
+    private static final int WINDOW_SLOTS = 5;
+
+    private final AtomicInteger saltCounter = new AtomicInteger();
+    private final AtomicInteger keylessCounter = new AtomicInteger();
+
+    private long hotKeyThreshold = DEFAULT_HOT_KEY_THRESHOLD;
+    private int saltBuckets = DEFAULT_SALT_BUCKETS;
+    private Set<String> orderedEventTypes = Set.of();
+    private SlidingWindowCountMinSketch sketch;
+    private PartitionSkewMonitor skewMonitor;
+
+    @Override
+    public void configure(Map<String, ?> configs) {
+        hotKeyThreshold = longConfig(configs, HOT_KEY_THRESHOLD_CONFIG, DEFAULT_HOT_KEY_THRESHOLD);
+        saltBuckets = (int) longConfig(configs, SALT_BUCKETS_CONFIG, DEFAULT_SALT_BUCKETS);
+        long windowMs = longConfig(configs, WINDOW_MS_CONFIG, DEFAULT_WINDOW_MS);
+        sketch = new SlidingWindowCountMinSketch(SKETCH_DEPTH, SKETCH_WIDTH, windowMs, WINDOW_SLOTS,
+                System::currentTimeMillis);
+
+        Object monitor = configs.get(SKEW_MONITOR_CONFIG);
+        skewMonitor = monitor instanceof PartitionSkewMonitor skew ? skew : null;
+
+        Object ordered = configs.get(ORDERED_EVENT_TYPES_CONFIG);
+        String eventTypes = ordered != null ? ordered.toString() : DEFAULT_ORDERED_EVENT_TYPES;
+        orderedEventTypes = Arrays.stream(eventTypes.split(","))
+                .map(String::trim)
+                .filter(eventType -> !eventType.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    public int partition(String topic, Object key, byte[] keyBytes, Object value, byte[] valueBytes, Cluster cluster) {
+        int numPartitions = cluster.partitionCountForTopic(topic);
+        return partition(topic, keyBytes, eventType(value), numPartitions);
+    }
+
+    /**
+     * 파티션 수가 주어졌을 때의 파티션 선택 (Cluster 메타데이터와 분리해 테스트 가능하도록 공개)
+     */
+    public int partition(String topic, byte[] keyBytes, int numPartitions) {
+        return partition(topic, keyBytes, null, numPartitions);
+    }
+
+    /**
+     * @param eventType 이벤트 종류 (ordered-event-types 에 있으면 분산하지 않음, 모르면 null)
+     */
+    public int partition(String topic, byte[] keyBytes, String eventType, int numPartitions) {
+        if (sketch == null) {
+            configure(Map.of());
+        }
+
+        int partition;
+        boolean hot = false;
+        if (keyBytes == null) {
+            partition = Utils.toPositive(keylessCounter.getAndIncrement()) % numPartitions;
+        } else {
+            int basePartition = Utils.toPositive(Utils.murmur2(keyBytes)) % numPartitions;
+            // 순서가 중요한 eventType 도 빈도에는 포함 (같은 사용자의 다른 이벤트를 분산할지 판단)
+            boolean frequent = saltBuckets > 1 && sketch.addAndEstimate(keyBytes) >= hotKeyThreshold;
+            hot = frequent && (eventType == null || !orderedEventTypes.contains(eventType));
+            partition = hot ? saltedPartition(basePartition, numPartitions) : basePartition;
+        }
+
+        if (skewMonitor != null) {
+            skewMonitor.record(topic, partition, numPartitions, hot);
+        }
+        return partition;
+    }
+
+    /**
+     * 핫 키의 sub-partition: 기본 파티션에서 salt 만큼 이동한 파티션
+     *
+     * salt 는 라운드 로빈으로 증가하므로 핫 키 트래픽이 saltBuckets 개 파티션에 고르게 퍼집니다.
+     */
+    private int saltedPartition(int basePartition, int numPartitions) {
+        int salt = Utils.toPositive(saltCounter.getAndIncrement()) % saltBuckets;
+        return (basePartition + salt) % numPartitions;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private static String eventType(Object value) {
+        if (value instanceof UserEventRecordDto record) {
+            return record.eventType();
+        }
+        if (value instanceof UserEventPojoDto pojo) {
+            return pojo.getEventType();
+        }
+        return null;
+    }
+
+    private static long longConfig(Map<String, ?> configs, String name, long defaultValue) {
+        Object value = configs.get(name);
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        if (value instanceof String text && !text.isBlank()) {
+            return Long.parseLong(text.trim());
+        }
+        return defaultValue;
+    }
+}
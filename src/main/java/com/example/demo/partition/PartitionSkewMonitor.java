@@ -0,0 +1,131 @@
+package com.example.demo.partition;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 토픽별 파티션 쏠림(skew) 모니터
+ *
+ * 파티셔너가 선택한 파티션을 기록하고 다음 메트릭으로 노출합니다.
+ * - demo.partition.skew:             max(파티션별 건수) / 평균 (1.0 = 완전 균등)
+ * - demo.partition.records:          파티션별 전송 건수
+ * - demo.partition.hot.key.records:  핫 키로 판별되어 분산 전송된 건수
+ *
+ * 값은 애플리케이션 시작 이후 누적 기준입니다.
+ */
+@Component
+public class PartitionSkewMonitor {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, TopicStats> topics = new ConcurrentHashMap<>();
+
+    public PartitionSkewMonitor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 파티션 선택 결과 기록 (파티셔너에서 레코드마다 호출)
+     */
+    public void record(String topic, int partition, int numPartitions, boolean hotKey) {
+        TopicStats stats = topics.get(topic);
+        if (stats == null || stats.partitionCount() < numPartitions) {
+            stats = topics.compute(topic, (name, existing) -> register(name, existing, numPartitions));
+        }
+        stats.counts[partition].increment();
+        if (hotKey) {
+            stats.hotKeyRecords.increment();
+        }
+    }
+
+    /**
+     * 토픽의 현재 쏠림 정도 (기록이 없으면 1.0)
+     */
+    public double skew(String topic) {
+        TopicStats stats = topics.get(topic);
+        return stats != null ? stats.skew() : 1.0;
+    }
+
+    /**
+     * 토픽의 파티션별 누적 전송 건수
+     */
+    public long[] partitionCounts(String topic) {
+        TopicStats stats = topics.get(topic);
+        if (stats == null) {
+            return new long[0];
+        }
+        long[] counts = new long[stats.partitionCount()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = stats.counts[i].sum();
+        }
+        return counts;
+    }
+
+    /**
+     * 핫 키로 분산 전송된 누적 건수
+     */
+    public long hotKeyRecords(String topic) {
+        TopicStats stats = topics.get(topic);
+        return stats != null ? stats.hotKeyRecords.sum() : 0;
+    }
+
+    private TopicStats register(String topic, TopicStats existing, int numPartitions) {
+        if (existing != null && existing.partitionCount() >= numPartitions) {
+            return existing;
+        }
+
+        // 파티션이 늘어난 경우 기존 카운터를 유지한 채 확장
+        TopicStats stats = new TopicStats(numPartitions, existing);
+        int from = existing != null ? existing.partitionCount() : 0;
+        for (int partition = from; partition < numPartitions; partition++) {
+            LongAdder counter = stats.counts[partition];
+            Gauge.builder("demo.partition.records", counter, LongAdder::sum)
+                    .tag("topic", topic)
+                    .tag("partition", String.valueOf(partition))
+                    .register(meterRegistry);
+        }
+        if (existing == null) {
+            Gauge.builder("demo.partition.skew", topics, all -> skew(topic))
+                    .tag("topic", topic)
+                    .register(meterRegistry);
+            Gauge.builder("demo.partition.hot.key.records", topics, all -> hotKeyRecords(topic))
+                    .tag("topic", topic)
+                    .register(meterRegistry);
+        }
+        return stats;
+    }
+
+    private static final class TopicStats {
+
+        private final LongAdder[] counts;
+        private final LongAdder hotKeyRecords;
+
+        private TopicStats(int numPartitions, TopicStats previous) {
+            this.counts = new LongAdder[numPartitions];
+            int copied = previous != null ? previous.partitionCount() : 0;
+            for (int i = 0; i < numPartitions; i++) {
+                counts[i] = i < copied ? previous.counts[i] : new LongAdder();
+            }
+            this.hotKeyRecords = previous != null ? previous.hotKeyRecords : new LongAdder();
+        }
+
+        private int partitionCount() {
+            return counts.length;
+        }
+
+        private double skew() {
+            long total = 0;
+            long max = 0;
+            for (LongAdder count : counts) {
+                long value = count.sum();
+                total += value;
+                max = Math.max(max, value);
+            }
+            return total == 0 ? 1.0 : max / ((double) total / counts.length);
+        }
+    }
+}
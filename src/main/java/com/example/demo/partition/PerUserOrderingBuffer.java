@@ -0,0 +1,109 @@
+package com.example.demo.partition;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * 핫 키 분산으로 섞인 사용자별 이벤트 순서를 다시 맞추는 컨슈머 측 버퍼
+ *
+ * HotKeyAwarePartitioner 가 핫 키를 여러 파티션으로 나누면, 같은 사용자의 이벤트가
+ * 서로 다른 파티션(=서로 다른 poll 순서)으로 도착할 수 있습니다.
+ * (순서가 중요한 LOGIN/LOGOUT 은 파티셔너가 분산하지 않으므로, 분산된 eventType 까지 순서가 필요할 때만 사용)
+ *
+ * 🔧 동작 방식 (사용자별 워터마크):
+ * - 사용자마다 지금까지 본 가장 큰 이벤트 시각 - allowedLatenessMillis = 그 사용자의 워터마크
+ * - 사용자별로 워터마크 이전의 이벤트만 timestamp 순으로 내보냄
+ *   → 다른 사용자의 이벤트가 빨리 들어와도 이 사용자의 이벤트를 늦은 것으로 취급하지 않음
+ * - 사용자 워터마크보다 늦게 도착한 이벤트는 즉시 내보내고 late 건수로 집계
+ *
+ * ⚠️ thread-safe 하지 않으므로 리스너 스레드 하나에서만 사용해야 합니다.
+ * 사용자별 워터마크를 보관하므로 메모리는 flush 사이에 본 사용자 수에 비례합니다.
+ */
+public class PerUserOrderingBuffer<E> {
+
+    private static final Comparator<Pending<?>> ORDER = Comparator
+            .comparingLong((Pending<?> p) -> p.timestamp())
+            .thenComparingLong(p -> p.sequence());
+
+    private final Function<E, String> userIdExtractor;
+    private final ToLongFunction<E> timestampExtractor;
+    private final long allowedLatenessMillis;
+    private final Map<String, UserQueue<E>> users = new HashMap<>();
+
+    private long sequence;
+    private int pendingCount;
+    private long lateEvents;
+
+    public PerUserOrderingBuffer(Function<E, String> userIdExtractor,
+                                 ToLongFunction<E> timestampExtractor,
+                                 long allowedLatenessMillis) {
+        this.userIdExtractor = userIdExtractor;
+        this.timestampExtractor = timestampExtractor;
+        this.allowedLatenessMillis = allowedLatenessMillis;
+    }
+
+    /**
+     * 이벤트를 추가하고, 그 사용자의 순서가 확정된 이벤트들을 반환
+     */
+    public List<E> offer(E event) {
+        long timestamp = timestampExtractor.applyAsLong(event);
+        UserQueue<E> user = users.computeIfAbsent(userIdExtractor.apply(event), key -> new UserQueue<>());
+        if (user.maxSeenTimestamp != Long.MIN_VALUE && timestamp < user.watermark(allowedLatenessMillis)) {
+            // 이미 내보낸 구간보다 늦게 도착: 더 기다려도 순서를 되돌릴 수 없으므로 바로 전달
+            lateEvents++;
+            return List.of(event);
+        }
+
+        user.pending.add(new Pending<>(event, timestamp, sequence++));
+        pendingCount++;
+        user.maxSeenTimestamp = Math.max(user.maxSeenTimestamp, timestamp);
+        List<E> ready = new ArrayList<>();
+        drainUpTo(user, user.watermark(allowedLatenessMillis), ready);
+        return ready;
+    }
+
+    /**
+     * 남아 있는 이벤트를 모두 사용자별 순서대로 반환하고 워터마크를 초기화 (파티션 반납/종료 시 호출)
+     */
+    public List<E> flush() {
+        List<E> ready = new ArrayList<>(pendingCount);
+        for (UserQueue<E> user : users.values()) {
+            drainUpTo(user, Long.MAX_VALUE, ready);
+        }
+        users.clear();
+        return ready;
+    }
+
+    public int pendingCount() {
+        return pendingCount;
+    }
+
+    public long lateEvents() {
+        return lateEvents;
+    }
+
+    private void drainUpTo(UserQueue<E> user, long watermark, List<E> ready) {
+        while (!user.pending.isEmpty() && user.pending.peek().timestamp() <= watermark) {
+            ready.add(user.pending.poll().event());
+            pendingCount--;
+        }
+    }
+
+    private static final class UserQueue<E> {
+        private final PriorityQueue<Pending<E>> pending = new PriorityQueue<>(ORDER);
+        private long maxSeenTimestamp = Long.MIN_VALUE;
+
+        private long watermark(long allowedLatenessMillis) {
+            return maxSeenTimestamp - allowedLatenessMillis;
+        }
+    }
+
+    private record Pending<E>(E event, long timestamp, long sequence) {
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.demo.partition;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * 슬라이딩 윈도우 Count-Min Sketch
+ *
+ * 키별 정확한 카운터 대신 고정 크기(depth × width) 카운터 배열로 빈도를 근사합니다.
+ * - 메모리: 키 개수와 무관하게 slots × depth × width 개의 long
+ * - 오차: 항상 실제 값 이상으로만 추정 (과소 추정 없음) → 핫 키를 놓치지 않음
+ *
+ * 윈도우는 slots 개의 슬롯으로 나뉘고, 시간이 지나면 가장 오래된 슬롯부터 비워 재사용합니다.
+ * 슬롯 교체 순간의 동시 증가분은 일부 유실될 수 있으나, 핫 키 판별 용도에서는 허용 가능한 오차입니다.
+ */
+public class SlidingWindowCountMinSketch {
+
+    private final int depth;
+    private final int width;
+    private final int slots;
+    private final long slotMillis;
+    private final LongSupplier clock;
+    private final AtomicLongArray[] counters;
+    private final AtomicLong[] slotEpochs;
+
+    public SlidingWindowCountMinSketch(int depth, int width, long windowMillis, int slots, LongSupplier clock) {
+        if (depth <= 0 || width <= 0 || slots <= 0 || windowMillis < slots) {
+            throw new IllegalArgumentException("depth, width and slots must be positive and windowMillis >= slots");
+        }
+        this.depth = depth;
+        this.width = width;
+        this.slots = slots;
+        this.slotMillis = windowMillis / slots;
+        this.clock = clock;
+        this.counters = new AtomicLongArray[slots];
+        this.slotEpochs = new AtomicLong[slots];
+        for (int i = 0; i < slots; i++) {
+            counters[i] = new AtomicLongArray(depth * width);
+            slotEpochs[i] = new AtomicLong(-1);
+        }
+    }
+
+    /**
+     * 키를 1회 기록하고, 현재 윈도우 안의 추정 빈도를 반환
+     */
+    public long addAndEstimate(byte[] key) {
+        long epoch = clock.getAsLong() / slotMillis;
+        AtomicLongArray current = currentSlot(epoch);
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int index = row * width + Math.floorMod(h1 + row * h2, width);
+            current.incrementAndGet(index);
+            estimate = Math.min(estimate, sumWithinWindow(index, epoch));
+        }
+        return estimate;
+    }
+
+    /**
+     * 기록 없이 현재 윈도우 안의 추정 빈도만 조회
+     */
+    public long estimate(byte[] key) {
+        long epoch = clock.getAsLong() / slotMillis;
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int index = row * width + Math.floorMod(h1 + row * h2, width);
+            estimate = Math.min(estimate, sumWithinWindow(index, epoch));
+        }
+        return estimate;
+    }
+
+    private AtomicLongArray currentSlot(long epoch) {
+        int slot = (int) (epoch % slots);
+        AtomicLong slotEpoch = slotEpochs[slot];
+        long seen = slotEpoch.get();
+        if (seen != epoch && slotEpoch.compareAndSet(seen, epoch)) {
+            // 한 바퀴 돌아온 슬롯은 이전 윈도우의 값이므로 비우고 재사용
+            AtomicLongArray stale = counters[slot];
+            for (int i = 0; i < stale.length(); i++) {
+                stale.set(i, 0);
+            }
+        }
+        return counters[slot];
+    }
+
+    private long sumWithinWindow(int index, long currentEpoch) {
+        long sum = 0;
+        for (int slot = 0; slot < slots; slot++) {
+            long slotEpoch = slotEpochs[slot].get();
+            if (slotEpoch >= 0 && currentEpoch - slotEpoch < slots) {
+                sum += counters[slot].get(index);
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * FNV-1a 64bit + 최종 mix (행별 인덱스는 double hashing 으로 파생)
+     */
+    private static long hash64(byte[] key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.demo.producer;
+
+import com.example.demo.dto.record.UserEventRecordDto;
+import com.example.demo.schema.LocalSchemaRegistry;
+import com.example.demo.schema.VersionedJsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.transaction.KafkaTransactionManager;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * comparison-events 토픽으로 이벤트를 전달하는 프로듀서
+ *
+ * 전달 경로(consume → process → produce)의 전송 보장 수준을 설정으로 선택합니다.
+ *
+ * ✅ exactly-once (demo.kafka.exactly-once.enabled=true):
+ * - 트랜잭션 프로듀서 + KafkaTransactionManager
+ * - 배치 리스너 컨테이너가 poll 마다 시작한 트랜잭션 안에서 배치 전체를 전송 → 출력 레코드와 입력 오프셋이 함께 커밋/중단
+ * - 다운스트림 컨슈머는 read_committed 로 커밋된 레코드만 읽음
+ *
+ * ✅ at-least-once (기본값):
+ * - 멱등 프로듀서(enable.idempotence, acks=all)로 재시도 중복 방지
+ * - 배치를 모두 보낸 뒤 전송 확인을 기다려 반환하므로 실패 시 예외 → 컨테이너가 배치를 재시도 (중복 가능, 유실 없음)
+ *
+ * 트랜잭션 프로듀서는 트랜잭션 밖에서 전송할 수 없으므로,
+ * 컨트롤러에서 쓰는 기본 KafkaTemplate 과 분리된 전용 팩토리를 사용합니다.
+ */
+@Service
+public class ComparisonEventProducer implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ComparisonEventProducer.class);
+
+    private final DefaultKafkaProducerFactory<String, UserEventRecordDto> producerFactory;
+    private final KafkaTemplate<String, UserEventRecordDto> kafkaTemplate;
+    private final KafkaTransactionManager<String, UserEventRecordDto> transactionManager;
+    private final String topicName;
+
+    public ComparisonEventProducer(
+            KafkaProperties kafkaProperties,
+            LocalSchemaRegistry schemaRegistry,
+            ObjectMapper objectMapper,
+            @Value("${demo.kafka.topics.comparison-events}") String topicName,
+            @Value("${demo.kafka.exactly-once.enabled}") boolean exactlyOnce,
+            @Value("${demo.kafka.exactly-once.transaction-id-prefix}") String transactionIdPrefix) {
+        Map<String, Object> props = new HashMap<>(kafkaProperties.buildProducerProperties(null));
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+
+        this.producerFactory = new DefaultKafkaProducerFactory<>(
+                props, new StringSerializer(), new VersionedJsonSerializer<>(schemaRegistry, objectMapper));
+        if (exactlyOnce) {
+            producerFactory.setTransactionIdPrefix(transactionIdPrefix);
+            this.transactionManager = new KafkaTransactionManager<>(producerFactory);
+        } else {
+            this.transactionManager = null;
+        }
+        this.kafkaTemplate = new KafkaTemplate<>(producerFactory);
+        this.topicName = topicName;
+
+        logger.info("🔒 Comparison forwarding mode: {}", exactlyOnce ? "exactly-once" : "at-least-once");
+    }
+
+    /**
+     * 이벤트 배치를 comparison-events 로 전달
+     */
+    public void forward(List<UserEventRecordDto> events) {
+        if (transactionManager != null) {
+            // 리스너 컨테이너 트랜잭션에 참여 - 커밋은 컨테이너가 배치의 오프셋과 함께 수행
+            for (UserEventRecordDto event : events) {
+                kafkaTemplate.send(topicName, event.userId(), event);
+            }
+            return;
+        }
+        CompletableFuture<?>[] sends = new CompletableFuture<?>[events.size()];
+        for (int i = 0; i < sends.length; i++) {
+            UserEventRecordDto event = events.get(i);
+            sends[i] = kafkaTemplate.send(topicName, event.userId(), event);
+        }
+        // 배치 전체의 전송 확인을 한 번에 대기 (하나라도 실패하면 예외 → 배치 재시도)
+        CompletableFuture.allOf(sends).join();
+    }
+
+    /**
+     * exactly-once 모드일 때만 리스너 컨테이너에 연결할 트랜잭션 매니저 제공
+     */
+    public Optional<KafkaTransactionManager<String, UserEventRecordDto>> transactionManager() {
+        return Optional.ofNullable(transactionManager);
+    }
+
+    @Override
+    public void destroy() {
+        producerFactory.destroy();
+    }
+}
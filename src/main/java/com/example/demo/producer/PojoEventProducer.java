@@ -1,6 +1,8 @@
 package com.example.demo.producer;
 
 import com.example.demo.dto.pojo.UserEventPojoDto;
+import com.example.demo.jfr.SendEvent;
+import com.example.demo.routing.EventLaneRouter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -15,6 +17,10 @@ import java.util.concurrent.CompletableFuture;
  * 
  * 이 클래스는 전통적인 POJO 기반 DTO를 Kafka로 전송하는 역할을 합니다.
  * POJO는 Jackson과 완벽하게 호환되므로 별도 설정 없이도 정상 동작합니다.
+ *
+ * 🔀 전송 토픽은 EventLaneRouter 가 eventType 으로 정한 레인 토픽입니다. (백필은 sendBulk → BULK 레인)
+ *
+ * 🔍 JFR: 이벤트마다 send() 부터 ack 까지 SendEvent 를 남깁니다.
  */
 @Service
 public class PojoEventProducer {
@@ -22,12 +28,15 @@ public class PojoEventProducer {
     private static final Logger logger = LoggerFactory.getLogger(PojoEventProducer.class);
 
     private final KafkaTemplate<String, UserEventPojoDto> kafkaTemplate;
+    private final EventLaneRouter laneRouter;
     private final String topicName;
 
     public PojoEventProducer(
             KafkaTemplate<String, UserEventPojoDto> kafkaTemplate,
+            EventLaneRouter laneRouter,
             @Value("${demo.kafka.topics.pojo-events}") String topicName) {
         this.kafkaTemplate = kafkaTemplate;
+        this.laneRouter = laneRouter;
         this.topicName = topicName;
     }
 
@@ -40,7 +49,7 @@ public class PojoEventProducer {
     public CompletableFuture<SendResult<String, UserEventPojoDto>> sendEvent(UserEventPojoDto event) {
         logger.info("🚀 Sending POJO event: {}", event);
         
-        return kafkaTemplate.send(topicName, event.getUserId(), event)
+        return send(event, laneRouter.topicFor(topicName, event.getEventType()))
                 .whenComplete((result, throwable) -> {
                     if (throwable != null) {
                         logger.error("❌ Failed to send POJO event: {}", event, throwable);
@@ -52,6 +61,40 @@ public class PojoEventProducer {
                 });
     }
 
+    /**
+     * 대량 전송(마이크로 배처 등)용 - 이벤트별 로그 없이 전송 (실패는 반환된 future 로 호출자가 집계)
+     */
+    public CompletableFuture<SendResult<String, UserEventPojoDto>> sendQuietly(UserEventPojoDto event) {
+        return send(event, laneRouter.topicFor(topicName, event.getEventType()));
+    }
+
+    /**
+     * 프로듀서 버퍼에 쌓인 레코드를 linger.ms 를 기다리지 않고 바로 전송 (마이크로 배처가 배치마다 한 번 호출)
+     */
+    public void flush() {
+        kafkaTemplate.flush();
+    }
+
+    /**
+     * 백필용 - eventType 과 관계없이 BULK 레인으로 조용히 전송 (실시간 레인의 지연에 영향을 주지 않도록)
+     */
+    public CompletableFuture<SendResult<String, UserEventPojoDto>> sendBulk(UserEventPojoDto event) {
+        return send(event, laneRouter.bulkTopicFor(topicName));
+    }
+
+    private CompletableFuture<SendResult<String, UserEventPojoDto>> send(UserEventPojoDto event, String topic) {
+        SendEvent sendEvent = SendEvent.start();
+        CompletableFuture<SendResult<String, UserEventPojoDto>> send;
+        try {
+            send = kafkaTemplate.send(topic, event.getUserId(), event);
+        } catch (RuntimeException e) {
+            sendEvent.finish(topic, UserEventPojoDto.class, null);
+            throw e;
+        }
+        return send.whenComplete((result, throwable) -> sendEvent.finish(topic, UserEventPojoDto.class,
+                throwable == null ? result.getRecordMetadata() : null));
+    }
+
     /**
      * 여러 이벤트를 배치로 전송
      */
@@ -1,6 +1,9 @@
 package com.example.demo.producer;
 
 import com.example.demo.dto.record.UserEventRecordDto;
+import com.example.demo.jfr.SendEvent;
+import com.example.demo.routing.EventLaneRouter;
+import com.example.demo.spool.RecordEventSpool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -15,6 +18,14 @@ import java.util.concurrent.CompletableFuture;
  * 
  * 이 클래스는 Record 기반 DTO를 Kafka로 전송하는 역할을 합니다.
  * Jackson의 Record 지원이 제대로 설정되어 있다면 정상적으로 직렬화됩니다.
+ *
+ * ⚠️ 브로커 장애 시:
+ * 전송에 실패한 이벤트는 RecordEventSpool 에 기록되고 복구 후 재전송됩니다.
+ * 스풀에 대기 중인 이벤트가 있는 동안에는 새 이벤트도 스풀로 보내 사용자별 순서를 유지합니다.
+ *
+ * 🔀 전송 토픽은 EventLaneRouter 가 eventType 으로 정한 레인 토픽입니다. (백필은 sendBulk → BULK 레인)
+ *
+ * 🔍 JFR: 브로커로 보낸 이벤트마다 send() 부터 ack 까지 SendEvent 를 남깁니다. (스풀로 간 이벤트는 제외)
  */
 @Service
 public class RecordEventProducer {
@@ -22,12 +33,18 @@ public class RecordEventProducer {
     private static final Logger logger = LoggerFactory.getLogger(RecordEventProducer.class);
 
     private final KafkaTemplate<String, UserEventRecordDto> kafkaTemplate;
+    private final EventLaneRouter laneRouter;
+    private final RecordEventSpool spool;
     private final String topicName;
 
     public RecordEventProducer(
             KafkaTemplate<String, UserEventRecordDto> kafkaTemplate,
+            EventLaneRouter laneRouter,
+            RecordEventSpool spool,
             @Value("${demo.kafka.topics.record-events}") String topicName) {
         this.kafkaTemplate = kafkaTemplate;
+        this.laneRouter = laneRouter;
+        this.spool = spool;
         this.topicName = topicName;
     }
 
@@ -36,20 +53,82 @@ public class RecordEventProducer {
      * 
      * @param event 전송할 이벤트
      * @return 전송 결과를 담은 CompletableFuture
+     *         (스풀에 기록되어 나중에 재전송되는 경우 null 로 완료, 스풀도 가득 차면 예외로 완료)
      */
     public CompletableFuture<SendResult<String, UserEventRecordDto>> sendEvent(UserEventRecordDto event) {
         logger.info("🚀 Sending Record event: {}", event);
-        
-        return kafkaTemplate.send(topicName, event.userId(), event)
-                .whenComplete((result, throwable) -> {
-                    if (throwable != null) {
-                        logger.error("❌ Failed to send Record event: {}", event, throwable);
-                    } else {
-                        logger.info("✅ Successfully sent Record event to partition {} with offset {}",
-                                result.getRecordMetadata().partition(),
-                                result.getRecordMetadata().offset());
+        return send(event, laneRouter.topicFor(topicName, event.eventType()), true);
+    }
+
+    /**
+     * 대량 전송(마이크로 배처 등)용 - 이벤트별 로그 없이 전송 (실패는 반환된 future 로 호출자가 집계)
+     *
+     * 스풀 처리와 반환값은 sendEvent 와 같습니다.
+     */
+    public CompletableFuture<SendResult<String, UserEventRecordDto>> sendQuietly(UserEventRecordDto event) {
+        return send(event, laneRouter.topicFor(topicName, event.eventType()), false);
+    }
+
+    /**
+     * 프로듀서 버퍼에 쌓인 레코드를 linger.ms 를 기다리지 않고 바로 전송 (마이크로 배처가 배치마다 한 번 호출)
+     */
+    public void flush() {
+        kafkaTemplate.flush();
+    }
+
+    /**
+     * 백필용 - eventType 과 관계없이 BULK 레인으로 조용히 전송 (실시간 레인의 지연에 영향을 주지 않도록)
+     */
+    public CompletableFuture<SendResult<String, UserEventRecordDto>> sendBulk(UserEventRecordDto event) {
+        return send(event, laneRouter.bulkTopicFor(topicName), false);
+    }
+
+    private CompletableFuture<SendResult<String, UserEventRecordDto>> send(UserEventRecordDto event, String topic,
+                                                                          boolean verbose) {
+        if (spool.hasPending()) {
+            return spoolOrFail(event, null, verbose);
+        }
+
+        SendEvent sendEvent = SendEvent.start();
+        CompletableFuture<SendResult<String, UserEventRecordDto>> send;
+        try {
+            send = kafkaTemplate.send(topic, event.userId(), event);
+        } catch (RuntimeException e) {
+            // 메타데이터 조회 실패, 버퍼 가득 참 등으로 max.block.ms 안에 전송을 시작하지 못한 경우
+            sendEvent.finish(topic, UserEventRecordDto.class, null);
+            return spoolOrFail(event, e, verbose);
+        }
+
+        return send.handle((result, throwable) -> {
+                    sendEvent.finish(topic, UserEventRecordDto.class,
+                            throwable == null ? result.getRecordMetadata() : null);
+                    if (throwable == null) {
+                        if (verbose) {
+                            logger.info("✅ Successfully sent Record event to partition {} with offset {}",
+                                    result.getRecordMetadata().partition(),
+                                    result.getRecordMetadata().offset());
+                        }
+                        return CompletableFuture.completedFuture(result);
                     }
-                });
+                    return spoolOrFail(event, throwable, verbose);
+                })
+                .thenCompose(future -> future);
+    }
+
+    private CompletableFuture<SendResult<String, UserEventRecordDto>> spoolOrFail(
+            UserEventRecordDto event, Throwable cause, boolean verbose) {
+        if (spool.offer(event)) {
+            if (verbose) {
+                logger.warn("📦 Spooled Record event for later delivery: {}{}", event,
+                        cause != null ? " (" + cause + ")" : "");
+            }
+            return CompletableFuture.completedFuture(null);
+        }
+        Throwable failure = cause != null ? cause : new IllegalStateException("Record event spool is full");
+        if (verbose) {
+            logger.error("❌ Failed to send Record event: {}", event, failure);
+        }
+        return CompletableFuture.failedFuture(failure);
     }
 
     /**
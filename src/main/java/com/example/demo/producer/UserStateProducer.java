@@ -0,0 +1,113 @@
+package com.example.demo.producer;
+
+import com.example.demo.session.SessionStateStore;
+import com.example.demo.session.UserStateCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 사용자별 최신 세션 상태를 compacted 토픽(user-latest-state)에 기록하는 프로듀서
+ *
+ * 컨슈머가 이벤트를 SessionStateStore 에 반영한 직후 호출하며,
+ * 모든 파티션을 합친 상태를 userId 키로 덮어씁니다. → 컴팩션 후에는 사용자당 레코드 1개만 남음
+ *
+ * ✅ 전송 보장:
+ * 확인을 기다리지 않고(fire-and-forget) 보냅니다. 실패해도 같은 사용자의 다음 이벤트가 더 최신 상태로 다시 기록하므로,
+ * 재시작 직전 실패분만큼 warm start 상태가 조금 뒤처질 수 있을 뿐입니다.
+ *
+ * 값은 UserStateCodec 바이너리이므로 스키마 봉투 Serializer 를 쓰는 기본 KafkaTemplate 과 분리된 전용 팩토리를 사용합니다.
+ * 핫 키 분산 파티셔너도 적용하지 않습니다. (컴팩션이 사용자당 레코드 1개를 남기려면 같은 키는 항상 같은 파티션이어야 함)
+ *
+ * 🔀 리밸런스:
+ * 레코드마다 UserStateCodec.INSTANCE_HEADER 로 기록한 인스턴스를 남겨, 파티션을 넘겨받은 인스턴스가 다른 인스턴스의 기록만 따라잡게 합니다.
+ * (UserStateBootstrap.catchUp) 파티션을 내놓기 전 flush 로 전송 중인 상태를 브로커에 보냅니다.
+ *
+ * 📊 메트릭: demo.state.published, demo.state.publish.failures
+ */
+@Service
+public class UserStateProducer implements DisposableBean {
+
+    private final SessionStateStore sessionStateStore;
+    private final DefaultKafkaProducerFactory<String, byte[]> producerFactory;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final String topicName;
+    private final boolean enabled;
+    private final List<Header> instanceHeaders;
+    private final Counter published;
+    private final Counter failures;
+
+    public UserStateProducer(KafkaProperties kafkaProperties,
+                             SessionStateStore sessionStateStore,
+                             MeterRegistry meterRegistry,
+                             @Value("${demo.kafka.topics.user-latest-state}") String topicName,
+                             @Value("${demo.state.enabled:true}") boolean enabled) {
+        Map<String, Object> props = new HashMap<>(kafkaProperties.buildProducerProperties(null));
+        // 같은 사용자의 상태가 연달아 기록되므로 조금 더 모아 보내 요청 수를 줄임
+        props.put(ProducerConfig.LINGER_MS_CONFIG, 20);
+
+        this.sessionStateStore = sessionStateStore;
+        this.producerFactory = new DefaultKafkaProducerFactory<>(
+                props, new StringSerializer(), new ByteArraySerializer());
+        this.kafkaTemplate = new KafkaTemplate<>(producerFactory);
+        this.topicName = topicName;
+        this.enabled = enabled;
+        this.instanceHeaders = List.of(
+                new RecordHeader(UserStateCodec.INSTANCE_HEADER, UserStateCodec.PROCESS_ID.getBytes(StandardCharsets.UTF_8)));
+        this.published = Counter.builder("demo.state.published").register(meterRegistry);
+        this.failures = Counter.builder("demo.state.publish.failures").register(meterRegistry);
+    }
+
+    /**
+     * 사용자의 현재 상태를 compacted 토픽에 기록
+     */
+    public void publish(String userId) {
+        if (!enabled) {
+            return;
+        }
+        long[] state = new long[5];
+        if (!sessionStateStore.snapshot(userId, state)) {
+            return;
+        }
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(topicName, null, null, userId,
+                UserStateCodec.encode(state), instanceHeaders);
+        kafkaTemplate.send(record)
+                .whenComplete((result, throwable) -> {
+                    if (throwable == null) {
+                        published.increment();
+                    } else {
+                        failures.increment();
+                    }
+                });
+    }
+
+    /**
+     * 전송 대기 중인 상태를 모두 브로커에 보냄 (리밸런스로 파티션을 내놓기 전)
+     */
+    public void flush() {
+        if (enabled) {
+            kafkaTemplate.flush();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        producerFactory.destroy();
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.demo.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 단건 이벤트 API 입구의 userId 별 요청 제한 (EventController → 프로듀서 앞)
+ *
+ * 한 클라이언트가 같은 userId 로 요청을 쏟아내면 키 기반 파티셔닝 때문에 하위 파티션 하나가 뜨거워집니다.
+ * (HotKeyAwarePartitioner 는 분산만 할 뿐 유입량 자체는 줄이지 못함)
+ * 이 컴포넌트는 userId 별 토큰 버킷(TokenBucketLimiter)으로 초과 요청을 프로듀서에 닿기 전에 거부합니다.
+ *
+ * 🔧 설정 (demo.ratelimit):
+ * - rate-per-second / burst: 기본 한도 (eventType 별 한도가 없는 이벤트는 사용자당 버킷 하나를 공유)
+ * - event-types: eventType 별 한도 ("LOGIN=5/10,PURCHASE=0.5/3")
+ * - max-buckets / sweep-interval-ms: 한도별 최대 버킷 수, 가득 찬(idle) 버킷 정리 주기
+ *
+ * 📊 메트릭: demo.ratelimit.rejected (rule 태그: eventType 또는 default), demo.ratelimit.buckets,
+ *     demo.ratelimit.memory.bytes, demo.ratelimit.evicted
+ */
+@Component
+public class IngressRateLimiter implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngressRateLimiter.class);
+
+    private static final String DEFAULT_RULE = "default";
+
+    private final TokenBucketLimiter limiter;
+    private final Map<String, Counter> rejectedByEventType = new HashMap<>();
+    private final Counter rejectedDefault;
+    private final ScheduledExecutorService scheduler;
+
+    public IngressRateLimiter(MeterRegistry meterRegistry,
+                              @Value("${demo.ratelimit.enabled:true}") boolean enabled,
+                              @Value("${demo.ratelimit.rate-per-second:50}") double ratePerSecond,
+                              @Value("${demo.ratelimit.burst:100}") int burst,
+                              @Value("${demo.ratelimit.event-types:}") String eventTypeLimits,
+                              @Value("${demo.ratelimit.max-buckets:1000000}") int maxBuckets,
+                              @Value("${demo.ratelimit.sweep-interval-ms:10000}") long sweepIntervalMs) {
+        Map<String, RateLimitRule> eventTypeRules = RateLimitRule.parseOverrides(eventTypeLimits);
+        this.rejectedDefault = Counter.builder("demo.ratelimit.rejected").tag("rule", DEFAULT_RULE)
+                .register(meterRegistry);
+        eventTypeRules.keySet().forEach(eventType -> rejectedByEventType.put(eventType,
+                Counter.builder("demo.ratelimit.rejected").tag("rule", eventType).register(meterRegistry)));
+
+        if (!enabled) {
+            this.limiter = null;
+            this.scheduler = null;
+            return;
+        }
+        this.limiter = new TokenBucketLimiter(new RateLimitRule(ratePerSecond, burst), eventTypeRules,
+                maxBuckets, System::nanoTime);
+        Gauge.builder("demo.ratelimit.buckets", limiter, TokenBucketLimiter::trackedBuckets).register(meterRegistry);
+        Gauge.builder("demo.ratelimit.memory.bytes", limiter, TokenBucketLimiter::memoryBytes).register(meterRegistry);
+        Counter evicted = Counter.builder("demo.ratelimit.evicted").register(meterRegistry);
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ratelimit-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                evicted.increment(limiter.evictIdle());
+            } catch (RuntimeException e) {
+                logger.warn("⚠️ Rate limit bucket sweep failed: {}", e.toString());
+            }
+        }, sweepIntervalMs, sweepIntervalMs, TimeUnit.MILLISECONDS);
+        logger.info("🔧 Ingress rate limit: {}/s burst {} per user, event type overrides {}",
+                ratePerSecond, burst, eventTypeRules);
+    }
+
+    /**
+     * 요청 하나 허용 여부 확인 (userId 가 없으면 제한하지 않음 - 이후 검증에서 처리)
+     *
+     * @return 0 이면 허용, 양수면 거부 (다시 시도할 수 있을 때까지 남은 나노초)
+     */
+    public long tryAcquire(String userId, String eventType) {
+        if (limiter == null || userId == null) {
+            return 0;
+        }
+        long waitNanos = limiter.tryAcquire(userId, eventType);
+        if (waitNanos > 0) {
+            rejectedByEventType.getOrDefault(eventType, rejectedDefault).increment();
+        }
+        return waitNanos;
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.demo.ratelimit;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * userId 당 토큰 버킷 한도 - 초당 ratePerSecond 개 토큰이 채워지고 최대 burst 개까지 모임
+ */
+public record RateLimitRule(double ratePerSecond, int burst) {
+
+    public RateLimitRule {
+        if (!(ratePerSecond > 0) || burst < 1) {
+            throw new IllegalArgumentException("ratePerSecond must be > 0 and burst >= 1: " + ratePerSecond + "/" + burst);
+        }
+    }
+
+    /**
+     * eventType 별 한도 설정 파싱
+     *
+     * 형식: "EVENT_TYPE=초당건수/버스트" 를 쉼표로 구분 (예: "LOGIN=5/10,PURCHASE=0.5/3"), 빈 문자열이면 빈 Map
+     */
+    public static Map<String, RateLimitRule> parseOverrides(String spec) {
+        Map<String, RateLimitRule> rules = new LinkedHashMap<>();
+        if (spec == null || spec.isBlank()) {
+            return rules;
+        }
+        for (String entry : spec.split(",")) {
+            String trimmed = entry.trim();
+            int equals = trimmed.indexOf('=');
+            int slash = trimmed.indexOf('/', equals + 1);
+            if (equals <= 0 || slash < 0) {
+                throw new IllegalArgumentException("Invalid rate limit entry (EVENT_TYPE=rate/burst): " + trimmed);
+            }
+            try {
+                rules.put(trimmed.substring(0, equals).trim(), new RateLimitRule(
+                        Double.parseDouble(trimmed.substring(equals + 1, slash).trim()),
+                        Integer.parseInt(trimmed.substring(slash + 1).trim())));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid rate limit entry (EVENT_TYPE=rate/burst): " + trimmed, e);
+            }
+        }
+        return rules;
+    }
+}
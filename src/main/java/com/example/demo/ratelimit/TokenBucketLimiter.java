@@ -0,0 +1,234 @@
+package com.example.demo.ratelimit;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * userId 별 토큰 버킷 제한기
+ *
+ * 버킷은 GCRA 형태로 표현합니다. (토큰 버킷과 동일한 판정, 상태는 "이론상 다음 도착 시각(TAT)" long 하나)
+ * - 허용: now >= TAT - (burst - 1) × interval 이면 TAT = max(TAT, now) + interval
+ * - TAT <= now 이면 버킷이 가득 찬 상태 → 지워도 판정이 달라지지 않으므로 evictIdle 에서 제거
+ *
+ * 버킷 테이블은 userId 64비트 fingerprint 와 TAT 를 long[] open-addressing 테이블에 primitive 로 저장하고
+ * (버킷당 32 bytes, 요청마다 객체를 만들지 않음), fingerprint 상위 비트로 stripe 를 나눠 stripe 단위로 잠급니다.
+ *
+ * eventType 별 한도가 있으면 그 eventType 은 별도 버킷, 나머지 eventType 은 사용자당 기본 버킷 하나를 공유합니다.
+ *
+ * ⚠️ stripe 가 가득 차고 idle 버킷도 없으면 새 userId 는 추적하지 않고 허용합니다. (이미 추적 중인 userId 는 계속 제한)
+ */
+public class TokenBucketLimiter {
+
+    private static final int STRIPES = 64;
+    private static final double MAX_LOAD_FACTOR = 0.5;
+    private static final long SEED = 0x9e3779b97f4a7c15L;
+    private static final long PRIME = 0x100000001b3L;
+    private static final long FULL_SWEEP_INTERVAL_NANOS = 100_000_000L;
+
+    private final Limit defaultLimit;
+    private final Map<String, Limit> eventTypeLimits = new HashMap<>();
+    private final LongSupplier nanoClock;
+
+    public TokenBucketLimiter(RateLimitRule defaultRule, Map<String, RateLimitRule> eventTypeRules,
+                              int maxBucketsPerRule, LongSupplier nanoClock) {
+        if (maxBucketsPerRule < STRIPES) {
+            throw new IllegalArgumentException("maxBucketsPerRule must be >= " + STRIPES);
+        }
+        long now = nanoClock.getAsLong();
+        this.defaultLimit = new Limit(defaultRule, maxBucketsPerRule, now);
+        eventTypeRules.forEach((eventType, rule) ->
+                eventTypeLimits.put(eventType, new Limit(rule, maxBucketsPerRule, now)));
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * 토큰 하나 사용 시도
+     *
+     * @return 0 이면 허용, 양수면 거부 (다음 요청이 허용될 때까지 남은 나노초)
+     */
+    public long tryAcquire(String userId, String eventType) {
+        Limit limit = eventType != null ? eventTypeLimits.getOrDefault(eventType, defaultLimit) : defaultLimit;
+        long fingerprint = fingerprint(userId);
+        Stripe stripe = limit.stripes[(int) (fingerprint >>> 58)];
+        long now = nanoClock.getAsLong();
+        synchronized (stripe) {
+            return stripe.acquire(fingerprint, now, limit.intervalNanos, limit.toleranceNanos);
+        }
+    }
+
+    /**
+     * 가득 찬(TAT <= now) 버킷 제거
+     *
+     * @return 제거한 버킷 수
+     */
+    public int evictIdle() {
+        long now = nanoClock.getAsLong();
+        int evicted = evictIdle(defaultLimit, now);
+        for (Limit limit : eventTypeLimits.values()) {
+            evicted += evictIdle(limit, now);
+        }
+        return evicted;
+    }
+
+    public long trackedBuckets() {
+        long buckets = trackedBuckets(defaultLimit);
+        for (Limit limit : eventTypeLimits.values()) {
+            buckets += trackedBuckets(limit);
+        }
+        return buckets;
+    }
+
+    public long memoryBytes() {
+        long slots = (long) STRIPES * defaultLimit.stripes[0].slots();
+        for (Limit limit : eventTypeLimits.values()) {
+            slots += (long) STRIPES * limit.stripes[0].slots();
+        }
+        return slots * Long.BYTES * 2;
+    }
+
+    private static int evictIdle(Limit limit, long now) {
+        int evicted = 0;
+        for (Stripe stripe : limit.stripes) {
+            synchronized (stripe) {
+                evicted += stripe.evictIdle(now);
+            }
+        }
+        return evicted;
+    }
+
+    private static long trackedBuckets(Limit limit) {
+        long buckets = 0;
+        for (Stripe stripe : limit.stripes) {
+            synchronized (stripe) {
+                buckets += stripe.size;
+            }
+        }
+        return buckets;
+    }
+
+    private static long fingerprint(String userId) {
+        long h = SEED;
+        if (userId != null) {
+            for (int i = 0; i < userId.length(); i++) {
+                h = (h ^ userId.charAt(i)) * PRIME;
+            }
+        }
+        h = (h ^ (h >>> 33)) * 0xff51afd7ed558ccdL;
+        h = (h ^ (h >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        // 0 은 빈 슬롯 표시용
+        return h != 0 ? h : 1;
+    }
+
+    /**
+     * 한도 하나(기본 또는 eventType 별)의 설정과 버킷 테이블
+     */
+    private static final class Limit {
+
+        private final long intervalNanos;
+        private final long toleranceNanos;
+        private final Stripe[] stripes = new Stripe[STRIPES];
+
+        private Limit(RateLimitRule rule, int maxBuckets, long now) {
+            this.intervalNanos = Math.max(1, (long) (1_000_000_000L / rule.ratePerSecond()));
+            this.toleranceNanos = intervalNanos * (rule.burst() - 1);
+            int entriesPerStripe = maxBuckets / STRIPES;
+            int slots = Integer.highestOneBit((int) Math.ceil(entriesPerStripe / MAX_LOAD_FACTOR) - 1) << 1;
+            for (int i = 0; i < STRIPES; i++) {
+                stripes[i] = new Stripe(slots, entriesPerStripe, now);
+            }
+        }
+    }
+
+    /**
+     * [fingerprint, TAT] 쌍을 한 배열에 나란히 저장 (조회 한 번에 캐시 라인 하나)
+     */
+    private static final class Stripe {
+
+        private final int maxEntries;
+        private long[] table;
+        private int size;
+        private long lastFullSweepNanos;
+
+        private Stripe(int slots, int maxEntries, long now) {
+            this.maxEntries = maxEntries;
+            this.table = new long[slots * 2];
+            this.lastFullSweepNanos = now - FULL_SWEEP_INTERVAL_NANOS;
+        }
+
+        private int slots() {
+            return table.length >> 1;
+        }
+
+        private long acquire(long fingerprint, long now, long intervalNanos, long toleranceNanos) {
+            long[] table = this.table;
+            int mask = slots() - 1;
+            int slot = (int) fingerprint & mask;
+            while (true) {
+                long key = table[slot << 1];
+                if (key == fingerprint) {
+                    long tat = table[(slot << 1) + 1];
+                    long allowAt = tat - toleranceNanos;
+                    if (now - allowAt < 0) {
+                        return allowAt - now;
+                    }
+                    table[(slot << 1) + 1] = (tat - now > 0 ? tat : now) + intervalNanos;
+                    return 0;
+                }
+                if (key == 0) {
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+
+            // 처음 보는 userId - 가득 찬 버킷에서 토큰 하나 사용
+            if (size >= maxEntries) {
+                // 새 userId 가 몰려도 전체 스캔은 FULL_SWEEP_INTERVAL 에 한 번만
+                if (now - lastFullSweepNanos < FULL_SWEEP_INTERVAL_NANOS) {
+                    return 0;
+                }
+                lastFullSweepNanos = now;
+                if (evictIdle(now) == 0) {
+                    return 0;
+                }
+            }
+            insert(fingerprint, now + intervalNanos);
+            return 0;
+        }
+
+        private void insert(long fingerprint, long tat) {
+            int mask = slots() - 1;
+            int slot = (int) fingerprint & mask;
+            while (table[slot << 1] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot << 1] = fingerprint;
+            table[(slot << 1) + 1] = tat;
+            size++;
+        }
+
+        private int evictIdle(long now) {
+            long[] old = table;
+            int before = size;
+            int live = 0;
+            for (int i = 0; i < old.length; i += 2) {
+                if (old[i] != 0 && old[i + 1] - now > 0) {
+                    live++;
+                }
+            }
+            if (live == before) {
+                return 0;
+            }
+            // 선형 탐사 체인이 끊기지 않도록 남은 버킷만 새 테이블에 다시 넣음
+            table = new long[old.length];
+            size = 0;
+            for (int i = 0; i < old.length; i += 2) {
+                if (old[i] != 0 && old[i + 1] - now > 0) {
+                    insert(old[i], old[i + 1]);
+                }
+            }
+            return before - size;
+        }
+    }
+}
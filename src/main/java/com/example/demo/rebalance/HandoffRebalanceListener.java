@@ -0,0 +1,121 @@
+package com.example.demo.rebalance;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 리스너 컨테이너 하나의 리밸런스 콜백 - 파티션 상태 핸드오프와 리밸런스 비용 측정
+ *
+ * 콜백은 컨슈머 스레드에서 호출되고, 컨테이너의 모든 컨슈머 스레드가 인스턴스 하나를 공유합니다.
+ * (스레드별 시작 시각은 ThreadLocal)
+ *
+ * ✅ 순서:
+ * 1. revoke (오프셋 커밋 전): PartitionHandoff.release → 처리 중 이벤트 완료 후 ack 가 커밋에 포함
+ * 2. lost (세션 만료 등으로 이미 다른 컨슈머에 넘어감): 커밋은 못 하지만 상태 정리는 같게 release
+ * 3. assign: 새로 받은 파티션이 있으면 PartitionHandoff.acquire
+ *
+ * eager 프로토콜은 리밸런스마다 모든 파티션을 revoke 하고(처음에는 빈 목록), cooperative 프로토콜은
+ * 옮겨 가는 파티션만 revoke 합니다. 빈 revoke 는 리밸런스 비용이 없으므로 측정하지 않습니다.
+ *
+ * 📊 메트릭 (listener 태그):
+ * - demo.rebalance.pause:      revoke 시작부터 다음 assign 완료까지 - 이 컨슈머가 리밸런스로 처리를 멈춘 시간 (stop-the-world 구간)
+ * - demo.rebalance.handoff:    콜백 안에서 상태를 넘기고 받는 데 쓴 시간 (phase: revoke / lost / assign)
+ * - demo.rebalance.partitions: 파티션 이동 수 (change: revoked / lost / assigned)
+ */
+public class HandoffRebalanceListener implements ConsumerAwareRebalanceListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(HandoffRebalanceListener.class);
+
+    private final String listener;
+    private final PartitionHandoff handoff;
+    private final Timer pause;
+    private final Timer revokeHandoff;
+    private final Timer lostHandoff;
+    private final Timer assignHandoff;
+    private final Counter revoked;
+    private final Counter lost;
+    private final Counter assigned;
+    // [revoke 시작 nanoTime] (리밸런스 중이 아니면 -1)
+    private final ThreadLocal<long[]> pausedAt = ThreadLocal.withInitial(() -> new long[]{-1});
+
+    public HandoffRebalanceListener(String listener, PartitionHandoff handoff, MeterRegistry meterRegistry) {
+        this.listener = listener;
+        this.handoff = handoff;
+        this.pause = Timer.builder("demo.rebalance.pause")
+                .tag("listener", listener)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.revokeHandoff = handoffTimer(meterRegistry, "revoke");
+        this.lostHandoff = handoffTimer(meterRegistry, "lost");
+        this.assignHandoff = handoffTimer(meterRegistry, "assign");
+        this.revoked = partitionCounter(meterRegistry, "revoked");
+        this.lost = partitionCounter(meterRegistry, "lost");
+        this.assigned = partitionCounter(meterRegistry, "assigned");
+    }
+
+    @Override
+    public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        release(partitions, revoked, revokeHandoff);
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        release(partitions, lost, lostHandoff);
+    }
+
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        if (!partitions.isEmpty()) {
+            long start = System.nanoTime();
+            assigned.increment(partitions.size());
+            handoff.acquire(listener, partitions);
+            assignHandoff.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        long[] state = pausedAt.get();
+        if (state[0] >= 0) {
+            long pausedNanos = System.nanoTime() - state[0];
+            state[0] = -1;
+            pause.record(pausedNanos, TimeUnit.NANOSECONDS);
+            logger.info("🔀 Rebalance of {} paused processing for {} ms ({} partitions assigned)", listener,
+                    TimeUnit.NANOSECONDS.toMillis(pausedNanos), partitions.size());
+        }
+    }
+
+    private void release(Collection<TopicPartition> partitions, Counter counter, Timer timer) {
+        if (partitions.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        long[] state = pausedAt.get();
+        if (state[0] < 0) {
+            state[0] = start;
+        }
+        counter.increment(partitions.size());
+        handoff.release(listener, partitions);
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer handoffTimer(MeterRegistry meterRegistry, String phase) {
+        return Timer.builder("demo.rebalance.handoff")
+                .tag("listener", listener)
+                .tag("phase", phase)
+                .register(meterRegistry);
+    }
+
+    private Counter partitionCounter(MeterRegistry meterRegistry, String change) {
+        return Counter.builder("demo.rebalance.partitions")
+                .tag("listener", listener)
+                .tag("change", change)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.demo.rebalance;
+
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.Collection;
+
+/**
+ * 리밸런스 시 파티션별 메모리 상태를 넘기고 받는 단계 (HandoffRebalanceListener 가 컨슈머 스레드에서 호출)
+ */
+public interface PartitionHandoff {
+
+    /**
+     * 파티션을 내놓기 전 - 처리 중인 이벤트를 끝내고 상태를 내보낸 뒤 정리 (오프셋 커밋 전)
+     */
+    void release(String listener, Collection<TopicPartition> partitions);
+
+    /**
+     * 새로 받은 파티션을 처리하기 전 - 이전 소유자가 남긴 상태를 반영
+     */
+    void acquire(String listener, Collection<TopicPartition> partitions);
+}
@@ -0,0 +1,109 @@
+package com.example.demo.rebalance;
+
+import com.example.demo.aggregation.EventAggregationService;
+import com.example.demo.consumer.EventFanOut;
+import com.example.demo.producer.UserStateProducer;
+import com.example.demo.session.SessionStateStore;
+import com.example.demo.session.UserStateBootstrap;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * 단건 리스너의 리밸런스 비용 줄이기 - cooperative 할당, 정적 멤버십, 파티션 상태 핸드오프
+ *
+ * 기본(eager) 프로토콜에서는 인스턴스 하나가 재시작해도 그룹의 모든 컨슈머가 모든 파티션을 내놓았다가 다시 받으므로,
+ * 롤링 재시작마다 전체 처리가 멈추는 구간(stop-the-world)이 생깁니다.
+ * - cooperative: CooperativeStickyAssignor 로 옮겨 가는 파티션만 revoke, 나머지는 리밸런스 중에도 계속 처리
+ * - 정적 멤버십 (instance-id 를 지정한 경우만): group.instance.id 로 재시작한 인스턴스가 같은 멤버로 돌아와 리밸런스 자체가 일어나지 않음
+ *
+ * 🔀 파티션 상태 핸드오프 (PartitionHandoff):
+ * - release (오프셋 커밋 전): EventFanOut 버스 drain → UserStateProducer flush → SessionStateStore 파티션 테이블 release
+ *   → EventAggregationService 파티션 워터마크 제외
+ *   → 처리 중이던 이벤트의 ack 가 커밋에 포함되고, 최신 상태가 compacted 토픽에 기록된 뒤 파티션이 넘어감
+ * - acquire: UserStateBootstrap.catchUp 으로 이전 소유자가 compacted 토픽에 남긴 상태를 반영
+ *
+ * DeduplicationService 의 fingerprint 와 EventAggregationService 의 윈도우 건수는 파티션 단위가 아니라 인스턴스 전체 상태라
+ * 넘길 것이 없습니다. (오프셋을 커밋한 뒤 넘기므로 새 소유자는 이미 처리한 레코드를 다시 받지 않음)
+ * AdaptiveFlowController 는 다음 평가 주기에 할당에서 빠진 파티션의 pause 상태를 정리합니다.
+ *
+ * 🔧 설정 (demo.rebalance):
+ * - cooperative / eager-fallback / instance-id / session-timeout-ms (RebalanceSettings)
+ * - instance-id 가 비어 있으면 정적 멤버십을 쓰지 않음 (HOSTNAME 등으로 추정하면 인스턴스끼리 같은 id 로 서로를 fencing 할 수 있음)
+ *
+ * ⚠️ eager → cooperative 전환:
+ * - 기존 멤버가 kafka-clients 기본 할당자 목록([RangeAssignor, CooperativeStickyAssignor])이면 기본값(eager-fallback: false)으로
+ *   한 번 롤링 배포하면 됩니다. (모든 멤버가 바뀌기 전까지는 기존 멤버가 eager 로 참여)
+ * - 기존 멤버가 RangeAssignor 만 명시했다면 eager-fallback: true 로 1차 배포(그룹은 계속 eager) 후 false 로 2차 배포합니다.
+ */
+@Component
+public class RebalanceCoordinator implements PartitionHandoff {
+
+    private static final Logger logger = LoggerFactory.getLogger(RebalanceCoordinator.class);
+
+    private final EventFanOut eventFanOut;
+    private final SessionStateStore sessionStateStore;
+    private final EventAggregationService eventAggregationService;
+    private final UserStateProducer userStateProducer;
+    private final UserStateBootstrap userStateBootstrap;
+    private final MeterRegistry meterRegistry;
+    private final RebalanceSettings settings;
+
+    public RebalanceCoordinator(EventFanOut eventFanOut,
+                                SessionStateStore sessionStateStore,
+                                EventAggregationService eventAggregationService,
+                                UserStateProducer userStateProducer,
+                                UserStateBootstrap userStateBootstrap,
+                                MeterRegistry meterRegistry,
+                                @Value("${demo.rebalance.cooperative:true}") boolean cooperative,
+                                @Value("${demo.rebalance.eager-fallback:false}") boolean eagerFallback,
+                                @Value("${demo.rebalance.instance-id:}") String instanceId,
+                                @Value("${demo.rebalance.session-timeout-ms:90000}") int sessionTimeoutMs) {
+        this.eventFanOut = eventFanOut;
+        this.sessionStateStore = sessionStateStore;
+        this.eventAggregationService = eventAggregationService;
+        this.userStateProducer = userStateProducer;
+        this.userStateBootstrap = userStateBootstrap;
+        this.meterRegistry = meterRegistry;
+        this.settings = new RebalanceSettings(cooperative, eagerFallback, !instanceId.isBlank(), instanceId,
+                sessionTimeoutMs);
+        logger.info("🔧 Rebalance settings: {}", settings);
+    }
+
+    /**
+     * 리스너 컨테이너 팩토리에 리밸런스 설정과 핸드오프 콜백 연결
+     *
+     * @param listener 리스너 이름 (group.instance.id 와 메트릭 태그에 사용, 컨테이너마다 고유)
+     */
+    public <K, V> void attach(String listener, ConcurrentKafkaListenerContainerFactory<K, V> factory) {
+        factory.getContainerProperties().getKafkaConsumerProperties()
+                .putAll(settings.consumerProperties(listener));
+        factory.getContainerProperties()
+                .setConsumerRebalanceListener(new HandoffRebalanceListener(listener, this, meterRegistry));
+    }
+
+    @Override
+    public void release(String listener, Collection<TopicPartition> partitions) {
+        // 버스 핸들러가 끝나야 세션 테이블에 더 이상 쓰기가 없음
+        eventFanOut.drain(listener);
+        userStateProducer.flush();
+        int users = 0;
+        for (TopicPartition partition : partitions) {
+            users += sessionStateStore.release(partition.topic(), partition.partition());
+            eventAggregationService.release(partition.topic(), partition.partition());
+        }
+        logger.info("🔀 {} released {} with {} tracked users", listener, partitions, users);
+    }
+
+    @Override
+    public void acquire(String listener, Collection<TopicPartition> partitions) {
+        long restored = userStateBootstrap.catchUp();
+        logger.info("🔀 {} acquired {} ({} session snapshots caught up)", listener, partitions, restored);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.demo.rebalance;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.CooperativeStickyAssignor;
+import org.apache.kafka.clients.consumer.RangeAssignor;
+
+import java.util.Properties;
+
+/**
+ * 리밸런스 관련 컨슈머 설정 (단건 리스너 컨테이너 팩토리에 리스너별로 적용)
+ *
+ * @param cooperative      CooperativeStickyAssignor 사용 - 옮겨 가는 파티션만 revoke, 나머지는 리밸런스 중에도 계속 처리
+ * @param eagerFallback    CooperativeStickyAssignor 뒤에 RangeAssignor 를 함께 지정 - RangeAssignor 만 지정한 기존 멤버가 있는
+ *                         그룹의 1차 배포용. 컨슈머는 목록의 모든 할당자가 지원하는 프로토콜을 쓰므로 이 값이 true 인 동안
+ *                         그룹은 계속 eager 로 동작(리밸런스마다 모든 파티션 revoke)하고, false 로 한 번 더 배포해야 cooperative 가 됨
+ * @param staticMembership group.instance.id 지정 - session-timeout-ms 안에 돌아온 재시작은 리밸런스를 일으키지 않음
+ * @param instanceId       인스턴스 식별자 (재시작해도 같고 인스턴스마다 달라야 함, 예: StatefulSet 파드 이름)
+ *                         - 겹치면 나중에 들어온 멤버가 먼저 있던 멤버를 FencedInstanceIdException 으로 밀어냄
+ * @param sessionTimeoutMs 정적 멤버가 응답 없이 그룹에 남아 있는 최대 시간 (재시작 시간보다 길게)
+ */
+public record RebalanceSettings(boolean cooperative, boolean eagerFallback, boolean staticMembership,
+                                String instanceId, int sessionTimeoutMs) {
+
+    public RebalanceSettings {
+        if (staticMembership && (instanceId == null || instanceId.isBlank())) {
+            throw new IllegalArgumentException("Static membership requires demo.rebalance.instance-id");
+        }
+        if (sessionTimeoutMs < 1) {
+            throw new IllegalArgumentException("Session timeout must be >= 1 ms: " + sessionTimeoutMs);
+        }
+    }
+
+    /**
+     * 리스너 컨테이너에 덮어쓸 컨슈머 설정
+     *
+     * group.instance.id 는 {instanceId}-{listener} 이고, concurrency 가 2 이상이면
+     * 컨테이너가 컨슈머 스레드마다 -0, -1 ... 을 붙여 그룹 안에서 고유하게 만듭니다.
+     */
+    public Properties consumerProperties(String listener) {
+        Properties properties = new Properties();
+        if (cooperative) {
+            // kafka-clients 3.x 기본값([RangeAssignor, CooperativeStickyAssignor])으로 돌던 그룹은 바로 cooperative 만 지정해도 됨
+            // RangeAssignor 만 명시한 멤버가 남아 있으면 공통 할당자가 없어 InconsistentGroupProtocolException → 그때만 둘 다 지정
+            properties.setProperty(ConsumerConfig.PARTITION_ASSIGNMENT_STRATEGY_CONFIG, eagerFallback
+                    ? CooperativeStickyAssignor.class.getName() + "," + RangeAssignor.class.getName()
+                    : CooperativeStickyAssignor.class.getName());
+        }
+        if (staticMembership) {
+            properties.setProperty(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG, instanceId + "-" + listener);
+            properties.setProperty(ConsumerConfig.SESSION_TIMEOUT_MS_CONFIG, Integer.toString(sessionTimeoutMs));
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.demo.routing;
+
+/**
+ * 이벤트 처리 우선순위 레인 - 레인마다 별도 토픽과 리스너 컨테이너(스레드, poll 예산)를 사용
+ *
+ * - CRITICAL: 지연에 민감한 이벤트 (기본 LOGIN/LOGOUT) → {base}.critical
+ * - STANDARD: 나머지 이벤트 → {base} (기존 토픽 그대로)
+ * - BULK:     백필 등 대량 전송 → {base}.bulk
+ */
+public enum EventLane {
+
+    CRITICAL("critical"),
+    STANDARD(""),
+    BULK("bulk");
+
+    private final String suffix;
+
+    EventLane(String suffix) {
+        this.suffix = suffix;
+    }
+
+    /**
+     * 기본 토픽(record-events / pojo-events)에 대한 이 레인의 토픽 이름
+     */
+    public String topic(String baseTopic) {
+        return suffix.isEmpty() ? baseTopic : baseTopic + "." + suffix;
+    }
+
+    /**
+     * 메트릭 태그 / 설정 키 (critical, standard, bulk)
+     */
+    public String tag() {
+        return suffix.isEmpty() ? "standard" : suffix;
+    }
+
+    /**
+     * 토픽 이름의 접미사로 레인 판별 (레인 접미사가 없으면 STANDARD)
+     */
+    public static EventLane ofTopic(String topic) {
+        if (topic != null) {
+            if (topic.endsWith("." + CRITICAL.suffix)) {
+                return CRITICAL;
+            }
+            if (topic.endsWith("." + BULK.suffix)) {
+                return BULK;
+            }
+        }
+        return STANDARD;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.demo.routing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * eventType → 우선순위 레인(토픽) 라우팅 (프로듀서, 스풀 재전송, 토픽 생성, 리스너 컨테이너가 공유)
+ *
+ * 모든 eventType 이 record-events / pojo-events 하나를 공유하면 대량 이벤트(백필 등) 뒤에
+ * LOGIN/LOGOUT 이 줄을 서게 됩니다. 레인마다 토픽을 나누고 레인별 리스너 컨테이너가
+ * 각자의 스레드와 poll 예산(max.poll.records)으로 소비하므로, BULK 레인이 밀려도 CRITICAL 레인은 영향을 받지 않습니다.
+ *
+ * 🔧 설정 (demo.routing):
+ * - enabled: false 면 모든 이벤트를 기존 토픽으로 전송 (레인 토픽/리스너 미사용)
+ * - critical-event-types / bulk-event-types: 레인별 eventType 목록 (쉼표 구분, 대소문자 무시), 나머지는 STANDARD
+ * - lanes.critical.* / lanes.bulk.*: 레인 토픽 파티션 수, 리스너 스레드 수, max-poll-records
+ *
+ * ⚠️ 같은 사용자의 이벤트라도 레인이 다르면 처리 순서가 보장되지 않습니다.
+ * 세션 상태를 바꾸는 LOGIN/LOGOUT 은 서로의 순서가 중요하므로 같은 레인에 두어야 합니다.
+ * 백필(sendBulk)은 eventType 과 관계없이 BULK 레인으로 보냅니다. (과거 이벤트는 지연에 민감하지 않음)
+ *
+ * 📊 메트릭: demo.lane.latency (lane, topic 태그) - 레코드 timestamp(전송 시각)부터 리스너 수신까지
+ */
+@Component
+public class EventLaneRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventLaneRouter.class);
+
+    private final boolean enabled;
+    private final Map<String, EventLane> lanesByEventType = new HashMap<>();
+    private final Map<EventLane, LaneSettings> settings = new EnumMap<>(EventLane.class);
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Timer> latencyByTopic = new ConcurrentHashMap<>();
+
+    public EventLaneRouter(MeterRegistry meterRegistry,
+                           @Value("${demo.routing.enabled:false}") boolean enabled,
+                           @Value("${demo.routing.critical-event-types:LOGIN,LOGOUT}") String criticalEventTypes,
+                           @Value("${demo.routing.bulk-event-types:}") String bulkEventTypes,
+                           @Value("${demo.routing.lanes.critical.partitions:3}") int criticalPartitions,
+                           @Value("${demo.routing.lanes.critical.concurrency:3}") int criticalConcurrency,
+                           @Value("${demo.routing.lanes.critical.max-poll-records:50}") int criticalMaxPollRecords,
+                           @Value("${demo.routing.lanes.bulk.partitions:3}") int bulkPartitions,
+                           @Value("${demo.routing.lanes.bulk.concurrency:1}") int bulkConcurrency,
+                           @Value("${demo.routing.lanes.bulk.max-poll-records:500}") int bulkMaxPollRecords) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        assign(criticalEventTypes, EventLane.CRITICAL);
+        assign(bulkEventTypes, EventLane.BULK);
+        settings.put(EventLane.CRITICAL, new LaneSettings(criticalPartitions, criticalConcurrency, criticalMaxPollRecords));
+        settings.put(EventLane.BULK, new LaneSettings(bulkPartitions, bulkConcurrency, bulkMaxPollRecords));
+        if (enabled) {
+            logger.info("🔧 Event lanes: {} (critical {}, bulk {})", lanesByEventType, settings.get(EventLane.CRITICAL),
+                    settings.get(EventLane.BULK));
+        }
+    }
+
+    private void assign(String eventTypes, EventLane lane) {
+        if (eventTypes == null || eventTypes.isBlank()) {
+            return;
+        }
+        for (String eventType : eventTypes.split(",")) {
+            String normalized = normalize(eventType);
+            if (normalized.isEmpty()) {
+                continue;
+            }
+            EventLane previous = lanesByEventType.put(normalized, lane);
+            if (previous != null && previous != lane) {
+                throw new IllegalArgumentException("Event type " + normalized + " is assigned to both "
+                        + previous.tag() + " and " + lane.tag() + " lanes");
+            }
+        }
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    /**
+     * eventType 의 레인 (목록에 없거나 null 이면 STANDARD)
+     *
+     * Record DTO 는 eventType 을 대문자로 바꿔 두지만 POJO DTO 는 받은 그대로이므로, 같은 이벤트가 DTO 에 따라
+     * 다른 레인으로 가지 않도록 여기서 정규화합니다. (이미 대문자면 trim / toUpperCase 가 새 문자열을 만들지 않음)
+     */
+    public EventLane laneFor(String eventType) {
+        if (eventType == null) {
+            return EventLane.STANDARD;
+        }
+        return lanesByEventType.getOrDefault(normalize(eventType), EventLane.STANDARD);
+    }
+
+    private static String normalize(String eventType) {
+        return eventType.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * 실시간 이벤트 전송 토픽 (비활성화 시 기본 토픽)
+     */
+    public String topicFor(String baseTopic, String eventType) {
+        return enabled ? laneFor(eventType).topic(baseTopic) : baseTopic;
+    }
+
+    /**
+     * 대량 전송(백필) 토픽 (비활성화 시 기본 토픽)
+     */
+    public String bulkTopicFor(String baseTopic) {
+        return enabled ? EventLane.BULK.topic(baseTopic) : baseTopic;
+    }
+
+    /**
+     * CRITICAL / BULK 레인 설정 (STANDARD 는 null - 기존 토픽/리스너 설정 사용)
+     */
+    public LaneSettings settings(EventLane lane) {
+        return settings.get(lane);
+    }
+
+    /**
+     * 리스너 수신 시 레인별 전달 지연 기록
+     *
+     * @param recordTimestampMs 레코드 timestamp (CreateTime - 프로듀서 전송 시각), 음수면 무시
+     */
+    public void recordDelivery(String topic, long recordTimestampMs) {
+        if (recordTimestampMs < 0) {
+            return;
+        }
+        // 브로커/프로듀서 시계가 조금 앞서 있으면 음수가 나올 수 있으므로 0 으로 기록
+        long latencyMs = Math.max(0, System.currentTimeMillis() - recordTimestampMs);
+        latencyByTopic.computeIfAbsent(topic, this::latencyTimer).record(latencyMs, TimeUnit.MILLISECONDS);
+    }
+
+    private Timer latencyTimer(String topic) {
+        return Timer.builder("demo.lane.latency")
+                .tag("lane", EventLane.ofTopic(topic).tag())
+                .tag("topic", topic)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+}
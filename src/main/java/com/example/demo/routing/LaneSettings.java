@@ -0,0 +1,18 @@
+package com.example.demo.routing;
+
+/**
+ * 레인 토픽/리스너 설정 (CRITICAL / BULK, STANDARD 는 기존 토픽과 리스너 설정을 그대로 사용)
+ *
+ * @param partitions     레인 토픽 파티션 수 (concurrency 이상이어야 모든 스레드가 파티션을 받음)
+ * @param concurrency    레인 리스너 컨테이너의 컨슈머 스레드 수
+ * @param maxPollRecords poll 한 번에 받는 최대 레코드 수 - 작을수록 poll 주기가 짧아 새 레코드를 빨리 받음
+ */
+public record LaneSettings(int partitions, int concurrency, int maxPollRecords) {
+
+    public LaneSettings {
+        if (partitions < 1 || concurrency < 1 || maxPollRecords < 1) {
+            throw new IllegalArgumentException("Lane partitions, concurrency and max-poll-records must be >= 1: "
+                    + partitions + "/" + concurrency + "/" + maxPollRecords);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.demo.schema;
+
+import com.example.demo.dto.pojo.UserEventPojoDto;
+import com.example.demo.dto.record.UserEventRecordDto;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 외부 레지스트리 없이 동작하는 로컬 스키마 레지스트리
+ *
+ * 스키마 ID ↔ (subject, version, Java 타입) 매핑을 관리합니다.
+ * - demo.schema.registry.path 가 비어 있으면 메모리에만 보관
+ * - 경로를 지정하면 JSON 파일로 영속화하여 재시작 후에도 같은 ID를 유지
+ *
+ * ⚠️ 한 번 발급된 스키마 ID는 절대 재사용하지 않습니다.
+ * 이미 토픽에 기록된 메시지가 그 ID를 참조하고 있기 때문입니다.
+ *
+ * 🕒 timestamp 형식:
+ * DTO 마다 문자열 timestamp 형식(버전 1)과 epoch 마이크로초 숫자 형식(버전 2)을 별도 스키마로 등록합니다.
+ * → demo.kafka.timestamps.epoch-micros 로 전송 형식을 바꾸면 스키마 ID 도 바뀌어, 메시지의 ID 만으로 형식을 구분할 수 있음
+ */
+@Component
+public class LocalSchemaRegistry {
+
+    public static final String RECORD_SUBJECT = "user-event-record";
+    public static final String POJO_SUBJECT = "user-event-pojo";
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalSchemaRegistry.class);
+
+    private final ObjectMapper objectMapper;
+    private final Path storePath;
+    private final Map<Integer, SchemaDescriptor> schemasById = new ConcurrentHashMap<>();
+    private final Map<TypeFormat, SchemaDescriptor> latestByType = new ConcurrentHashMap<>();
+    private int nextId = 1;
+
+    public LocalSchemaRegistry(
+            ObjectMapper objectMapper,
+            @Value("${demo.schema.registry.path:}") String storePath) {
+        this.objectMapper = objectMapper;
+        this.storePath = storePath == null || storePath.isBlank() ? null : Path.of(storePath);
+
+        load();
+        register(RECORD_SUBJECT, UserEventRecordDto.class);
+        register(POJO_SUBJECT, UserEventPojoDto.class);
+        // 기존 ID 를 바꾸지 않도록 문자열 형식 다음에 등록
+        register(RECORD_SUBJECT, UserEventRecordDto.class, true);
+        register(POJO_SUBJECT, UserEventPojoDto.class, true);
+    }
+
+    /**
+     * 메모리 전용 레지스트리 생성 (테스트/벤치마크용)
+     */
+    public static LocalSchemaRegistry inMemory(ObjectMapper objectMapper) {
+        return new LocalSchemaRegistry(objectMapper, null);
+    }
+
+    /**
+     * 스키마 등록 (timestamp 문자열 형식)
+     */
+    public SchemaDescriptor register(String subject, Class<?> type) {
+        return register(subject, type, false);
+    }
+
+    /**
+     * 스키마 등록
+     *
+     * 같은 subject에 같은 타입과 timestamp 형식이 이미 등록되어 있으면 기존 스키마를 그대로 반환하고,
+     * 그렇지 않으면 해당 subject의 다음 버전으로 새 ID를 발급합니다.
+     */
+    public synchronized SchemaDescriptor register(String subject, Class<?> type, boolean epochMicrosTimestamps) {
+        Optional<SchemaDescriptor> existing = schemasById.values().stream()
+                .filter(schema -> schema.subject().equals(subject) && schema.type().equals(type)
+                        && schema.epochMicrosTimestamps() == epochMicrosTimestamps)
+                .findFirst();
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+
+        int version = schemasById.values().stream()
+                .filter(schema -> schema.subject().equals(subject))
+                .mapToInt(SchemaDescriptor::version)
+                .max()
+                .orElse(0) + 1;
+
+        SchemaDescriptor schema = new SchemaDescriptor(nextId++, subject, version, type, epochMicrosTimestamps);
+        put(schema);
+        persist();
+
+        logger.info("📝 Registered schema id={} subject={} version={} type={} epochMicrosTimestamps={}",
+                schema.id(), subject, version, type.getSimpleName(), epochMicrosTimestamps);
+        return schema;
+    }
+
+    /**
+     * 스키마 ID로 조회
+     */
+    public Optional<SchemaDescriptor> findById(int id) {
+        return Optional.ofNullable(schemasById.get(id));
+    }
+
+    /**
+     * 주어진 타입의 최신 스키마 조회 (timestamp 문자열 형식)
+     */
+    public Optional<SchemaDescriptor> latestFor(Class<?> type) {
+        return latestFor(type, false);
+    }
+
+    /**
+     * 주어진 타입과 timestamp 형식의 최신 스키마 조회 (직렬화 시 사용)
+     */
+    public Optional<SchemaDescriptor> latestFor(Class<?> type, boolean epochMicrosTimestamps) {
+        return Optional.ofNullable(latestByType.get(new TypeFormat(type, epochMicrosTimestamps)));
+    }
+
+    /**
+     * 등록된 전체 스키마 목록 (ID 순)
+     */
+    public List<SchemaDescriptor> all() {
+        List<SchemaDescriptor> schemas = new ArrayList<>(schemasById.values());
+        schemas.sort(Comparator.comparingInt(SchemaDescriptor::id));
+        return schemas;
+    }
+
+    private void put(SchemaDescriptor schema) {
+        schemasById.put(schema.id(), schema);
+        latestByType.merge(new TypeFormat(schema.type(), schema.epochMicrosTimestamps()), schema,
+                (current, candidate) -> candidate.version() > current.version() ? candidate : current);
+        nextId = Math.max(nextId, schema.id() + 1);
+    }
+
+    private void load() {
+        if (storePath == null || !Files.exists(storePath)) {
+            return;
+        }
+        try {
+            List<SchemaDescriptor> stored = objectMapper.readValue(
+                    storePath.toFile(), new TypeReference<List<SchemaDescriptor>>() {});
+            stored.forEach(this::put);
+            logger.info("📂 Loaded {} schemas from {}", stored.size(), storePath);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load schema registry from " + storePath, e);
+        }
+    }
+
+    private void persist() {
+        if (storePath == null) {
+            return;
+        }
+        try {
+            Path parent = storePath.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            // 임시 파일에 쓴 뒤 교체하여, 중간에 종료되어도 파일이 깨지지 않도록 함
+            Path tmp = storePath.resolveSibling(storePath.getFileName() + ".tmp");
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(tmp.toFile(), all());
+            Files.move(tmp, storePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to persist schema registry to " + storePath, e);
+        }
+    }
+
+    private record TypeFormat(Class<?> type, boolean epochMicrosTimestamps) {
+    }
+}
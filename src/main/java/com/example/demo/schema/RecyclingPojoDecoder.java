@@ -0,0 +1,143 @@
+package com.example.demo.schema;
+
+import com.example.demo.dto.pojo.UserEventPojoDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 배치 단위로 UserEventPojoDto 인스턴스를 재사용하는 디코더
+ *
+ * VersionedJsonDeserializer 는 메시지마다 새 POJO 와 새 metadata Map 을 만듭니다.
+ * 이 디코더는 배치 크기만큼의 POJO 를 미리 만들어 두고, readerForUpdating 으로 기존 인스턴스에 값을 덮어씁니다.
+ * - POJO / metadata Map: 재사용 (Map 은 clear 후 같은 인스턴스에 병합)
+ * - 새로 만들어지는 것: 문자열/LocalDateTime 등 필드 값 자체
+ *
+ * ⚠️ 수명 제한:
+ * 디코딩된 인스턴스는 decodeBatch 의 콜백 안에서만 유효합니다.
+ * 콜백이 끝나면 다음 배치에 재사용되므로, 콜백 밖으로 참조를 넘기거나 freeze() 하면 안 됩니다. (필요하면 값을 복사)
+ *
+ * ⚠️ 스레드 안전하지 않음 - 리스너 스레드마다 하나씩 사용합니다.
+ */
+public class RecyclingPojoDecoder {
+
+    private final LocalSchemaRegistry registry;
+    private final ObjectMapper mergingMapper;
+    private final List<Slot> slots = new ArrayList<>();
+    private final BatchView view = new BatchView();
+
+    public RecyclingPojoDecoder(LocalSchemaRegistry registry, ObjectMapper objectMapper) {
+        this.registry = registry;
+        // metadata 를 새 Map 으로 교체하지 않고 기존 Map 에 병합하도록 설정
+        this.mergingMapper = objectMapper.copy();
+        this.mergingMapper.configOverride(Map.class).setMergeable(true);
+    }
+
+    /**
+     * 페이로드 목록을 재사용 인스턴스로 디코딩해 콜백에 전달
+     *
+     * @param payloads 스키마 봉투 또는 봉투 없는 기존 JSON 메시지 (null 은 건너뜀)
+     * @param callback 디코딩된 이벤트 목록 - 콜백이 끝나면 내용이 초기화됨
+     */
+    public void decodeBatch(List<byte[]> payloads, Consumer<List<UserEventPojoDto>> callback) {
+        int size = 0;
+        try {
+            for (byte[] payload : payloads) {
+                if (payload != null) {
+                    decodeInto(slot(size), payload);
+                    size++;
+                }
+            }
+            view.size = size;
+            callback.accept(view);
+        } finally {
+            view.size = 0;
+            // 콜백 밖에서 이전 배치 값이 보이지 않도록 초기화 (디코딩 도중 실패한 슬롯 포함)
+            int touched = Math.min(size + 1, slots.size());
+            for (int i = 0; i < touched; i++) {
+                slots.get(i).reset();
+            }
+        }
+    }
+
+    /**
+     * 지금까지 만든 재사용 인스턴스 수 (가장 큰 배치 크기)
+     */
+    public int pooledInstances() {
+        return slots.size();
+    }
+
+    private void decodeInto(Slot slot, byte[] payload) {
+        try {
+            if (!SchemaEnvelope.hasEnvelope(payload)) {
+                slot.reader.readValue(payload);
+                return;
+            }
+            int schemaId = SchemaEnvelope.schemaId(payload);
+            if (registry.findById(schemaId).isEmpty()) {
+                throw new SerializationException("Unknown schema id " + schemaId);
+            }
+            // Record/POJO 스키마는 필드가 같으므로 어느 쪽이든 POJO 로 직접 디코딩
+            slot.reader.readValue(payload, SchemaEnvelope.HEADER_SIZE, payload.length - SchemaEnvelope.HEADER_SIZE);
+        } catch (IOException e) {
+            throw new SerializationException("Failed to decode POJO event into reused instance", e);
+        }
+    }
+
+    private Slot slot(int index) {
+        if (index == slots.size()) {
+            slots.add(new Slot(mergingMapper));
+        }
+        return slots.get(index);
+    }
+
+    private static final class Slot {
+
+        private final UserEventPojoDto event = new UserEventPojoDto();
+        private final Map<String, Object> metadata = new LinkedHashMap<>();
+        private final ObjectReader reader;
+
+        private Slot(ObjectMapper mergingMapper) {
+            event.setMetadata(metadata);
+            this.reader = mergingMapper.readerForUpdating(event);
+        }
+
+        private void reset() {
+            event.setUserId(null);
+            event.setEventType(null);
+            event.setTimestamp(null);
+            metadata.clear();
+            // 메시지의 metadata 가 null 이었으면 참조가 끊겼으므로 다시 연결
+            event.setMetadata(metadata);
+        }
+    }
+
+    /**
+     * 할당 없이 현재 배치의 인스턴스만 보여주는 읽기 전용 List
+     */
+    private final class BatchView extends AbstractList<UserEventPojoDto> {
+
+        private int size;
+
+        @Override
+        public UserEventPojoDto get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return slots.get(index).event;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
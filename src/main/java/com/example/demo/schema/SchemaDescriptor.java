@@ -0,0 +1,20 @@
+package com.example.demo.schema;
+
+/**
+ * 로컬 스키마 레지스트리에 등록된 스키마 한 건
+ *
+ * @param id      메시지 앞에 붙는 전역 고유 스키마 ID
+ * @param subject 스키마 주제 (예: user-event-record)
+ * @param version 주제 안에서의 버전 (1부터 증가)
+ * @param type    이 스키마로 작성된 페이로드의 Java 타입
+ * @param epochMicrosTimestamps timestamp 를 epoch 마이크로초 숫자로 기록한 형식인지
+ *                              (false: 기존 "yyyy-MM-dd'T'HH:mm:ss" 문자열, 이 필드가 없던 저장 파일도 false 로 읽힘)
+ */
+public record SchemaDescriptor(
+    int id,
+    String subject,
+    int version,
+    Class<?> type,
+    boolean epochMicrosTimestamps
+) {
+}
@@ -0,0 +1,53 @@
+package com.example.demo.schema;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 버전이 붙은 메시지 봉투(envelope) 포맷
+ *
+ * 외부 스키마 레지스트리의 와이어 포맷과 같은 구조를 사용합니다.
+ *
+ *   [0]    매직 바이트 (0x00)
+ *   [1..4] 스키마 ID (big-endian int)
+ *   [5..]  JSON 페이로드
+ *
+ * JSON은 0x00으로 시작할 수 없으므로, 봉투 없이 전송된 기존 메시지와
+ * 첫 바이트만으로 구분할 수 있습니다.
+ */
+public final class SchemaEnvelope {
+
+    public static final byte MAGIC_BYTE = 0x0;
+    public static final int HEADER_SIZE = 5;
+
+    private SchemaEnvelope() {
+    }
+
+    /**
+     * 봉투 헤더(매직 바이트 + 스키마 ID)를 기록
+     */
+    public static void writeHeader(OutputStream out, int schemaId) throws IOException {
+        out.write(MAGIC_BYTE);
+        out.write(schemaId >>> 24);
+        out.write(schemaId >>> 16);
+        out.write(schemaId >>> 8);
+        out.write(schemaId);
+    }
+
+    /**
+     * 봉투 포맷으로 작성된 메시지인지 확인
+     */
+    public static boolean hasEnvelope(byte[] data) {
+        return data.length >= HEADER_SIZE && data[0] == MAGIC_BYTE;
+    }
+
+    /**
+     * 봉투 헤더에서 스키마 ID 추출
+     */
+    public static int schemaId(byte[] data) {
+        return ((data[1] & 0xFF) << 24)
+                | ((data[2] & 0xFF) << 16)
+                | ((data[3] & 0xFF) << 8)
+                | (data[4] & 0xFF);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.demo.schema;
+
+import com.example.demo.jfr.DeserializeEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 스키마 ID 봉투를 읽어 해당 버전의 디코더로 역직렬화하는 Deserializer
+ *
+ * 🔧 디코더 선택 규칙:
+ * 1. 스키마 타입이 targetType의 하위 타입이면 스키마 타입 그대로 디코딩
+ * 2. 그렇지 않으면 (예: POJO 스키마 메시지를 Record 컨슈머가 읽는 경우) targetType으로 직접 디코딩
+ * 3. 봉투가 없는 기존 JSON 메시지는 legacyType으로 디코딩
+ *
+ * 스키마 ID별 ObjectReader는 최초 1회만 만들어 캐시하므로,
+ * 여러 버전이 섞인 토픽도 메시지마다 타입을 리플렉션으로 해석하지 않습니다.
+ *
+ * 🔍 JFR: 메시지마다 DeserializeEvent 를 남깁니다. (기록 중이 아니면 비용 없음)
+ */
+public class VersionedJsonDeserializer<T> implements Deserializer<T> {
+
+    private final LocalSchemaRegistry registry;
+    private final ObjectMapper objectMapper;
+    private final Class<T> targetType;
+    private final ObjectReader legacyReader;
+    private final Map<Integer, ObjectReader> decoders = new ConcurrentHashMap<>();
+
+    public VersionedJsonDeserializer(LocalSchemaRegistry registry, ObjectMapper objectMapper, Class<T> targetType) {
+        this(registry, objectMapper, targetType, targetType);
+    }
+
+    public VersionedJsonDeserializer(LocalSchemaRegistry registry, ObjectMapper objectMapper,
+                                     Class<T> targetType, Class<? extends T> legacyType) {
+        this.registry = registry;
+        this.objectMapper = objectMapper;
+        this.targetType = targetType;
+        this.legacyReader = objectMapper.readerFor(legacyType);
+    }
+
+    @Override
+    public T deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+
+        DeserializeEvent event = new DeserializeEvent();
+        event.begin();
+        try {
+            int schemaId = -1;
+            T result;
+            if (!SchemaEnvelope.hasEnvelope(data)) {
+                result = legacyReader.readValue(data);
+            } else {
+                schemaId = SchemaEnvelope.schemaId(data);
+                ObjectReader decoder = decoders.computeIfAbsent(schemaId, this::compileDecoder);
+                result = decoder.readValue(data, SchemaEnvelope.HEADER_SIZE, data.length - SchemaEnvelope.HEADER_SIZE);
+            }
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.topic = topic;
+                event.dtoType = result != null ? result.getClass() : targetType;
+                event.schemaId = schemaId;
+                event.payloadBytes = data.length;
+                event.commit();
+            }
+            return result;
+        } catch (IOException e) {
+            throw new SerializationException("Failed to deserialize message from topic " + topic, e);
+        }
+    }
+
+    private ObjectReader compileDecoder(int schemaId) {
+        SchemaDescriptor schema = registry.findById(schemaId)
+                .orElseThrow(() -> new SerializationException("Unknown schema id " + schemaId));
+        Class<?> decodeType = targetType.isAssignableFrom(schema.type()) ? schema.type() : targetType;
+        return objectMapper.readerFor(decodeType);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.demo.schema;
+
+import com.example.demo.jfr.SerializeEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 스키마 ID 봉투를 붙여 JSON으로 직렬화하는 Serializer
+ *
+ * 페이로드 타입별로 (스키마 ID, ObjectWriter)를 한 번만 준비해 캐시하므로
+ * 메시지마다 레지스트리를 조회하거나 타입 정보를 다시 분석하지 않습니다.
+ *
+ * 🔍 JFR: 메시지마다 SerializeEvent 를 남깁니다. (기록 중이 아니면 비용 없음)
+ *
+ * 🕒 epochMicrosTimestamps=true 면 DTO timestamp 를 epoch 마이크로초 숫자로 기록합니다. (WRITE_DATES_AS_TIMESTAMPS)
+ * 형식이 다르므로 그 형식으로 등록된 별도 스키마 버전의 ID 를 붙입니다. (LocalSchemaRegistry)
+ * 컨슈머 역직렬화기는 두 형식을 모두 읽으므로, 모든 컨슈머가 이 버전으로 올라간 뒤에 켭니다.
+ */
+public class VersionedJsonSerializer<T> implements Serializer<T> {
+
+    private static final int INITIAL_BUFFER_SIZE = 256;
+
+    private final LocalSchemaRegistry registry;
+    private final ObjectMapper objectMapper;
+    private final boolean epochMicrosTimestamps;
+    private final Map<Class<?>, Encoder> encoders = new ConcurrentHashMap<>();
+
+    public VersionedJsonSerializer(LocalSchemaRegistry registry, ObjectMapper objectMapper) {
+        this(registry, objectMapper, false);
+    }
+
+    public VersionedJsonSerializer(LocalSchemaRegistry registry, ObjectMapper objectMapper,
+                                   boolean epochMicrosTimestamps) {
+        this.registry = registry;
+        this.objectMapper = objectMapper;
+        this.epochMicrosTimestamps = epochMicrosTimestamps;
+    }
+
+    @Override
+    public byte[] serialize(String topic, T data) {
+        if (data == null) {
+            return null;
+        }
+
+        SerializeEvent event = new SerializeEvent();
+        event.begin();
+        Encoder encoder = encoders.computeIfAbsent(data.getClass(), this::compileEncoder);
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+            SchemaEnvelope.writeHeader(out, encoder.schemaId());
+            encoder.writer().writeValue(out, data);
+            byte[] payload = out.toByteArray();
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.topic = topic;
+                event.dtoType = data.getClass();
+                event.schemaId = encoder.schemaId();
+                event.payloadBytes = payload.length;
+                event.commit();
+            }
+            return payload;
+        } catch (IOException e) {
+            throw new SerializationException("Failed to serialize " + data.getClass().getSimpleName()
+                    + " for topic " + topic, e);
+        }
+    }
+
+    private Encoder compileEncoder(Class<?> type) {
+        SchemaDescriptor schema = registry.latestFor(type, epochMicrosTimestamps)
+                .orElseThrow(() -> new SerializationException("No schema registered for type " + type.getName()
+                        + (epochMicrosTimestamps ? " with epoch-micros timestamps" : "")));
+        ObjectWriter writer = objectMapper.writerFor(type);
+        if (epochMicrosTimestamps) {
+            writer = writer.with(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        }
+        return new Encoder(schema.id(), writer);
+    }
+
+    private record Encoder(int schemaId, ObjectWriter writer) {
+    }
+}
@@ -0,0 +1,330 @@
+package com.example.demo.session;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 오프힙 open-addressing 세션 해시 테이블 (파티션 1개 분량)
+ *
+ * 사용자마다 객체(String 키, 엔트리, 값 객체)를 만들지 않고,
+ * direct ByteBuffer 위의 고정 크기 슬롯(SLOT_BYTES)에 primitive 값만 기록합니다.
+ * - 힙 사용량: 사용자 수와 무관하게 거의 0 → 수천만 사용자를 올려도 GC 대상 객체가 늘지 않음
+ * - 키: userId 의 64비트 해시 (0 은 빈 슬롯 표시용이라 사용하지 않음)
+ *
+ * 슬롯 레이아웃 (40 bytes):
+ * | keyHash(8) | lastLoginAt(8) | lastLogoutAt(8) | lastSeenAt(8) | totalEvents(4) | logins(4) |
+ *
+ * 카운터(4 bytes)는 int 범위에서 포화(saturating)합니다. long 스냅샷을 복원하거나 테이블을 합칠 때도
+ * Integer.MAX_VALUE 에서 멈추므로 잘리거나 음수로 넘어가지 않습니다.
+ *
+ * 슬롯에는 최댓값/카운터만 기록하므로 적용 순서와 무관하게 같은 결과가 나오고(늦게 도착한 이벤트 허용),
+ * 여러 파티션의 상태를 그대로 합칠 수 있습니다. (핫 키 분산으로 한 사용자가 여러 파티션에 있을 때)
+ *
+ * ⚠️ 동시성:
+ * - 쓰기는 단일 스레드 전제 (Kafka 파티션은 한 번에 한 컨슈머 스레드만 처리)
+ * - 읽기는 StampedLock 낙관적 읽기 → 쓰기와 겹치면 읽기 락으로 재시도
+ *
+ * ⚠️ 해시 충돌:
+ * 64비트 해시가 같은 서로 다른 userId 는 같은 사용자로 합쳐집니다.
+ * 사용자 2천만 명 기준 충돌 확률은 약 1e-5 수준으로, 조회용 세션 상태에서는 허용합니다.
+ */
+public class OffHeapSessionTable {
+
+    static final int SLOT_BYTES = 40;
+    static final long NONE = Long.MIN_VALUE;
+
+    private static final int KEY = 0;
+    private static final int LAST_LOGIN_AT = 8;
+    private static final int LAST_LOGOUT_AT = 16;
+    private static final int LAST_SEEN_AT = 24;
+    private static final int TOTAL_EVENTS = 32;
+    private static final int LOGINS = 36;
+
+    // direct ByteBuffer 한 개의 최대 크기(2GB) 안에 들어가는 2의 거듭제곱 슬롯 수
+    private static final int MAX_SLOTS = 1 << 25;
+    private static final double MAX_LOAD_FACTOR = 0.7;
+
+    private final StampedLock lock = new StampedLock();
+    private volatile ByteBuffer slots;
+    private int size;
+
+    public OffHeapSessionTable(int initialCapacity) {
+        int capacity = 16;
+        while (capacity < initialCapacity && capacity < MAX_SLOTS) {
+            capacity <<= 1;
+        }
+        this.slots = allocate(capacity);
+    }
+
+    /**
+     * 이벤트 1건 반영
+     *
+     * @return 이 이벤트로 사용자가 처음 등록되었으면 true
+     */
+    public boolean apply(long keyHash, SessionEventKind kind, long timestampMillis) {
+        long stamp = lock.writeLock();
+        try {
+            int found = slotFor(keyHash);
+            boolean inserted = found < 0;
+            int offset = inserted ? -(found + 1) : found;
+            ByteBuffer buffer = slots;
+
+            putCount(buffer, offset + TOTAL_EVENTS, buffer.getInt(offset + TOTAL_EVENTS) + 1L);
+            putMax(buffer, offset + LAST_SEEN_AT, timestampMillis);
+            if (kind == SessionEventKind.LOGIN) {
+                putMax(buffer, offset + LAST_LOGIN_AT, timestampMillis);
+                putCount(buffer, offset + LOGINS, buffer.getInt(offset + LOGINS) + 1L);
+            } else if (kind == SessionEventKind.LOGOUT) {
+                putMax(buffer, offset + LAST_LOGOUT_AT, timestampMillis);
+            }
+            return inserted;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 저장된 상태 스냅샷 반영 (compacted 토픽에서 warm start 할 때 사용)
+     *
+     * 같은 사용자의 스냅샷은 시간이 지날수록 모든 필드가 커지기만 하므로 필드별 최댓값을 취합니다.
+     * → 스냅샷이 어떤 순서로 읽히든, 컴팩션 전의 오래된 스냅샷이 섞여 있어도 결과가 같음
+     *
+     * @param state [lastLoginAt, lastLogoutAt, lastSeenAt, totalEvents, logins]
+     * @return 이 스냅샷으로 사용자가 처음 등록되었으면 true
+     */
+    public boolean restore(long keyHash, long[] state) {
+        long stamp = lock.writeLock();
+        try {
+            int found = slotFor(keyHash);
+            boolean inserted = found < 0;
+            int offset = inserted ? -(found + 1) : found;
+            ByteBuffer buffer = slots;
+
+            putMax(buffer, offset + LAST_LOGIN_AT, state[0]);
+            putMax(buffer, offset + LAST_LOGOUT_AT, state[1]);
+            putMax(buffer, offset + LAST_SEEN_AT, state[2]);
+            putCount(buffer, offset + TOTAL_EVENTS, Math.max(buffer.getInt(offset + TOTAL_EVENTS), state[3]));
+            putCount(buffer, offset + LOGINS, Math.max(buffer.getInt(offset + LOGINS), state[4]));
+            return inserted;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 더 최신 상태 스냅샷으로 대체 (리밸런스 따라잡기에서 다른 인스턴스가 기록한 상태를 반영할 때 사용)
+     *
+     * 시각은 최댓값을 취하고, 카운터는 스냅샷 값으로 덮어씁니다.
+     * (다른 인스턴스의 스냅샷은 이 테이블이 이미 센 이벤트까지 포함한 합계)
+     *
+     * @param state [lastLoginAt, lastLogoutAt, lastSeenAt, totalEvents, logins]
+     * @return 이 스냅샷으로 사용자가 처음 등록되었으면 true
+     */
+    public boolean replace(long keyHash, long[] state) {
+        long stamp = lock.writeLock();
+        try {
+            int found = slotFor(keyHash);
+            int offset = found < 0 ? -(found + 1) : found;
+            ByteBuffer buffer = slots;
+
+            putMax(buffer, offset + LAST_LOGIN_AT, state[0]);
+            putMax(buffer, offset + LAST_LOGOUT_AT, state[1]);
+            putMax(buffer, offset + LAST_SEEN_AT, state[2]);
+            putCount(buffer, offset + TOTAL_EVENTS, state[3]);
+            putCount(buffer, offset + LOGINS, state[4]);
+            return found < 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 사용자 카운터를 0 으로 (다른 테이블의 스냅샷이 이 카운터를 이미 포함하게 되었을 때, 시각은 유지)
+     *
+     * @return 사용자가 없으면 false
+     */
+    public boolean resetCounters(long keyHash) {
+        long stamp = lock.writeLock();
+        try {
+            ByteBuffer buffer = slots;
+            int offset = findSlot(buffer, keyHash);
+            if (buffer.getLong(offset + KEY) != keyHash) {
+                return false;
+            }
+            buffer.putInt(offset + TOTAL_EVENTS, 0);
+            buffer.putInt(offset + LOGINS, 0);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 다른 테이블의 상태를 더함 (리밸런스로 내놓은 파티션 테이블을 합칠 때 사용)
+     *
+     * restore 와 달리 카운터는 더합니다. 두 테이블은 서로 다른 이벤트를 센 것이므로
+     * 합친 뒤에도 모든 테이블을 합친 조회 결과(시각은 최댓값, 카운터는 합)가 그대로 유지됩니다.
+     *
+     * @return 이 테이블에 처음 등록된 사용자 수
+     */
+    public int accumulate(OffHeapSessionTable other) {
+        long[] state = new long[5];
+        int inserted = 0;
+        long otherStamp = other.lock.readLock();
+        try {
+            ByteBuffer source = other.slots;
+            int capacity = capacity(source);
+            long stamp = lock.writeLock();
+            try {
+                for (int index = 0; index < capacity; index++) {
+                    long keyHash = source.getLong(index * SLOT_BYTES + KEY);
+                    if (keyHash == 0 || !copySlot(source, keyHash, state)) {
+                        continue;
+                    }
+                    int found = slotFor(keyHash);
+                    if (found < 0) {
+                        inserted++;
+                    }
+                    int offset = found < 0 ? -(found + 1) : found;
+                    ByteBuffer buffer = slots;
+                    putMax(buffer, offset + LAST_LOGIN_AT, state[0]);
+                    putMax(buffer, offset + LAST_LOGOUT_AT, state[1]);
+                    putMax(buffer, offset + LAST_SEEN_AT, state[2]);
+                    putCount(buffer, offset + TOTAL_EVENTS, buffer.getInt(offset + TOTAL_EVENTS) + state[3]);
+                    putCount(buffer, offset + LOGINS, buffer.getInt(offset + LOGINS) + state[4]);
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        } finally {
+            other.lock.unlockRead(otherStamp);
+        }
+        return inserted;
+    }
+
+    /**
+     * 사용자 상태를 target 배열에 복사
+     *
+     * @param target 길이 5 이상 [lastLoginAt, lastLogoutAt, lastSeenAt, totalEvents, logins] (기록 없는 시각은 NONE)
+     * @return 사용자가 없으면 false
+     */
+    public boolean read(long keyHash, long[] target) {
+        long stamp = lock.tryOptimisticRead();
+        boolean found = copySlot(slots, keyHash, target);
+        if (lock.validate(stamp)) {
+            return found;
+        }
+
+        stamp = lock.readLock();
+        try {
+            return copySlot(slots, keyHash, target);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public long offHeapBytes() {
+        return slots.capacity();
+    }
+
+    /**
+     * 사용자 슬롯 오프셋 (없으면 빈 슬롯을 초기화해 -(offset + 1) 반환, 필요하면 먼저 확장) - 쓰기 락 안에서 호출
+     */
+    private int slotFor(long keyHash) {
+        ByteBuffer buffer = slots;
+        int offset = findSlot(buffer, keyHash);
+        if (buffer.getLong(offset + KEY) != 0) {
+            return offset;
+        }
+        if (size + 1 > capacity(buffer) * MAX_LOAD_FACTOR) {
+            buffer = resize(buffer);
+            offset = findSlot(buffer, keyHash);
+        }
+        buffer.putLong(offset + KEY, keyHash);
+        buffer.putLong(offset + LAST_LOGIN_AT, NONE);
+        buffer.putLong(offset + LAST_LOGOUT_AT, NONE);
+        buffer.putLong(offset + LAST_SEEN_AT, NONE);
+        size++;
+        return -(offset + 1);
+    }
+
+    private static boolean copySlot(ByteBuffer buffer, long keyHash, long[] target) {
+        int offset = findSlot(buffer, keyHash);
+        if (buffer.getLong(offset + KEY) != keyHash) {
+            return false;
+        }
+        target[0] = buffer.getLong(offset + LAST_LOGIN_AT);
+        target[1] = buffer.getLong(offset + LAST_LOGOUT_AT);
+        target[2] = buffer.getLong(offset + LAST_SEEN_AT);
+        target[3] = buffer.getInt(offset + TOTAL_EVENTS);
+        target[4] = buffer.getInt(offset + LOGINS);
+        return true;
+    }
+
+    private static void putMax(ByteBuffer buffer, int index, long value) {
+        if (value > buffer.getLong(index)) {
+            buffer.putLong(index, value);
+        }
+    }
+
+    /**
+     * 카운터를 int 범위로 포화시켜 기록 (0 ~ Integer.MAX_VALUE)
+     */
+    private static void putCount(ByteBuffer buffer, int index, long value) {
+        buffer.putInt(index, (int) Math.min(Integer.MAX_VALUE, Math.max(0, value)));
+    }
+
+    /**
+     * 키가 있는 슬롯, 없으면 키가 들어갈 빈 슬롯의 오프셋 (선형 탐사)
+     */
+    private static int findSlot(ByteBuffer buffer, long keyHash) {
+        int mask = capacity(buffer) - 1;
+        int index = (int) (keyHash ^ (keyHash >>> 32)) & mask;
+        while (true) {
+            int offset = index * SLOT_BYTES;
+            long key = buffer.getLong(offset + KEY);
+            if (key == keyHash || key == 0) {
+                return offset;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    private ByteBuffer resize(ByteBuffer old) {
+        int oldCapacity = capacity(old);
+        if (oldCapacity >= MAX_SLOTS) {
+            throw new IllegalStateException("Session table is full: " + size + " users in one partition");
+        }
+
+        ByteBuffer resized = allocate(oldCapacity << 1);
+        for (int index = 0; index < oldCapacity; index++) {
+            int from = index * SLOT_BYTES;
+            long key = old.getLong(from + KEY);
+            if (key != 0) {
+                int to = findSlot(resized, key);
+                resized.put(to, old, from, SLOT_BYTES);
+            }
+        }
+        // 진행 중인 낙관적 읽기는 validate 실패로 새 버퍼에서 다시 읽음
+        slots = resized;
+        return resized;
+    }
+
+    private static int capacity(ByteBuffer buffer) {
+        return buffer.capacity() / SLOT_BYTES;
+    }
+
+    private static ByteBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity * SLOT_BYTES).order(ByteOrder.nativeOrder());
+    }
+}
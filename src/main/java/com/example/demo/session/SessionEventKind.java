@@ -0,0 +1,18 @@
+package com.example.demo.session;
+
+/**
+ * 세션 상태에 영향을 주는 이벤트 구분
+ */
+public enum SessionEventKind {
+
+    LOGIN,
+    LOGOUT,
+    OTHER;
+
+    public static SessionEventKind of(boolean login, boolean logout) {
+        if (login) {
+            return LOGIN;
+        }
+        return logout ? LOGOUT : OTHER;
+    }
+}
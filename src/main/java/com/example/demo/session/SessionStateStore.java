@@ -0,0 +1,300 @@
+package com.example.demo.session;
+
+import com.example.demo.dto.EventTimestamps;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * LOGIN/LOGOUT 이벤트로 만드는 사용자 세션 상태 저장소
+ *
+ * 컨슈머가 처리한 이벤트를 토픽-파티션별 OffHeapSessionTable 에 반영하고,
+ * REST API 가 DB 왕복 없이 메모리에서 바로 조회합니다.
+ *
+ * ✅ 파티션별 테이블:
+ * - 파티션마다 쓰기 스레드가 하나뿐이라 쓰기 경합이 없음
+ * - 핫 키 분산으로 한 사용자가 여러 파티션에 흩어져도 조회 시 모든 테이블을 합쳐 응답
+ * - 토픽 → 파티션 번호로 인덱싱하는 배열에서 찾으므로 이벤트마다 키 객체를 만들지 않음
+ *   (배열은 파티션 추가/release 때만 복사해 바꿔 끼움 - copy-on-write)
+ *
+ * ✅ 메모리:
+ * 사용자당 OffHeapSessionTable.SLOT_BYTES(40 bytes) / 적재율 0.7 의 오프힙 메모리만 사용
+ * (2천만 사용자 ≈ 1.1GB, -XX:MaxDirectMemorySize 로 상한 지정)
+ *
+ * 📊 메트릭:
+ * - demo.session.users:           토픽-파티션별 추적 중인 사용자 수
+ * - demo.session.offheap.bytes:   전체 오프힙 사용량
+ *
+ * ✅ 재시작:
+ * 컨슈머가 이벤트마다 합친 상태를 UserStateProducer 로 compacted 토픽(user-latest-state)에 기록하고,
+ * 재시작 시 UserStateBootstrap 이 그 토픽을 읽어 restore 로 채운 뒤 리스너가 시작됩니다.
+ * (스냅샷은 토픽-파티션별 테이블과 같은 방식으로 별도 테이블에 들어가 조회 시 함께 합쳐짐)
+ *
+ * 🔀 리밸런스:
+ * 파티션을 내놓으면 release 로 그 테이블을 released 테이블 하나에 합치고 버립니다. (RebalanceCoordinator)
+ * → 파티션이 인스턴스 사이를 옮겨 다녀도 테이블 수(오프힙 메모리)가 늘지 않고, 조회 결과는 그대로 유지
+ * 파티션을 넘겨받은 인스턴스가 기록한 상태는 released 카운터를 이미 포함하므로, 따라잡기는 supersede 로
+ * 스냅샷 카운터를 덮어쓰고 그 사용자의 released 카운터를 비웁니다. (A → B → A 로 돌아와도 두 번 세지 않음)
+ *
+ * 타임스탬프는 UTC 기준 epoch millis 로 저장합니다.
+ */
+@Component
+public class SessionStateStore {
+
+    private static final int READ_FIELDS = 5;
+    private static final String RELEASED = "released";
+
+    private final MeterRegistry meterRegistry;
+    private final int initialCapacityPerPartition;
+    // 토픽 → 파티션 번호별 테이블 (배열은 synchronized 안에서만 복사해 교체, 게시된 배열은 수정하지 않음)
+    private final Map<String, OffHeapSessionTable[]> tables = new ConcurrentHashMap<>();
+    private final Map<String, Gauge> userGauges = new ConcurrentHashMap<>();
+    private OffHeapSessionTable released;
+    // 조회(snapshot 등)가 순회하는 모든 테이블 - released 포함, 테이블 추가/release 때만 교체
+    private volatile OffHeapSessionTable[] allTables = new OffHeapSessionTable[0];
+
+    public SessionStateStore(MeterRegistry meterRegistry,
+                             @Value("${demo.session.initial-capacity-per-partition:65536}") int initialCapacityPerPartition) {
+        this.meterRegistry = meterRegistry;
+        this.initialCapacityPerPartition = initialCapacityPerPartition;
+        Gauge.builder("demo.session.offheap.bytes", this, SessionStateStore::offHeapBytes)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 컨슈머가 처리한 이벤트 1건 반영
+     */
+    public void apply(String topic, int partition, String userId, SessionEventKind kind, LocalDateTime timestamp) {
+        apply(topic, partition, userId, kind, EventTimestamps.fromLocalDateTime(timestamp));
+    }
+
+    /**
+     * 컨슈머가 처리한 이벤트 1건 반영 (timestamp: epoch 마이크로초, 없으면 EventTimestamps.NONE)
+     */
+    public void apply(String topic, int partition, String userId, SessionEventKind kind, long timestampMicros) {
+        // 타임스탬프 없는 이벤트는 수신 시각으로 기록
+        long eventTime = timestampMicros != EventTimestamps.NONE ? timestampMicros : EventTimestamps.now();
+        table(topic, partition).apply(hash(userId), kind, EventTimestamps.toMillis(eventTime));
+    }
+
+    /**
+     * compacted 토픽의 상태 스냅샷 1건 반영 (warm start)
+     *
+     * @param state [lastLoginAt, lastLogoutAt, lastSeenAt, totalEvents, logins] (기록 없는 시각은 Long.MIN_VALUE)
+     */
+    public void restore(String topic, int partition, String userId, long[] state) {
+        table(topic, partition).restore(hash(userId), state);
+    }
+
+    /**
+     * 다른 인스턴스가 기록한 상태 스냅샷 1건 반영 (리밸런스 따라잡기)
+     *
+     * 그 인스턴스는 이 인스턴스가 내놓은 파티션을 넘겨받을 때 이 인스턴스의 기록을 따라잡았으므로,
+     * 스냅샷 카운터에는 released 테이블의 카운터가 이미 들어 있습니다.
+     * → 스냅샷 테이블의 카운터는 더하거나 최댓값을 취하지 않고 덮어쓰고, released 테이블의 카운터는 비움
+     * 지금 처리 중인 파티션 테이블은 그 인스턴스가 처리하지 않은 이벤트이므로 그대로 둡니다.
+     *
+     * @param state [lastLoginAt, lastLogoutAt, lastSeenAt, totalEvents, logins] (기록 없는 시각은 Long.MIN_VALUE)
+     */
+    public synchronized void supersede(String topic, int partition, String userId, long[] state) {
+        long keyHash = hash(userId);
+        table(topic, partition).replace(keyHash, state);
+        // released 테이블의 쓰기 스레드는 release 와 이 메서드(synchronized) 뿐
+        if (released != null) {
+            released.resetCounters(keyHash);
+        }
+    }
+
+    /**
+     * 리밸런스로 내놓은 토픽-파티션의 테이블을 released 테이블에 합치고 버림
+     *
+     * 파티션을 처리하던 컨슈머 스레드가 처리 중인 이벤트를 모두 끝낸 뒤 호출합니다. (더 이상 쓰기가 없음)
+     * 합치는 동안 잠시 두 테이블이 함께 조회될 수 있지만, 테이블이 사라져 상태가 줄어 보이는 순간은 없습니다.
+     * 같은 파티션을 다시 할당받으면 빈 테이블로 새로 시작합니다.
+     *
+     * @return 합친 사용자 수 (테이블이 없으면 0)
+     */
+    public synchronized int release(String topic, int partition) {
+        OffHeapSessionTable[] partitions = tables.get(topic);
+        OffHeapSessionTable table = partitions != null && partition < partitions.length ? partitions[partition] : null;
+        if (table == null) {
+            return 0;
+        }
+        // released 테이블의 쓰기 스레드는 이 메서드와 supersede (synchronized) 뿐
+        if (released == null) {
+            released = newTable(RELEASED, RELEASED, "all");
+        }
+        released.accumulate(table);
+        OffHeapSessionTable[] remaining = partitions.clone();
+        remaining[partition] = null;
+        tables.put(topic, remaining);
+        refreshAllTables();
+        Gauge gauge = userGauges.remove(topic + "-" + partition);
+        if (gauge != null) {
+            meterRegistry.remove(gauge);
+        }
+        return table.size();
+    }
+
+    /**
+     * 모든 파티션의 상태를 합쳐 사용자 세션 조회
+     */
+    public Optional<UserSession> find(String userId) {
+        long[] state = new long[READ_FIELDS];
+        if (!snapshot(userId, state)) {
+            return Optional.empty();
+        }
+
+        long lastLoginAt = state[0];
+        long lastLogoutAt = state[1];
+        boolean active = lastLoginAt != OffHeapSessionTable.NONE && lastLoginAt > lastLogoutAt;
+        return Optional.of(new UserSession(userId, active,
+                toDateTime(lastLoginAt), toDateTime(lastLogoutAt), toDateTime(state[2]), state[3], state[4]));
+    }
+
+    /**
+     * 모든 파티션의 상태를 합친 원시 값 (compacted 토픽 기록용)
+     *
+     * @param target 길이 5 이상 [lastLoginAt, lastLogoutAt, lastSeenAt, totalEvents, logins]
+     * @return 사용자가 없으면 false
+     */
+    public boolean snapshot(String userId, long[] target) {
+        long keyHash = hash(userId);
+        long[] slot = new long[READ_FIELDS];
+        long lastLoginAt = OffHeapSessionTable.NONE;
+        long lastLogoutAt = OffHeapSessionTable.NONE;
+        long lastSeenAt = OffHeapSessionTable.NONE;
+        long totalEvents = 0;
+        long logins = 0;
+        boolean found = false;
+
+        for (OffHeapSessionTable table : allTables) {
+            if (table.read(keyHash, slot)) {
+                found = true;
+                lastLoginAt = Math.max(lastLoginAt, slot[0]);
+                lastLogoutAt = Math.max(lastLogoutAt, slot[1]);
+                lastSeenAt = Math.max(lastSeenAt, slot[2]);
+                totalEvents += slot[3];
+                logins += slot[4];
+            }
+        }
+        if (!found) {
+            return false;
+        }
+
+        target[0] = lastLoginAt;
+        target[1] = lastLogoutAt;
+        target[2] = lastSeenAt;
+        target[3] = totalEvents;
+        target[4] = logins;
+        return true;
+    }
+
+    /**
+     * 토픽-파티션별 추적 사용자 수 합계 (여러 파티션에 있는 사용자는 중복 집계)
+     */
+    public long trackedUsers() {
+        long users = 0;
+        for (OffHeapSessionTable table : allTables) {
+            users += table.size();
+        }
+        return users;
+    }
+
+    public long offHeapBytes() {
+        long bytes = 0;
+        for (OffHeapSessionTable table : allTables) {
+            bytes += table.offHeapBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * userId 의 64비트 해시 (FNV-1a + 비트 혼합, 0 은 빈 슬롯 표시용이라 제외)
+     */
+    static long hash(String userId) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < userId.length(); i++) {
+            h = (h ^ userId.charAt(i)) * 0x100000001b3L;
+        }
+        h = (h ^ (h >>> 33)) * 0xff51afd7ed558ccdL;
+        h = (h ^ (h >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h != 0 ? h : 1;
+    }
+
+    /**
+     * 토픽-파티션 테이블 (이미 있으면 배열 인덱싱만 - 할당 없음)
+     */
+    private OffHeapSessionTable table(String topic, int partition) {
+        OffHeapSessionTable[] partitions = tables.get(topic);
+        if (partitions != null && partition < partitions.length) {
+            OffHeapSessionTable table = partitions[partition];
+            if (table != null) {
+                return table;
+            }
+        }
+        return createTable(topic, partition);
+    }
+
+    private synchronized OffHeapSessionTable createTable(String topic, int partition) {
+        OffHeapSessionTable[] partitions = tables.get(topic);
+        if (partitions != null && partition < partitions.length && partitions[partition] != null) {
+            return partitions[partition];
+        }
+        OffHeapSessionTable[] grown = partitions == null
+                ? new OffHeapSessionTable[partition + 1]
+                : Arrays.copyOf(partitions, Math.max(partitions.length, partition + 1));
+        OffHeapSessionTable table = newTable(topic + "-" + partition, topic, String.valueOf(partition));
+        grown[partition] = table;
+        tables.put(topic, grown);
+        refreshAllTables();
+        return table;
+    }
+
+    /**
+     * 조회용 목록(allTables) 다시 만들기 - 테이블을 추가하거나 합친 뒤 synchronized 안에서 호출
+     */
+    private void refreshAllTables() {
+        List<OffHeapSessionTable> all = new ArrayList<>();
+        for (OffHeapSessionTable[] partitions : tables.values()) {
+            for (OffHeapSessionTable table : partitions) {
+                if (table != null) {
+                    all.add(table);
+                }
+            }
+        }
+        if (released != null) {
+            all.add(released);
+        }
+        allTables = all.toArray(new OffHeapSessionTable[0]);
+    }
+
+    private OffHeapSessionTable newTable(String tableKey, String topic, String partition) {
+        OffHeapSessionTable table = new OffHeapSessionTable(initialCapacityPerPartition);
+        Gauge gauge = Gauge.builder("demo.session.users", table, OffHeapSessionTable::size)
+                .tag("topic", topic)
+                .tag("partition", partition)
+                .register(meterRegistry);
+        userGauges.put(tableKey, gauge);
+        return table;
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        if (epochMillis == OffHeapSessionTable.NONE) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochMillis, 1000),
+                (int) Math.floorMod(epochMillis, 1000) * 1_000_000, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.demo.session;
+
+import java.time.LocalDateTime;
+
+/**
+ * 사용자 세션 상태 조회 결과
+ *
+ * @param active       마지막 LOGIN 이 마지막 LOGOUT 보다 나중이면 true
+ * @param lastLoginAt  LOGIN 기록이 없으면 null
+ * @param lastLogoutAt LOGOUT 기록이 없으면 null
+ */
+public record UserSession(
+        String userId,
+        boolean active,
+        LocalDateTime lastLoginAt,
+        LocalDateTime lastLogoutAt,
+        LocalDateTime lastSeenAt,
+        long totalEvents,
+        long logins
+) {}
@@ -0,0 +1,268 @@
+package com.example.demo.session;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 시작 시 compacted 토픽(user-latest-state)으로 SessionStateStore 를 채우는 warm start
+ *
+ * 이벤트 토픽 전체를 earliest 부터 다시 읽는 대신, 사용자당 최신 상태 1건만 남은 compacted 토픽을 읽습니다.
+ * - 파티션마다 별도 KafkaConsumer(assign, 그룹 없음)를 두고 병렬로 처음부터 끝 오프셋까지 읽음
+ * - 파티션별로 SessionStateStore 의 별도 테이블에 복원 → 테이블마다 쓰기 스레드가 하나뿐인 규칙 유지
+ * - 값은 UserStateCodec 고정 길이 바이너리라 JSON 파싱 없이 복원
+ *
+ * ✅ 시작 순서:
+ * SmartLifecycle phase 가 리스너 컨테이너보다 앞서므로, 복원이 끝난 뒤에 리스너가 시작되어 증분 반영으로 넘어갑니다.
+ * (복원 전에 리스너가 UserStateProducer 로 불완전한 상태를 덮어쓰지 않음)
+ *
+ * 🔀 리밸런스 따라잡기 (catchUp):
+ * 다른 인스턴스가 처리하던 파티션을 넘겨받으면, 그 인스턴스가 시작 이후 기록한 상태는 이 인스턴스에 없습니다.
+ * 파티션을 할당받을 때 warm start 가 끝난 오프셋부터 현재 끝까지 이어 읽어 SessionStateStore.supersede 로 반영합니다.
+ * - 이 프로세스가 기록한 레코드(UserStateCodec.INSTANCE_HEADER = PROCESS_ID)는 건너뜀 → 이미 이벤트 테이블에 있는 카운터를 두 번 세지 않음
+ * - 다른 인스턴스의 상태는 이 인스턴스가 내놓은 파티션의 카운터(released)까지 포함한 합계이므로,
+ *   스냅샷 카운터를 덮어쓰고 released 카운터를 비움 (restore 의 최댓값 + released 합은 A → B → A 에서 두 번 셈)
+ *
+ * ⚠️ 브로커에 연결하지 못하거나 bootstrap-timeout-ms 를 넘기면 경고만 남기고 빈 상태로 시작합니다.
+ * (끝까지 읽지 못한 파티션은 따라잡기 대상에서도 빠짐)
+ *
+ * 📊 메트릭: demo.state.bootstrap.ms, demo.state.bootstrap.records, demo.state.catchup.records
+ */
+@Component
+public class UserStateBootstrap implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserStateBootstrap.class);
+
+    // 리스너 컨테이너(AbstractMessageListenerContainer.DEFAULT_PHASE)보다 먼저 시작
+    private static final int PHASE = 0;
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(200);
+
+    private final KafkaProperties kafkaProperties;
+    private final SessionStateStore sessionStateStore;
+    private final String topicName;
+    private final boolean enabled;
+    private final long timeoutMillis;
+    private final int parallelism;
+    private final byte[] processId = UserStateCodec.PROCESS_ID.getBytes(StandardCharsets.UTF_8);
+    private final Counter caughtUpRecords;
+    // warm start / 따라잡기로 읽은 다음 오프셋 (끝까지 읽은 파티션만)
+    private final Map<Integer, Long> positions = new ConcurrentHashMap<>();
+    private KafkaConsumer<String, byte[]> catchUpConsumer;
+    private volatile boolean running;
+    private volatile long bootstrapMillis;
+    private volatile long restoredRecords;
+
+    public UserStateBootstrap(KafkaProperties kafkaProperties,
+                              SessionStateStore sessionStateStore,
+                              MeterRegistry meterRegistry,
+                              @Value("${demo.kafka.topics.user-latest-state}") String topicName,
+                              @Value("${demo.state.enabled:true}") boolean enabled,
+                              @Value("${demo.state.bootstrap-timeout-ms:60000}") long timeoutMillis,
+                              @Value("${demo.state.load-parallelism:0}") int parallelism) {
+        this.kafkaProperties = kafkaProperties;
+        this.sessionStateStore = sessionStateStore;
+        this.topicName = topicName;
+        this.enabled = enabled;
+        this.timeoutMillis = timeoutMillis;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.caughtUpRecords = Counter.builder("demo.state.catchup.records").register(meterRegistry);
+        Gauge.builder("demo.state.bootstrap.ms", this, bootstrap -> bootstrap.bootstrapMillis).register(meterRegistry);
+        Gauge.builder("demo.state.bootstrap.records", this, bootstrap -> bootstrap.restoredRecords).register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        if (enabled) {
+            long startNanos = System.nanoTime();
+            try {
+                restoredRecords = restoreAll();
+                bootstrapMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+                logger.info("🔥 Warm-started session state from {}: {} records in {} ms",
+                        topicName, restoredRecords, bootstrapMillis);
+            } catch (Exception e) {
+                logger.warn("⚠️ Session state warm start from {} failed, starting cold: {}", topicName, e.toString());
+            }
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        synchronized (this) {
+            if (catchUpConsumer != null) {
+                catchUpConsumer.close();
+                catchUpConsumer = null;
+            }
+        }
+    }
+
+    /**
+     * 마지막으로 읽은 오프셋부터 현재 끝까지 다른 인스턴스가 기록한 상태를 반영 (파티션 할당 시, 컨슈머 스레드에서 호출)
+     *
+     * 여러 리스너 컨테이너가 동시에 호출해도 한 번에 하나만 읽습니다. (스냅샷 테이블의 쓰기 스레드는 하나)
+     * 앞선 호출이 이미 따라잡았다면 읽을 레코드가 거의 없어 바로 반환됩니다.
+     *
+     * @return 반영한 레코드 수
+     */
+    public synchronized long catchUp() {
+        if (!enabled || !running || positions.isEmpty()) {
+            return 0;
+        }
+        long startNanos = System.nanoTime();
+        long[] state = new long[UserStateCodec.FIELDS];
+        long restored = 0;
+        try {
+            if (catchUpConsumer == null) {
+                catchUpConsumer = newConsumer();
+            }
+            List<TopicPartition> partitions = new ArrayList<>(positions.size());
+            for (Integer partition : positions.keySet()) {
+                partitions.add(new TopicPartition(topicName, partition));
+            }
+            catchUpConsumer.assign(partitions);
+            for (TopicPartition partition : partitions) {
+                catchUpConsumer.seek(partition, positions.get(partition.partition()));
+            }
+            Map<TopicPartition, Long> endOffsets = catchUpConsumer.endOffsets(partitions);
+            long deadline = startNanos + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+
+            while (behind(partitions, endOffsets) && System.nanoTime() < deadline) {
+                for (ConsumerRecord<String, byte[]> record : catchUpConsumer.poll(POLL_TIMEOUT)) {
+                    if (record.key() != null && !ownRecord(record) && UserStateCodec.decode(record.value(), state)) {
+                        sessionStateStore.supersede(topicName, record.partition(), record.key(), state);
+                        restored++;
+                    }
+                }
+            }
+            for (TopicPartition partition : partitions) {
+                positions.put(partition.partition(), catchUpConsumer.position(partition));
+            }
+        } catch (Exception e) {
+            logger.warn("⚠️ Session state catch-up from {} failed: {}", topicName, e.toString());
+        }
+        caughtUpRecords.increment(restored);
+        logger.debug("Caught up {} session snapshots from {} in {} ms", restored, topicName,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        return restored;
+    }
+
+    private boolean behind(List<TopicPartition> partitions, Map<TopicPartition, Long> endOffsets) {
+        for (TopicPartition partition : partitions) {
+            if (catchUpConsumer.position(partition) < endOffsets.get(partition)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean ownRecord(ConsumerRecord<String, byte[]> record) {
+        Header header = record.headers().lastHeader(UserStateCodec.INSTANCE_HEADER);
+        return header != null && Arrays.equals(header.value(), processId);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private long restoreAll() throws InterruptedException, ExecutionException, TimeoutException {
+        List<PartitionInfo> partitions;
+        try (KafkaConsumer<String, byte[]> metadataConsumer = newConsumer()) {
+            partitions = metadataConsumer.partitionsFor(topicName);
+        }
+        if (partitions == null || partitions.isEmpty()) {
+            return 0;
+        }
+
+        ExecutorService loaders = Executors.newFixedThreadPool(Math.min(partitions.size(), parallelism));
+        try {
+            List<Future<Long>> loads = new ArrayList<>(partitions.size());
+            for (PartitionInfo partition : partitions) {
+                loads.add(loaders.submit(() -> restorePartition(partition.partition())));
+            }
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            long restored = 0;
+            for (Future<Long> load : loads) {
+                restored += load.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+            return restored;
+        } finally {
+            loaders.shutdownNow();
+        }
+    }
+
+    private long restorePartition(int partition) {
+        TopicPartition topicPartition = new TopicPartition(topicName, partition);
+        long[] state = new long[UserStateCodec.FIELDS];
+        long restored = 0;
+
+        try (KafkaConsumer<String, byte[]> consumer = newConsumer()) {
+            consumer.assign(List.of(topicPartition));
+            consumer.seekToBeginning(List.of(topicPartition));
+            long endOffset = consumer.endOffsets(List.of(topicPartition)).get(topicPartition);
+
+            while (consumer.position(topicPartition) < endOffset) {
+                if (Thread.currentThread().isInterrupted()) {
+                    break;
+                }
+                for (ConsumerRecord<String, byte[]> record : consumer.poll(POLL_TIMEOUT)) {
+                    if (record.key() != null && UserStateCodec.decode(record.value(), state)) {
+                        sessionStateStore.restore(topicName, partition, record.key(), state);
+                        restored++;
+                    }
+                }
+            }
+            if (consumer.position(topicPartition) >= endOffset) {
+                positions.put(partition, consumer.position(topicPartition));
+            }
+        }
+        logger.debug("Restored {} session snapshots from {}-{}", restored, topicName, partition);
+        return restored;
+    }
+
+    private KafkaConsumer<String, byte[]> newConsumer() {
+        Map<String, Object> props = new HashMap<>(kafkaProperties.buildConsumerProperties(null));
+        // 그룹 없이 assign 으로 읽으므로 오프셋을 커밋하지 않음
+        props.remove(ConsumerConfig.GROUP_ID_CONFIG);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 10_000);
+        props.put(ConsumerConfig.MAX_PARTITION_FETCH_BYTES_CONFIG, 8 * 1024 * 1024);
+        props.put(ConsumerConfig.DEFAULT_API_TIMEOUT_MS_CONFIG, (int) Math.min(Integer.MAX_VALUE, timeoutMillis));
+        return new KafkaConsumer<>(props, new StringDeserializer(), new ByteArrayDeserializer());
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.demo.session;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * user-latest-state 토픽 값 인코딩
+ *
+ * 레이아웃 (41 bytes): | version(1) | lastLoginAt(8) | lastLogoutAt(8) | lastSeenAt(8) | totalEvents(8) | logins(8) |
+ * JSON 대신 고정 길이 바이너리를 써서 warm start 시 수백만 건을 파싱 없이 바로 읽습니다.
+ */
+public final class UserStateCodec {
+
+    static final byte VERSION = 1;
+    public static final int FIELDS = 5;
+    static final int ENCODED_BYTES = 1 + FIELDS * Long.BYTES;
+
+    /**
+     * 상태를 기록한 프로세스 (PROCESS_ID) - 리밸런스 따라잡기에서 자기 기록을 건너뛰는 데 사용
+     */
+    public static final String INSTANCE_HEADER = "demo.state.instance";
+
+    /**
+     * 이 프로세스의 INSTANCE_HEADER 값 - 시작마다 새로 만듦
+     *
+     * 따라잡기는 warm start 이후 기록만 읽으므로 재시작 사이에 같을 필요는 없고, 설정(instance-id)과 달리
+     * 지정하지 않아도 인스턴스끼리 겹치지 않습니다. (겹치면 다른 인스턴스의 상태를 자기 기록으로 보고 건너뜀)
+     */
+    public static final String PROCESS_ID = UUID.randomUUID().toString();
+
+    private UserStateCodec() {
+    }
+
+    /**
+     * @param state [lastLoginAt, lastLogoutAt, lastSeenAt, totalEvents, logins]
+     */
+    public static byte[] encode(long[] state) {
+        ByteBuffer buffer = ByteBuffer.allocate(ENCODED_BYTES).put(VERSION);
+        for (int i = 0; i < FIELDS; i++) {
+            buffer.putLong(state[i]);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * @return 알 수 없는 버전이거나 길이가 맞지 않으면 false
+     */
+    public static boolean decode(byte[] value, long[] target) {
+        if (value == null || value.length != ENCODED_BYTES || value[0] != VERSION) {
+            return false;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(value, 1, FIELDS * Long.BYTES);
+        for (int i = 0; i < FIELDS; i++) {
+            target[i] = buffer.getLong();
+        }
+        return true;
+    }
+}
@@ -0,0 +1,322 @@
+package com.example.demo.spool;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 메모리 매핑 세그먼트 기반 append-only 로그
+ *
+ * 디렉터리 안에 고정 크기 세그먼트 파일(segment-00000000000000000001.log ...)을 만들고
+ * MappedByteBuffer 로 직접 기록합니다. → 시스템 콜 없이 메모리 쓰기 속도로 append
+ *
+ * 엔트리 포맷:
+ *   [length:int][crc32:int][keyLength:int][key][value]
+ *   length = 4 + keyLength + valueLength (crc 는 length 이후 바이트 기준)
+ * 세그먼트의 남은 영역은 0 으로 채워져 있으므로 length == 0 이 데이터의 끝입니다.
+ *
+ * ✅ 내구성:
+ * - 프로세스 종료: 매핑된 페이지는 OS 페이지 캐시에 남으므로 유실 없음
+ * - 전원 장애: 마지막 flush() 이후 기록분은 유실될 수 있음 (주기적으로 flush 호출)
+ * - 재시작 시 각 세그먼트를 끝까지 스캔해 쓰기 위치를 복구하고, CRC 가 맞지 않는 꼬리(쓰다 만 엔트리)는 버립니다.
+ *
+ * ✅ 읽기 위치:
+ * readBatch 는 커서를 옮기지 않고, commit 으로 처리 완료를 알린 뒤에만 커서를 옮겨 체크포인트 파일에 저장합니다.
+ * 다 읽은 세그먼트 파일은 삭제합니다.
+ *
+ * ⚠️ 용량 제한: 세그먼트 수가 maxSegments 에 도달하면 append 는 false 를 반환합니다.
+ */
+public class MappedSegmentLog implements Closeable {
+
+    private static final int ENTRY_HEADER = 12;
+    private static final String CHECKPOINT_FILE = "spool.checkpoint";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final int maxSegments;
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+
+    private long readSegment;
+    private int readPosition;
+    private long pendingEntries;
+
+    public MappedSegmentLog(Path directory, int segmentBytes, int maxSegments) {
+        if (segmentBytes <= ENTRY_HEADER || maxSegments < 1) {
+            throw new IllegalArgumentException("segmentBytes must be > " + ENTRY_HEADER + " and maxSegments >= 1");
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = maxSegments;
+        try {
+            Files.createDirectories(directory);
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open spool at " + directory, e);
+        }
+    }
+
+    /**
+     * 엔트리 추가
+     *
+     * @return 용량 제한으로 기록하지 못했으면 false
+     */
+    public synchronized boolean append(byte[] key, byte[] value) {
+        int length = 4 + key.length + value.length;
+        int entrySize = 8 + length;
+        if (entrySize > segmentBytes) {
+            throw new IllegalArgumentException("Entry of " + entrySize + " bytes exceeds segment size " + segmentBytes);
+        }
+
+        Segment segment = segments.isEmpty() ? null : segments.lastEntry().getValue();
+        if (segment == null || segment.writePosition + entrySize > segmentBytes) {
+            if (segments.size() >= maxSegments) {
+                return false;
+            }
+            long nextIndex = segment == null ? Math.max(1, readSegment) : segment.index + 1;
+            segment = openSegment(nextIndex);
+            segments.put(nextIndex, segment);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(key.length >>> 24);
+        crc.update(key.length >>> 16);
+        crc.update(key.length >>> 8);
+        crc.update(key.length);
+        crc.update(key);
+        crc.update(value);
+
+        MappedByteBuffer buffer = segment.buffer;
+        int position = segment.writePosition;
+        buffer.putInt(position + 4, (int) crc.getValue());
+        buffer.putInt(position + 8, key.length);
+        buffer.put(position + ENTRY_HEADER, key);
+        buffer.put(position + ENTRY_HEADER + key.length, value);
+        // length 를 마지막에 기록해, 중간에 종료되면 엔트리가 보이지 않도록 함
+        buffer.putInt(position, length);
+
+        segment.writePosition = position + entrySize;
+        pendingEntries++;
+        return true;
+    }
+
+    /**
+     * 읽기 커서부터 최대 maxEntries 개 엔트리 조회 (커서는 이동하지 않음)
+     */
+    public synchronized List<SpoolEntry> readBatch(int maxEntries) {
+        List<SpoolEntry> entries = new ArrayList<>(Math.min(maxEntries, 1024));
+        long segmentIndex = readSegment;
+        int position = readPosition;
+
+        while (entries.size() < maxEntries) {
+            Segment segment = segments.get(segmentIndex);
+            if (segment == null) {
+                Long next = segments.higherKey(segmentIndex);
+                if (next == null) {
+                    break;
+                }
+                segmentIndex = next;
+                position = 0;
+                continue;
+            }
+            if (position >= segment.writePosition) {
+                Long next = segments.higherKey(segmentIndex);
+                if (next == null) {
+                    break;
+                }
+                segmentIndex = next;
+                position = 0;
+                continue;
+            }
+
+            MappedByteBuffer buffer = segment.buffer;
+            int length = buffer.getInt(position);
+            int keyLength = buffer.getInt(position + 8);
+            byte[] key = new byte[keyLength];
+            byte[] value = new byte[length - 4 - keyLength];
+            buffer.get(position + ENTRY_HEADER, key);
+            buffer.get(position + ENTRY_HEADER + keyLength, value);
+            position += 8 + length;
+            entries.add(new SpoolEntry(key, value, segmentIndex, position));
+        }
+        return entries;
+    }
+
+    /**
+     * 처리 완료한 엔트리까지 읽기 커서를 옮기고 체크포인트 저장, 다 읽은 세그먼트 삭제
+     */
+    public synchronized void commit(SpoolEntry lastProcessed, int count) {
+        readSegment = lastProcessed.segment();
+        readPosition = lastProcessed.nextPosition();
+        pendingEntries = Math.max(0, pendingEntries - count);
+        try {
+            writeCheckpoint();
+            while (!segments.isEmpty() && segments.firstKey() < readSegment) {
+                deleteSegment(segments.pollFirstEntry().getValue());
+            }
+            // 마지막 세그먼트까지 모두 읽었으면 다음 append 가 새 세그먼트를 쓰도록 정리
+            Segment current = segments.get(readSegment);
+            if (current != null && readPosition >= current.writePosition && segments.size() == 1 && pendingEntries == 0) {
+                segments.remove(readSegment);
+                deleteSegment(current);
+                readSegment++;
+                readPosition = 0;
+                writeCheckpoint();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to commit spool checkpoint in " + directory, e);
+        }
+    }
+
+    public synchronized long pendingEntries() {
+        return pendingEntries;
+    }
+
+    public synchronized boolean isEmpty() {
+        return pendingEntries == 0;
+    }
+
+    /**
+     * 디스크 사용량 (매핑된 세그먼트 크기 합)
+     */
+    public synchronized long diskBytes() {
+        return (long) segments.size() * segmentBytes;
+    }
+
+    /**
+     * 매핑된 페이지를 디스크에 강제 기록 (전원 장애 대비)
+     */
+    public synchronized void flush() {
+        for (Segment segment : segments.values()) {
+            segment.buffer.force();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        flush();
+        for (Segment segment : segments.values()) {
+            try {
+                segment.channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to close spool segment " + segment.path, e);
+            }
+        }
+        segments.clear();
+    }
+
+    private void recover() throws IOException {
+        readCheckpoint();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path path : files.filter(file -> file.getFileName().toString().startsWith("segment-")).toList()) {
+                long index = Long.parseLong(path.getFileName().toString().replaceAll("\\D", ""));
+                if (index < readSegment) {
+                    // 체크포인트 저장 후 삭제 전에 종료된 세그먼트
+                    Files.deleteIfExists(path);
+                    continue;
+                }
+                Segment segment = openSegment(index);
+                segment.writePosition = scanValidEnd(segment.buffer);
+                segments.put(index, segment);
+            }
+        }
+        for (Segment segment : segments.values()) {
+            int position = segment.index == readSegment ? readPosition : 0;
+            while (position < segment.writePosition) {
+                position += 8 + segment.buffer.getInt(position);
+                pendingEntries++;
+            }
+        }
+    }
+
+    /**
+     * 처음부터 엔트리를 따라가며 CRC 가 맞는 마지막 위치를 찾고, 그 뒤(쓰다 만 엔트리)는 0 으로 지움
+     */
+    private int scanValidEnd(MappedByteBuffer buffer) {
+        int position = 0;
+        while (position + ENTRY_HEADER <= segmentBytes) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + 8 + length > segmentBytes) {
+                break;
+            }
+            int keyLength = buffer.getInt(position + 8);
+            if (keyLength < 0 || keyLength > length - 4) {
+                break;
+            }
+            byte[] body = new byte[length];
+            buffer.get(position + 8, body);
+            CRC32 crc = new CRC32();
+            crc.update(body);
+            if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                break;
+            }
+            position += 8 + length;
+        }
+        for (int i = position; i < Math.min(segmentBytes, position + ENTRY_HEADER); i++) {
+            buffer.put(i, (byte) 0);
+        }
+        return position;
+    }
+
+    private Segment openSegment(long index) {
+        Path path = directory.resolve(String.format("segment-%020d.log", index));
+        try {
+            FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+            return new Segment(index, path, channel, buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map spool segment " + path, e);
+        }
+    }
+
+    private void deleteSegment(Segment segment) throws IOException {
+        segment.channel.close();
+        Files.deleteIfExists(segment.path);
+    }
+
+    private void readCheckpoint() throws IOException {
+        Path checkpoint = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(checkpoint)) {
+            return;
+        }
+        String[] parts = Files.readString(checkpoint, StandardCharsets.UTF_8).trim().split(" ");
+        readSegment = Long.parseLong(parts[0]);
+        readPosition = Integer.parseInt(parts[1]);
+    }
+
+    private void writeCheckpoint() throws IOException {
+        // 임시 파일에 쓴 뒤 교체하여, 중간에 종료되어도 체크포인트가 깨지지 않도록 함
+        Path checkpoint = directory.resolve(CHECKPOINT_FILE);
+        Path tmp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        Files.writeString(tmp, readSegment + " " + readPosition, StandardCharsets.UTF_8);
+        Files.move(tmp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static final class Segment {
+
+        private final long index;
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int writePosition;
+
+        private Segment(long index, Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.index = index;
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+    }
+}
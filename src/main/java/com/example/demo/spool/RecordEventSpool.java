@@ -0,0 +1,238 @@
+package com.example.demo.spool;
+
+import com.example.demo.dto.record.UserEventRecordDto;
+import com.example.demo.routing.EventLaneRouter;
+import com.example.demo.schema.LocalSchemaRegistry;
+import com.example.demo.schema.VersionedJsonDeserializer;
+import com.example.demo.schema.VersionedJsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 브로커 장애 시 Record 이벤트를 로컬 디스크에 보관했다가 복구 후 재전송하는 스풀
+ *
+ * RecordEventProducer 가 전송에 실패하면(브로커 다운, 프로듀서 버퍼 가득 참 등) 이벤트를
+ * MappedSegmentLog 에 기록하고, 백그라운드 스레드가 replay-interval-ms 마다 순서대로 다시 전송합니다.
+ * - 기록 포맷: 키 = userId, 값 = 스키마 봉투 JSON (토픽에 실리는 바이트와 동일)
+ * - 재시작: 스풀 파일과 체크포인트가 남아 있으므로 재전송하지 못한 이벤트를 이어서 전송
+ *
+ * ✅ 전송 보장: at-least-once
+ * 배치 중 앞에서부터 연속으로 성공한 엔트리까지만 commit 합니다.
+ * 중간에 실패하면 그 뒤 엔트리는 다음 주기에 다시 전송되므로 중복이 생길 수 있고, 컨슈머의 DeduplicationService 가 걸러냅니다.
+ *
+ * ✅ 재전송 순서:
+ * 1. 첫 엔트리만 보내 확인을 기다림 (probe) → 브로커가 아직 내려가 있으면 배치를 보내지 않고 다음 주기로
+ * 2. 나머지를 보내되, 앞선 전송이 실패한 것이 확인되면 더 보내지 않음
+ *    → 실패 지점 뒤의 같은 사용자 이벤트가 먼저 기록되었다가 실패분이 나중에 재전송되는 순서 역전을 줄임
+ * 배치 전체의 확인 대기는 REPLAY_SEND_TIMEOUT_SECONDS(30초) 하나로 묶어, 브로커가 멈춰도 배치 하나가 그 이상 걸리지 않습니다.
+ *
+ * ⚠️ 용량 제한: segment-bytes × max-segments 를 넘으면 offer 가 false 를 반환합니다. (호출자가 실패로 처리)
+ *
+ * 📊 메트릭: demo.spool.pending, demo.spool.disk.bytes, demo.spool.spooled, demo.spool.replayed, demo.spool.rejected
+ */
+@Component
+public class RecordEventSpool implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecordEventSpool.class);
+
+    private static final long REPLAY_SEND_TIMEOUT_SECONDS = 30;
+
+    private final KafkaTemplate<String, UserEventRecordDto> kafkaTemplate;
+    private final EventLaneRouter laneRouter;
+    private final String topicName;
+    private final VersionedJsonSerializer<UserEventRecordDto> serializer;
+    private final VersionedJsonDeserializer<UserEventRecordDto> deserializer;
+    private final int replayBatchSize;
+    private final MappedSegmentLog log;
+    private final ScheduledExecutorService replayExecutor;
+    private final Counter spooled;
+    private final Counter replayed;
+    private final Counter rejected;
+
+    public RecordEventSpool(KafkaTemplate<String, UserEventRecordDto> kafkaTemplate,
+                            EventLaneRouter laneRouter,
+                            LocalSchemaRegistry schemaRegistry,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${demo.kafka.topics.record-events}") String topicName,
+                            @Value("${demo.spool.enabled:true}") boolean enabled,
+                            @Value("${demo.spool.directory:${java.io.tmpdir}/record-vs-pojo-kafka-demo/spool}") String directory,
+                            @Value("${demo.spool.segment-bytes:67108864}") int segmentBytes,
+                            @Value("${demo.spool.max-segments:16}") int maxSegments,
+                            @Value("${demo.spool.replay-batch-size:500}") int replayBatchSize,
+                            @Value("${demo.spool.replay-interval-ms:1000}") long replayIntervalMillis) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.laneRouter = laneRouter;
+        this.topicName = topicName;
+        this.serializer = new VersionedJsonSerializer<>(schemaRegistry, objectMapper);
+        this.deserializer = new VersionedJsonDeserializer<>(schemaRegistry, objectMapper, UserEventRecordDto.class);
+        this.replayBatchSize = replayBatchSize;
+        this.spooled = Counter.builder("demo.spool.spooled").register(meterRegistry);
+        this.replayed = Counter.builder("demo.spool.replayed").register(meterRegistry);
+        this.rejected = Counter.builder("demo.spool.rejected").register(meterRegistry);
+
+        if (!enabled) {
+            this.log = null;
+            this.replayExecutor = null;
+            return;
+        }
+
+        this.log = new MappedSegmentLog(Path.of(directory), segmentBytes, maxSegments);
+        Gauge.builder("demo.spool.pending", log, MappedSegmentLog::pendingEntries).register(meterRegistry);
+        Gauge.builder("demo.spool.disk.bytes", log, MappedSegmentLog::diskBytes).register(meterRegistry);
+        if (!log.isEmpty()) {
+            logger.warn("📦 Found {} spooled Record events from a previous run in {}", log.pendingEntries(), directory);
+        }
+
+        this.replayExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "record-event-spool-replay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        replayExecutor.scheduleWithFixedDelay(this::replayQuietly,
+                replayIntervalMillis, replayIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 재전송 대기 중인 이벤트가 있는지
+     *
+     * 대기 중이면 새 이벤트도 스풀로 보내야 사용자별 전송 순서가 유지됩니다.
+     */
+    public boolean hasPending() {
+        return log != null && !log.isEmpty();
+    }
+
+    /**
+     * 이벤트를 스풀에 기록
+     *
+     * @return 스풀이 비활성화되었거나 가득 차서 기록하지 못했으면 false
+     */
+    public boolean offer(UserEventRecordDto event) {
+        if (log == null) {
+            return false;
+        }
+        byte[] key = event.userId() != null ? event.userId().getBytes(StandardCharsets.UTF_8) : new byte[0];
+        if (!log.append(key, serializer.serialize(topicName, event))) {
+            rejected.increment();
+            return false;
+        }
+        spooled.increment();
+        return true;
+    }
+
+    /**
+     * 대기 중인 이벤트를 한 배치 재전송
+     *
+     * @return 전송에 성공해 commit 한 이벤트 수
+     */
+    public int replay() {
+        if (log == null) {
+            return 0;
+        }
+        List<SpoolEntry> entries = log.readBatch(replayBatchSize);
+        if (entries.isEmpty()) {
+            return 0;
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(REPLAY_SEND_TIMEOUT_SECONDS);
+        List<CompletableFuture<SendResult<String, UserEventRecordDto>>> sends = new ArrayList<>(entries.size());
+        // 첫 엔트리로 브로커 복구 여부 확인
+        sends.add(send(entries.get(0)));
+        int succeeded = await(sends, 0, deadline);
+        if (succeeded == 1) {
+            AtomicBoolean failed = new AtomicBoolean();
+            for (SpoolEntry entry : entries.subList(1, entries.size())) {
+                if (failed.get()) {
+                    break;
+                }
+                CompletableFuture<SendResult<String, UserEventRecordDto>> send = send(entry);
+                send.whenComplete((result, throwable) -> {
+                    if (throwable != null) {
+                        failed.set(true);
+                    }
+                });
+                sends.add(send);
+            }
+            succeeded += await(sends, 1, deadline);
+        }
+
+        if (succeeded > 0) {
+            log.commit(entries.get(succeeded - 1), succeeded);
+            replayed.increment(succeeded);
+            logger.info("📤 Replayed {} spooled Record events ({} still pending)", succeeded, log.pendingEntries());
+        }
+        return succeeded;
+    }
+
+    private CompletableFuture<SendResult<String, UserEventRecordDto>> send(SpoolEntry entry) {
+        UserEventRecordDto event = deserializer.deserialize(topicName, entry.value());
+        String key = entry.key().length > 0 ? new String(entry.key(), StandardCharsets.UTF_8) : null;
+        // 스풀에는 토픽을 저장하지 않으므로 eventType 으로 레인을 다시 정함 (백필 이벤트도 실시간 레인으로 재전송)
+        return kafkaTemplate.send(laneRouter.topicFor(topicName, event.eventType()), key, event);
+    }
+
+    /**
+     * from 부터 앞에서부터 연속으로 성공한 전송 수 (첫 실패 또는 deadline 에서 멈춤 - commit 은 이 지점까지만)
+     */
+    private int await(List<CompletableFuture<SendResult<String, UserEventRecordDto>>> sends, int from, long deadline) {
+        int succeeded = 0;
+        for (CompletableFuture<SendResult<String, UserEventRecordDto>> send : sends.subList(from, sends.size())) {
+            try {
+                send.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                succeeded++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                logger.warn("⏳ Spool replay stopped after {} of {} sent events: {}",
+                        from + succeeded, sends.size(), e.toString());
+                break;
+            }
+        }
+        return succeeded;
+    }
+
+    private void replayQuietly() {
+        try {
+            while (replay() == replayBatchSize) {
+                // 한 주기 안에서 밀린 이벤트를 최대한 비움
+            }
+            log.flush();
+        } catch (RuntimeException e) {
+            logger.error("❌ Spool replay failed", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (replayExecutor == null) {
+            return;
+        }
+        replayExecutor.shutdownNow();
+        try {
+            replayExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.close();
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.demo.spool;
+
+/**
+ * 스풀에서 읽은 엔트리 1건
+ *
+ * @param key          Kafka 메시지 키 (UTF-8)
+ * @param value        직렬화된 메시지 값
+ * @param segment      엔트리가 들어 있는 세그먼트 번호
+ * @param nextPosition 세그먼트 안에서 이 엔트리 다음 위치 (commit 시 읽기 커서가 됨)
+ */
+public record SpoolEntry(byte[] key, byte[] value, long segment, int nextPosition) {
+}
@@ -0,0 +1,67 @@
+package com.example.demo.startup;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 기동 시간 측정 - JVM 시작부터 컨텍스트 준비 / 첫 메시지 처리까지
+ *
+ * 오토스케일로 새로 뜬 컨슈머가 실제로 일을 시작하는 시점은 컨텍스트 준비가 아니라
+ * 리스너 컨테이너가 첫 poll 을 마치고 메시지를 처리한 시점이므로 둘을 따로 기록합니다.
+ * (JVM 시작 시각 기준이라 클래스 로딩 / AppCDS / AOT 효과까지 포함)
+ *
+ * 📊 메트릭: demo.startup.ready.ms, demo.startup.first.message.ms
+ * 🔍 StartupBenchmarkTest 가 "Time to first consumed message" 로그를 읽어 모드별로 비교합니다.
+ */
+@Component
+public class StartupTimeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupTimeline.class);
+
+    private final AtomicBoolean firstMessageSeen = new AtomicBoolean();
+    private volatile long readyMillis = -1;
+    private volatile long firstMessageMillis = -1;
+
+    public StartupTimeline(MeterRegistry meterRegistry) {
+        Gauge.builder("demo.startup.ready.ms", this, timeline -> timeline.readyMillis).register(meterRegistry);
+        Gauge.builder("demo.startup.first.message.ms", this, timeline -> timeline.firstMessageMillis)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void applicationReady() {
+        readyMillis = uptimeMillis();
+        logger.info("⏱️ Application ready {} ms after JVM start", readyMillis);
+    }
+
+    /**
+     * 컨슈머가 이벤트 1건을 처리할 때마다 호출 (최초 1회만 기록, 이후는 volatile 읽기 1번)
+     */
+    public void messageConsumed() {
+        if (!firstMessageSeen.get() && firstMessageSeen.compareAndSet(false, true)) {
+            firstMessageMillis = uptimeMillis();
+            logger.info("⏱️ Time to first consumed message: {} ms after JVM start (ready at {} ms)",
+                    firstMessageMillis, readyMillis);
+        }
+    }
+
+    public long readyMillis() {
+        return readyMillis;
+    }
+
+    public long firstMessageMillis() {
+        return firstMessageMillis;
+    }
+
+    private static long uptimeMillis() {
+        return ManagementFactory.getRuntimeMXBean().getUptime();
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.demo;
+
+import com.example.demo.archive.ArchiveColumn;
+import com.example.demo.archive.ArchiveRowGroup;
+import com.example.demo.archive.ColumnarSegmentReader;
+import com.example.demo.archive.EventArchiveWriter;
+import com.example.demo.config.JacksonConfig;
+import com.example.demo.dto.record.UserEventRecordDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 컬럼형 아카이브 테스트
+ *
+ * 🔍 테스트 목적:
+ * 1. 시간 파티션별 파일로 나뉘어 기록되고 그대로 복원되는지, JSON 보다 작은지 확인
+ * 2. 컬럼 선택/시간 범위 스캔이 필요한 부분만 읽는지 확인
+ * 3. 크기 제한으로 롤링되고, 쓰다 만 row group 은 무시하는지 확인
+ */
+class ArchiveTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+    private final ColumnarSegmentReader reader = new ColumnarSegmentReader(objectMapper);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRoundTripAcrossHourPartitions() throws IOException {
+        // Given: 10:00 ~ 12:59 에 걸친 이벤트
+        List<UserEventRecordDto> events = events(BASE, 3_000, 3);
+        long jsonBytes = 0;
+        for (UserEventRecordDto event : events) {
+            jsonBytes += objectMapper.writeValueAsBytes(event).length;
+        }
+
+        // When
+        try (EventArchiveWriter writer = new EventArchiveWriter(directory, objectMapper, 64 << 20, 1, 8)) {
+            writer.append("record-events", events.subList(0, 1_500));
+            writer.append("record-events", events.subList(1_500, 3_000));
+        }
+
+        // Then: 시간대마다 파일 1개, 파일 순서대로 읽으면 원본과 같음 (마이크로초까지)
+        List<Path> files = archiveFiles();
+        assertEquals(3, files.size());
+        assertTrue(files.get(0).toString().contains("record-events/dt=2024-01-01/hour=10"));
+        List<UserEventRecordDto> restored = new ArrayList<>();
+        long archiveBytes = 0;
+        for (Path file : files) {
+            restored.addAll(reader.readAll(file));
+            archiveBytes += Files.size(file);
+        }
+        assertEquals(events, restored);
+        assertTrue(archiveBytes < jsonBytes / 3, "archive should be much smaller than JSON");
+
+        System.out.println("✅ 시간 파티션 아카이브 복원 성공 - JSON " + jsonBytes + " bytes → " + archiveBytes + " bytes");
+    }
+
+    @Test
+    void testScanProjectsColumnsAndSkipsRowGroupsOutsideRange() {
+        // Given: 10분 단위 append → row group 6개
+        try (EventArchiveWriter writer = new EventArchiveWriter(directory, objectMapper, 64 << 20, 1, 8)) {
+            for (int i = 0; i < 6; i++) {
+                writer.append("record-events", events(BASE.plusMinutes(i * 10L), 100, 0));
+            }
+        }
+        Path file = archiveFiles().get(0);
+        long from = BASE.plusMinutes(20).toInstant(ZoneOffset.UTC).toEpochMilli();
+        long to = BASE.plusMinutes(29).toInstant(ZoneOffset.UTC).toEpochMilli();
+
+        // When: eventType 컬럼만, 10:20 ~ 10:29
+        List<ArchiveRowGroup> rowGroups = new ArrayList<>();
+        int skipped = reader.scan(file, EnumSet.of(ArchiveColumn.EVENT_TYPE), from, to, rowGroups::add);
+
+        // Then
+        assertEquals(5, skipped);
+        assertEquals(1, rowGroups.size());
+        ArchiveRowGroup rowGroup = rowGroups.get(0);
+        assertEquals(100, rowGroup.rows());
+        assertEquals("LOGIN", rowGroup.eventTypes()[0]);
+        assertNull(rowGroup.userIds());
+        assertNull(rowGroup.metadata());
+
+        System.out.println("✅ 컬럼 선택 및 시간 범위 스캔 성공");
+    }
+
+    @Test
+    void testRollsSegmentsAndIgnoresTornTail() throws IOException {
+        // Given: 작은 세그먼트 크기로 여러 번 append
+        try (EventArchiveWriter writer = new EventArchiveWriter(directory, objectMapper, 4_096, 1, 8)) {
+            for (int i = 0; i < 20; i++) {
+                writer.append("pojo-events", events(BASE.plusMinutes(i), 200, 0));
+            }
+        }
+        List<Path> files = archiveFiles();
+        assertTrue(files.size() > 1, "segments should roll");
+
+        // When: 마지막 파일의 끝 일부를 잘라 쓰다 만 row group 을 흉내
+        Path last = files.get(files.size() - 1);
+        int before = reader.readAll(last).size();
+        try (FileChannel channel = FileChannel.open(last, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 10);
+        }
+
+        // Then: 잘린 row group 만 빠지고 앞부분은 그대로 읽힘
+        int after = reader.readAll(last).size();
+        assertEquals(before - 200, after);
+
+        System.out.println("✅ 세그먼트 롤링 및 손상된 꼬리 무시 성공 - " + files.size() + "개 파일");
+    }
+
+    private List<Path> archiveFiles() {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(file -> file.toString().endsWith(".evc")).sorted().toList();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<UserEventRecordDto> events(LocalDateTime start, int count, int hours) {
+        List<UserEventRecordDto> events = new ArrayList<>(count);
+        long spanSeconds = Math.max(1, hours) * 3600L;
+        for (int i = 0; i < count; i++) {
+            LocalDateTime timestamp = (hours == 0 ? start.plusSeconds(i % 60) : start.plusSeconds(i * spanSeconds / count))
+                    .plusNanos((i % 1_000) * 1_000L);
+            events.add(new UserEventRecordDto("user-" + (i % 50), i % 3 == 0 ? "LOGIN" : "PAGE_VIEW", timestamp,
+                    i % 10 == 0 ? null : Map.of("source", "web", "page", "/items/" + (i % 20))));
+        }
+        return events;
+    }
+}
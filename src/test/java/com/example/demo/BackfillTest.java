@@ -0,0 +1,176 @@
+package com.example.demo;
+
+import com.example.demo.backfill.BackfillFormat;
+import com.example.demo.backfill.BackfillJob;
+import com.example.demo.backfill.BackfillProgress;
+import com.example.demo.backfill.EventChunkParser;
+import com.example.demo.backfill.EventFileChunker;
+import com.example.demo.backfill.FileChunk;
+import com.example.demo.config.JacksonConfig;
+import com.example.demo.dto.record.UserEventRecordDto;
+import com.example.demo.schema.LocalSchemaRegistry;
+import com.example.demo.schema.VersionedJsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 이벤트 파일 백필 테스트
+ *
+ * 🔍 테스트 목적:
+ * 1. NDJSON 파일이 줄 경계에서만 청크로 나뉘는지 확인
+ * 2. 병렬 파싱 후에도 사용자별 발행 순서가 파일 순서와 같은지, 잘못된 줄은 건너뛰는지 확인
+ * 3. 바이너리(길이 + 스키마 봉투) 파일도 같은 결과로 발행되는지 확인
+ */
+class BackfillTest {
+
+    private static final int USERS = 20;
+    private static final int EVENTS = 5_000;
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+    private final LocalSchemaRegistry registry = LocalSchemaRegistry.inMemory(objectMapper);
+    private final ForkJoinPool parsePool = new ForkJoinPool(4);
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void tearDown() {
+        parsePool.shutdownNow();
+    }
+
+    @Test
+    void testNdjsonChunksSplitOnLineBoundaries() throws IOException {
+        // Given
+        Path file = writeNdjson(directory.resolve("events.ndjson"), false);
+        byte[] content = Files.readAllBytes(file);
+
+        // When
+        List<FileChunk> chunks;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            chunks = EventFileChunker.split(channel, BackfillFormat.NDJSON, 4096);
+        }
+
+        // Then: 빈틈 없이 이어지고 모든 청크가 줄바꿈으로 끝남
+        assertTrue(chunks.size() > 10);
+        long expectedOffset = 0;
+        for (FileChunk chunk : chunks) {
+            assertEquals(expectedOffset, chunk.offset());
+            assertEquals('\n', content[(int) (chunk.offset() + chunk.length() - 1)]);
+            expectedOffset += chunk.length();
+        }
+        assertEquals((long) content.length, expectedOffset);
+
+        System.out.println("✅ NDJSON 줄 경계 청크 분할 성공 - " + chunks.size() + "개 청크");
+    }
+
+    @Test
+    void testNdjsonBackfillPreservesPerUserOrder() throws IOException {
+        // Given: 잘못된 줄 1개 포함
+        Path file = writeNdjson(directory.resolve("events.ndjson"), true);
+        ConcurrentLinkedQueue<UserEventRecordDto> published = new ConcurrentLinkedQueue<>();
+
+        // When
+        BackfillProgress progress = runJob(file, BackfillFormat.NDJSON, published);
+
+        // Then
+        assertEquals(BackfillProgress.State.COMPLETED, progress.state());
+        assertEquals((long) EVENTS, progress.eventsPublished());
+        assertEquals(1L, progress.eventsSkipped());
+        assertEquals(progress.totalBytes(), progress.bytesParsed());
+        assertPerUserOrder(published);
+
+        System.out.println("✅ NDJSON 백필 사용자별 순서 보장 성공 - " + progress.eventsPerSecond() + " events/s");
+    }
+
+    @Test
+    void testBinaryBackfillPreservesPerUserOrder() throws IOException {
+        // Given: [length][스키마 봉투 JSON] 프레임
+        VersionedJsonSerializer<UserEventRecordDto> serializer = new VersionedJsonSerializer<>(registry, objectMapper);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (UserEventRecordDto event : events()) {
+            byte[] payload = serializer.serialize("record-events", event);
+            out.writeInt(payload.length);
+            out.write(payload);
+        }
+        Path file = Files.write(directory.resolve("events.bin"), bytes.toByteArray());
+        ConcurrentLinkedQueue<UserEventRecordDto> published = new ConcurrentLinkedQueue<>();
+
+        // When
+        BackfillProgress progress = runJob(file, BackfillFormat.BINARY, published);
+
+        // Then
+        assertEquals(BackfillProgress.State.COMPLETED, progress.state());
+        assertEquals((long) EVENTS, progress.eventsPublished());
+        assertEquals(0L, progress.eventsSkipped());
+        assertPerUserOrder(published);
+
+        System.out.println("✅ 바이너리 백필 사용자별 순서 보장 성공");
+    }
+
+    private BackfillProgress runJob(Path file, BackfillFormat format, ConcurrentLinkedQueue<UserEventRecordDto> sink) {
+        EventChunkParser<UserEventRecordDto> parser =
+                new EventChunkParser<>(format, registry, objectMapper, UserEventRecordDto.class);
+        BackfillJob<UserEventRecordDto> job = new BackfillJob<>("test", file, format, "record", parser,
+                event -> {
+                    sink.add(event);
+                    return CompletableFuture.completedFuture(null);
+                },
+                parsePool, 4096, 8);
+        job.run();
+        return job.progress();
+    }
+
+    private static void assertPerUserOrder(ConcurrentLinkedQueue<UserEventRecordDto> published) {
+        assertEquals(EVENTS, published.size());
+        Map<String, Integer> lastSequence = new HashMap<>();
+        for (UserEventRecordDto event : published) {
+            int sequence = ((Number) event.metadata().get("seq")).intValue();
+            Integer previous = lastSequence.put(event.userId(), sequence);
+            assertTrue(previous == null || previous < sequence, "out of order for " + event.userId());
+        }
+    }
+
+    private Path writeNdjson(Path file, boolean withMalformedLine) throws IOException {
+        StringBuilder content = new StringBuilder();
+        List<UserEventRecordDto> events = events();
+        for (int i = 0; i < events.size(); i++) {
+            content.append(objectMapper.writeValueAsString(events.get(i))).append('\n');
+            if (withMalformedLine && i == EVENTS / 2) {
+                content.append("{not json\n");
+            }
+        }
+        return Files.writeString(file, content, StandardCharsets.UTF_8);
+    }
+
+    private static List<UserEventRecordDto> events() {
+        List<UserEventRecordDto> events = new ArrayList<>(EVENTS);
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int i = 0; i < EVENTS; i++) {
+            events.add(new UserEventRecordDto("user-" + (i % USERS), i % 2 == 0 ? "LOGIN" : "CLICK",
+                    base.plusSeconds(i), Map.of("seq", i)));
+        }
+        return events;
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.demo;
+
+import com.example.demo.config.JacksonConfig;
+import com.example.demo.dto.CompactMetadataMap;
+import com.example.demo.dto.pojo.UserEventPojoDto;
+import com.example.demo.dto.record.UserEventRecordDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 배열 기반 메타데이터 Map 테스트
+ *
+ * 🔍 테스트 목적:
+ * 1. LinkedHashMap 과 같은 Map 규약(순서, equals/hashCode, null, 중복 키)을 지키는지 확인
+ * 2. 압축된 숫자 값이 원래 박싱 타입(Integer/Long/Double)으로 돌아오는지 확인
+ * 3. DTO 역직렬화가 중간 Map 없이 CompactMetadataMap 을 만들고, 값 타입이 기존과 같은지 확인
+ */
+class CompactMetadataMapTest {
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+
+    @Test
+    void testBehavesLikeLinkedHashMap() {
+        // Given
+        Map<String, Object> source = new LinkedHashMap<>();
+        source.put("ip", "10.0.0.1");
+        source.put("userAgent", "Mozilla/5.0");
+        source.put("sessionDuration", 3600);
+        source.put("referrer", null);
+
+        // When
+        Map<String, Object> compact = CompactMetadataMap.of(source);
+
+        // Then
+        assertEquals(source, compact);
+        assertEquals(compact, source);
+        assertEquals(source.hashCode(), compact.hashCode());
+        assertEquals(List.copyOf(source.keySet()), List.copyOf(compact.keySet()), "입력 순서 유지");
+        assertTrue(compact.containsKey("referrer"));
+        assertNull(compact.get("referrer"));
+        assertFalse(compact.containsKey("missing"));
+        assertSame(compact, CompactMetadataMap.of(compact));
+        assertThrows(UnsupportedOperationException.class, () -> compact.put("new", "value"));
+
+        System.out.println("✅ LinkedHashMap 호환 동작 확인 성공");
+    }
+
+    @Test
+    void testLargeMapsUseIndexedLookupAndKeepLastDuplicate() {
+        // Given: LINEAR_SCAN_LIMIT 초과 + 중복 키
+        CompactMetadataMap.Builder builder = CompactMetadataMap.builder(2);
+        Map<String, Object> expected = new LinkedHashMap<>();
+        for (int i = 0; i < 40; i++) {
+            builder.put("attr" + i, "value-" + i);
+            expected.put("attr" + i, "value-" + i);
+        }
+        builder.put("attr3", "overwritten");
+        expected.put("attr3", "overwritten");
+
+        // When
+        Map<String, Object> compact = builder.build();
+
+        // Then
+        assertEquals(expected, compact);
+        assertEquals(40, compact.size());
+        for (String key : expected.keySet()) {
+            assertEquals(expected.get(key), compact.get(key), key);
+        }
+        assertNull(compact.get("attr40"));
+
+        System.out.println("✅ 큰 Map 인덱스 조회 / 중복 키 처리 성공");
+    }
+
+    @Test
+    void testPackedNumbersKeepBoxedTypes() {
+        // Given: 캐시 밖 숫자 여러 개 → long[] 압축
+        Map<String, Object> source = new LinkedHashMap<>();
+        source.put("count", 3600);
+        source.put("bytes", 5_000_000_000L);
+        source.put("ratio", 0.25);
+        source.put("small", 7);
+        source.put("flag", true);
+
+        // When
+        Map<String, Object> compact = CompactMetadataMap.of(source);
+
+        // Then
+        assertEquals(Integer.valueOf(3600), compact.get("count"));
+        assertEquals(Long.valueOf(5_000_000_000L), compact.get("bytes"));
+        assertEquals(Double.valueOf(0.25), compact.get("ratio"));
+        assertEquals(Integer.valueOf(7), compact.get("small"));
+        assertEquals(Boolean.TRUE, compact.get("flag"));
+        assertEquals(source, compact);
+        assertEquals(source.hashCode(), compact.hashCode());
+        assertEquals("5000000000", CompactMetadataMap.stringValue(compact, "bytes"));
+        assertEquals("0.25", CompactMetadataMap.stringValue(compact, "ratio"));
+        assertNull(CompactMetadataMap.stringValue(compact, "missing"));
+
+        System.out.println("✅ 숫자 값 압축 / 복원 성공");
+    }
+
+    @Test
+    void testDeserializerProducesCompactMapWithDefaultValueTypes() throws Exception {
+        // Given
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("ip", "10.0.0.1");
+        metadata.put("sessionDuration", 3600);
+        metadata.put("bytes", 5_000_000_000L);
+        metadata.put("score", 1.5);
+        metadata.put("mobile", false);
+        metadata.put("tags", List.of("a", "b"));
+        metadata.put("device", Map.of("os", "ios"));
+        UserEventRecordDto event = new UserEventRecordDto("user-1", "LOGIN", LocalDateTime.of(2024, 1, 1, 12, 0),
+                metadata);
+        String json = objectMapper.writeValueAsString(event);
+
+        // When
+        UserEventRecordDto record = objectMapper.readValue(json, UserEventRecordDto.class);
+        UserEventPojoDto pojo = objectMapper.readValue(json, UserEventPojoDto.class);
+        Map<String, Object> plain = objectMapper.readValue(objectMapper.writeValueAsString(metadata), Map.class);
+
+        // Then: 기본 Map 역직렬화와 같은 값/타입
+        assertInstanceOf(CompactMetadataMap.class, record.metadata());
+        assertInstanceOf(CompactMetadataMap.class, pojo.getMetadata());
+        assertEquals(plain, record.metadata());
+        assertEquals(plain, pojo.getMetadata());
+        for (String key : plain.keySet()) {
+            assertEquals(plain.get(key).getClass(), record.metadata().get(key).getClass(), key);
+        }
+        assertEquals(event, record);
+        assertEquals("3600", pojo.getMetadataValue("sessionDuration"));
+
+        System.out.println("✅ 역직렬화 직접 생성 성공 - " + record.metadata());
+    }
+
+    @Test
+    void testMergingIntoMutableMapKeepsInstance() throws Exception {
+        // Given: RecyclingPojoDecoder 와 같은 병합 설정
+        ObjectMapper mergingMapper = objectMapper.copy();
+        mergingMapper.configOverride(Map.class).setMergeable(true);
+        Map<String, Object> reused = new LinkedHashMap<>();
+        UserEventPojoDto target = new UserEventPojoDto();
+        target.setMetadata(reused);
+        String json = objectMapper.writeValueAsString(new UserEventRecordDto("user-1", "CLICK",
+                LocalDateTime.of(2024, 1, 1, 12, 0), Map.of("button", "buy", "x", 120)));
+
+        // When
+        mergingMapper.readerForUpdating(target).readValue(json);
+
+        // Then
+        assertSame(reused, target.getMetadata());
+        assertEquals(Map.of("button", "buy", "x", 120), reused);
+
+        System.out.println("✅ 재사용 Map 병합 유지 성공");
+    }
+
+    @Test
+    void testEqualityAcrossRepresentations() {
+        // Given
+        List<Map<String, Object>> maps = new ArrayList<>();
+        maps.add(CompactMetadataMap.of(Map.of("a", 1000, "b", 2000L)));
+        maps.add(CompactMetadataMap.builder(2).putLong("b", 2000L).putInt("a", 1000).build());
+        maps.add(new LinkedHashMap<>(Map.of("a", 1000, "b", 2000L)));
+
+        // Then: 순서가 달라도 같은 내용이면 동등
+        for (Map<String, Object> left : maps) {
+            for (Map<String, Object> right : maps) {
+                assertEquals(left, right);
+                assertEquals(left.hashCode(), right.hashCode());
+            }
+        }
+        assertNotEquals(maps.get(0), CompactMetadataMap.of(Map.of("a", 1000, "b", 2000)), "Long 과 Integer 는 다름");
+
+        System.out.println("✅ 표현 방식 간 동등성 확인 성공");
+    }
+}
@@ -0,0 +1,263 @@
+package com.example.demo;
+
+import com.example.demo.config.JacksonConfig;
+import com.example.demo.dto.record.UserEventRecordDto;
+import com.example.demo.schema.LocalSchemaRegistry;
+import com.example.demo.schema.VersionedJsonDeserializer;
+import com.example.demo.schema.VersionedJsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 압축 코덱 비교 벤치마크 (임베디드 브로커)
+ *
+ * 작은 JSON 이벤트에서 코덱별 특성을 측정합니다.
+ *
+ * 🔍 측정 매트릭스:
+ *   codec (none/gzip/snappy/lz4/zstd) × linger.ms × batch.size × 페이로드 형태(메타데이터 크기/카디널리티)
+ *
+ * 📊 측정 항목:
+ * 1. 압축률 (프로듀서 compression-rate-avg, 압축 후 / 압축 전)
+ * 2. 프로듀서 CPU (호출 스레드 + 프로듀서 네트워크 스레드)
+ * 3. 컨슈머 CPU (poll 스레드, 압축 해제 + 역직렬화 포함)
+ * 4. 프로듀서/컨슈머 처리량
+ *
+ * 실행: ./gradlew benchmark --tests '*CompressionCodecBenchmarkTest'
+ * 결과는 application.yml 의 demo.kafka.compression.* 기본값 선정 근거로 사용합니다.
+ */
+@Tag("benchmark")
+@EmbeddedKafka(partitions = 1)
+class CompressionCodecBenchmarkTest {
+
+    private static final int MESSAGES_PER_RUN = 5_000;
+    private static final Duration CONSUME_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final List<String> CODECS = List.of("none", "gzip", "snappy", "lz4", "zstd");
+    private static final int[] LINGER_MS = {0, 5, 20};
+    private static final int[] BATCH_SIZES = {16 * 1024, 64 * 1024, 256 * 1024};
+    private static final List<PayloadShape> SHAPES = List.of(
+            new PayloadShape("small/low-card", 2, false),
+            new PayloadShape("small/high-card", 2, true),
+            new PayloadShape("large/low-card", 12, false),
+            new PayloadShape("large/high-card", 12, true)
+    );
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+    private final LocalSchemaRegistry registry = LocalSchemaRegistry.inMemory(objectMapper);
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+    @Test
+    void compareCompressionCodecs(EmbeddedKafkaBroker broker) {
+        System.out.println("🚀 압축 코덱 비교 벤치마크 시작");
+
+        List<RunResult> results = new ArrayList<>();
+        int run = 0;
+        for (PayloadShape shape : SHAPES) {
+            List<UserEventRecordDto> events = shape.generate(MESSAGES_PER_RUN);
+            for (String codec : CODECS) {
+                for (int lingerMs : LINGER_MS) {
+                    for (int batchSize : BATCH_SIZES) {
+                        String topic = "codec-bench-" + run++;
+                        broker.addTopics(topic);
+                        results.add(runOnce(broker.getBrokersAsString(), topic, shape, codec, lingerMs, batchSize, events));
+                    }
+                }
+            }
+        }
+
+        printResults(results);
+        assertEquals(SHAPES.size() * CODECS.size() * LINGER_MS.length * BATCH_SIZES.length, results.size());
+    }
+
+    private RunResult runOnce(String bootstrapServers, String topic, PayloadShape shape,
+                              String codec, int lingerMs, int batchSize, List<UserEventRecordDto> events) {
+        String clientId = topic + "-producer";
+
+        Map<String, Object> producerProps = new HashMap<>();
+        producerProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        producerProps.put(ProducerConfig.CLIENT_ID_CONFIG, clientId);
+        producerProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, codec);
+        producerProps.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        producerProps.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        producerProps.put(ProducerConfig.ACKS_CONFIG, "1");
+
+        long producerCpuNanos;
+        long producerWallNanos;
+        double compressionRate;
+        try (KafkaProducer<String, UserEventRecordDto> producer = new KafkaProducer<>(
+                producerProps, new StringSerializer(), new VersionedJsonSerializer<>(registry, objectMapper))) {
+            long cpuBefore = producerCpuNanos(clientId);
+            long start = System.nanoTime();
+            for (UserEventRecordDto event : events) {
+                producer.send(new ProducerRecord<>(topic, event.userId(), event));
+            }
+            producer.flush();
+            producerWallNanos = System.nanoTime() - start;
+            producerCpuNanos = producerCpuNanos(clientId) - cpuBefore;
+            compressionRate = producerMetric(producer.metrics(), "compression-rate-avg");
+        }
+
+        Map<String, Object> consumerProps = new HashMap<>();
+        consumerProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        consumerProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+
+        long consumerCpuNanos;
+        long consumerWallNanos;
+        int received = 0;
+        try (KafkaConsumer<String, UserEventRecordDto> consumer = new KafkaConsumer<>(
+                consumerProps, new StringDeserializer(),
+                new VersionedJsonDeserializer<>(registry, objectMapper, UserEventRecordDto.class))) {
+            TopicPartition partition = new TopicPartition(topic, 0);
+            consumer.assign(List.of(partition));
+            consumer.seekToBeginning(List.of(partition));
+
+            long cpuBefore = threadMXBean.getCurrentThreadCpuTime();
+            long start = System.nanoTime();
+            long deadline = start + CONSUME_TIMEOUT.toNanos();
+            while (received < events.size() && System.nanoTime() < deadline) {
+                received += consumer.poll(Duration.ofMillis(100)).count();
+            }
+            consumerWallNanos = System.nanoTime() - start;
+            consumerCpuNanos = threadMXBean.getCurrentThreadCpuTime() - cpuBefore;
+        }
+
+        assertEquals(events.size(), received, "all produced events must be consumed for " + topic);
+        return new RunResult(shape.name(), codec, lingerMs, batchSize, compressionRate,
+                producerCpuNanos, consumerCpuNanos, producerWallNanos, consumerWallNanos, events.size());
+    }
+
+    /**
+     * 호출 스레드 + 해당 clientId 의 프로듀서 네트워크 스레드 CPU 합계
+     *
+     * 배치 추가 시 압축은 호출 스레드에서, 배치 마무리/전송은 네트워크 스레드에서 일어납니다.
+     */
+    private long producerCpuNanos(String clientId) {
+        long total = threadMXBean.getCurrentThreadCpuTime();
+        for (ThreadInfo info : threadMXBean.getThreadInfo(threadMXBean.getAllThreadIds())) {
+            if (info != null && info.getThreadName().contains(clientId)) {
+                total += Math.max(0, threadMXBean.getThreadCpuTime(info.getThreadId()));
+            }
+        }
+        return total;
+    }
+
+    private static double producerMetric(Map<MetricName, ? extends Metric> metrics, String name) {
+        return metrics.entrySet().stream()
+                .filter(entry -> entry.getKey().name().equals(name)
+                        && entry.getKey().group().equals("producer-metrics"))
+                .map(entry -> entry.getValue().metricValue())
+                .filter(Number.class::isInstance)
+                .mapToDouble(value -> ((Number) value).doubleValue())
+                .findFirst()
+                .orElse(Double.NaN);
+    }
+
+    private static void printResults(List<RunResult> results) {
+        System.out.printf("📊 압축 코덱 비교 결과 (%d개 메시지/실행):%n", MESSAGES_PER_RUN);
+        System.out.printf("   %-16s %-7s %6s %8s %7s %12s %12s %12s %12s%n",
+                "shape", "codec", "linger", "batch", "ratio",
+                "prodCPU µs", "consCPU µs", "prod msg/s", "cons msg/s");
+        for (RunResult r : results) {
+            System.out.printf("   %-16s %-7s %6d %8d %7.3f %12.2f %12.2f %,12.0f %,12.0f%n",
+                    r.shape(), r.codec(), r.lingerMs(), r.batchSize(), r.compressionRate(),
+                    r.producerCpuMicrosPerMessage(), r.consumerCpuMicrosPerMessage(),
+                    r.producerThroughput(), r.consumerThroughput());
+        }
+
+        System.out.println("\n🏆 형태별 최적 설정:");
+        Map<String, List<RunResult>> byShape = new LinkedHashMap<>();
+        results.forEach(r -> byShape.computeIfAbsent(r.shape(), key -> new ArrayList<>()).add(r));
+        byShape.forEach((shape, runs) -> {
+            RunResult bestRatio = runs.stream().min(Comparator.comparingDouble(RunResult::compressionRate)).orElseThrow();
+            RunResult bestThroughput = runs.stream().max(Comparator.comparingDouble(RunResult::producerThroughput)).orElseThrow();
+            RunResult bestCpu = runs.stream()
+                    .min(Comparator.comparingDouble(r -> r.producerCpuMicrosPerMessage() + r.consumerCpuMicrosPerMessage()))
+                    .orElseThrow();
+            System.out.printf("   %-16s 압축률: %s | 처리량: %s | CPU: %s%n",
+                    shape, bestRatio.label(), bestThroughput.label(), bestCpu.label());
+        });
+    }
+
+    /**
+     * 페이로드 형태
+     *
+     * @param metadataEntries 메타데이터 엔트리 수
+     * @param highCardinality true면 userId/메타데이터 값이 대부분 고유 (압축에 불리)
+     */
+    private record PayloadShape(String name, int metadataEntries, boolean highCardinality) {
+
+        private static final String[] SOURCES = {"web", "ios", "android", "batch"};
+
+        List<UserEventRecordDto> generate(int count) {
+            Random random = new Random(42);
+            LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0, 0);
+            List<UserEventRecordDto> events = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Map<String, Object> metadata = new LinkedHashMap<>();
+                for (int k = 0; k < metadataEntries; k++) {
+                    metadata.put("key" + k, highCardinality
+                            ? UUID.randomUUID().toString()
+                            : SOURCES[random.nextInt(SOURCES.length)]);
+                }
+                String userId = highCardinality ? "user-" + UUID.randomUUID() : "user-" + random.nextInt(100);
+                String eventType = random.nextInt(4) == 0 ? "LOGIN" : "PAGE_VIEW";
+                events.add(new UserEventRecordDto(userId, eventType, base.plusSeconds(i), metadata));
+            }
+            return events;
+        }
+    }
+
+    private record RunResult(String shape, String codec, int lingerMs, int batchSize, double compressionRate,
+                             long producerCpuNanos, long consumerCpuNanos,
+                             long producerWallNanos, long consumerWallNanos, int messages) {
+
+        double producerCpuMicrosPerMessage() {
+            return producerCpuNanos / 1_000.0 / messages;
+        }
+
+        double consumerCpuMicrosPerMessage() {
+            return consumerCpuNanos / 1_000.0 / messages;
+        }
+
+        double producerThroughput() {
+            return messages / (producerWallNanos / 1_000_000_000.0);
+        }
+
+        double consumerThroughput() {
+            return messages / (consumerWallNanos / 1_000_000_000.0);
+        }
+
+        String label() {
+            return codec + "/linger=" + lingerMs + "/batch=" + batchSize;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.demo;
+
+import com.example.demo.dedup.DeduplicationService;
+import com.example.demo.dedup.EventFingerprint;
+import com.example.demo.dedup.RotatingBloomFilter;
+import com.example.demo.dedup.TimeBoundedFingerprintCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 컨슈머 측 중복 제거 테스트
+ *
+ * 🔍 테스트 목적:
+ * 1. 같은 이벤트는 같은 fingerprint, 필드가 하나라도 다르면 다른 fingerprint 인지 확인
+ * 2. fingerprint 캐시가 ttl 이후 만료되고 메모리가 고정되는지 확인
+ * 3. Bloom filter 의 오탐률이 설정값 근처인지 확인
+ * 4. 서비스가 처리 성공한 이벤트만 중복으로 판정하고 hit/miss 를 집계하는지 확인
+ */
+class DeduplicationTest {
+
+    private static final LocalDateTime TIMESTAMP = LocalDateTime.of(2024, 1, 1, 12, 0, 0);
+
+    @Test
+    void testFingerprintDistinguishesEvents() {
+        // Given
+        long base = EventFingerprint.of("record-events", "user-1", "LOGIN", 1_000L, Map.of("ip", "10.0.0.1"));
+
+        // Then
+        assertEquals(base, EventFingerprint.of("record-events", "user-1", "LOGIN", 1_000L, Map.of("ip", "10.0.0.1")));
+        assertNotEquals(base, EventFingerprint.of("pojo-events", "user-1", "LOGIN", 1_000L, Map.of("ip", "10.0.0.1")));
+        assertNotEquals(base, EventFingerprint.of("record-events", "user-1", "LOGOUT", 1_000L, Map.of("ip", "10.0.0.1")));
+        assertNotEquals(base, EventFingerprint.of("record-events", "user-1", "LOGIN", 1_001L, Map.of("ip", "10.0.0.1")));
+        assertNotEquals(base, EventFingerprint.of("record-events", "user-1", "LOGIN", 1_000L, Map.of("ip", "10.0.0.2")));
+        assertNotEquals(EventFingerprint.of("t", "ab", "c", 0, null), EventFingerprint.of("t", "a", "bc", 0, null));
+
+        System.out.println("✅ fingerprint 구분 성공");
+    }
+
+    @Test
+    void testCacheExpiresAfterTtlWithFixedMemory() {
+        // Given: ttl 10초, 최대 10,000개
+        AtomicLong clock = new AtomicLong(0);
+        TimeBoundedFingerprintCache cache = new TimeBoundedFingerprintCache(10_000, 10_000, clock::get);
+        long memoryBefore = cache.memoryBytes();
+
+        // When
+        cache.put(42L);
+        clock.set(4_000);
+
+        // Then: ttl/2 이전에는 유지, ttl 이후에는 만료
+        assertTrue(cache.mightContain(42L));
+        clock.set(10_000);
+        assertFalse(cache.mightContain(42L));
+
+        // 용량을 크게 넘겨 넣어도 메모리는 그대로
+        for (long fingerprint = 1; fingerprint <= 100_000; fingerprint++) {
+            cache.put(fingerprint * 0x9e3779b97f4a7c15L);
+        }
+        assertEquals(memoryBefore, cache.memoryBytes());
+        assertTrue(cache.mightContain(100_000L * 0x9e3779b97f4a7c15L));
+
+        System.out.printf("✅ 캐시 만료/메모리 고정 성공: %,d bytes%n", cache.memoryBytes());
+    }
+
+    @Test
+    void testBloomFilterFalsePositiveRate() {
+        // Given: 세대당 100,000건, fpp 1%
+        RotatingBloomFilter bloom = new RotatingBloomFilter(100_000, 0.01, 60_000, () -> 0L);
+        for (long i = 1; i < 100_000; i++) {
+            bloom.put(EventFingerprint.of("record-events", "user-" + i, "LOGIN", i, null));
+        }
+
+        // When: 넣지 않은 fingerprint 조회
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (long i = 0; i < probes; i++) {
+            if (bloom.mightContain(EventFingerprint.of("record-events", "other-" + i, "LOGIN", i, null))) {
+                falsePositives++;
+            }
+        }
+
+        // Then
+        double rate = (double) falsePositives / probes;
+        assertTrue(rate < 0.02, "false positive rate=" + rate);
+        assertTrue(bloom.mightContain(EventFingerprint.of("record-events", "user-1", "LOGIN", 1, null)));
+
+        System.out.printf("✅ Bloom filter 오탐률 %.3f%%, 메모리 %,d bytes%n", rate * 100, bloom.memoryBytes());
+    }
+
+    @Test
+    void testServiceSkipsOnlyProcessedEvents() {
+        // Given
+        DeduplicationService service = new DeduplicationService(new SimpleMeterRegistry(), "cache", 10_000, 60_000, 0.01);
+        long fingerprint = service.fingerprint("record-events", "user-1", "LOGIN", TIMESTAMP, Map.of());
+
+        // When / Then: 처리 실패(기록 전) 재시도는 중복이 아님
+        assertFalse(service.isDuplicate(fingerprint));
+        assertFalse(service.isDuplicate(fingerprint));
+
+        // 처리 성공 후 재전송은 중복
+        service.markProcessed(fingerprint);
+        assertTrue(service.isDuplicate(fingerprint));
+        assertEquals(1, service.hits());
+        assertEquals(2, service.misses());
+
+        System.out.println("✅ 처리 완료 이벤트만 중복 판정 성공");
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.demo;
+
+import com.example.demo.aggregation.EventAggregationService;
+import com.example.demo.aggregation.WindowResolution;
+import com.example.demo.aggregation.WindowSnapshot;
+import com.example.demo.dto.EventTimestamps;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 이벤트 윈도우 집계 테스트
+ *
+ * 🔍 테스트 목적:
+ * 1. 분 단위 텀블링 윈도우에 eventType / 메타데이터별 건수가 누적되는지 확인
+ * 2. 워터마크보다 늦은 이벤트는 버려지고, 지난 윈도우는 closed 로 표시되는지 확인
+ * 3. 슬라이딩 윈도우가 최근 윈도우들을 합산하는지 확인
+ * 4. 여러 리스너 스레드가 동시에 누적해도 건수가 정확한지 확인
+ * 5. 워터마크가 가장 느린 활성 파티션을 따르고, 내놓은 파티션은 제외되는지 확인
+ */
+class EventAggregationTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 12, 0, 0);
+
+    @Test
+    void testTumblingWindowCountsByTypeAndMetadata() {
+        // Given
+        EventAggregationService service = newService(60_000);
+
+        // When: 12:00 분에 LOGIN 2건(web 1건), PAGE_VIEW 1건 / 12:01 분에 LOGOUT 1건
+        service.record("LOGIN", Map.of("source", "web"), BASE.plusSeconds(1));
+        service.record("LOGIN", Map.of("source", "mobile"), BASE.plusSeconds(2));
+        service.record("PAGE_VIEW", Map.of(), BASE.plusSeconds(30));
+        service.record("LOGOUT", null, BASE.plusSeconds(70));
+
+        // Then: 최신 윈도우부터 반환
+        List<WindowSnapshot> windows = service.tumbling(WindowResolution.MINUTE, 2);
+        assertEquals(BASE.plusMinutes(1), windows.get(0).start());
+        assertEquals(Map.of("LOGOUT", 1L), windows.get(0).counts());
+
+        WindowSnapshot first = windows.get(1);
+        assertEquals(BASE, first.start());
+        assertEquals(3, first.total());
+        assertEquals(2L, first.counts().get("LOGIN"));
+        assertEquals(1L, first.counts().get("LOGIN{source=web}"));
+        assertEquals(1L, first.counts().get("PAGE_VIEW"));
+
+        System.out.println("✅ 텀블링 윈도우 집계 성공: " + first.counts());
+    }
+
+    @Test
+    void testWatermarkDropsLateEventsAndClosesWindows() {
+        // Given: 허용 지연 30초
+        EventAggregationService service = newService(30_000);
+        service.record("LOGIN", Map.of(), BASE.plusSeconds(10));
+
+        // When: 이벤트 시각이 12:02 까지 진행된 뒤 12:00 이벤트 도착
+        service.record("PAGE_VIEW", Map.of(), BASE.plusMinutes(2));
+        boolean accepted = service.record("LOGOUT", Map.of(), BASE.plusSeconds(20));
+
+        // Then
+        assertFalse(accepted);
+        assertEquals(1, service.lateEvents());
+        assertEquals(BASE.plusMinutes(2).minusSeconds(30), service.watermark());
+
+        List<WindowSnapshot> windows = service.tumbling(WindowResolution.MINUTE, 3);
+        assertFalse(windows.get(0).closed());   // 12:02 윈도우는 진행 중
+        assertTrue(windows.get(2).closed());    // 12:00 윈도우는 확정
+        assertEquals(Map.of("LOGIN", 1L), windows.get(2).counts());
+
+        System.out.println("✅ 워터마크 기반 지연 이벤트 처리 성공: watermark=" + service.watermark());
+    }
+
+    @Test
+    void testSlidingWindowSumsRecentWindows() {
+        // Given
+        EventAggregationService service = newService(60_000);
+        for (int minute = 0; minute < 10; minute++) {
+            service.record("PAGE_VIEW", Map.of(), BASE.plusMinutes(minute));
+        }
+
+        // When: 최근 5분
+        WindowSnapshot sliding = service.sliding(WindowResolution.MINUTE, 5);
+
+        // Then
+        assertEquals(5, sliding.total());
+        assertEquals(BASE.plusMinutes(5), sliding.start());
+        assertEquals(BASE.plusMinutes(10), sliding.end());
+        assertEquals(10, service.sliding(WindowResolution.HOUR, 1).total());
+
+        System.out.println("✅ 슬라이딩 윈도우 합산 성공");
+    }
+
+    @Test
+    void testConcurrentListenerThreads() throws Exception {
+        // Given: 리스너 스레드 4개
+        EventAggregationService service = newService(60_000);
+        int threads = 4;
+        int eventsPerThread = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // When
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < eventsPerThread; i++) {
+                    service.record(i % 2 == 0 ? "LOGIN" : "LOGOUT", Map.of("source", "web"), BASE);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        executor.shutdown();
+
+        // Then
+        WindowSnapshot window = service.tumbling(WindowResolution.MINUTE, 1).get(0);
+        assertEquals((long) threads * eventsPerThread, window.total());
+        assertEquals((long) threads * eventsPerThread / 2, window.counts().get("LOGIN{source=web}"));
+
+        System.out.printf("✅ 동시 집계 성공: %,d건 %dms%n", window.total(), elapsedMs);
+    }
+
+    @Test
+    void testWatermarkFollowsSlowestActivePartition() {
+        // Given: 허용 지연 30초, 파티션 0 은 12:05 까지 진행, 파티션 1 은 밀려서 12:00 대를 처리 중
+        EventAggregationService service = newService(30_000);
+        service.record("record-events", 0, "PAGE_VIEW", Map.of(), micros(BASE.plusMinutes(5)));
+        service.record("record-events", 1, "LOGIN", Map.of(), micros(BASE.plusSeconds(10)));
+
+        // When: 파티션 1 의 다음 이벤트 (전역 최댓값 기준이면 4분 30초 넘게 늦은 이벤트)
+        boolean accepted = service.record("record-events", 1, "LOGOUT", Map.of(), micros(BASE.plusSeconds(20)));
+
+        // Then: 워터마크는 느린 파티션 기준이라 집계됨
+        assertTrue(accepted);
+        assertEquals(0, service.lateEvents());
+        assertEquals(BASE.minusSeconds(10), service.watermark());
+
+        // When: 파티션 1 을 내놓음
+        service.release("record-events", 1);
+
+        // Then: 남은 파티션 기준으로 워터마크가 앞으로 감
+        assertEquals(BASE.plusMinutes(5).minusSeconds(30), service.watermark());
+        assertFalse(service.record("record-events", 0, "LOGIN", Map.of(), micros(BASE.plusSeconds(30))));
+
+        System.out.println("✅ 파티션별 워터마크 최솟값 성공: watermark=" + service.watermark());
+    }
+
+    private static long micros(LocalDateTime timestamp) {
+        return EventTimestamps.fromLocalDateTime(timestamp);
+    }
+
+    private static EventAggregationService newService(long allowedLatenessMillis) {
+        return new EventAggregationService(new SimpleMeterRegistry(), List.of("source"), allowedLatenessMillis, 60_000);
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.demo;
+
+import com.example.demo.bus.EventBus;
+import com.example.demo.bus.EventHandler;
+import com.example.demo.bus.WaitStrategy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 직렬 호출 vs 링 버퍼 fan-out 버스 지연/처리량 벤치마크
+ *
+ * EventFanOut 과 같은 핸들러 그래프(sessions → state-publish, aggregation, activity-log)를
+ * 핸들러마다 고정 시간(HANDLER_WORK_MICROS) 바쁜 작업으로 흉내 냅니다.
+ *
+ * 🔍 비교 대상:
+ * 1. serial: 리스너 스레드에서 4개 핸들러를 순서대로 호출 → 이벤트당 지연 = 4 × 작업 시간
+ * 2. bus:    핸들러마다 전용 스레드 → 지연 ≈ 가장 긴 의존 경로(2 × 작업 시간) + 스레드 간 전달 비용,
+ *            처리량은 가장 느린 핸들러 하나가 결정
+ *
+ * 📊 지연은 일정 간격으로 한 건씩 발행해 측정 (p50 / p99), 처리량은 최대 속도로 발행해 측정
+ * ⚠️ 핸들러 스레드 수(5)보다 코어가 적으면 bus 의 이점이 줄어듭니다.
+ *
+ * 실행: ./gradlew benchmark --tests '*EventBusBenchmarkTest'
+ */
+@Tag("benchmark")
+class EventBusBenchmarkTest {
+
+    private static final long HANDLER_WORK_MICROS = 20;
+    private static final int LATENCY_EVENTS = 5_000;
+    private static final long LATENCY_INTERVAL_MICROS = 200;
+    private static final int THROUGHPUT_EVENTS = 50_000;
+    private static final String[] WAIT_STRATEGIES = {"busy-spin", "yielding", "sleeping", "blocking"};
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void compareSerialWithEventBus() {
+        System.out.println("🚀 직렬 호출 vs fan-out 버스 비교 테스트 시작");
+        System.out.println("  코어 수: " + Runtime.getRuntime().availableProcessors()
+                + ", 핸들러당 작업: " + HANDLER_WORK_MICROS + "µs");
+
+        EventHandler<Slot> work = (event, sequence) -> busyWork();
+
+        // 1. serial
+        long[] serialLatencies = new long[LATENCY_EVENTS];
+        Slot slot = new Slot();
+        for (int i = 0; i < LATENCY_EVENTS; i++) {
+            long start = System.nanoTime();
+            callSerially(work, slot, i);
+            serialLatencies[i] = System.nanoTime() - start;
+            pause(LATENCY_INTERVAL_MICROS);
+        }
+        long serialStart = System.nanoTime();
+        for (int i = 0; i < THROUGHPUT_EVENTS; i++) {
+            callSerially(work, slot, i);
+        }
+        long serialNanos = System.nanoTime() - serialStart;
+        report("serial", serialLatencies, serialNanos);
+
+        // 2. bus (대기 전략별)
+        for (String strategy : WAIT_STRATEGIES) {
+            long[] latencies = new long[LATENCY_EVENTS + THROUGHPUT_EVENTS];
+            try (EventBus<Slot> bus = EventBus.builder("benchmark", Slot::new, meterRegistry)
+                    .ringSize(4096)
+                    .waitStrategy(WaitStrategy.from(strategy))
+                    .handler("sessions", work)
+                    .handler("state-publish", work, "sessions")
+                    .handler("aggregation", work)
+                    .handler("activity-log", work)
+                    .completion((event, sequence) -> latencies[(int) sequence] = System.nanoTime() - event.publishedNanos)
+                    .build()) {
+
+                for (int i = 0; i < LATENCY_EVENTS; i++) {
+                    long sequence = bus.publish(s -> s.publishedNanos = System.nanoTime());
+                    assertTrue(bus.awaitCompleted(sequence, Duration.ofSeconds(5)));
+                    pause(LATENCY_INTERVAL_MICROS);
+                }
+
+                long busStart = System.nanoTime();
+                for (int i = 0; i < THROUGHPUT_EVENTS; i++) {
+                    bus.publish(s -> s.publishedNanos = System.nanoTime());
+                }
+                assertTrue(bus.drain(Duration.ofSeconds(60)));
+                long busNanos = System.nanoTime() - busStart;
+
+                report("bus/" + strategy, Arrays.copyOf(latencies, LATENCY_EVENTS), busNanos);
+            }
+        }
+
+        System.out.println("✅ 직렬 호출 vs fan-out 버스 비교 성공");
+    }
+
+    private static void callSerially(EventHandler<Slot> work, Slot slot, long sequence) {
+        try {
+            for (int handler = 0; handler < 4; handler++) {
+                work.onEvent(slot, sequence);
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void report(String name, long[] latencies, long throughputNanos) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        System.out.printf("  %-16s p50 %7.1fµs  p99 %7.1fµs  처리량 %,10.0f events/s%n", name,
+                sorted[sorted.length / 2] / 1_000.0,
+                sorted[(int) (sorted.length * 0.99)] / 1_000.0,
+                THROUGHPUT_EVENTS * 1_000_000_000.0 / throughputNanos);
+    }
+
+    private static void busyWork() {
+        long deadline = System.nanoTime() + HANDLER_WORK_MICROS * 1_000;
+        while (System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void pause(long micros) {
+        long deadline = System.nanoTime() + micros * 1_000;
+        while (System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static final class Slot {
+        long publishedNanos;
+    }
+}
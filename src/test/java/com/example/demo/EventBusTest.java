@@ -0,0 +1,221 @@
+package com.example.demo;
+
+import com.example.demo.bus.EventBus;
+import com.example.demo.bus.WaitStrategy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 링 버퍼 fan-out 버스 테스트
+ *
+ * 🔍 테스트 목적:
+ * 1. after 로 지정한 핸들러가 지나간 sequence 만 하위 핸들러가 받는지 확인
+ * 2. 완료 단계가 모든 핸들러 이후, sequence 순서대로 호출되는지 확인 (오프셋 커밋 순서)
+ * 3. 작은 링에서 여러 바퀴 돌아도 완료되지 않은 슬롯을 덮어쓰지 않는지 확인
+ * 4. 핸들러 예외 재시도 / FailureHandler / 모든 대기 전략 확인
+ */
+class EventBusTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void testDependencyGraphAndCompletionOrder() {
+        // Given: sessions → state-publish, aggregation 은 독립, 완료 단계는 모두 이후
+        AtomicLong sessions = new AtomicLong(-1);
+        AtomicLong statePublish = new AtomicLong(-1);
+        AtomicLong aggregation = new AtomicLong(-1);
+        AtomicInteger violations = new AtomicInteger();
+        List<Long> completed = new ArrayList<>();
+
+        try (EventBus<Slot> bus = EventBus.builder("test", Slot::new, meterRegistry)
+                .ringSize(64)
+                .handler("sessions", (event, sequence) -> sessions.set(sequence))
+                .handler("state-publish", (event, sequence) -> {
+                    if (sessions.get() < sequence) {
+                        violations.incrementAndGet();
+                    }
+                    statePublish.set(sequence);
+                }, "sessions")
+                .handler("aggregation", (event, sequence) -> aggregation.set(sequence))
+                .completion((event, sequence) -> {
+                    if (statePublish.get() < sequence || aggregation.get() < sequence) {
+                        violations.incrementAndGet();
+                    }
+                    completed.add(event.value);
+                })
+                .build()) {
+
+            // When
+            long last = -1;
+            for (int i = 0; i < 10_000; i++) {
+                long value = i;
+                last = bus.publish(slot -> slot.value = value);
+            }
+
+            // Then
+            assertTrue(bus.awaitCompleted(last, Duration.ofSeconds(10)));
+            assertEquals(0, violations.get());
+            assertEquals(10_000, completed.size());
+            for (int i = 0; i < completed.size(); i++) {
+                assertEquals(i, completed.get(i));
+            }
+
+            System.out.println("✅ 의존 순서 및 sequence 순서 완료 성공");
+        }
+    }
+
+    @Test
+    void testSmallRingWrapsWithoutOverwritingIncompleteSlots() throws Exception {
+        // Given: 슬롯 8개, 느린 핸들러 때문에 생산자가 링을 여러 바퀴 돌며 대기
+        AtomicLong handled = new AtomicLong();
+        AtomicLong completedSum = new AtomicLong();
+
+        try (EventBus<Slot> bus = EventBus.builder("test", Slot::new, meterRegistry)
+                .ringSize(8)
+                .handler("slow", (event, sequence) -> {
+                    if (sequence % 100 == 0) {
+                        Thread.sleep(1);
+                    }
+                    handled.addAndGet(event.value);
+                })
+                .completion((event, sequence) -> completedSum.addAndGet(event.value))
+                .build()) {
+
+            // When: 생산자 2개가 동시에 발행
+            Thread[] producers = new Thread[2];
+            for (int p = 0; p < producers.length; p++) {
+                producers[p] = new Thread(() -> {
+                    for (int i = 1; i <= 5_000; i++) {
+                        long value = i;
+                        bus.publish(slot -> slot.value = value);
+                    }
+                });
+                producers[p].start();
+            }
+            for (Thread producer : producers) {
+                producer.join();
+            }
+
+            // Then: 덮어쓴 슬롯이 있으면 합이 달라짐
+            assertTrue(bus.drain(Duration.ofSeconds(10)));
+            long expected = 2L * 5_000 * 5_001 / 2;
+            assertEquals(expected, handled.get());
+            assertEquals(expected, completedSum.get());
+            assertEquals(9_999, bus.completedSequence());
+
+            System.out.println("✅ 작은 링 순환 시 슬롯 보호 성공");
+        }
+    }
+
+    @Test
+    void testRetriesThenReportsFailureAndContinues() {
+        // Given: 3 은 항상 실패, 5 는 첫 시도만 실패
+        AtomicInteger attemptsOnFive = new AtomicInteger();
+        List<Long> failed = new CopyOnWriteArrayList<>();
+        List<Long> completed = new ArrayList<>();
+
+        try (EventBus<Slot> bus = EventBus.builder("test", Slot::new, meterRegistry)
+                .retries(2, 0)
+                .onFailure((busName, handler, event, sequence, exception) -> failed.add(event.value))
+                .handler("flaky", (event, sequence) -> {
+                    if (event.value == 3) {
+                        throw new IllegalStateException("always");
+                    }
+                    if (event.value == 5 && attemptsOnFive.incrementAndGet() == 1) {
+                        throw new IllegalStateException("once");
+                    }
+                })
+                .completion((event, sequence) -> completed.add(event.value))
+                .build()) {
+
+            // When
+            long last = -1;
+            for (int i = 0; i < 10; i++) {
+                long value = i;
+                last = bus.publish(slot -> slot.value = value);
+            }
+
+            // Then: 실패한 이벤트도 완료 단계까지 진행 (다음 이벤트를 막지 않음)
+            assertTrue(bus.awaitCompleted(last, Duration.ofSeconds(5)));
+            assertEquals(List.of(3L), failed);
+            assertEquals(2, attemptsOnFive.get());
+            assertEquals(10, completed.size());
+
+            System.out.println("✅ 재시도 및 실패 처리 후 진행 성공");
+        }
+    }
+
+    @Test
+    void testAllWaitStrategiesDeliverEveryEvent() throws Exception {
+        for (String strategy : new String[]{"busy-spin", "yielding", "sleeping", "blocking"}) {
+            // Given
+            AtomicLong sum = new AtomicLong();
+            AtomicLong completedCount = new AtomicLong();
+
+            try (EventBus<Slot> bus = EventBus.builder("test", Slot::new, meterRegistry)
+                    .ringSize(256)
+                    .waitStrategy(WaitStrategy.from(strategy))
+                    .handler("a", (event, sequence) -> sum.addAndGet(event.value))
+                    .handler("b", (event, sequence) -> {
+                    }, "a")
+                    .completion((event, sequence) -> completedCount.incrementAndGet())
+                    .build()) {
+
+                // When: 생산자 4개
+                Thread[] producers = new Thread[4];
+                for (int p = 0; p < producers.length; p++) {
+                    producers[p] = new Thread(() -> {
+                        for (int i = 0; i < 5_000; i++) {
+                            bus.publish(slot -> slot.value = 1);
+                        }
+                    });
+                    producers[p].start();
+                }
+                for (Thread producer : producers) {
+                    producer.join();
+                }
+
+                // Then
+                assertTrue(bus.drain(Duration.ofSeconds(10)), strategy);
+                assertEquals(20_000, sum.get(), strategy);
+                assertEquals(20_000, completedCount.get(), strategy);
+            }
+        }
+
+        System.out.println("✅ 모든 대기 전략에서 이벤트 전달 성공");
+    }
+
+    @Test
+    void testRejectsInvalidGraphAndPublishAfterClose() {
+        // Given / When / Then: 나중에 등록될(또는 없는) 핸들러에 의존할 수 없음
+        assertThrows(IllegalArgumentException.class, () -> EventBus.builder("test", Slot::new, meterRegistry)
+                .handler("a", (event, sequence) -> {
+                }, "b"));
+        assertThrows(IllegalArgumentException.class, () -> EventBus.builder("test", Slot::new, meterRegistry)
+                .handler("completion", (event, sequence) -> {
+                }));
+        assertThrows(IllegalArgumentException.class, () -> WaitStrategy.from("unknown"));
+
+        EventBus<Slot> bus = EventBus.builder("test", Slot::new, meterRegistry)
+                .handler("a", (event, sequence) -> {
+                })
+                .build();
+        bus.close();
+        assertThrows(IllegalStateException.class, () -> bus.publish(slot -> slot.value = 1));
+
+        System.out.println("✅ 잘못된 의존 그래프 및 종료 후 발행 거부 성공");
+    }
+
+    private static final class Slot {
+        long value;
+    }
+}
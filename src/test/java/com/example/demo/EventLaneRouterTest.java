@@ -0,0 +1,93 @@
+package com.example.demo;
+
+import com.example.demo.routing.EventLane;
+import com.example.demo.routing.EventLaneRouter;
+import com.example.demo.routing.LaneSettings;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * eventType → 우선순위 레인 라우팅 테스트
+ *
+ * 🔍 테스트 목적:
+ * 1. 설정한 eventType 이 대소문자와 관계없이 CRITICAL / BULK 레인 토픽으로, 나머지는 기존 토픽으로 가는지 확인
+ * 2. 비활성화 시 모든 전송(백필 포함)이 기존 토픽을 유지하는지 확인
+ * 3. 토픽 이름으로 레인을 판별하고, 잘못된 설정은 시작 시 거부하는지 확인
+ */
+class EventLaneRouterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void testRoutesEventTypesToLaneTopics() {
+        // Given
+        EventLaneRouter router = router(true, "LOGIN, logout", "PAGE_VIEW");
+
+        // When / Then
+        assertEquals(EventLane.CRITICAL, router.laneFor("LOGIN"));
+        assertEquals(EventLane.BULK, router.laneFor("PAGE_VIEW"));
+        assertEquals(EventLane.STANDARD, router.laneFor("PURCHASE"));
+        assertEquals(EventLane.STANDARD, router.laneFor(null));
+        // POJO 는 eventType 을 받은 그대로 두므로 대소문자/공백이 달라도 Record 와 같은 레인
+        assertEquals(EventLane.CRITICAL, router.laneFor("login"));
+        assertEquals(EventLane.CRITICAL, router.laneFor(" Logout "));
+
+        assertEquals("record-events.critical", router.topicFor("record-events", "LOGOUT"));
+        assertEquals("pojo-events.bulk", router.topicFor("pojo-events", "PAGE_VIEW"));
+        assertEquals("record-events", router.topicFor("record-events", "PURCHASE"));
+        // 백필은 eventType 과 관계없이 BULK 레인
+        assertEquals("record-events.bulk", router.bulkTopicFor("record-events"));
+
+        System.out.println("✅ eventType 별 레인 토픽 라우팅 성공");
+    }
+
+    @Test
+    void testDisabledKeepsBaseTopics() {
+        // Given
+        EventLaneRouter router = router(false, "LOGIN,LOGOUT", "");
+
+        // When / Then: 레인은 계산하지만 토픽은 기존 그대로
+        assertEquals(EventLane.CRITICAL, router.laneFor("LOGIN"));
+        assertEquals("record-events", router.topicFor("record-events", "LOGIN"));
+        assertEquals("pojo-events", router.bulkTopicFor("pojo-events"));
+
+        System.out.println("✅ 비활성화 시 기존 토픽 유지 성공");
+    }
+
+    @Test
+    void testLaneOfTopicAndSettings() {
+        // Given
+        EventLaneRouter router = router(true, "LOGIN", "");
+
+        // When / Then
+        assertEquals(EventLane.CRITICAL, EventLane.ofTopic("record-events.critical"));
+        assertEquals(EventLane.BULK, EventLane.ofTopic("pojo-events.bulk"));
+        assertEquals(EventLane.STANDARD, EventLane.ofTopic("record-events"));
+        assertEquals("standard", EventLane.STANDARD.tag());
+
+        assertEquals(new LaneSettings(6, 3, 50), router.settings(EventLane.CRITICAL));
+        assertEquals(new LaneSettings(3, 1, 500), router.settings(EventLane.BULK));
+        assertNull(router.settings(EventLane.STANDARD));
+
+        // 레코드 timestamp 가 없거나(-1) 시계가 앞서 있어도 예외 없이 기록
+        router.recordDelivery("record-events.critical", -1);
+        router.recordDelivery("record-events.critical", System.currentTimeMillis() + 1_000);
+
+        System.out.println("✅ 토픽 이름으로 레인 판별 및 레인 설정 조회 성공");
+    }
+
+    @Test
+    void testRejectsInvalidConfiguration() {
+        // Given / When / Then: 한 eventType 을 두 레인에 지정할 수 없음
+        assertThrows(IllegalArgumentException.class, () -> router(true, "LOGIN", "LOGIN"));
+        assertThrows(IllegalArgumentException.class, () -> new LaneSettings(3, 0, 50));
+
+        System.out.println("✅ 잘못된 레인 설정 거부 성공");
+    }
+
+    private EventLaneRouter router(boolean enabled, String critical, String bulk) {
+        return new EventLaneRouter(meterRegistry, enabled, critical, bulk, 6, 3, 50, 3, 1, 500);
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.demo;
+
+import com.example.demo.config.JacksonConfig;
+import com.example.demo.dto.EventTimestamps;
+import com.example.demo.dto.pojo.UserEventPojoDto;
+import com.example.demo.dto.record.UserEventRecordDto;
+import com.example.demo.schema.LocalSchemaRegistry;
+import com.example.demo.schema.SchemaDescriptor;
+import com.example.demo.schema.SchemaEnvelope;
+import com.example.demo.schema.VersionedJsonDeserializer;
+import com.example.demo.schema.VersionedJsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * epoch 마이크로초 timestamp 테스트
+ *
+ * 🔍 테스트 목적:
+ * 1. LocalDateTime(UTC) ↔ epoch 마이크로초 변환이 손실 없이 왕복하는지 확인
+ * 2. 고정 레이아웃 포맷/파싱 fast path 가 DateTimeFormatter / java.time 과 같은 결과를 내는지 확인
+ * 3. 기본 JSON 형식은 그대로이고, 숫자 형식으로 바꿔도 컨슈머가 두 형식을 모두 읽는지 확인
+ * 4. 숫자 형식은 별도 스키마 버전 ID 로 기록되는지 확인
+ * 5. timestamp() / toString 이 기존(LocalDateTime) API 와 같은 값을 내고, createNow 는 UTC 기준인지 확인
+ * 6. now() 와 오프셋이 붙은 문자열이 같은 순간이면 같은 값인지 확인 (시스템 시간대와 무관)
+ */
+class EventTimestampTest {
+
+    private static final DateTimeFormatter PATTERN = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+    private final LocalSchemaRegistry registry = LocalSchemaRegistry.inMemory(objectMapper);
+
+    @Test
+    void testLocalDateTimeRoundTrip() {
+        // Given: 1970 이전 / 윤년 / 마이크로초 단위 값
+        LocalDateTime[] values = {
+                LocalDateTime.of(1970, 1, 1, 0, 0),
+                LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_999_000),
+                LocalDateTime.of(2024, 2, 29, 12, 30, 15, 123_456_000),
+                LocalDateTime.of(1, 1, 1, 0, 0)
+        };
+
+        // Then
+        for (LocalDateTime value : values) {
+            long micros = EventTimestamps.fromLocalDateTime(value);
+            assertEquals(value, EventTimestamps.toLocalDateTime(micros));
+        }
+        assertEquals(EventTimestamps.NONE, EventTimestamps.fromLocalDateTime(null));
+        assertNull(EventTimestamps.toLocalDateTime(EventTimestamps.NONE));
+        assertEquals(-1, EventTimestamps.toMillis(-1), "음수는 내림");
+
+        System.out.println("✅ LocalDateTime ↔ epoch 마이크로초 왕복 성공");
+    }
+
+    @Test
+    void testFixedLayoutMatchesJavaTime() {
+        // Given
+        Random random = new Random(42);
+        char[] buffer = new char[EventTimestamps.ISO_SECONDS_LENGTH];
+        long min = EventTimestamps.fromLocalDateTime(LocalDateTime.of(1, 1, 1, 0, 0));
+        long max = EventTimestamps.fromLocalDateTime(LocalDateTime.of(9999, 12, 31, 23, 59, 59));
+
+        // When / Then: 무작위 시각에서 포맷과 파싱이 java.time 과 일치
+        for (int i = 0; i < 100_000; i++) {
+            long micros = min + (long) (random.nextDouble() * (max - min));
+            LocalDateTime expected = EventTimestamps.toLocalDateTime(micros);
+
+            int length = EventTimestamps.formatIsoSeconds(micros, buffer);
+            String formatted = new String(buffer, 0, length);
+            assertEquals(PATTERN.format(expected), formatted);
+            assertEquals(Math.floorDiv(micros, 1_000_000L) * 1_000_000L, EventTimestamps.parse(formatted));
+        }
+
+        System.out.println("✅ 고정 레이아웃 포맷/파싱 일치 확인 성공 - 100,000건");
+    }
+
+    @Test
+    void testParseAcceptsFractionsAndOffsets() {
+        // Then
+        long noon = EventTimestamps.fromLocalDateTime(LocalDateTime.of(2024, 1, 1, 12, 0));
+        assertEquals(noon, EventTimestamps.parse("2024-01-01T12:00:00"));
+        assertEquals(noon + 500_000, EventTimestamps.parse("2024-01-01T12:00:00.5"));
+        assertEquals(noon + 123_456, EventTimestamps.parse("2024-01-01T12:00:00.123456789"));
+        assertEquals(noon, EventTimestamps.parse("2024-01-01T12:00"), "초 생략 ISO 형식은 java.time 경로");
+        // 오프셋은 UTC 로 환산 (시간대 정보 보존)
+        assertEquals(noon, EventTimestamps.parse("2024-01-01T21:00:00+09:00"));
+        assertEquals(noon, EventTimestamps.parse("2024-01-01T12:00:00Z"));
+
+        assertThrows(DateTimeParseException.class, () -> EventTimestamps.parse("2024-02-30T12:00:00"));
+        assertThrows(DateTimeParseException.class, () -> EventTimestamps.parse("2024-13-01T12:00:00"));
+        assertThrows(DateTimeParseException.class, () -> EventTimestamps.parse("not-a-timestamp"));
+
+        System.out.println("✅ 소수 초 / 오프셋 파싱 성공");
+    }
+
+    @Test
+    void testDefaultJsonLayoutIsUnchanged() throws Exception {
+        // Given
+        LocalDateTime timestamp = LocalDateTime.of(2024, 1, 1, 12, 0, 0, 123_456_000);
+        UserEventRecordDto record = new UserEventRecordDto("user-1", "LOGIN", timestamp, Map.of("ip", "10.0.0.1"));
+        UserEventPojoDto pojo = new UserEventPojoDto("user-1", "LOGIN", timestamp, Map.of("ip", "10.0.0.1"));
+
+        // When
+        String recordJson = objectMapper.writeValueAsString(record);
+        String pojoJson = objectMapper.writeValueAsString(pojo);
+
+        // Then: 기존 @JsonFormat 패턴과 같은 문자열, 같은 필드 순서
+        String expectedPrefix = "{\"userId\":\"user-1\",\"eventType\":\"LOGIN\",\"timestamp\":\"2024-01-01T12:00:00\",";
+        assertTrue(recordJson.startsWith(expectedPrefix), recordJson);
+        assertTrue(pojoJson.startsWith(expectedPrefix), pojoJson);
+        assertFalse(recordJson.contains("timestampMicros"));
+        assertFalse(pojoJson.contains("timestampMicros"));
+        assertTrue(objectMapper.writeValueAsString(new UserEventPojoDto()).contains("\"timestamp\":null"));
+
+        System.out.println("✅ 기본 JSON 형식 유지 확인 성공: " + recordJson);
+    }
+
+    @Test
+    void testEpochMicrosWireFormatRoundTrip() {
+        // Given
+        VersionedJsonSerializer<Object> serializer = new VersionedJsonSerializer<>(registry, objectMapper, true);
+        VersionedJsonDeserializer<UserEventRecordDto> recordDeserializer =
+                new VersionedJsonDeserializer<>(registry, objectMapper, UserEventRecordDto.class);
+        VersionedJsonDeserializer<UserEventPojoDto> pojoDeserializer =
+                new VersionedJsonDeserializer<>(registry, objectMapper, UserEventPojoDto.class);
+        UserEventRecordDto event = new UserEventRecordDto("user-1", "CLICK",
+                LocalDateTime.of(2024, 1, 1, 12, 0, 0, 123_456_000), Map.of("button", "buy"));
+
+        // When
+        byte[] payload = serializer.serialize("record-events", event);
+        UserEventRecordDto record = recordDeserializer.deserialize("record-events", payload);
+        UserEventPojoDto pojo = pojoDeserializer.deserialize("record-events", payload);
+
+        // Then: 숫자 형식은 마이크로초 정밀도까지 유지하고, 문자열 형식과 다른 스키마 버전으로 기록
+        SchemaDescriptor stringSchema = registry.latestFor(UserEventRecordDto.class).orElseThrow();
+        SchemaDescriptor microsSchema = registry.latestFor(UserEventRecordDto.class, true).orElseThrow();
+        assertEquals(microsSchema.id(), SchemaEnvelope.schemaId(payload));
+        assertNotEquals(stringSchema.id(), microsSchema.id());
+        assertEquals(stringSchema.version() + 1, microsSchema.version());
+        assertTrue(microsSchema.epochMicrosTimestamps());
+        assertEquals(stringSchema.id(),
+                SchemaEnvelope.schemaId(new VersionedJsonSerializer<>(registry, objectMapper).serialize("t", event)));
+        assertTrue(new String(payload, StandardCharsets.UTF_8).contains("\"timestamp\":" + event.timestampMicros()));
+        assertEquals(event, record);
+        assertEquals(event.timestampMicros(), pojo.getTimestampMicros());
+        assertEquals(event.timestamp(), pojo.getTimestamp());
+
+        System.out.println("✅ epoch 마이크로초 전송 형식 왕복 성공 - " + payload.length + " bytes");
+    }
+
+    @Test
+    void testRecordRejectsMissingTimestamp() {
+        // Then
+        assertThrows(IllegalArgumentException.class,
+                () -> new UserEventRecordDto("user-1", "LOGIN", (LocalDateTime) null, null));
+        assertThrows(Exception.class,
+                () -> objectMapper.readValue("{\"userId\":\"user-1\",\"eventType\":\"LOGIN\"}", UserEventRecordDto.class));
+        assertNull(new UserEventPojoDto().getTimestamp());
+
+        System.out.println("✅ timestamp 누락 처리 확인 성공");
+    }
+
+    @Test
+    void testLocalDateTimeApiIsPreserved() {
+        // Given
+        LocalDateTime timestamp = LocalDateTime.of(2024, 1, 1, 12, 0, 0, 123_456_000);
+        UserEventRecordDto event = new UserEventRecordDto("user-1", "LOGIN", timestamp, Map.of());
+
+        // Then: timestamp() 와 toString 은 LocalDateTime 그대로
+        assertEquals(timestamp, event.timestamp());
+        assertEquals("UserEventRecordDto[userId=user-1, eventType=LOGIN, timestamp=" + timestamp + ", metadata={}]",
+                event.toString());
+
+        // When: createNow 는 시스템 시간대와 무관하게 UTC 기준
+        LocalDateTime before = LocalDateTime.now(ZoneOffset.UTC);
+        UserEventRecordDto record = UserEventRecordDto.createNow("user-1", "LOGIN", Map.of());
+        UserEventPojoDto pojo = UserEventPojoDto.createNow("user-1", "LOGIN", Map.of());
+        LocalDateTime after = LocalDateTime.now(ZoneOffset.UTC);
+
+        // Then
+        assertFalse(record.timestamp().isBefore(before) || record.timestamp().isAfter(after));
+        assertFalse(pojo.getTimestamp().isBefore(before) || pojo.getTimestamp().isAfter(after));
+
+        System.out.println("✅ LocalDateTime API 유지 성공: " + event);
+    }
+
+    @Test
+    void testNowAndOffsetInputShareTheUtcAxis() {
+        // Given: 같은 순간을 now() 와 "+09:00" 문자열로 표현
+        Instant before = Instant.now();
+        long now = EventTimestamps.now();
+        Instant after = Instant.now();
+        Instant instant = Instant.ofEpochSecond(Math.floorDiv(now, 1_000_000L), Math.floorMod(now, 1_000_000L) * 1_000);
+        String seoul = instant.atZone(ZoneId.of("Asia/Seoul")).toOffsetDateTime().toString();
+
+        // Then: now() 는 Instant.now() 와 같은 축, 오프셋 문자열도 같은 값으로 환산
+        assertFalse(instant.isBefore(before.truncatedTo(ChronoUnit.MICROS)) || instant.isAfter(after));
+        assertEquals(now, EventTimestamps.parse(seoul));
+        assertEquals(now, EventTimestamps.fromInstant(instant));
+        assertEquals(LocalDateTime.ofInstant(instant, ZoneOffset.UTC), EventTimestamps.toLocalDateTime(now));
+
+        System.out.println("✅ now() 와 오프셋 입력의 UTC 기준 일치 성공: " + seoul);
+    }
+}
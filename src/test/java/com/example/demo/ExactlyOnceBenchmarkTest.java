@@ -0,0 +1,255 @@
+package com.example.demo;
+
+import com.example.demo.config.JacksonConfig;
+import com.example.demo.consumer.ComparisonEventForwarder;
+import com.example.demo.dto.record.UserEventRecordDto;
+import com.example.demo.producer.ComparisonEventProducer;
+import com.example.demo.schema.LocalSchemaRegistry;
+import com.example.demo.schema.VersionedJsonDeserializer;
+import com.example.demo.schema.VersionedJsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerGroupMetadata;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.BatchMessageListener;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * exactly-once vs at-least-once 처리량 벤치마크 (임베디드 브로커)
+ *
+ * 🔍 1부 - 커밋 단위 (프로듀서/컨슈머 클라이언트 직접 사용, 배치 크기 1 ~ 1000):
+ * 1. at-least-once: 멱등 프로듀서, 배치마다 flush 후 입력 오프셋 commitSync
+ * 2. exactly-once:  트랜잭션 프로듀서, 배치마다 begin → send → sendOffsetsToTransaction → commit
+ *
+ * 🔍 2부 - 실제 전달 경로 (ComparisonEventForwarder + ComparisonEventProducer, 배치 리스너 컨테이너):
+ * 입력 토픽에 미리 넣은 이벤트를 max.poll.records = 배치 크기로 소비해 comparison 토픽으로 전달
+ * - at-least-once: 배치 전송 확인 후 컨테이너가 오프셋 커밋
+ * - exactly-once:  컨테이너가 poll 마다 트랜잭션을 시작하고 배치 전송 + 오프셋을 한 번에 커밋 (read_committed 소비)
+ * 첫 배치 수신부터 마지막 배치 처리까지를 잽니다. (그룹 참여 시간 제외)
+ *
+ * 트랜잭션 커밋 비용(코디네이터 왕복 + 트랜잭션 마커 기록)은 배치당 고정 비용이므로,
+ * 배치가 커질수록 레코드당 비용이 at-least-once 에 가까워집니다.
+ *
+ * 실행: ./gradlew benchmark --tests '*ExactlyOnceBenchmarkTest'
+ */
+@Tag("benchmark")
+@EmbeddedKafka(partitions = 1, brokerProperties = {
+        "transaction.state.log.replication.factor=1",
+        "transaction.state.log.min.isr=1"
+})
+class ExactlyOnceBenchmarkTest {
+
+    private static final int MESSAGES_PER_RUN = 10_000;
+    private static final int[] BATCH_SIZES = {1, 10, 100, 1000};
+    private static final String GROUP_ID = "eos-benchmark-group";
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+    private final LocalSchemaRegistry registry = LocalSchemaRegistry.inMemory(objectMapper);
+
+    @Test
+    void compareExactlyOnceWithAtLeastOnce(EmbeddedKafkaBroker broker) {
+        System.out.println("🚀 exactly-once vs at-least-once 처리량 비교 테스트 시작");
+
+        List<UserEventRecordDto> events = new ArrayList<>(MESSAGES_PER_RUN);
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0, 0);
+        for (int i = 0; i < MESSAGES_PER_RUN; i++) {
+            events.add(new UserEventRecordDto("user-" + (i % 100), "PAGE_VIEW", base.plusSeconds(i),
+                    Map.of("source", "benchmark")));
+        }
+
+        // 오프셋 커밋 대상 입력 토픽 (실제 경로의 record-events 역할)
+        String inputTopic = "eos-bench-input";
+        broker.addTopics(inputTopic);
+        produce(broker.getBrokersAsString(), inputTopic, events);
+
+        System.out.printf("📊 comparison 전달 경로 처리량 (%d개 메시지):%n", MESSAGES_PER_RUN);
+        System.out.printf("   %6s %18s %18s %10s%n", "batch", "at-least-once/s", "exactly-once/s", "EOS 비용");
+
+        int run = 0;
+        for (int batchSize : BATCH_SIZES) {
+            String alsTopic = "eos-bench-als-" + run;
+            String eosTopic = "eos-bench-eos-" + run;
+            broker.addTopics(alsTopic, eosTopic);
+            run++;
+
+            double atLeastOnce = runAtLeastOnce(broker.getBrokersAsString(), alsTopic, inputTopic, events,
+                    batchSize, run);
+            double exactlyOnce = runExactlyOnce(broker.getBrokersAsString(), eosTopic, inputTopic, events, batchSize, run);
+
+            System.out.printf("   %6d %,18.0f %,18.0f %9.1f%%%n",
+                    batchSize, atLeastOnce, exactlyOnce, (atLeastOnce - exactlyOnce) / atLeastOnce * 100);
+        }
+
+        System.out.printf("📊 ComparisonEventForwarder 전달 처리량 (%d개 메시지):%n", MESSAGES_PER_RUN);
+        System.out.printf("   %6s %18s %18s %10s%n", "batch", "at-least-once/s", "exactly-once/s", "EOS 비용");
+        for (int batchSize : BATCH_SIZES) {
+            double atLeastOnce = runForwarder(broker, events, batchSize, false);
+            double exactlyOnce = runForwarder(broker, events, batchSize, true);
+
+            System.out.printf("   %6d %,18.0f %,18.0f %9.1f%%%n",
+                    batchSize, atLeastOnce, exactlyOnce, (atLeastOnce - exactlyOnce) / atLeastOnce * 100);
+        }
+    }
+
+    private double runAtLeastOnce(String bootstrapServers, String topic, String inputTopic,
+                                  List<UserEventRecordDto> events, int batchSize, int run) {
+        Map<String, Object> props = producerProps(bootstrapServers);
+        TopicPartition inputPartition = new TopicPartition(inputTopic, 0);
+
+        try (KafkaProducer<String, UserEventRecordDto> producer = newProducer(props);
+             KafkaConsumer<String, String> offsetCommitter = newOffsetCommitter(bootstrapServers, run)) {
+            offsetCommitter.assign(List.of(inputPartition));
+
+            long start = System.nanoTime();
+            for (int from = 0; from < events.size(); from += batchSize) {
+                int to = Math.min(from + batchSize, events.size());
+                for (UserEventRecordDto event : events.subList(from, to)) {
+                    producer.send(new ProducerRecord<>(topic, event.userId(), event));
+                }
+                // 배치 전송 확인 후 입력 오프셋 커밋 (at-least-once 의 커밋 지점)
+                producer.flush();
+                offsetCommitter.commitSync(Map.of(inputPartition, new OffsetAndMetadata(to)));
+            }
+            return throughput(events.size(), System.nanoTime() - start);
+        }
+    }
+
+    private double runExactlyOnce(String bootstrapServers, String topic, String inputTopic,
+                                  List<UserEventRecordDto> events, int batchSize, int run) {
+        Map<String, Object> props = producerProps(bootstrapServers);
+        props.put(ProducerConfig.TRANSACTIONAL_ID_CONFIG, "eos-bench-tx-" + run);
+
+        TopicPartition inputPartition = new TopicPartition(inputTopic, 0);
+        ConsumerGroupMetadata groupMetadata = new ConsumerGroupMetadata(GROUP_ID);
+
+        try (KafkaProducer<String, UserEventRecordDto> producer = newProducer(props)) {
+            producer.initTransactions();
+
+            long start = System.nanoTime();
+            for (int from = 0; from < events.size(); from += batchSize) {
+                int to = Math.min(from + batchSize, events.size());
+                producer.beginTransaction();
+                for (UserEventRecordDto event : events.subList(from, to)) {
+                    producer.send(new ProducerRecord<>(topic, event.userId(), event));
+                }
+                // 출력 레코드와 입력 오프셋을 하나의 트랜잭션으로 커밋
+                producer.sendOffsetsToTransaction(Map.of(inputPartition, new OffsetAndMetadata(to)), groupMetadata);
+                producer.commitTransaction();
+            }
+            return throughput(events.size(), System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 실제 전달 경로: 입력 토픽 → 배치 리스너 컨테이너 → ComparisonEventForwarder → comparison 토픽
+     */
+    private double runForwarder(EmbeddedKafkaBroker broker, List<UserEventRecordDto> events, int batchSize,
+                                boolean exactlyOnce) {
+        String mode = exactlyOnce ? "eos" : "als";
+        String inputTopic = "eos-bench-fwd-input-" + mode + "-" + batchSize;
+        String outputTopic = "eos-bench-fwd-output-" + mode + "-" + batchSize;
+        broker.addTopics(inputTopic, outputTopic);
+        produce(broker.getBrokersAsString(), inputTopic, events);
+
+        KafkaProperties kafkaProperties = new KafkaProperties();
+        kafkaProperties.setBootstrapServers(List.of(broker.getBrokersAsString()));
+        ComparisonEventProducer producer = new ComparisonEventProducer(kafkaProperties, registry, objectMapper,
+                outputTopic, exactlyOnce, "eos-bench-fwd-" + mode + "-" + batchSize + "-");
+        ComparisonEventForwarder forwarder = new ComparisonEventForwarder(producer);
+
+        Map<String, Object> consumerProps = new HashMap<>();
+        consumerProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        consumerProps.put(ConsumerConfig.GROUP_ID_CONFIG, "eos-bench-fwd-" + mode + "-" + batchSize);
+        consumerProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        consumerProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, batchSize);
+        if (exactlyOnce) {
+            consumerProps.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+        }
+        DefaultKafkaConsumerFactory<String, UserEventRecordDto> consumerFactory = new DefaultKafkaConsumerFactory<>(
+                consumerProps, new StringDeserializer(),
+                new VersionedJsonDeserializer<>(registry, objectMapper, UserEventRecordDto.class));
+
+        CountDownLatch forwarded = new CountDownLatch(events.size());
+        AtomicLong firstBatchNanos = new AtomicLong();
+        ContainerProperties containerProperties = new ContainerProperties(inputTopic);
+        containerProperties.setMessageListener((BatchMessageListener<String, UserEventRecordDto>) records -> {
+            firstBatchNanos.compareAndSet(0, System.nanoTime());
+            forwarder.forward(records);
+            records.forEach(record -> forwarded.countDown());
+        });
+        producer.transactionManager().ifPresent(containerProperties::setTransactionManager);
+        ConcurrentMessageListenerContainer<String, UserEventRecordDto> container =
+                new ConcurrentMessageListenerContainer<>(consumerFactory, containerProperties);
+
+        container.start();
+        try {
+            assertTrue(forwarded.await(120, TimeUnit.SECONDS), "전달 대기 시간 초과: " + mode + "/" + batchSize);
+            return throughput(events.size(), System.nanoTime() - firstBatchNanos.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } finally {
+            container.stop();
+            producer.destroy();
+        }
+    }
+
+    private void produce(String bootstrapServers, String topic, List<UserEventRecordDto> events) {
+        try (KafkaProducer<String, UserEventRecordDto> producer = newProducer(producerProps(bootstrapServers))) {
+            for (UserEventRecordDto event : events) {
+                producer.send(new ProducerRecord<>(topic, event.userId(), event));
+            }
+            producer.flush();
+        }
+    }
+
+    private KafkaConsumer<String, String> newOffsetCommitter(String bootstrapServers, int run) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, GROUP_ID + "-als-" + run);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        return new KafkaConsumer<>(props, new StringDeserializer(), new StringDeserializer());
+    }
+
+    private Map<String, Object> producerProps(String bootstrapServers) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+        return props;
+    }
+
+    private KafkaProducer<String, UserEventRecordDto> newProducer(Map<String, Object> props) {
+        return new KafkaProducer<>(props, new StringSerializer(), new VersionedJsonSerializer<>(registry, objectMapper));
+    }
+
+    private static double throughput(int messages, long elapsedNanos) {
+        return messages / (elapsedNanos / 1_000_000_000.0);
+    }
+}
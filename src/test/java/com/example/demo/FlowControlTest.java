@@ -0,0 +1,75 @@
+package com.example.demo;
+
+import com.example.demo.flow.FlowControlPolicy;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 적응형 흐름 제어 규칙 테스트
+ *
+ * 🔍 테스트 목적:
+ * 1. 권장 max.poll.records 가 poll 주기 예산 안에 처리 가능한 수로 계산되는지 확인
+ * 2. 지연이 크고 대기 레코드가 있을 때만 pause 하는지 확인 (표본이 부족하면 판단 보류)
+ * 3. 연속 pause 시 기간이 2배씩 늘어나 상한에서 멈추는지 확인
+ */
+class FlowControlTest {
+
+    // 예산 = 300,000 ms × 0.5 = 150,000 ms
+    private final FlowControlPolicy policy = new FlowControlPolicy(
+            200, 50, 1_000, 30_000, 300_000, 0.5, 10, 500);
+
+    @Test
+    void testRecommendedMaxPollRecordsFitsCycleBudget() {
+        // Then
+        assertEquals(150_000, policy.cycleBudgetMs());
+        assertEquals(500, policy.recommendedMaxPollRecords(0), "측정값이 없으면 설정값 유지");
+        assertEquals(500, policy.recommendedMaxPollRecords(1), "빠르면 설정 상한");
+        assertEquals(150, policy.recommendedMaxPollRecords(1_000));
+        assertEquals(10, policy.recommendedMaxPollRecords(60_000), "아주 느려도 최소값 유지");
+
+        System.out.println("✅ 권장 max.poll.records 계산 성공");
+    }
+
+    @Test
+    void testPauseRequiresSlowProcessingAndBacklog() {
+        // Then: 지연 + 대기 레코드 + 충분한 표본
+        assertTrue(policy.shouldPause(250, 5, 100));
+        assertFalse(policy.shouldPause(250, 4, 100), "표본 부족");
+        assertFalse(policy.shouldPause(250, 5, 0), "대기 레코드 없음 - pause 해도 얻을 것이 없음");
+        assertFalse(policy.shouldPause(150, 5, 100), "지연이 기준 미만");
+
+        // 회복은 더 낮은 기준 (pause/resume 반복 방지)
+        assertFalse(policy.recovered(150, 5));
+        assertTrue(policy.recovered(40, 5));
+        assertFalse(policy.recovered(40, 1));
+
+        System.out.println("✅ pause / 회복 판단 성공");
+    }
+
+    @Test
+    void testPauseBackoffDoublesUpToLimit() {
+        // When
+        long pause = 0;
+        long[] observed = new long[7];
+        for (int i = 0; i < observed.length; i++) {
+            pause = policy.nextPauseMs(pause);
+            observed[i] = pause;
+        }
+
+        // Then
+        assertArrayEquals(new long[]{1_000, 2_000, 4_000, 8_000, 16_000, 30_000, 30_000}, observed);
+        assertEquals(1_000, policy.nextPauseMs(0), "회복 후 다시 초기값");
+
+        System.out.println("✅ pause 지수 백오프 성공");
+    }
+
+    @Test
+    void testRejectsResumeThresholdAbovePauseThreshold() {
+        // Then
+        assertThrows(IllegalArgumentException.class,
+                () -> new FlowControlPolicy(50, 200, 1_000, 30_000, 300_000, 0.5, 10, 500));
+
+        System.out.println("✅ 잘못된 임계값 거부 성공");
+    }
+}
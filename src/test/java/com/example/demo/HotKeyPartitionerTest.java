@@ -0,0 +1,182 @@
+package com.example.demo;
+
+import com.example.demo.dto.record.UserEventRecordDto;
+import com.example.demo.partition.HotKeyAwarePartitioner;
+import com.example.demo.partition.PartitionSkewMonitor;
+import com.example.demo.partition.PerUserOrderingBuffer;
+import com.example.demo.partition.SlidingWindowCountMinSketch;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 핫 키 분산 파티셔너 테스트
+ *
+ * 🔍 테스트 목적:
+ * 1. Count-Min Sketch 가 윈도우 안의 빈도를 과소 추정하지 않는지 확인
+ * 2. 일반 키는 항상 같은 파티션, 핫 키는 여러 파티션으로 분산되는지 확인
+ * 3. 파티션 쏠림 메트릭이 분산 효과를 반영하는지 확인
+ * 4. 핫 키라도 순서가 중요한 eventType(LOGIN/LOGOUT)은 기본 파티션에 남는지 확인
+ * 5. 컨슈머 측 버퍼가 사용자별 순서를 복원하는지 확인
+ */
+class HotKeyPartitionerTest {
+
+    private static final int PARTITIONS = 3;
+
+    @Test
+    void testSketchNeverUnderestimatesAndSlidesOut() {
+        // Given: 1초 윈도우, 수동 시계
+        AtomicLong clock = new AtomicLong(0);
+        SlidingWindowCountMinSketch sketch = new SlidingWindowCountMinSketch(4, 1024, 1_000, 5, clock::get);
+        byte[] hotKey = bytes("hot-user");
+
+        // When: 같은 키를 500번 기록
+        for (int i = 0; i < 500; i++) {
+            sketch.addAndEstimate(hotKey);
+            sketch.addAndEstimate(bytes("cold-user-" + i));
+        }
+
+        // Then: 과소 추정 없음, 윈도우가 지나면 0으로 돌아감
+        assertTrue(sketch.estimate(hotKey) >= 500);
+        clock.set(2_000);
+        assertEquals(0, sketch.estimate(hotKey));
+
+        System.out.println("✅ Count-Min Sketch 추정/윈도우 만료 성공");
+    }
+
+    @Test
+    void testColdKeyStaysOnOnePartitionAndHotKeyIsSpread() {
+        // Given: 임계값 100, salt 2개
+        PartitionSkewMonitor monitor = new PartitionSkewMonitor(new SimpleMeterRegistry());
+        HotKeyAwarePartitioner partitioner = newPartitioner(monitor, 100, 2);
+
+        // When
+        Set<Integer> coldPartitions = new HashSet<>();
+        Set<Integer> hotPartitions = new HashSet<>();
+        for (int i = 0; i < 50; i++) {
+            coldPartitions.add(partitioner.partition("record-events", bytes("cold-user"), PARTITIONS));
+        }
+        for (int i = 0; i < 1_000; i++) {
+            hotPartitions.add(partitioner.partition("record-events", bytes("hot-user"), PARTITIONS));
+        }
+
+        // Then
+        assertEquals(1, coldPartitions.size());
+        assertEquals(2, hotPartitions.size());
+        assertTrue(monitor.hotKeyRecords("record-events") > 0);
+
+        System.out.println("✅ 일반 키 고정 / 핫 키 분산 성공: hot partitions=" + hotPartitions);
+    }
+
+    @Test
+    void testOrderedEventTypesStayOnBasePartition() {
+        // Given: 이미 핫 키로 판별된 사용자
+        PartitionSkewMonitor monitor = new PartitionSkewMonitor(new SimpleMeterRegistry());
+        HotKeyAwarePartitioner partitioner = newPartitioner(monitor, 100, 2);
+        int basePartition = partitioner.partition("record-events", bytes("hot-user"), "LOGIN", PARTITIONS);
+        for (int i = 0; i < 1_000; i++) {
+            partitioner.partition("record-events", bytes("hot-user"), "PAGE_VIEW", PARTITIONS);
+        }
+
+        // When
+        Set<Integer> sessionPartitions = new HashSet<>();
+        Set<Integer> pageViewPartitions = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            sessionPartitions.add(partitioner.partition("record-events", bytes("hot-user"),
+                    i % 2 == 0 ? "LOGIN" : "LOGOUT", PARTITIONS));
+            pageViewPartitions.add(partitioner.partition("record-events", bytes("hot-user"), "PAGE_VIEW", PARTITIONS));
+        }
+
+        // Then: LOGIN/LOGOUT 은 한 파티션(순서 유지), 나머지는 분산
+        assertEquals(Set.of(basePartition), sessionPartitions);
+        assertEquals(2, pageViewPartitions.size());
+
+        System.out.println("✅ 순서가 중요한 eventType 기본 파티션 유지 성공: " + basePartition);
+    }
+
+    @Test
+    void testSkewIsReducedForHotKeys() {
+        // Given: 같은 트래픽을 분산 없는 파티셔너(salt 1개)와 분산 파티셔너로 보냄
+        PartitionSkewMonitor plainMonitor = new PartitionSkewMonitor(new SimpleMeterRegistry());
+        PartitionSkewMonitor saltedMonitor = new PartitionSkewMonitor(new SimpleMeterRegistry());
+        HotKeyAwarePartitioner plain = newPartitioner(plainMonitor, 100, 1);
+        HotKeyAwarePartitioner salted = newPartitioner(saltedMonitor, 100, PARTITIONS);
+
+        // When: 핫 유저 1명이 전체 트래픽의 대부분을 차지
+        for (int i = 0; i < 3_000; i++) {
+            byte[] key = i % 10 == 0 ? bytes("user-" + i) : bytes("hot-user");
+            plain.partition("record-events", key, PARTITIONS);
+            salted.partition("record-events", key, PARTITIONS);
+        }
+
+        // Then
+        double plainSkew = plainMonitor.skew("record-events");
+        double saltedSkew = saltedMonitor.skew("record-events");
+        assertTrue(saltedSkew < plainSkew, "salted=" + saltedSkew + ", plain=" + plainSkew);
+
+        System.out.printf("✅ 파티션 쏠림 감소: %.2f → %.2f%n", plainSkew, saltedSkew);
+    }
+
+    @Test
+    void testOrderingBufferRestoresPerUserOrder() {
+        // Given: 두 파티션에서 섞여 도착한 같은 사용자의 이벤트
+        PerUserOrderingBuffer<UserEventRecordDto> buffer = new PerUserOrderingBuffer<>(
+                UserEventRecordDto::userId,
+                event -> event.timestamp().toInstant(ZoneOffset.UTC).toEpochMilli(),
+                5_000);
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 12, 0, 0);
+        List<UserEventRecordDto> arrivals = List.of(
+                new UserEventRecordDto("hot-user", "PAGE_VIEW", base.plusSeconds(2), Map.of()),
+                new UserEventRecordDto("hot-user", "LOGIN", base, Map.of()),
+                new UserEventRecordDto("hot-user", "LOGOUT", base.plusSeconds(3), Map.of()),
+                new UserEventRecordDto("hot-user", "PAGE_VIEW", base.plusSeconds(1), Map.of())
+        );
+
+        // When
+        List<UserEventRecordDto> emitted = new ArrayList<>();
+        arrivals.forEach(event -> emitted.addAll(buffer.offer(event)));
+        emitted.addAll(buffer.flush());
+
+        // Then: 타임스탬프 순서대로 복원
+        assertEquals(List.of("LOGIN", "PAGE_VIEW", "PAGE_VIEW", "LOGOUT"),
+                emitted.stream().map(UserEventRecordDto::eventType).toList());
+        assertEquals(0, buffer.pendingCount());
+
+        // When: 다른 사용자의 이벤트 시각이 한참 앞서 있어도
+        buffer.offer(new UserEventRecordDto("fast-user", "PAGE_VIEW", base.plusMinutes(10), Map.of()));
+        List<UserEventRecordDto> slow = new ArrayList<>();
+        slow.addAll(buffer.offer(new UserEventRecordDto("slow-user", "LOGOUT", base.plusSeconds(1), Map.of())));
+        slow.addAll(buffer.offer(new UserEventRecordDto("slow-user", "LOGIN", base, Map.of())));
+        buffer.flush().stream().filter(event -> event.userId().equals("slow-user")).forEach(slow::add);
+
+        // Then: 워터마크는 사용자별이라 늦은 이벤트로 취급하지 않고 정렬
+        assertEquals(List.of("LOGIN", "LOGOUT"), slow.stream().map(UserEventRecordDto::eventType).toList());
+        assertEquals(0, buffer.lateEvents());
+
+        System.out.println("✅ 사용자별 순서 복원 성공");
+    }
+
+    private static HotKeyAwarePartitioner newPartitioner(PartitionSkewMonitor monitor, long threshold, int saltBuckets) {
+        HotKeyAwarePartitioner partitioner = new HotKeyAwarePartitioner();
+        partitioner.configure(Map.of(
+                HotKeyAwarePartitioner.HOT_KEY_THRESHOLD_CONFIG, threshold,
+                HotKeyAwarePartitioner.SALT_BUCKETS_CONFIG, saltBuckets,
+                HotKeyAwarePartitioner.SKEW_MONITOR_CONFIG, monitor));
+        return partitioner;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
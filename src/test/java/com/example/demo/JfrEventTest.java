@@ -0,0 +1,143 @@
+package com.example.demo;
+
+import com.example.demo.config.JacksonConfig;
+import com.example.demo.dto.pojo.UserEventPojoDto;
+import com.example.demo.dto.record.UserEventRecordDto;
+import com.example.demo.jfr.ConsumeEvent;
+import com.example.demo.jfr.DeserializeEvent;
+import com.example.demo.jfr.PipelineRecording;
+import com.example.demo.jfr.SerializeEvent;
+import com.example.demo.schema.LocalSchemaRegistry;
+import com.example.demo.schema.VersionedJsonDeserializer;
+import com.example.demo.schema.VersionedJsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 파이프라인 JFR 이벤트 테스트
+ *
+ * 🔍 테스트 목적:
+ * 1. 번들된 demo-pipeline.jfc 가 모든 커스텀 이벤트를 켜는지 확인
+ * 2. 직렬화/역직렬화/컨슈머 구간 이벤트가 토픽, DTO 타입, 페이로드 크기와 함께 기록되는지 확인
+ * 3. 기록 중이 아니면 이벤트가 남지 않는지 확인
+ */
+class JfrEventTest {
+
+    private static final String TOPIC = "record-events";
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+    private final LocalSchemaRegistry registry = LocalSchemaRegistry.inMemory(objectMapper);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testBundledConfigurationEnablesPipelineEvents() throws Exception {
+        // When
+        Map<String, String> settings = PipelineRecording.pipelineConfiguration().getSettings();
+        Map<String, String> merged = PipelineRecording.settings();
+
+        // Then: 커스텀 이벤트는 기본값이 꺼져 있고, 번들 설정이 켬
+        for (Class<? extends Event> type : PipelineRecording.eventTypes()) {
+            EventType eventType = EventType.getEventType(type);
+            assertFalse(eventType.isEnabled(), eventType.getName() + " should be disabled by default");
+            assertEquals("true", settings.get(eventType.getName() + "#enabled"));
+            assertNotNull(settings.get(eventType.getName() + "#threshold"));
+        }
+        // JDK 기본 이벤트도 함께 포함
+        assertEquals("true", merged.get("jdk.GarbageCollection#enabled"));
+
+        System.out.println("✅ 번들 JFR 설정 확인 성공 - " + settings.size() + "개 설정");
+    }
+
+    @Test
+    void testPipelineEventsAreRecordedWithStageDetails() throws Exception {
+        // Given
+        VersionedJsonSerializer<Object> serializer = new VersionedJsonSerializer<>(registry, objectMapper);
+        VersionedJsonDeserializer<UserEventRecordDto> deserializer =
+                new VersionedJsonDeserializer<>(registry, objectMapper, UserEventRecordDto.class);
+        UserEventRecordDto event = new UserEventRecordDto("user-1", "LOGIN", LocalDateTime.of(2024, 1, 1, 12, 0),
+                Map.of("source", "web"));
+        Path file = directory.resolve("pipeline.jfr");
+
+        // When: threshold 없이 기록
+        byte[] payload;
+        try (Recording recording = new Recording()) {
+            for (Class<? extends Event> type : PipelineRecording.eventTypes()) {
+                recording.enable(type).withoutThreshold();
+            }
+            recording.start();
+
+            payload = serializer.serialize(TOPIC, event);
+            assertEquals(event, deserializer.deserialize(TOPIC, payload));
+            ConsumeEvent consumeEvent = ConsumeEvent.start();
+            consumeEvent.finish(TOPIC, 2, 42L, UserEventPojoDto.class, payload.length, true);
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        // Then
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        RecordedEvent serialize = single(events, SerializeEvent.class);
+        assertEquals(TOPIC, serialize.getString("topic"));
+        assertEquals(UserEventRecordDto.class.getName(), serialize.getClass("dtoType").getName());
+        assertEquals(payload.length, serialize.getInt("payloadBytes"));
+
+        RecordedEvent deserialize = single(events, DeserializeEvent.class);
+        assertEquals(serialize.getInt("schemaId"), deserialize.getInt("schemaId"));
+        assertEquals(payload.length, deserialize.getInt("payloadBytes"));
+
+        RecordedEvent consume = single(events, ConsumeEvent.class);
+        assertEquals(2, consume.getInt("partition"));
+        assertEquals(42L, consume.getLong("offset"));
+        assertTrue(consume.getBoolean("duplicate"));
+
+        System.out.println("✅ 단계별 JFR 이벤트 기록 성공 - " + events.size() + "건");
+    }
+
+    @Test
+    void testNothingIsRecordedWhenNotEnabled() throws Exception {
+        // Given: 커스텀 이벤트를 켜지 않은 기록
+        VersionedJsonSerializer<Object> serializer = new VersionedJsonSerializer<>(registry, objectMapper);
+        Path file = directory.resolve("empty.jfr");
+
+        // When
+        try (Recording recording = new Recording()) {
+            recording.start();
+            serializer.serialize(TOPIC, new UserEventRecordDto("user-1", "LOGIN", LocalDateTime.now(), null));
+            ConsumeEvent.start().finish(TOPIC, 0, 0L, UserEventRecordDto.class, 10, false);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        // Then
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertTrue(events.stream()
+                .noneMatch(recorded -> recorded.getEventType().getName().startsWith("com.example.demo.")));
+
+        System.out.println("✅ 비활성 상태 이벤트 미기록 확인 성공");
+    }
+
+    private static RecordedEvent single(List<RecordedEvent> events, Class<? extends Event> type) {
+        String name = EventType.getEventType(type).getName();
+        List<RecordedEvent> matching = events.stream()
+                .filter(recorded -> recorded.getEventType().getName().equals(name))
+                .toList();
+        assertEquals(1, matching.size(), name);
+        return matching.get(0);
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.demo;
+
+import com.example.demo.routing.EventLane;
+import com.example.demo.routing.EventLaneRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 백필 중 LOGIN 전달 지연 벤치마크 - 공유 토픽 vs 우선순위 레인 (임베디드 브로커)
+ *
+ * 백필이 BULK_EVENTS 건을 쏟아내는 동안 CRITICAL_INTERVAL_MS 마다 LOGIN 을 한 건씩 보내고,
+ * 레코드 timestamp(전송 시각)부터 리스너 처리 시점까지의 지연을 잽니다. (demo.lane.latency 와 같은 기준)
+ *
+ * 🔍 비교 대상 (EventLaneRouter 로 토픽 결정, 레코드당 처리 PROCESS_MICROS):
+ * 1. shared: 라우팅 비활성화 - 모든 이벤트가 한 토픽, 컨슈머 하나 → LOGIN 이 백필 backlog 뒤에 줄을 섬
+ * 2. lanes:  라우팅 활성화 - 백필은 {base}.bulk, LOGIN 은 {base}.critical, 레인별 컨슈머/max.poll.records
+ *
+ * 실행: ./gradlew benchmark --tests '*LanePriorityBenchmarkTest'
+ */
+@Tag("benchmark")
+@EmbeddedKafka(partitions = 3)
+class LanePriorityBenchmarkTest {
+
+    private static final int BULK_EVENTS = 100_000;
+    private static final int CRITICAL_EVENTS = 200;
+    private static final long CRITICAL_INTERVAL_MS = 10;
+    private static final long PROCESS_MICROS = 20;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void compareSharedTopicWithLanes(EmbeddedKafkaBroker broker) throws Exception {
+        System.out.println("🚀 백필 중 LOGIN 지연: 공유 토픽 vs 우선순위 레인 비교 테스트 시작");
+
+        long[] shared = run(broker, "lane-bench-shared", router(false));
+        long[] lanes = run(broker, "lane-bench-lanes", router(true));
+
+        report("shared", shared);
+        report("lanes", lanes);
+
+        System.out.println("✅ 우선순위 레인 LOGIN 지연 비교 성공");
+    }
+
+    /**
+     * @return LOGIN 레코드별 전달 지연 (ms)
+     */
+    private long[] run(EmbeddedKafkaBroker broker, String baseTopic, EventLaneRouter router) throws Exception {
+        broker.addTopics(EventLane.STANDARD.topic(baseTopic), EventLane.CRITICAL.topic(baseTopic),
+                EventLane.BULK.topic(baseTopic));
+
+        // 라우팅 비활성화 시 두 토픽이 같으므로 컨슈머 하나
+        Set<String> topics = new LinkedHashSet<>(List.of(router.topicFor(baseTopic, "LOGIN"),
+                router.bulkTopicFor(baseTopic)));
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        CountDownLatch assigned = new CountDownLatch(topics.size());
+        CountDownLatch criticalReceived = new CountDownLatch(CRITICAL_EVENTS);
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        List<Thread> consumers = new ArrayList<>();
+        for (String topic : topics) {
+            EventLane lane = EventLane.ofTopic(topic);
+            int maxPollRecords = lane == EventLane.STANDARD ? 500 : router.settings(lane).maxPollRecords();
+            Thread consumer = new Thread(() -> consume(broker.getBrokersAsString(), topic, maxPollRecords,
+                    latencies, assigned, criticalReceived, running), "lane-bench-" + topic);
+            consumers.add(consumer);
+            consumer.start();
+        }
+        assertTrue(assigned.await(30, TimeUnit.SECONDS), "컨슈머 파티션 할당 대기 시간 초과");
+
+        try (KafkaProducer<String, String> producer = new KafkaProducer<>(producerProps(broker.getBrokersAsString()),
+                new StringSerializer(), new StringSerializer())) {
+            Thread backfill = new Thread(() -> {
+                String bulkTopic = router.bulkTopicFor(baseTopic);
+                for (int i = 0; i < BULK_EVENTS; i++) {
+                    producer.send(new ProducerRecord<>(bulkTopic, "user-" + (i % 1_000), "PAGE_VIEW"));
+                }
+            }, "lane-bench-backfill");
+            backfill.start();
+
+            for (int i = 0; i < CRITICAL_EVENTS; i++) {
+                producer.send(new ProducerRecord<>(router.topicFor(baseTopic, "LOGIN"), "user-" + i, "LOGIN"));
+                Thread.sleep(CRITICAL_INTERVAL_MS);
+            }
+            backfill.join();
+            producer.flush();
+        }
+
+        assertTrue(criticalReceived.await(120, TimeUnit.SECONDS), "LOGIN 수신 대기 시간 초과");
+        running.set(false);
+        for (Thread consumer : consumers) {
+            consumer.join();
+        }
+        return latencies.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static void consume(String bootstrapServers, String topic, int maxPollRecords,
+                                ConcurrentLinkedQueue<Long> latencies, CountDownLatch assigned,
+                                CountDownLatch criticalReceived, AtomicBoolean running) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, "lane-bench-" + topic);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+
+        try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(props,
+                new StringDeserializer(), new StringDeserializer())) {
+            consumer.subscribe(List.of(topic));
+            boolean counted = false;
+            while (running.get()) {
+                for (ConsumerRecord<String, String> record : consumer.poll(Duration.ofMillis(50))) {
+                    busyWork();
+                    if ("LOGIN".equals(record.value())) {
+                        latencies.add(System.currentTimeMillis() - record.timestamp());
+                        criticalReceived.countDown();
+                    }
+                }
+                if (!counted && !consumer.assignment().isEmpty()) {
+                    assigned.countDown();
+                    counted = true;
+                }
+            }
+        }
+    }
+
+    private EventLaneRouter router(boolean enabled) {
+        return new EventLaneRouter(meterRegistry, enabled, "LOGIN,LOGOUT", "", 3, 3, 50, 3, 1, 500);
+    }
+
+    private static Map<String, Object> producerProps(String bootstrapServers) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+        return props;
+    }
+
+    private static void busyWork() {
+        long deadline = System.nanoTime() + PROCESS_MICROS * 1_000;
+        while (System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void report(String name, long[] latencies) {
+        System.out.printf("  %-8s LOGIN %d건  p50 %,6d ms  p99 %,6d ms  max %,6d ms%n", name, latencies.length,
+                percentile(latencies, 0.5), percentile(latencies, 0.99), percentile(latencies, 1.0));
+    }
+
+    private static long percentile(long[] latencies, double quantile) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * quantile))];
+    }
+}
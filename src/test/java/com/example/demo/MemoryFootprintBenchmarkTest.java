@@ -0,0 +1,226 @@
+package com.example.demo;
+
+import com.example.demo.config.JacksonConfig;
+import com.example.demo.dto.CompactMetadataMap;
+import com.example.demo.dto.pojo.UserEventPojoDto;
+import com.example.demo.dto.record.UserEventRecordDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.sun.management.HotSpotDiagnosticMXBean;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.ClassLayout;
+import org.openjdk.jol.info.GraphLayout;
+import org.openjdk.jol.vm.VM;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Record vs POJO 객체 footprint 벤치마크 (JOL)
+ *
+ * PerformanceComparisonTest.compareMemoryUsage 는 Runtime 사용량 차이라 GC 타이밍에 따라 값이 크게 흔들립니다.
+ * 여기서는 JOL 로 실제 객체 레이아웃을 읽어 버퍼 힙 산정에 쓸 수 있는 값을 구합니다.
+ *
+ * 📊 측정 항목 (메타데이터 형태별, 컨슈머와 같은 JSON 역직렬화 경로로 만든 이벤트 기준):
+ * 1. shallow size - DTO 인스턴스 자체 (헤더 + 필드 + 정렬 패딩)
+ * 2. retained size (단건) - 이벤트 1건에서 도달 가능한 모든 객체 (String, byte[], LocalDateTime, Map 엔트리 ...)
+ * 3. retained size (버퍼 평균) - 이벤트 N건을 함께 들고 있을 때 건당 크기 (공유 객체는 한 번만 집계)
+ * 4. 역직렬화 할당량 - JSON 1건 → DTO 변환 중 할당된 바이트 (버려지는 파서 임시 객체 포함)
+ *
+ * 🔍 compressed / uncompressed oops:
+ * 레이아웃은 실행 중인 JVM 설정을 따르므로 두 모드를 각각 별도 JVM 으로 실행합니다.
+ *   ./gradlew footprint   (footprintCompressedOops + footprintUncompressedOops)
+ * 힙이 32GB 를 넘으면 compressed oops 가 꺼지므로 큰 버퍼를 잡을 때는 uncompressed 결과를 기준으로 삼습니다.
+ *
+ * 🔧 metadata Map 표현 비교 (compareMetadataMapLayouts):
+ * LinkedHashMap(기본 Jackson Map) vs CompactMetadataMap 의 건당 retained size 와 getMetadataValue 조회 시간
+ */
+@Tag("benchmark")
+class MemoryFootprintBenchmarkTest {
+
+    private static final int EVENTS_PER_SHAPE = 10_000;
+    private static final String[] EVENT_TYPES = {"LOGIN", "LOGOUT", "PAGE_VIEW", "CLICK", "PURCHASE"};
+    private static final List<MetadataShape> SHAPES = List.of(
+            new MetadataShape("none", 0),
+            new MetadataShape("small", 2),
+            new MetadataShape("typical", 5),
+            new MetadataShape("large", 12)
+    );
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+    @Test
+    void measureObjectFootprint() throws IOException {
+        System.out.println("🚀 Record vs POJO 메모리 footprint 측정 시작");
+        System.out.println(VM.current().details());
+        System.out.printf("📊 compressed oops: %s, 객체 정렬: %d bytes%n",
+                vmOption("UseCompressedOops"), VM.current().objectAlignment());
+
+        // 1. shallow size
+        ClassLayout recordLayout = ClassLayout.parseClass(UserEventRecordDto.class);
+        ClassLayout pojoLayout = ClassLayout.parseClass(UserEventPojoDto.class);
+        System.out.println(recordLayout.toPrintable());
+        System.out.println(pojoLayout.toPrintable());
+        System.out.printf("📊 shallow size - Record: %d bytes, POJO: %d bytes%n",
+                recordLayout.instanceSize(), pojoLayout.instanceSize());
+
+        // 2~4. 메타데이터 형태별 retained size / 할당량
+        System.out.printf("%-8s | %-6s | %10s | %12s | %12s | %14s%n",
+                "metadata", "type", "retained", "buffer/event", "alloc/event", "events/GB heap");
+        long previousRecordRetained = 0;
+        for (MetadataShape shape : SHAPES) {
+            byte[][] payloads = payloads(shape);
+
+            Footprint record = measure(payloads, objectMapper.readerFor(UserEventRecordDto.class));
+            Footprint pojo = measure(payloads, objectMapper.readerFor(UserEventPojoDto.class));
+            print(shape, "Record", record);
+            print(shape, "POJO", pojo);
+
+            assertTrue(record.retained() > recordLayout.instanceSize());
+            assertTrue(pojo.retained() > pojoLayout.instanceSize());
+            assertTrue(record.retained() > previousRecordRetained, "retained size should grow with metadata");
+            previousRecordRetained = record.retained();
+        }
+
+        System.out.println("✅ 메모리 footprint 측정 완료");
+    }
+
+    @Test
+    void compareMetadataMapLayouts() throws IOException {
+        System.out.println("🚀 metadata Map 표현 비교 (LinkedHashMap vs CompactMetadataMap)");
+        System.out.printf("%-8s | %-13s | %12s | %14s%n", "metadata", "map", "bytes/map", "ns/lookup");
+
+        ObjectReader plainReader = objectMapper.readerFor(LinkedHashMap.class);
+        for (MetadataShape shape : SHAPES) {
+            if (shape.entries() == 0) {
+                continue;
+            }
+            byte[][] payloads = payloads(shape);
+            Object[] plain = new Object[payloads.length];
+            Object[] compact = new Object[payloads.length];
+            for (int i = 0; i < payloads.length; i++) {
+                Map<String, Object> metadata = objectMapper.readValue(payloads[i], UserEventRecordDto.class).metadata();
+                plain[i] = plainReader.readValue(objectMapper.writeValueAsBytes(metadata));
+                compact[i] = metadata;
+            }
+            assertInstanceOf(CompactMetadataMap.class, compact[0]);
+
+            // 조회 키: 첫 키, 마지막 키, 없는 키
+            String[] keys = {"source", shape.entries() > 2 ? "attr" + (shape.entries() - 1) : "page", "missing"};
+            long plainBytes = GraphLayout.parseInstance(plain).totalSize() / plain.length;
+            long compactBytes = GraphLayout.parseInstance(compact).totalSize() / compact.length;
+            double plainNanos = lookupNanos(plain, keys);
+            double compactNanos = lookupNanos(compact, keys);
+            System.out.printf("%-8s | %-13s | %,12d | %14.1f%n", shape.name(), "LinkedHashMap", plainBytes, plainNanos);
+            System.out.printf("%-8s | %-13s | %,12d | %14.1f%n", shape.name(), "Compact", compactBytes, compactNanos);
+
+            assertTrue(compactBytes < plainBytes, "compact map should retain less memory");
+        }
+
+        System.out.println("✅ metadata Map 표현 비교 완료");
+    }
+
+    /**
+     * getMetadataValue 와 같은 조회(문자열 변환 포함)의 평균 시간 - 워밍업 후 5회 중 최솟값
+     */
+    @SuppressWarnings("unchecked")
+    private static double lookupNanos(Object[] maps, String[] keys) {
+        long sink = 0;
+        double best = Double.MAX_VALUE;
+        for (int round = 0; round < 10; round++) {
+            long start = System.nanoTime();
+            for (Object map : maps) {
+                for (String key : keys) {
+                    String value = CompactMetadataMap.stringValue((Map<String, Object>) map, key);
+                    sink += value != null ? value.length() : 1;
+                }
+            }
+            if (round >= 5) {
+                best = Math.min(best, (System.nanoTime() - start) / (double) (maps.length * keys.length));
+            }
+        }
+        assertTrue(sink > 0);
+        return best;
+    }
+
+    private Footprint measure(byte[][] payloads, ObjectReader reader) throws IOException {
+        Object[] events = new Object[payloads.length];
+        // 워밍업 (Jackson 역직렬화기 생성/캐시 할당 제외)
+        for (byte[] payload : payloads) {
+            reader.readValue(payload);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = allocatedBytes(threadId);
+        for (int i = 0; i < payloads.length; i++) {
+            events[i] = reader.readValue(payloads[i]);
+        }
+        long allocated = allocatedBytes(threadId) - allocatedBefore;
+
+        long single = GraphLayout.parseInstance(events[0]).totalSize();
+        // 배열 자체는 제외하고 원소들만 루트로 집계
+        long buffered = GraphLayout.parseInstance(events).totalSize();
+        return new Footprint(single, buffered / events.length, allocated / events.length);
+    }
+
+    private long allocatedBytes(long threadId) {
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean allocationAware) {
+            return allocationAware.getThreadAllocatedBytes(threadId);
+        }
+        return 0;
+    }
+
+    private static void print(MetadataShape shape, String type, Footprint footprint) {
+        System.out.printf("%-8s | %-6s | %,10d | %,12d | %,12d | %,14d%n",
+                shape.name(), type, footprint.retained(), footprint.bufferedPerEvent(),
+                footprint.allocatedPerEvent(), (1L << 30) / Math.max(1, footprint.bufferedPerEvent()));
+    }
+
+    private byte[][] payloads(MetadataShape shape) throws IOException {
+        byte[][] payloads = new byte[EVENTS_PER_SHAPE][];
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 12, 0);
+        for (int i = 0; i < EVENTS_PER_SHAPE; i++) {
+            Map<String, Object> metadata = null;
+            if (shape.entries() > 0) {
+                metadata = new LinkedHashMap<>();
+                metadata.put("source", i % 2 == 0 ? "web" : "mobile");
+                metadata.put("page", "/items/" + (i % 500));
+                for (int field = 2; field < shape.entries(); field++) {
+                    // 문자열/숫자/불리언이 섞인 실제 메타데이터 형태
+                    metadata.put("attr" + field, switch (field % 3) {
+                        case 0 -> "value-" + (i % 100);
+                        case 1 -> i * field;
+                        default -> i % 2 == 0;
+                    });
+                }
+            }
+            UserEventRecordDto event = new UserEventRecordDto("user-" + i, EVENT_TYPES[i % EVENT_TYPES.length],
+                    base.plusSeconds(i), metadata);
+            payloads[i] = objectMapper.writeValueAsBytes(event);
+        }
+        return payloads;
+    }
+
+    private static String vmOption(String name) {
+        try {
+            return ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class).getVMOption(name).getValue();
+        } catch (RuntimeException e) {
+            return "unknown";
+        }
+    }
+
+    private record MetadataShape(String name, int entries) {
+    }
+
+    private record Footprint(long retained, long bufferedPerEvent, long allocatedPerEvent) {
+    }
+}
@@ -0,0 +1,257 @@
+package com.example.demo;
+
+import com.example.demo.batch.BatchSink;
+import com.example.demo.batch.MicroBatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 요청 병합 마이크로 배처 테스트
+ *
+ * 🔍 테스트 목적:
+ * 1. 드레이너가 바쁜 동안 쌓인 요청이 maxBatchSize 단위 배치로 병합되는지 확인
+ * 2. 여러 생산자 스레드가 동시에 넣어도 모든 호출자가 자기 결과로 정확히 한 번 완료되는지 확인
+ * 3. 이벤트별 실패 / 대기 상한 초과 / 종료 시 처리 확인
+ * 4. 배치 전체를 전송 시작한 뒤 flush 를 한 번만 호출하는지 확인
+ */
+class MicroBatcherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void testCoalescesBacklogIntoFullBatches() throws Exception {
+        // Given: 첫 배치 전송을 막아 두고 그동안 요청을 쌓음
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        BatchSink<Integer, Integer> sink = batch -> {
+            await(release);
+            batchSizes.add(batch.size());
+            return doubled(batch);
+        };
+
+        try (MicroBatcher<Integer, Integer> batcher = new MicroBatcher<>("test", sink, 100, 0, 10_000, meterRegistry)) {
+            List<CompletableFuture<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 1_001; i++) {
+                results.add(batcher.submit(i));
+            }
+
+            // When
+            release.countDown();
+
+            // Then: 첫 배치(드레이너가 막히기 전에 가져간 만큼) 이후는 100건씩
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals(i * 2, results.get(i).get(5, TimeUnit.SECONDS));
+            }
+            assertTrue(batchSizes.stream().allMatch(size -> size <= 100));
+            assertTrue(batchSizes.size() <= 12, "배치 수: " + batchSizes.size());
+            assertEquals(0, batcher.pending());
+
+            System.out.println("✅ 대기 요청 병합 성공 - 1,001건 → " + batchSizes.size() + "개 배치");
+        }
+    }
+
+    @Test
+    void testLingerFlushesPartialBatch() throws Exception {
+        // Given: 배치가 차지 않아도 linger 가 지나면 전송
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        BatchSink<Integer, Integer> sink = batch -> {
+            batchSizes.add(batch.size());
+            return doubled(batch);
+        };
+
+        try (MicroBatcher<Integer, Integer> batcher = new MicroBatcher<>("test", sink, 100, 20_000, 1_000, meterRegistry)) {
+            // When
+            CompletableFuture<Integer> result = batcher.submit(21);
+
+            // Then
+            assertEquals(42, result.get(5, TimeUnit.SECONDS));
+            assertEquals(List.of(1), batchSizes);
+
+            System.out.println("✅ linger 경과 시 부분 배치 전송 성공");
+        }
+    }
+
+    @Test
+    void testConcurrentProducersCompleteTheirOwnFutures() throws Exception {
+        // Given
+        int threads = 8;
+        int perThread = 20_000;
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        BatchSink<Integer, Integer> sink = batch -> {
+            batchSizes.add(batch.size());
+            return doubled(batch);
+        };
+
+        try (MicroBatcher<Integer, Integer> batcher = new MicroBatcher<>("test", sink, 256, 100, 1_000_000, meterRegistry)) {
+            List<List<CompletableFuture<Integer>>> perProducer = new ArrayList<>();
+            List<Thread> producers = new ArrayList<>();
+            CountDownLatch start = new CountDownLatch(1);
+            for (int t = 0; t < threads; t++) {
+                int base = t * perThread;
+                List<CompletableFuture<Integer>> results = new ArrayList<>(perThread);
+                perProducer.add(results);
+                Thread producer = new Thread(() -> {
+                    await(start);
+                    for (int i = 0; i < perThread; i++) {
+                        results.add(batcher.submit(base + i));
+                    }
+                });
+                producer.start();
+                producers.add(producer);
+            }
+
+            // When
+            long startNanos = System.nanoTime();
+            start.countDown();
+            for (Thread producer : producers) {
+                producer.join();
+            }
+
+            // Then
+            for (int t = 0; t < threads; t++) {
+                List<CompletableFuture<Integer>> results = perProducer.get(t);
+                for (int i = 0; i < perThread; i++) {
+                    assertEquals((t * perThread + i) * 2, results.get(i).get(5, TimeUnit.SECONDS));
+                }
+            }
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            assertEquals(threads * perThread, batchSizes.stream().mapToInt(Integer::intValue).sum());
+            assertTrue(batchSizes.stream().allMatch(size -> size <= 256));
+
+            System.out.printf("✅ 동시 생산자 %d개 × %,d건 완료 성공 - 배치 %,d개 (평균 %.1f건), %d ms%n",
+                    threads, perThread, batchSizes.size(), (double) threads * perThread / batchSizes.size(), elapsedMs);
+        }
+    }
+
+    @Test
+    void testFailuresAreReportedPerEventAndEachBatchFlushesOnce() throws Exception {
+        // Given: 홀수 이벤트는 전송 시작 단계에서 실패, 7 은 비동기 실패 / flush 마다 그 전에 전송한 건수 기록
+        int[] sentSinceFlush = new int[1];
+        List<Integer> flushedBatches = new CopyOnWriteArrayList<>();
+        BatchSink<Integer, Integer> sink = BatchSink.sendThenFlush(event -> {
+            sentSinceFlush[0]++;
+            if (event == 7) {
+                return CompletableFuture.failedFuture(new IllegalStateException("broker rejected 7"));
+            }
+            if (event % 2 == 1) {
+                throw new IllegalArgumentException("invalid " + event);
+            }
+            return CompletableFuture.completedFuture(event * 2);
+        }, () -> {
+            flushedBatches.add(sentSinceFlush[0]);
+            sentSinceFlush[0] = 0;
+        });
+
+        try (MicroBatcher<Integer, Integer> batcher = new MicroBatcher<>("test", sink, 16, 1_000, 100, meterRegistry)) {
+            // When
+            List<CompletableFuture<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                results.add(batcher.submit(i));
+            }
+
+            // Then
+            for (int i = 0; i < 10; i++) {
+                CompletableFuture<Integer> result = results.get(i);
+                if (i % 2 == 0) {
+                    assertEquals(i * 2, result.get(5, TimeUnit.SECONDS));
+                } else {
+                    ExecutionException failure = assertThrows(ExecutionException.class,
+                            () -> result.get(5, TimeUnit.SECONDS));
+                    assertEquals(i == 7 ? IllegalStateException.class : IllegalArgumentException.class,
+                            failure.getCause().getClass());
+                }
+            }
+            // 배치마다 전송을 모두 시작한 뒤 flush 한 번 (실패한 전송도 포함)
+            assertEquals(10, flushedBatches.stream().mapToInt(Integer::intValue).sum());
+            assertTrue(flushedBatches.stream().allMatch(sent -> sent > 0), "flush without sends: " + flushedBatches);
+
+            System.out.println("✅ 이벤트별 실패 전달 / 배치당 flush 한 번 성공: " + flushedBatches);
+        }
+    }
+
+    @Test
+    void testRejectsWhenPendingLimitIsReached() throws Exception {
+        // Given: 드레이너가 막힌 동안 대기 상한(8)을 넘겨 제출
+        CountDownLatch release = new CountDownLatch(1);
+        BatchSink<Integer, Integer> sink = batch -> {
+            await(release);
+            return doubled(batch);
+        };
+
+        try (MicroBatcher<Integer, Integer> batcher = new MicroBatcher<>("test", sink, 4, 0, 8, meterRegistry)) {
+            CompletableFuture<Integer> first = batcher.submit(0);
+            while (batcher.pending() > 0) {
+                Thread.onSpinWait();  // 드레이너가 첫 건을 가져가 sink 에서 대기할 때까지
+            }
+
+            // When
+            List<CompletableFuture<Integer>> queued = new ArrayList<>();
+            for (int i = 1; i <= 8; i++) {
+                queued.add(batcher.submit(i));
+            }
+            CompletableFuture<Integer> overflow = batcher.submit(9);
+
+            // Then
+            ExecutionException failure = assertThrows(ExecutionException.class, overflow::get);
+            assertInstanceOf(RejectedExecutionException.class, failure.getCause());
+
+            release.countDown();
+            assertEquals(0, first.get(5, TimeUnit.SECONDS));
+            for (int i = 0; i < queued.size(); i++) {
+                assertEquals((i + 1) * 2, queued.get(i).get(5, TimeUnit.SECONDS));
+            }
+
+            System.out.println("✅ 대기 상한 초과 거부 성공");
+        }
+    }
+
+    @Test
+    void testCloseFlushesQueuedEventsAndRejectsNewOnes() throws Exception {
+        // Given: 긴 linger 로 대기 중인 이벤트
+        MicroBatcher<Integer, Integer> batcher = new MicroBatcher<>("test",
+                MicroBatcherTest::doubled, 100, TimeUnit.SECONDS.toMicros(30), 1_000, meterRegistry);
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            results.add(batcher.submit(i));
+        }
+
+        // When
+        batcher.close();
+
+        // Then: linger 를 기다리지 않고 전송, 이후 제출은 실패
+        for (int i = 0; i < results.size(); i++) {
+            assertTrue(results.get(i).isDone());
+            assertEquals(i * 2, results.get(i).get());
+        }
+        assertThrows(ExecutionException.class, () -> batcher.submit(99).get());
+
+        System.out.println("✅ 종료 시 남은 이벤트 전송 및 신규 거부 성공");
+    }
+
+    private static List<CompletableFuture<Integer>> doubled(List<Integer> batch) {
+        List<CompletableFuture<Integer>> results = new ArrayList<>(batch.size());
+        for (Integer event : batch) {
+            results.add(CompletableFuture.completedFuture(event * 2));
+        }
+        return results;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
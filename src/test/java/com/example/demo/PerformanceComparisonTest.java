@@ -2,12 +2,21 @@ package com.example.demo;
 
 import com.example.demo.dto.pojo.UserEventPojoDto;
 import com.example.demo.dto.record.UserEventRecordDto;
+import com.example.demo.schema.LocalSchemaRegistry;
+import com.example.demo.schema.RecyclingPojoDecoder;
+import com.example.demo.schema.VersionedJsonDeserializer;
+import com.example.demo.schema.VersionedJsonSerializer;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -20,6 +29,10 @@ import java.util.Map;
  * 2. 역직렬화 성능 (JSON → 객체)
  * 3. 메모리 사용량
  * 4. 객체 생성 성능
+ * 5. 타입별 Deserializer 라우팅 효과 (중간 POJO 변환 제거)
+ * 6. 배치 디코딩 할당량 / GC (Record 신규 생성 vs POJO 인스턴스 재사용)
+ *
+ * 해시 컬렉션 처리량(hashCode 캐시 / equals 조기 종료)은 JMH 벤치마크 src/jmh/java/.../HashCollectionBenchmark 로 측정합니다.
  */
 @SpringBootTest
 class PerformanceComparisonTest {
@@ -131,6 +144,62 @@ class PerformanceComparisonTest {
                 recordAvgMs < pojoAvgMs ? "(Record 승리)" : "(POJO 승리)");
     }
 
+    @Test
+    void compareTypedDeserializerRouting() throws Exception {
+        System.out.println("🚀 타입별 Deserializer 라우팅 성능 비교 테스트 시작");
+
+        UserEventRecordDto event = new UserEventRecordDto(
+                "perf-test-user",
+                "PERFORMANCE_TEST",
+                LocalDateTime.of(2024, 1, 1, 12, 0, 0),
+                Map.of("iteration", "test", "type", "routing", "number", 12345)
+        );
+
+        // 기존 경로: 전역 default.type(POJO)으로 디코딩 → Record 리스너용으로 한 번 더 변환
+        byte[] plainJson = objectMapper.writeValueAsBytes(event);
+        ObjectReader pojoReader = objectMapper.readerFor(UserEventPojoDto.class);
+
+        // 새 경로: record 전용 컨슈머 팩토리의 Deserializer가 Record로 바로 디코딩
+        LocalSchemaRegistry registry = LocalSchemaRegistry.inMemory(objectMapper);
+        byte[] envelopedJson = new VersionedJsonSerializer<UserEventRecordDto>(registry, objectMapper)
+                .serialize("record-events", event);
+        VersionedJsonDeserializer<UserEventRecordDto> typedDeserializer =
+                new VersionedJsonDeserializer<>(registry, objectMapper, UserEventRecordDto.class);
+
+        // Warmup
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            UserEventPojoDto pojo = pojoReader.readValue(plainJson);
+            objectMapper.convertValue(pojo, UserEventRecordDto.class);
+            typedDeserializer.deserialize("record-events", envelopedJson);
+        }
+
+        // 기존 경로 측정
+        long convertStartTime = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            UserEventPojoDto pojo = pojoReader.readValue(plainJson);
+            objectMapper.convertValue(pojo, UserEventRecordDto.class);
+        }
+        long convertTime = System.nanoTime() - convertStartTime;
+
+        // 새 경로 측정
+        long typedStartTime = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            typedDeserializer.deserialize("record-events", envelopedJson);
+        }
+        long typedTime = System.nanoTime() - typedStartTime;
+
+        // 결과 출력
+        double convertAvgUs = convertTime / 1_000.0 / ITERATIONS;
+        double typedAvgUs = typedTime / 1_000.0 / ITERATIONS;
+
+        System.out.printf("📊 Record 리스너 메시지당 디코딩 비용 (%d회 평균):%n", ITERATIONS);
+        System.out.printf("   POJO 디코딩 + 변환: %.3f µs%n", convertAvgUs);
+        System.out.printf("   Record 직접 디코딩:  %.3f µs%n", typedAvgUs);
+        System.out.printf("   제거된 비용:        %.3f µs/message (%.2f%%)%n",
+                convertAvgUs - typedAvgUs,
+                (convertAvgUs - typedAvgUs) / convertAvgUs * 100);
+    }
+
     @Test
     void compareObjectCreationPerformance() {
         System.out.println("🚀 객체 생성 성능 비교 테스트 시작");
@@ -170,6 +239,96 @@ class PerformanceComparisonTest {
                 recordAvgNs < pojoAvgNs ? "(Record 승리)" : "(POJO 승리)");
     }
 
+    @Test
+    void compareBatchDecodingAllocation() {
+        System.out.println("🚀 배치 디코딩 할당량 비교 테스트 시작");
+
+        LocalSchemaRegistry registry = LocalSchemaRegistry.inMemory(objectMapper);
+        VersionedJsonSerializer<Object> serializer = new VersionedJsonSerializer<>(registry, objectMapper);
+        VersionedJsonDeserializer<UserEventRecordDto> recordDeserializer =
+                new VersionedJsonDeserializer<>(registry, objectMapper, UserEventRecordDto.class);
+        RecyclingPojoDecoder recyclingDecoder = new RecyclingPojoDecoder(registry, objectMapper);
+
+        // max.poll.records 기본값(500) 크기의 배치
+        int batchSize = 500;
+        int batches = ITERATIONS / batchSize * 10;
+        List<byte[]> batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            batch.add(serializer.serialize("pojo-events", new UserEventPojoDto("user" + i, "PAGE_VIEW",
+                    LocalDateTime.of(2024, 1, 1, 12, 0, 0), Map.of("page", "/home", "ip", "10.0.0." + i % 256))));
+        }
+
+        // 배치 콜백에서 하는 일: 필드 읽기 (참조는 콜백 밖으로 내보내지 않음)
+        long[] checksum = new long[1];
+        Runnable recordPath = () -> {
+            List<UserEventRecordDto> events = new ArrayList<>(batchSize);
+            for (byte[] payload : batch) {
+                events.add(recordDeserializer.deserialize("pojo-events", payload));
+            }
+            for (UserEventRecordDto event : events) {
+                checksum[0] += event.userId().length() + event.metadata().size();
+            }
+        };
+        Runnable recyclingPath = () -> recyclingDecoder.decodeBatch(batch, events -> {
+            for (UserEventPojoDto event : events) {
+                checksum[0] += event.getUserId().length() + event.getMetadata().size();
+            }
+        });
+
+        // Warmup
+        for (int i = 0; i < 20; i++) {
+            recordPath.run();
+            recyclingPath.run();
+        }
+
+        long[] record = measureAllocation(recordPath, batches);
+        long[] recycling = measureAllocation(recyclingPath, batches);
+        long messages = (long) batches * batchSize;
+
+        System.out.printf("📊 배치 디코딩 결과 (%d개 메시지, 배치 %d):%n", messages, batchSize);
+        System.out.printf("   Record (신규 생성):   %,d bytes/msg, GC %d회, %.2f ms%n",
+                record[0] / messages, record[1], record[2] / 1_000_000.0);
+        System.out.printf("   POJO (인스턴스 재사용): %,d bytes/msg, GC %d회, %.2f ms%n",
+                recycling[0] / messages, recycling[1], recycling[2] / 1_000_000.0);
+        if (record[0] > 0) {
+            System.out.printf("   할당 감소: %.1f%%%n", (1 - (double) recycling[0] / record[0]) * 100);
+        }
+        System.out.println("   (checksum " + checksum[0] + ")");
+    }
+
+    /**
+     * [할당 bytes, GC 횟수, 경과 ns] - 현재 스레드 할당량은 HotSpot 확장 MXBean 으로 측정
+     */
+    private static long[] measureAllocation(Runnable batch, int batches) {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        boolean allocationSupported = threads instanceof com.sun.management.ThreadMXBean;
+
+        long allocatedBefore = allocationSupported
+                ? ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(threadId) : 0;
+        long gcBefore = gcCount();
+        long start = System.nanoTime();
+        for (int i = 0; i < batches; i++) {
+            batch.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocationSupported
+                ? ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(threadId) - allocatedBefore : 0;
+        return new long[]{allocated, gcCount() - gcBefore, elapsed};
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    /**
+     * Runtime 사용량 차이로 본 대략적인 비교 (GC 타이밍에 따라 흔들림)
+     * 정확한 객체별 shallow/retained size 는 MemoryFootprintBenchmarkTest 참고
+     */
     @Test
     void compareMemoryUsage() {
         System.out.println("🚀 메모리 사용량 비교 테스트 시작");
@@ -7,6 +7,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -216,4 +217,35 @@ class PojoSerializationTest {
         System.out.println("✅ POJO 가변성 테스트 성공");
         System.out.println("⚠️ 주의: POJO는 가변 객체이므로 의도치 않은 변경에 주의해야 합니다.");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testPojoFreeze() throws Exception {
+        // Given: 같은 내용의 가변 POJO 와 freeze 된 POJO
+        Map<String, Object> metadata = new HashMap<>(Map.of("ip", "10.0.0.1", "page", "/home"));
+        UserEventPojoDto mutable = new UserEventPojoDto(
+                "frozen-user", "LOGIN", LocalDateTime.of(2024, 1, 1, 12, 0), metadata
+        );
+        UserEventPojoDto frozen = new UserEventPojoDto(
+                "frozen-user", "LOGIN", LocalDateTime.of(2024, 1, 1, 12, 0), metadata
+        ).freeze();
+
+        // When: freeze 이후 원본 메타데이터를 수정
+        metadata.put("ip", "10.0.0.2");
+
+        // Then: freeze 된 객체는 복사본을 가지므로 영향 없음, setter 는 거부
+        assertEquals("10.0.0.1", frozen.getMetadataValue("ip"));
+        assertThrows(IllegalStateException.class, () -> frozen.setUserId("other"));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.getMetadata().put("new", "value"));
+
+        // equals/hashCode 는 가변 객체와 동일한 규약
+        mutable.setMetadata(Map.of("ip", "10.0.0.1", "page", "/home"));
+        assertEquals(mutable, frozen);
+        assertEquals(mutable.hashCode(), frozen.hashCode());
+
+        // freeze 상태는 직렬화되지 않음
+        String json = objectMapper.writeValueAsString(frozen);
+        assertFalse(json.contains("frozen\""));
+
+        System.out.println("✅ POJO freeze(불변 모드) 테스트 성공");
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.demo;
+
+import com.example.demo.ratelimit.RateLimitRule;
+import com.example.demo.ratelimit.TokenBucketLimiter;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * userId 별 토큰 버킷 요청 제한 테스트
+ *
+ * 🔍 테스트 목적:
+ * 1. burst 만큼은 바로 허용되고, 그 뒤에는 설정한 속도로만 허용되는지 확인
+ * 2. eventType 별 한도가 기본 한도와 별도 버킷으로 동작하는지 확인
+ * 3. 가득 찬(idle) 버킷을 제거해도 판정이 바뀌지 않고, 테이블이 가득 차도 동작하는지 확인
+ * 4. 정상 상태에서 요청당 판정 비용 측정
+ */
+class RateLimitTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final AtomicLong clock = new AtomicLong(1_000 * SECOND);
+
+    @Test
+    void testBurstThenSteadyRate() {
+        // Given: 초당 10건, burst 5
+        TokenBucketLimiter limiter = new TokenBucketLimiter(new RateLimitRule(10, 5), Map.of(), 1_024, clock::get);
+
+        // When / Then: burst 5건 허용 후 거부, 거부 시 남은 시간은 다음 토큰까지
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire("user-1", "CLICK"), "burst " + i);
+        }
+        long waitNanos = limiter.tryAcquire("user-1", "CLICK");
+        assertTrue(waitNanos > 0 && waitNanos <= SECOND / 10, "wait: " + waitNanos);
+
+        clock.addAndGet(waitNanos);
+        assertEquals(0, limiter.tryAcquire("user-1", "CLICK"), "토큰 하나 채워진 뒤 허용");
+        assertTrue(limiter.tryAcquire("user-1", "CLICK") > 0);
+
+        // 1초 동안 1ms 간격으로 요청 → 약 10건만 허용
+        int allowed = 0;
+        for (int i = 0; i < 1_000; i++) {
+            clock.addAndGet(SECOND / 1_000);
+            if (limiter.tryAcquire("user-1", "CLICK") == 0) {
+                allowed++;
+            }
+        }
+        assertTrue(allowed >= 9 && allowed <= 11, "allowed: " + allowed);
+
+        // 다른 사용자는 영향 없음
+        assertEquals(0, limiter.tryAcquire("user-2", "CLICK"));
+
+        System.out.println("✅ burst 후 초당 한도 적용 성공 - 1초 동안 " + allowed + "건 허용");
+    }
+
+    @Test
+    void testEventTypeOverridesUseSeparateBuckets() {
+        // Given
+        Map<String, RateLimitRule> overrides = RateLimitRule.parseOverrides("LOGIN=1/2, PURCHASE=0.5/1");
+        TokenBucketLimiter limiter = new TokenBucketLimiter(new RateLimitRule(100, 100), overrides, 1_024, clock::get);
+
+        // When / Then: LOGIN 한도 소진이 다른 eventType(기본 버킷)에 영향 없음
+        assertEquals(0, limiter.tryAcquire("user-1", "LOGIN"));
+        assertEquals(0, limiter.tryAcquire("user-1", "LOGIN"));
+        assertTrue(limiter.tryAcquire("user-1", "LOGIN") > 0);
+        assertEquals(0, limiter.tryAcquire("user-1", "CLICK"));
+        assertEquals(0, limiter.tryAcquire("user-1", null), "eventType 없음 → 기본 한도");
+
+        // 0.5건/초 → 다음 토큰까지 2초
+        assertEquals(0, limiter.tryAcquire("user-1", "PURCHASE"));
+        assertEquals(2 * SECOND, limiter.tryAcquire("user-1", "PURCHASE"));
+
+        assertEquals(new RateLimitRule(1, 2), overrides.get("LOGIN"));
+        assertThrows(IllegalArgumentException.class, () -> RateLimitRule.parseOverrides("LOGIN=fast"));
+        assertThrows(IllegalArgumentException.class, () -> RateLimitRule.parseOverrides("LOGIN=0/5"));
+        assertTrue(RateLimitRule.parseOverrides("").isEmpty());
+
+        System.out.println("✅ eventType 별 한도 분리 성공");
+    }
+
+    @Test
+    void testIdleBucketsAreEvictedWithoutChangingDecisions() {
+        // Given: 초당 1건, burst 2
+        TokenBucketLimiter limiter = new TokenBucketLimiter(new RateLimitRule(1, 2), Map.of(), 100_000, clock::get);
+        for (int i = 0; i < 10_000; i++) {
+            limiter.tryAcquire("user-" + i, "CLICK");
+        }
+        limiter.tryAcquire("hot-user", "CLICK");
+        limiter.tryAcquire("hot-user", "CLICK");
+        assertEquals(10_001, limiter.trackedBuckets());
+
+        // When: 0.5초 뒤 - 아직 가득 차지 않은 버킷은 남음
+        clock.addAndGet(SECOND / 2);
+        assertEquals(0, limiter.evictIdle());
+
+        // 1초 뒤 - 한 번만 요청한 사용자는 버킷이 다시 가득 참 → 제거
+        clock.addAndGet(SECOND / 2);
+        assertEquals(10_000, limiter.evictIdle());
+        assertEquals(1, limiter.trackedBuckets());
+
+        // Then: hot-user 는 여전히 토큰 1개만 회복된 상태
+        assertEquals(0, limiter.tryAcquire("hot-user", "CLICK"));
+        assertTrue(limiter.tryAcquire("hot-user", "CLICK") > 0);
+        assertTrue(limiter.memoryBytes() > 0);
+
+        System.out.println("✅ idle 버킷 제거 성공 - 10,000개 제거, 메모리 " + limiter.memoryBytes() / 1024 + " KB");
+    }
+
+    @Test
+    void testFullTableStillLimitsTrackedUsers() {
+        // Given: 한도당 최대 버킷 128개
+        TokenBucketLimiter limiter = new TokenBucketLimiter(new RateLimitRule(1, 1), Map.of(), 128, clock::get);
+        assertEquals(0, limiter.tryAcquire("abuser", "CLICK"));
+
+        // When: 새 userId 로 테이블을 채움
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(0, limiter.tryAcquire("user-" + i, "CLICK"), "새 userId 는 추적 여부와 관계없이 허용");
+        }
+
+        // Then: 크기 상한 유지, 이미 추적 중인 사용자는 계속 제한
+        assertTrue(limiter.trackedBuckets() <= 128, "buckets: " + limiter.trackedBuckets());
+        assertTrue(limiter.tryAcquire("abuser", "CLICK") > 0);
+
+        System.out.println("✅ 테이블 상한 유지 성공 - " + limiter.trackedBuckets() + "개 추적");
+    }
+
+    @Test
+    void testSteadyStateCostPerCheck() {
+        // Given: 실제 시계, 사용자 10,000명
+        TokenBucketLimiter limiter = new TokenBucketLimiter(new RateLimitRule(1_000_000, 1_000_000),
+                Map.of("LOGIN", new RateLimitRule(5, 10)), 1_000_000, System::nanoTime);
+        String[] users = new String[10_000];
+        for (int i = 0; i < users.length; i++) {
+            users[i] = "user-" + i;
+        }
+
+        // When: 워밍업 후 측정
+        long sink = 0;
+        for (int i = 0; i < 2_000_000; i++) {
+            sink += limiter.tryAcquire(users[i % users.length], "CLICK");
+        }
+        int iterations = 5_000_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += limiter.tryAcquire(users[i % users.length], "CLICK");
+        }
+        double nanosPerCheck = (double) (System.nanoTime() - start) / iterations;
+
+        // Then
+        assertEquals(0, sink, "한도 안에서는 모두 허용");
+        System.out.printf("✅ 요청당 판정 비용 측정 성공 - %.1f ns%n", nanosPerCheck);
+    }
+}
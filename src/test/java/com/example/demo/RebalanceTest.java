@@ -0,0 +1,194 @@
+package com.example.demo;
+
+import com.example.demo.rebalance.HandoffRebalanceListener;
+import com.example.demo.rebalance.PartitionHandoff;
+import com.example.demo.rebalance.RebalanceSettings;
+import com.example.demo.session.SessionEventKind;
+import com.example.demo.session.SessionStateStore;
+import com.example.demo.session.UserSession;
+import com.example.demo.session.UserStateCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.CooperativeStickyAssignor;
+import org.apache.kafka.clients.consumer.RangeAssignor;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 리밸런스 비용 줄이기 테스트 (RebalanceSettings / HandoffRebalanceListener / SessionStateStore.release)
+ *
+ * 🔍 테스트 목적:
+ * 1. cooperative 할당과 정적 멤버십 설정이 리스너별 컨슈머 설정으로 만들어지는지 확인
+ * 2. revoke 시 상태를 먼저 넘기고, 새 파티션을 받을 때만 따라잡으며, 빈 revoke 는 무시하는지 확인
+ * 3. 내놓은 파티션 테이블을 정리해도 조회 결과가 유지되고, 다시 받은 파티션은 이어서 반영되는지 확인
+ * 4. 파티션이 A → B → A 로 돌아와 따라잡아도 카운터를 두 번 세지 않는지 확인
+ */
+class RebalanceTest {
+
+    private static final String TOPIC = "record-events";
+    private static final String STATE_TOPIC = "user-latest-state";
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 12, 0, 0);
+
+    @Test
+    void testCooperativeStaticMembershipProperties() {
+        // Given
+        RebalanceSettings settings = new RebalanceSettings(true, true, true, "demo-0", 90_000);
+
+        // When
+        Properties properties = settings.consumerProperties("record-events.critical");
+
+        // Then: eager-fallback 이면 RangeAssignor 도 함께 지정 (그동안 그룹은 eager)
+        assertEquals(CooperativeStickyAssignor.class.getName() + "," + RangeAssignor.class.getName(),
+                properties.getProperty(ConsumerConfig.PARTITION_ASSIGNMENT_STRATEGY_CONFIG));
+        assertEquals(CooperativeStickyAssignor.class.getName(),
+                new RebalanceSettings(true, false, false, "", 45_000).consumerProperties("pojo-events")
+                        .getProperty(ConsumerConfig.PARTITION_ASSIGNMENT_STRATEGY_CONFIG));
+        assertEquals("demo-0-record-events.critical", properties.getProperty(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG));
+        assertEquals("90000", properties.getProperty(ConsumerConfig.SESSION_TIMEOUT_MS_CONFIG));
+
+        // 둘 다 끄면 기존(eager, 동적 멤버) 설정 그대로
+        assertTrue(new RebalanceSettings(false, true, false, "", 45_000).consumerProperties("pojo-events").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> new RebalanceSettings(true, true, true, " ", 45_000));
+
+        System.out.println("✅ cooperative / 정적 멤버십 컨슈머 설정 성공: " + properties);
+    }
+
+    @Test
+    void testRevokeReleasesBeforeAssignAcquires() {
+        // Given
+        List<String> calls = new ArrayList<>();
+        PartitionHandoff handoff = new PartitionHandoff() {
+            @Override
+            public void release(String listener, Collection<TopicPartition> partitions) {
+                calls.add("release " + listener + " " + partitions);
+            }
+
+            @Override
+            public void acquire(String listener, Collection<TopicPartition> partitions) {
+                calls.add("acquire " + listener + " " + partitions);
+            }
+        };
+        HandoffRebalanceListener listener = new HandoffRebalanceListener("record-events", handoff,
+                new SimpleMeterRegistry());
+        TopicPartition p0 = new TopicPartition(TOPIC, 0);
+        TopicPartition p1 = new TopicPartition(TOPIC, 1);
+
+        // When: 첫 참여(eager 는 빈 revoke) → p0, p1 할당 → p1 revoke → 새로 받은 파티션 없음 → p1 lost
+        listener.onPartitionsRevokedBeforeCommit(null, List.of());
+        listener.onPartitionsAssigned(null, List.of(p0, p1));
+        listener.onPartitionsRevokedBeforeCommit(null, List.of(p1));
+        listener.onPartitionsAssigned(null, List.of());
+        listener.onPartitionsLost(null, List.of(p1));
+
+        // Then
+        assertEquals(List.of(
+                "acquire record-events " + List.of(p0, p1),
+                "release record-events " + List.of(p1),
+                "release record-events " + List.of(p1)), calls);
+
+        System.out.println("✅ revoke 핸드오프 → assign 따라잡기 순서 성공: " + calls);
+    }
+
+    @Test
+    void testReleasedPartitionKeepsMergedState() {
+        // Given: 같은 사용자의 이벤트가 두 파티션에 있음
+        SessionStateStore store = new SessionStateStore(new SimpleMeterRegistry(), 16);
+        store.apply(TOPIC, 0, "user-1", SessionEventKind.LOGIN, BASE);
+        store.apply(TOPIC, 0, "user-1", SessionEventKind.OTHER, BASE.plusSeconds(5));
+        store.apply(TOPIC, 1, "user-1", SessionEventKind.LOGOUT, BASE.plusSeconds(10));
+        for (int i = 0; i < 100; i++) {
+            store.apply(TOPIC, 0, "user-" + (i + 2), SessionEventKind.LOGIN, BASE);
+        }
+        UserSession before = store.find("user-1").orElseThrow();
+
+        // When: 파티션 0 을 내놓음
+        int released = store.release(TOPIC, 0);
+
+        // Then: 조회 결과는 그대로, 없는 파티션 release 는 무시
+        assertEquals(101, released);
+        assertEquals(before, store.find("user-1").orElseThrow());
+        assertTrue(store.find("user-50").isPresent());
+        assertEquals(0, store.release(TOPIC, 7));
+
+        // When: 파티션 0 을 다시 받아 이벤트가 이어지고, 또 내놓음
+        store.apply(TOPIC, 0, "user-1", SessionEventKind.LOGIN, BASE.plusMinutes(1));
+        store.release(TOPIC, 0);
+
+        // Then: 카운터는 두 번 세지 않고 더해짐
+        UserSession after = store.find("user-1").orElseThrow();
+        assertTrue(after.active());
+        assertEquals(4, after.totalEvents());
+        assertEquals(2, after.logins());
+        assertEquals(BASE.plusMinutes(1), after.lastLoginAt());
+
+        System.out.println("✅ 내놓은 파티션 테이블 정리 후 상태 유지 성공: " + after);
+    }
+
+    @Test
+    void testHandoffRoundTripDoesNotDoubleCount() {
+        // Given: 인스턴스 A 가 파티션 0 에서 user-1 이벤트 2건 처리 후 상태 기록
+        SessionStateStore a = new SessionStateStore(new SimpleMeterRegistry(), 16);
+        SessionStateStore b = new SessionStateStore(new SimpleMeterRegistry(), 16);
+        a.apply(TOPIC, 0, "user-1", SessionEventKind.LOGIN, BASE);
+        a.apply(TOPIC, 0, "user-1", SessionEventKind.OTHER, BASE.plusSeconds(5));
+        byte[] publishedByA = publish(a, "user-1");
+
+        // When: A → B (A 가 내놓고, B 가 A 의 기록을 따라잡은 뒤 이어서 처리)
+        a.release(TOPIC, 0);
+        catchUp(b, publishedByA);
+        b.apply(TOPIC, 0, "user-1", SessionEventKind.LOGOUT, BASE.plusSeconds(10));
+        b.apply(TOPIC, 0, "user-1", SessionEventKind.LOGIN, BASE.plusSeconds(15));
+        byte[] publishedByB = publish(b, "user-1");
+
+        // Then: B 는 A 의 카운터에 이어서 셈
+        assertEquals(4, b.find("user-1").orElseThrow().totalEvents());
+
+        // When: B → A (A 의 released 테이블에는 아직 처음 2건이 있음)
+        b.release(TOPIC, 0);
+        catchUp(a, publishedByB);
+
+        // Then: B 의 합계가 A 의 2건을 이미 포함하므로 4건 (최댓값 복원 + released 합이면 6건)
+        UserSession back = a.find("user-1").orElseThrow();
+        assertEquals(4, back.totalEvents());
+        assertEquals(2, back.logins());
+        assertTrue(back.active());
+        assertEquals(BASE.plusSeconds(15), back.lastLoginAt());
+
+        // When: A 가 다시 받은 파티션에서 이어서 처리
+        a.apply(TOPIC, 0, "user-1", SessionEventKind.LOGOUT, BASE.plusSeconds(20));
+
+        // Then
+        UserSession after = a.find("user-1").orElseThrow();
+        assertEquals(5, after.totalEvents());
+        assertEquals(2, after.logins());
+        assertFalse(after.active());
+
+        System.out.println("✅ A → B → A 핸드오프 카운터 유지 성공: " + after);
+    }
+
+    /**
+     * UserStateProducer 가 compacted 토픽에 기록하는 값
+     */
+    private static byte[] publish(SessionStateStore store, String userId) {
+        long[] state = new long[UserStateCodec.FIELDS];
+        assertTrue(store.snapshot(userId, state));
+        return UserStateCodec.encode(state);
+    }
+
+    /**
+     * UserStateBootstrap.catchUp 이 다른 인스턴스의 기록을 반영하는 방식
+     */
+    private static void catchUp(SessionStateStore store, byte[] value) {
+        long[] state = new long[UserStateCodec.FIELDS];
+        assertTrue(UserStateCodec.decode(value, state));
+        store.supersede(STATE_TOPIC, 0, "user-1", state);
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.demo;
+
+import com.example.demo.session.SessionEventKind;
+import com.example.demo.session.SessionStateStore;
+import com.example.demo.session.UserSession;
+import com.example.demo.session.UserStateCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 사용자 세션 상태 저장소 테스트
+ *
+ * 🔍 테스트 목적:
+ * 1. LOGIN/LOGOUT 이벤트로 활성 세션 여부가 바뀌는지 확인
+ * 2. 여러 파티션에 흩어지고 순서가 뒤바뀐 이벤트도 같은 결과로 합쳐지는지 확인
+ * 3. 테이블 확장 후에도 모든 사용자를 조회할 수 있는지, 조회 지연 측정
+ * 4. compacted 토픽 스냅샷으로 복원(warm start)한 뒤 증분 이벤트가 이어서 반영되는지 확인
+ * 5. int 범위를 넘는 카운터가 잘리거나 음수로 넘어가지 않고 포화하는지 확인
+ */
+class SessionStateStoreTest {
+
+    private static final String TOPIC = "record-events";
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 12, 0, 0);
+
+    @Test
+    void testLoginAndLogoutTrackActiveSession() {
+        // Given
+        SessionStateStore store = new SessionStateStore(new SimpleMeterRegistry(), 16);
+
+        // When: 로그인 → 페이지뷰
+        store.apply(TOPIC, 0, "user-1", SessionEventKind.LOGIN, BASE);
+        store.apply(TOPIC, 0, "user-1", SessionEventKind.OTHER, BASE.plusSeconds(5));
+
+        // Then
+        UserSession session = store.find("user-1").orElseThrow();
+        assertTrue(session.active());
+        assertEquals(BASE, session.lastLoginAt());
+        assertEquals(BASE.plusSeconds(5), session.lastSeenAt());
+        assertEquals(2, session.totalEvents());
+
+        // When: 로그아웃
+        store.apply(TOPIC, 0, "user-1", SessionEventKind.LOGOUT, BASE.plusSeconds(10));
+
+        // Then
+        UserSession loggedOut = store.find("user-1").orElseThrow();
+        assertFalse(loggedOut.active());
+        assertEquals(BASE.plusSeconds(10), loggedOut.lastLogoutAt());
+        assertTrue(store.find("unknown-user").isEmpty());
+
+        System.out.println("✅ 로그인/로그아웃 세션 추적 성공: " + loggedOut);
+    }
+
+    @Test
+    void testStateIsMergedAcrossPartitionsRegardlessOfOrder() {
+        // Given: 핫 키 분산으로 같은 사용자의 이벤트가 두 파티션에 흩어짐
+        SessionStateStore store = new SessionStateStore(new SimpleMeterRegistry(), 16);
+
+        // When: 재로그인이 이전 로그아웃보다 먼저 도착
+        store.apply(TOPIC, 1, "hot-user", SessionEventKind.LOGIN, BASE.plusMinutes(10));
+        store.apply(TOPIC, 0, "hot-user", SessionEventKind.LOGIN, BASE);
+        store.apply(TOPIC, 0, "hot-user", SessionEventKind.LOGOUT, BASE.plusMinutes(5));
+
+        // Then: 마지막 LOGIN(10분)이 마지막 LOGOUT(5분)보다 나중이므로 활성
+        UserSession session = store.find("hot-user").orElseThrow();
+        assertTrue(session.active());
+        assertEquals(2, session.logins());
+        assertEquals(3, session.totalEvents());
+        assertEquals(BASE.plusMinutes(10), session.lastSeenAt());
+
+        System.out.println("✅ 파티션 병합/순서 무관 반영 성공");
+    }
+
+    @Test
+    void testManyUsersAfterResize() {
+        // Given: 초기 16 슬롯에서 시작
+        SessionStateStore store = new SessionStateStore(new SimpleMeterRegistry(), 16);
+        int users = 200_000;
+
+        // When
+        for (int i = 0; i < users; i++) {
+            store.apply(TOPIC, i % 3, "user-" + i, SessionEventKind.LOGIN, BASE.plusSeconds(i));
+        }
+
+        // Then: 확장 후에도 모든 사용자 조회 가능
+        assertEquals(users, store.trackedUsers());
+        long start = System.nanoTime();
+        for (int i = 0; i < users; i++) {
+            UserSession session = store.find("user-" + i).orElseThrow();
+            assertEquals(BASE.plusSeconds(i), session.lastLoginAt());
+        }
+        long avgNanos = (System.nanoTime() - start) / users;
+
+        System.out.printf("✅ %,d 사용자 조회 성공: 평균 %,d ns/조회, 오프힙 %,d bytes%n",
+                users, avgNanos, store.offHeapBytes());
+    }
+
+    @Test
+    void testWarmStartRestoresSnapshotsAndContinuesIncrementally() {
+        // Given: 재시작 전 상태를 스냅샷으로 인코딩
+        SessionStateStore before = new SessionStateStore(new SimpleMeterRegistry(), 16);
+        before.apply(TOPIC, 0, "user-1", SessionEventKind.LOGIN, BASE);
+        before.apply(TOPIC, 1, "user-1", SessionEventKind.OTHER, BASE.plusMinutes(1));
+        long[] state = new long[UserStateCodec.FIELDS];
+        assertTrue(before.snapshot("user-1", state));
+        byte[] latest = UserStateCodec.encode(state);
+        before.apply(TOPIC, 0, "user-1", SessionEventKind.LOGOUT, BASE.plusMinutes(2));
+        assertTrue(before.snapshot("user-1", state));
+        byte[] newest = UserStateCodec.encode(state);
+
+        // When: 컴팩션 전이라 같은 키의 스냅샷이 여러 건, 순서도 뒤바뀜
+        SessionStateStore restored = new SessionStateStore(new SimpleMeterRegistry(), 16);
+        long[] decoded = new long[UserStateCodec.FIELDS];
+        assertTrue(UserStateCodec.decode(newest, decoded));
+        restored.restore("user-latest-state", 0, "user-1", decoded);
+        assertTrue(UserStateCodec.decode(latest, decoded));
+        restored.restore("user-latest-state", 0, "user-1", decoded);
+        assertFalse(UserStateCodec.decode(new byte[]{9, 9}, decoded));
+
+        // Then: 가장 최신 스냅샷과 같은 상태
+        assertEquals(before.find("user-1").orElseThrow(), restored.find("user-1").orElseThrow());
+
+        // When: 재시작 후 증분 이벤트
+        restored.apply(TOPIC, 0, "user-1", SessionEventKind.LOGIN, BASE.plusMinutes(3));
+
+        // Then: 복원된 누적값에 이어서 반영
+        UserSession session = restored.find("user-1").orElseThrow();
+        assertTrue(session.active());
+        assertEquals(4, session.totalEvents());
+        assertEquals(2, session.logins());
+        assertEquals(BASE.plusMinutes(2), session.lastLogoutAt());
+        assertTrue(restored.snapshot("user-1", state));
+        assertEquals(BASE.plusMinutes(3).toInstant(ZoneOffset.UTC).toEpochMilli(), state[2]);
+
+        System.out.println("✅ 스냅샷 복원 후 증분 반영 성공: " + session);
+    }
+
+    @Test
+    void testCountersSaturateInsteadOfWrapping() {
+        // Given: int 범위를 넘는 스냅샷 (long 그대로 캐스팅하면 음수로 넘어감)
+        SessionStateStore store = new SessionStateStore(new SimpleMeterRegistry(), 16);
+        long[] state = {Long.MIN_VALUE, Long.MIN_VALUE, Long.MIN_VALUE, 3_000_000_000L, -5};
+
+        // When
+        store.restore(TOPIC, 0, "user-1", state);
+        store.apply(TOPIC, 0, "user-1", SessionEventKind.LOGIN, BASE);
+        store.release(TOPIC, 0);
+
+        // Then: Integer.MAX_VALUE 에서 멈추고, 음수 카운터는 0 으로
+        UserSession session = store.find("user-1").orElseThrow();
+        assertEquals(Integer.MAX_VALUE, session.totalEvents());
+        assertEquals(1, session.logins());
+
+        System.out.println("✅ 카운터 포화 성공: " + session);
+    }
+}
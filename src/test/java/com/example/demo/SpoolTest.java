@@ -0,0 +1,248 @@
+package com.example.demo;
+
+import com.example.demo.config.JacksonConfig;
+import com.example.demo.dto.record.UserEventRecordDto;
+import com.example.demo.routing.EventLaneRouter;
+import com.example.demo.schema.LocalSchemaRegistry;
+import com.example.demo.spool.MappedSegmentLog;
+import com.example.demo.spool.RecordEventSpool;
+import com.example.demo.spool.SpoolEntry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 프로듀서 장애 대비 로컬 스풀(MappedSegmentLog) 테스트
+ *
+ * 🔍 테스트 목적:
+ * 1. 기록한 순서대로 읽히고, commit 전에는 읽기 위치가 바뀌지 않는지 확인
+ * 2. 재시작 후 체크포인트 이후 엔트리만 다시 읽히는지 확인
+ * 3. 쓰다 만 꼬리(CRC 불일치)를 버리고 이어서 기록하는지 확인
+ * 4. 최대 세그먼트 수에 도달하면 기록을 거부하고, 비운 뒤에는 다시 기록하는지 확인
+ * 5. 재전송(RecordEventSpool.replay)이 첫 엔트리로 브로커를 확인하고, 실패 뒤로는 더 보내지 않는지 확인
+ */
+class SpoolTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testAppendReadAndCommitInOrder() {
+        // Given
+        try (MappedSegmentLog log = new MappedSegmentLog(directory, 4096, 4)) {
+            for (int i = 0; i < 10; i++) {
+                assertTrue(log.append(bytes("user-" + (i % 3)), bytes("event-" + i)));
+            }
+
+            // When: 읽기만 하고 commit 하지 않음
+            List<SpoolEntry> first = log.readBatch(4);
+            List<SpoolEntry> again = log.readBatch(4);
+
+            // Then
+            assertEquals(4, first.size());
+            assertEquals("event-0", text(first.get(0).value()));
+            assertEquals("user-0", text(first.get(0).key()));
+            assertEquals("event-3", text(again.get(3).value()));
+            assertEquals(10L, log.pendingEntries());
+
+            // When: commit 후 다음 배치
+            log.commit(first.get(3), 4);
+            List<SpoolEntry> rest = log.readBatch(100);
+
+            // Then
+            assertEquals(6, rest.size());
+            assertEquals("event-4", text(rest.get(0).value()));
+            assertEquals("event-9", text(rest.get(5).value()));
+            assertEquals(6L, log.pendingEntries());
+
+            log.commit(rest.get(5), 6);
+            assertTrue(log.isEmpty());
+            assertTrue(log.readBatch(10).isEmpty());
+        }
+
+        System.out.println("✅ 스풀 기록/읽기 순서 및 commit 성공");
+    }
+
+    @Test
+    void testRecoversFromCheckpointAfterRestart() {
+        // Given: 세그먼트 여러 개에 걸쳐 기록하고 일부만 commit
+        try (MappedSegmentLog log = new MappedSegmentLog(directory, 256, 16)) {
+            for (int i = 0; i < 30; i++) {
+                assertTrue(log.append(bytes("user-1"), bytes("event-" + i)));
+            }
+            List<SpoolEntry> sent = log.readBatch(12);
+            log.commit(sent.get(11), 12);
+        }
+
+        // When: 재시작
+        try (MappedSegmentLog reopened = new MappedSegmentLog(directory, 256, 16)) {
+            List<SpoolEntry> remaining = reopened.readBatch(100);
+
+            // Then
+            assertEquals(18L, reopened.pendingEntries());
+            assertEquals(18, remaining.size());
+            assertEquals("event-12", text(remaining.get(0).value()));
+            assertEquals("event-29", text(remaining.get(17).value()));
+
+            // 재시작 후 추가 기록도 기존 엔트리 뒤에 이어짐
+            assertTrue(reopened.append(bytes("user-1"), bytes("event-30")));
+            List<SpoolEntry> all = reopened.readBatch(100);
+            assertEquals("event-30", text(all.get(all.size() - 1).value()));
+        }
+
+        System.out.println("✅ 재시작 후 체크포인트 복구 성공");
+    }
+
+    @Test
+    void testDiscardsTornTailOnRecovery() throws IOException {
+        // Given: 두 번째 엔트리를 쓰다가 종료된 상황을 흉내 (값 바이트 손상)
+        try (MappedSegmentLog log = new MappedSegmentLog(directory, 4096, 4)) {
+            log.append(bytes("user-1"), bytes("event-0"));
+            log.append(bytes("user-1"), bytes("event-1"));
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(file -> file.getFileName().toString().startsWith("segment-")).findFirst().orElseThrow();
+        }
+        int secondEntryValue = (8 + 4 + 6 + 7) + 12 + 6;
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(secondEntryValue);
+            file.write('X');
+        }
+
+        // When
+        try (MappedSegmentLog reopened = new MappedSegmentLog(directory, 4096, 4)) {
+            // Then: 손상된 엔트리는 버리고, 그 자리에 새로 기록
+            assertEquals(1L, reopened.pendingEntries());
+            assertTrue(reopened.append(bytes("user-1"), bytes("event-2")));
+            List<SpoolEntry> entries = reopened.readBatch(10);
+            assertEquals(2, entries.size());
+            assertEquals("event-0", text(entries.get(0).value()));
+            assertEquals("event-2", text(entries.get(1).value()));
+        }
+
+        System.out.println("✅ 손상된 꼬리 엔트리 제거 성공");
+    }
+
+    @Test
+    void testRejectsAppendsWhenFull() {
+        // Given: 세그먼트 2개, 세그먼트당 엔트리 3개
+        try (MappedSegmentLog log = new MappedSegmentLog(directory, 3 * 25, 2)) {
+            int accepted = 0;
+            while (log.append(bytes("user-1"), bytes("event-" + accepted))) {
+                accepted++;
+            }
+
+            // Then
+            assertEquals(6, accepted);
+            assertEquals(2L * 3 * 25, log.diskBytes());
+
+            // When: 모두 재전송 완료
+            List<SpoolEntry> entries = log.readBatch(100);
+            log.commit(entries.get(entries.size() - 1), entries.size());
+
+            // Then: 다 읽은 세그먼트가 삭제되어 다시 기록 가능
+            assertEquals(0L, log.diskBytes());
+            assertTrue(log.append(bytes("user-1"), bytes("event-6")));
+            assertEquals("event-6", text(log.readBatch(10).get(0).value()));
+        }
+
+        System.out.println("✅ 스풀 용량 제한 및 재사용 성공");
+    }
+
+    @Test
+    void testReplayProbesFirstAndStopsSendingAfterFailure() {
+        // Given: 스풀에 사용자 5명의 이벤트
+        ScriptedKafkaTemplate kafkaTemplate = new ScriptedKafkaTemplate();
+        ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+        RecordEventSpool spool = new RecordEventSpool(kafkaTemplate,
+                new EventLaneRouter(new SimpleMeterRegistry(), false, "LOGIN,LOGOUT", "", 3, 3, 50, 3, 1, 500),
+                LocalSchemaRegistry.inMemory(objectMapper), objectMapper, new SimpleMeterRegistry(),
+                "record-events", true, directory.toString(), 64 * 1024, 4, 10, 3_600_000);
+        try {
+            for (int i = 0; i < 5; i++) {
+                assertTrue(spool.offer(UserEventRecordDto.createSimple("user-" + i, "CLICK")));
+            }
+
+            // When: 브로커가 아직 다운
+            kafkaTemplate.succeedNext = 0;
+            int replayed = spool.replay();
+
+            // Then: 첫 엔트리만 보내 보고 배치는 보내지 않음
+            assertEquals(0, replayed);
+            assertEquals(List.of("user-0"), kafkaTemplate.sentKeys);
+
+            // When: 2건 성공 후 실패
+            kafkaTemplate.sentKeys.clear();
+            kafkaTemplate.succeedNext = 2;
+            replayed = spool.replay();
+
+            // Then: 실패가 확인된 뒤로는 더 보내지 않고, 성공한 2건까지만 commit
+            assertEquals(2, replayed);
+            assertEquals(List.of("user-0", "user-1", "user-2"), kafkaTemplate.sentKeys);
+            assertTrue(spool.hasPending());
+
+            // When: 복구
+            kafkaTemplate.sentKeys.clear();
+            kafkaTemplate.succeedNext = Integer.MAX_VALUE;
+            replayed = spool.replay();
+
+            // Then: 실패 지점부터 순서대로 재전송
+            assertEquals(3, replayed);
+            assertEquals(List.of("user-2", "user-3", "user-4"), kafkaTemplate.sentKeys);
+            assertFalse(spool.hasPending());
+        } finally {
+            spool.destroy();
+        }
+
+        System.out.println("✅ 스풀 재전송 probe / 실패 후 전송 중단 성공");
+    }
+
+    /**
+     * succeedNext 건까지 성공, 그 뒤로는 즉시 실패하는 KafkaTemplate
+     */
+    private static class ScriptedKafkaTemplate extends KafkaTemplate<String, UserEventRecordDto> {
+
+        private final List<String> sentKeys = new ArrayList<>();
+        private int succeedNext;
+
+        ScriptedKafkaTemplate() {
+            super(new DefaultKafkaProducerFactory<>(Map.of()));
+        }
+
+        @Override
+        public CompletableFuture<SendResult<String, UserEventRecordDto>> send(String topic, String key,
+                                                                             UserEventRecordDto data) {
+            sentKeys.add(key);
+            if (succeedNext-- > 0) {
+                return CompletableFuture.completedFuture(null);
+            }
+            return CompletableFuture.failedFuture(new IllegalStateException("broker down"));
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(byte[] value) {
+        return new String(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.demo;
+
+import com.example.demo.config.JacksonConfig;
+import com.example.demo.dto.record.UserEventRecordDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 기동 시간 벤치마크 - time-to-first-consumed-message (임베디드 브로커)
+ *
+ * 애플리케이션을 매번 새 JVM 으로 띄워, 미리 넣어 둔 이벤트를 처리하기까지 걸린 시간을
+ * StartupTimeline 로그("Time to first consumed message")에서 읽어 모드별로 비교합니다.
+ * (같은 JVM 에서 반복하면 두 번째부터 클래스 로딩/JIT 이 데워진 상태라 의미가 없음)
+ *
+ * 🔍 비교 대상:
+ * 1. default      - 전체 빈 즉시 생성 + 시작 시 토픽 생성/검증
+ * 2. fast-startup - 지연 초기화(@KafkaListener 빈 제외) + 토픽 admin 생략
+ *
+ * AOT/AppCDS 는 빌드 산출물(jar + app.jsa)이 필요하므로 ./gradlew bootRunFast 가 같은 로그를 남깁니다.
+ * 추가 JVM 옵션은 -Dstartup.benchmark.jvm-args="..." 로 자식 JVM 에 전달할 수 있습니다.
+ *
+ * 실행: ./gradlew benchmark --tests '*StartupBenchmarkTest'
+ */
+@Tag("benchmark")
+@EmbeddedKafka(partitions = 3, topics = {"record-events", "pojo-events", "comparison-events", "user-latest-state"})
+class StartupBenchmarkTest {
+
+    private static final int RUNS_PER_MODE = 3;
+    private static final long STARTUP_TIMEOUT_SECONDS = 120;
+    private static final List<String> MODES = List.of("default", "fast-startup");
+    private static final Pattern FIRST_MESSAGE = Pattern.compile("Time to first consumed message: (\\d+) ms");
+    private static final Pattern READY = Pattern.compile("Application ready (\\d+) ms");
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+
+    @TempDir
+    Path workDirectory;
+
+    @Test
+    void compareTimeToFirstConsumedMessage(EmbeddedKafkaBroker broker) throws Exception {
+        System.out.println("🚀 기동 시간 (time-to-first-consumed-message) 벤치마크 시작");
+
+        System.out.printf("   %-14s %14s %20s%n", "mode", "ready ms", "first message ms");
+        for (String mode : MODES) {
+            long[] ready = new long[RUNS_PER_MODE];
+            long[] firstMessage = new long[RUNS_PER_MODE];
+            for (int run = 0; run < RUNS_PER_MODE; run++) {
+                // 컨슈머 그룹 오프셋은 이전 실행에서 커밋되므로 실행마다 새 이벤트를 넣어 둠
+                produceProbe(broker.getBrokersAsString(), mode + "-" + run);
+                long[] timings = launchAndAwaitFirstMessage(broker.getBrokersAsString(), mode, run);
+                ready[run] = timings[0];
+                firstMessage[run] = timings[1];
+                assertTrue(firstMessage[run] > 0, "first message should be consumed");
+            }
+            System.out.printf("   %-14s %,14d %,20d   (median of %d runs)%n",
+                    mode, median(ready), median(firstMessage), RUNS_PER_MODE);
+        }
+
+        System.out.println("✅ 기동 시간 벤치마크 완료");
+    }
+
+    private void produceProbe(String bootstrapServers, String probeId) throws Exception {
+        Map<String, Object> props = Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+                ProducerConfig.ACKS_CONFIG, "all");
+        // 봉투 없는 JSON 은 컨슈머가 기존 포맷으로 디코딩하므로 자식 JVM 의 스키마 레지스트리와 무관
+        UserEventRecordDto event = new UserEventRecordDto("startup-probe-" + probeId, "LOGIN",
+                LocalDateTime.now(), Map.of("source", "startup-benchmark"));
+        try (KafkaProducer<String, String> producer =
+                     new KafkaProducer<>(props, new StringSerializer(), new StringSerializer())) {
+            producer.send(new ProducerRecord<>("record-events", event.userId(),
+                    objectMapper.writeValueAsString(event))).get(30, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * @return [ready ms, first message ms] (JVM 시작 기준)
+     */
+    private long[] launchAndAwaitFirstMessage(String bootstrapServers, String mode, int run) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        String extraJvmArgs = System.getProperty("startup.benchmark.jvm-args", "").trim();
+        if (!extraJvmArgs.isEmpty()) {
+            command.addAll(Arrays.asList(extraJvmArgs.split("\\s+")));
+        }
+        command.addAll(List.of(
+                "-cp", System.getProperty("java.class.path"),
+                DemoApplication.class.getName(),
+                "--spring.kafka.bootstrap-servers=" + bootstrapServers,
+                "--server.port=0",
+                "--demo.spool.directory=" + workDirectory.resolve(mode + "-" + run + "-spool"),
+                "--demo.state.bootstrap-timeout-ms=10000"));
+        if (!"default".equals(mode)) {
+            command.add("--spring.profiles.active=" + mode);
+        }
+
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .start();
+        try {
+            CompletableFuture<long[]> firstMessage = new CompletableFuture<>();
+            Thread reader = new Thread(() -> readUntilFirstMessage(process, firstMessage), "startup-log-reader");
+            reader.setDaemon(true);
+            reader.start();
+            return firstMessage.get(STARTUP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static void readUntilFirstMessage(Process process, CompletableFuture<long[]> result) {
+        try (BufferedReader output = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            // 리스너 컨테이너는 ApplicationReadyEvent 전에 시작되므로 두 로그의 순서는 정해져 있지 않음
+            long readyMillis = -1;
+            long firstMessageMillis = -1;
+            String line;
+            while ((line = output.readLine()) != null) {
+                Matcher ready = READY.matcher(line);
+                if (ready.find()) {
+                    readyMillis = Long.parseLong(ready.group(1));
+                }
+                Matcher firstMessage = FIRST_MESSAGE.matcher(line);
+                if (firstMessage.find()) {
+                    firstMessageMillis = Long.parseLong(firstMessage.group(1));
+                }
+                if (readyMillis >= 0 && firstMessageMillis >= 0) {
+                    result.complete(new long[]{readyMillis, firstMessageMillis});
+                }
+                // 종료될 때까지 계속 읽어 자식 프로세스가 출력 버퍼에 막히지 않도록 함
+            }
+            result.completeExceptionally(new IllegalStateException("application exited before consuming a message"));
+        } catch (IOException e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.demo;
+
+import com.example.demo.config.JacksonConfig;
+import com.example.demo.dto.pojo.UserEventPojoDto;
+import com.example.demo.dto.record.UserEventRecordDto;
+import com.example.demo.schema.LocalSchemaRegistry;
+import com.example.demo.schema.RecyclingPojoDecoder;
+import com.example.demo.schema.SchemaDescriptor;
+import com.example.demo.schema.SchemaEnvelope;
+import com.example.demo.schema.VersionedJsonDeserializer;
+import com.example.demo.schema.VersionedJsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 스키마 봉투 기반 직렬화/역직렬화 테스트
+ *
+ * 🔍 테스트 목적:
+ * 1. 스키마 ID 봉투가 올바르게 기록/해석되는지 확인
+ * 2. 여러 스키마가 섞인 토픽을 하나의 Deserializer로 디코딩할 수 있는지 확인
+ * 3. 봉투 없는 기존 JSON 메시지와의 하위 호환성 확인
+ * 4. 파일 기반 레지스트리가 재시작 후에도 같은 ID를 유지하는지 확인
+ * 5. POJO 재사용 디코더가 배치 사이에 인스턴스를 재사용하고 이전 값을 남기지 않는지 확인
+ */
+class VersionedSerializationTest {
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+    private final LocalSchemaRegistry registry = LocalSchemaRegistry.inMemory(objectMapper);
+
+    private final UserEventRecordDto recordEvent = new UserEventRecordDto(
+            "schema-user", "LOGIN", LocalDateTime.of(2024, 1, 1, 12, 0, 0), Map.of("ip", "10.0.0.1"));
+    private final UserEventPojoDto pojoEvent = new UserEventPojoDto(
+            "schema-user", "LOGIN", LocalDateTime.of(2024, 1, 1, 12, 0, 0), Map.of("ip", "10.0.0.1"));
+
+    @Test
+    void testEnvelopeCarriesSchemaId() {
+        // Given
+        VersionedJsonSerializer<UserEventRecordDto> serializer = new VersionedJsonSerializer<>(registry, objectMapper);
+        SchemaDescriptor schema = registry.latestFor(UserEventRecordDto.class).orElseThrow();
+
+        // When
+        byte[] bytes = serializer.serialize("record-events", recordEvent);
+
+        // Then
+        assertTrue(SchemaEnvelope.hasEnvelope(bytes));
+        assertEquals(schema.id(), SchemaEnvelope.schemaId(bytes));
+        assertEquals('{', bytes[SchemaEnvelope.HEADER_SIZE]);
+
+        System.out.println("✅ 스키마 봉투 기록 성공: schemaId=" + schema.id());
+    }
+
+    @Test
+    void testMixedSchemasDecodeToOriginalTypes() {
+        // Given: 하나의 Deserializer가 Record/POJO 스키마 메시지를 모두 받는 상황
+        VersionedJsonSerializer<Object> serializer = new VersionedJsonSerializer<>(registry, objectMapper);
+        VersionedJsonDeserializer<Object> deserializer = new VersionedJsonDeserializer<>(
+                registry, objectMapper, Object.class, UserEventPojoDto.class);
+
+        // When
+        Object decodedRecord = deserializer.deserialize("events", serializer.serialize("events", recordEvent));
+        Object decodedPojo = deserializer.deserialize("events", serializer.serialize("events", pojoEvent));
+
+        // Then: 스키마 ID에 따라 원래 타입으로 복원
+        assertEquals(recordEvent, decodedRecord);
+        assertEquals(pojoEvent, decodedPojo);
+
+        System.out.println("✅ 혼합 스키마 디코딩 성공");
+    }
+
+    @Test
+    void testCrossDecodeIntoTargetType() {
+        // Given: POJO 스키마로 기록된 메시지를 Record 전용 Deserializer가 읽는 경우
+        VersionedJsonSerializer<UserEventPojoDto> serializer = new VersionedJsonSerializer<>(registry, objectMapper);
+        VersionedJsonDeserializer<UserEventRecordDto> deserializer = new VersionedJsonDeserializer<>(
+                registry, objectMapper, UserEventRecordDto.class);
+
+        // When
+        UserEventRecordDto decoded = deserializer.deserialize("events", serializer.serialize("events", pojoEvent));
+
+        // Then: 중간 POJO 객체 없이 Record로 바로 디코딩
+        assertEquals(recordEvent, decoded);
+
+        System.out.println("✅ 대상 타입으로 직접 디코딩 성공");
+    }
+
+    @Test
+    void testLegacyJsonWithoutEnvelope() {
+        // Given: 봉투 없이 기록된 기존 JSON 메시지
+        byte[] legacy = """
+                {"userId":"legacy-user","eventType":"LOGOUT","timestamp":"2024-01-01T15:30:00","metadata":{}}
+                """.getBytes(StandardCharsets.UTF_8);
+        VersionedJsonDeserializer<Object> deserializer = new VersionedJsonDeserializer<>(
+                registry, objectMapper, Object.class, UserEventPojoDto.class);
+
+        // When
+        Object decoded = deserializer.deserialize("events", legacy);
+
+        // Then: legacyType(POJO)으로 디코딩
+        UserEventPojoDto event = assertInstanceOf(UserEventPojoDto.class, decoded);
+        assertEquals("legacy-user", event.getUserId());
+
+        System.out.println("✅ 기존 JSON 메시지 하위 호환 성공");
+    }
+
+    @Test
+    void testUnknownSchemaIdIsRejected() {
+        // Given: 레지스트리에 없는 스키마 ID
+        byte[] bytes = {SchemaEnvelope.MAGIC_BYTE, 0, 0, 0x7F, 0x7F, '{', '}'};
+        VersionedJsonDeserializer<UserEventRecordDto> deserializer = new VersionedJsonDeserializer<>(
+                registry, objectMapper, UserEventRecordDto.class);
+
+        // When & Then
+        assertThrows(SerializationException.class, () -> deserializer.deserialize("events", bytes));
+
+        System.out.println("✅ 알 수 없는 스키마 ID 거부 성공");
+    }
+
+    @Test
+    void testFileBackedRegistryKeepsIds() throws Exception {
+        // Given: 파일 기반 레지스트리에 새 버전 등록
+        Path store = Files.createTempDirectory("schema-registry").resolve("schemas.json");
+        LocalSchemaRegistry first = new LocalSchemaRegistry(objectMapper, store.toString());
+        SchemaDescriptor v2 = first.register(LocalSchemaRegistry.RECORD_SUBJECT, EnrichedEvent.class);
+
+        // When: 같은 파일로 레지스트리 재생성 (재시작 시뮬레이션)
+        LocalSchemaRegistry restarted = new LocalSchemaRegistry(objectMapper, store.toString());
+
+        // Then: 같은 ID/버전이 유지됨 (버전 2 는 기본 등록되는 epoch 마이크로초 형식)
+        assertEquals(3, v2.version());
+        assertEquals(v2, restarted.findById(v2.id()).orElseThrow());
+        assertEquals(first.all(), restarted.all());
+
+        System.out.println("✅ 파일 기반 레지스트리 영속화 성공: " + restarted.all());
+    }
+
+    /**
+     * 스키마 진화를 흉내 내기 위한 v2 타입
+     */
+    public record EnrichedEvent(String userId, String eventType, String region) {
+    }
+
+    @Test
+    void testRecyclingDecoderReusesInstances() {
+        // Given: Record/POJO 스키마와 봉투 없는 메시지가 섞인 배치
+        VersionedJsonSerializer<Object> serializer = new VersionedJsonSerializer<>(registry, objectMapper);
+        RecyclingPojoDecoder decoder = new RecyclingPojoDecoder(registry, objectMapper);
+        List<byte[]> firstBatch = List.of(
+                serializer.serialize("pojo-events", pojoEvent),
+                serializer.serialize("pojo-events", recordEvent),
+                """
+                {"userId":"legacy-user","eventType":"LOGOUT","timestamp":"2024-01-01T13:00:00","metadata":{"a":1,"b":2}}
+                """.getBytes(StandardCharsets.UTF_8));
+        List<byte[]> secondBatch = List.of(
+                """
+                {"userId":"next-user","eventType":"PAGE_VIEW","timestamp":"2024-01-01T14:00:00","metadata":null}
+                """.getBytes(StandardCharsets.UTF_8));
+
+        // When
+        List<UserEventPojoDto> firstInstances = new ArrayList<>();
+        List<Map<String, Object>> firstMetadata = new ArrayList<>();
+        decoder.decodeBatch(firstBatch, events -> {
+            assertEquals(3, events.size());
+            assertEquals(pojoEvent, events.get(0));
+            assertEquals("schema-user", events.get(1).getUserId());
+            assertEquals(Map.of("a", 1, "b", 2), events.get(2).getMetadata());
+            firstInstances.addAll(events);
+            events.forEach(event -> firstMetadata.add(event.getMetadata()));
+        });
+
+        List<UserEventPojoDto> secondInstances = new ArrayList<>();
+        decoder.decodeBatch(secondBatch, events -> {
+            // 이전 배치의 metadata 가 남아 있지 않음
+            assertEquals("next-user", events.get(0).getUserId());
+            assertNull(events.get(0).getMetadata());
+            secondInstances.addAll(events);
+        });
+
+        // Then: 같은 인스턴스/같은 Map 재사용, 콜백이 끝나면 값은 초기화
+        assertSame(firstInstances.get(0), secondInstances.get(0));
+        assertSame(firstMetadata.get(0), firstInstances.get(0).getMetadata());
+        assertNull(firstInstances.get(0).getUserId());
+        assertTrue(firstInstances.get(0).getMetadata().isEmpty());
+        assertEquals(3, decoder.pooledInstances());
+
+        System.out.println("✅ POJO 재사용 디코딩 성공: pooled=" + decoder.pooledInstances());
+    }
+}